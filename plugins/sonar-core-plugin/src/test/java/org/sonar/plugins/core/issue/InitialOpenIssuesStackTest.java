@@ -31,6 +31,7 @@ import org.sonar.batch.bootstrap.BootstrapProperties;
 import org.sonar.batch.bootstrap.BootstrapSettings;
 import org.sonar.batch.bootstrap.TempFolderProvider;
 import org.sonar.batch.index.Caches;
+import org.sonar.batch.profiling.BatchMetrics;
 import org.sonar.core.issue.db.IssueDto;
 
 import java.io.IOException;
@@ -50,7 +51,7 @@ public class InitialOpenIssuesStackTest {
     } catch (IOException e) {
       throw new RuntimeException(e);
     }
-    return new Caches(new TempFolderProvider().provide(bootstrapSettings));
+    return new Caches(new TempFolderProvider().provide(bootstrapSettings), new BatchMetrics());
   }
 
   InitialOpenIssuesStack stack;
@@ -27,6 +27,8 @@ import org.sonar.api.config.PropertyDefinition;
 import org.sonar.api.resources.Qualifiers;
 import org.sonar.plugins.cpd.decorators.DuplicationDensityDecorator;
 import org.sonar.plugins.cpd.decorators.SumDuplicationsDecorator;
+import org.sonar.plugins.cpd.index.BlockCache;
+import org.sonar.plugins.cpd.index.CloneCache;
 import org.sonar.plugins.cpd.index.IndexFactory;
 
 import java.util.List;
@@ -53,6 +55,16 @@ public final class CpdPlugin extends SonarPlugin {
         .subCategory(CoreProperties.SUBCATEGORY_DUPLICATIONS)
         .type(PropertyType.BOOLEAN)
         .build(),
+      PropertyDefinition.builder(SonarEngine.INCREMENTAL_PROPERTY)
+        .defaultValue("false")
+        .name("Incremental detection")
+        .description("Reuse the duplications detected by the previous analysis for the files which are not impacted by the changes. " +
+          "Not supported by cross project duplication detection.")
+        .hidden()
+        .category(CoreProperties.CATEGORY_GENERAL)
+        .subCategory(CoreProperties.SUBCATEGORY_DUPLICATIONS)
+        .type(PropertyType.BOOLEAN)
+        .build(),
       PropertyDefinition.builder(CoreProperties.CPD_EXCLUSIONS)
         .defaultValue("")
         .name("Duplication Exclusions")
@@ -68,6 +80,8 @@ public final class CpdPlugin extends SonarPlugin {
       SumDuplicationsDecorator.class,
       DuplicationDensityDecorator.class,
       IndexFactory.class,
+      BlockCache.class,
+      CloneCache.class,
       SonarEngine.class,
       SonarBridgeEngine.class);
   }
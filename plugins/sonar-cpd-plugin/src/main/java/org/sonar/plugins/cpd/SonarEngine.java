@@ -20,7 +20,13 @@
 
 package org.sonar.plugins.cpd;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.Iterables;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import com.google.common.io.Files;
+import com.google.common.primitives.Longs;
+import org.apache.commons.codec.digest.DigestUtils;
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang.StringEscapeUtils;
 import org.slf4j.Logger;
@@ -48,16 +54,22 @@ import org.sonar.duplications.java.JavaTokenProducer;
 import org.sonar.duplications.statement.Statement;
 import org.sonar.duplications.statement.StatementChunker;
 import org.sonar.duplications.token.TokenChunker;
+import org.sonar.plugins.cpd.index.BlockCache;
+import org.sonar.plugins.cpd.index.CloneCache;
 import org.sonar.plugins.cpd.index.IndexFactory;
 import org.sonar.plugins.cpd.index.SonarDuplicationsIndex;
 
+import javax.annotation.CheckForNull;
 import javax.annotation.Nullable;
 
 import java.io.File;
-import java.io.*;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.*;
 
@@ -65,6 +77,14 @@ public class SonarEngine extends CpdEngine {
 
   private static final Logger LOG = LoggerFactory.getLogger(SonarEngine.class);
 
+  /**
+   * When enabled, the duplications detected by the previous analysis are reused for the files which are not impacted
+   * by the changes. Not supported by cross-project detection, as other projects can change between two analyses.
+   *
+   * @since 4.1
+   */
+  public static final String INCREMENTAL_PROPERTY = "sonar.cpd.incremental";
+
   private static final int BLOCK_SIZE = 10;
 
   /**
@@ -76,12 +96,17 @@ public class SonarEngine extends CpdEngine {
   private final ModuleFileSystem fileSystem;
   private final PathResolver pathResolver;
   private final Settings settings;
+  private final BlockCache blockCache;
+  private final CloneCache cloneCache;
 
-  public SonarEngine(IndexFactory indexFactory, ModuleFileSystem moduleFileSystem, PathResolver pathResolver, Settings settings) {
+  public SonarEngine(IndexFactory indexFactory, ModuleFileSystem moduleFileSystem, PathResolver pathResolver, Settings settings,
+    BlockCache blockCache, CloneCache cloneCache) {
     this.indexFactory = indexFactory;
     this.fileSystem = moduleFileSystem;
     this.pathResolver = pathResolver;
     this.settings = settings;
+    this.blockCache = blockCache;
+    this.cloneCache = cloneCache;
   }
 
   @Override
@@ -105,71 +130,186 @@ public class SonarEngine extends CpdEngine {
     if (sourceFiles.isEmpty()) {
       return;
     }
-    SonarDuplicationsIndex index = createIndex(project, sourceFiles);
-    detect(index, context, project, sourceFiles);
+    SonarDuplicationsIndex index = indexFactory.create(project);
+    Map<String, String> contentKeys = populateIndex(index, project, sourceFiles);
+    detect(index, context, project, sourceFiles, contentKeys);
   }
 
-  private SonarDuplicationsIndex createIndex(Project project, List<File> sourceFiles) {
-    final SonarDuplicationsIndex index = indexFactory.create(project);
+  /**
+   * @return the keys of the contents of the files, by resource key
+   */
+  private Map<String, String> populateIndex(SonarDuplicationsIndex index, Project project, List<File> sourceFiles) {
+    Map<String, String> contentKeys = Maps.newHashMap();
 
     TokenChunker tokenChunker = JavaTokenProducer.build();
     StatementChunker statementChunker = JavaStatementBuilder.build();
     BlockChunker blockChunker = new BlockChunker(BLOCK_SIZE);
+    Charset charset = fileSystem.sourceCharset();
 
     for (File file : sourceFiles) {
       LOG.debug("Populating index from {}", file);
       Resource resource = getResource(file);
       String resourceKey = getFullKey(project, resource);
 
-      List<Statement> statements;
-
-      Reader reader = null;
+      byte[] content;
       try {
-        reader = new InputStreamReader(new FileInputStream(file), fileSystem.sourceCharset());
-        statements = statementChunker.chunk(tokenChunker.chunk(reader));
-      } catch (FileNotFoundException e) {
-        throw new SonarException("Cannot find file "+ file, e);
-      } finally {
-        IOUtils.closeQuietly(reader);
+        content = Files.toByteArray(file);
+      } catch (IOException e) {
+        throw new SonarException("Cannot read file " + file, e);
       }
 
-      List<Block> blocks = blockChunker.chunk(resourceKey, statements);
+      // blocks depend only on the content of the file, so unchanged files are not tokenized again
+      String cacheKey = cacheKey(content, charset);
+      List<Block> blocks = blockCache.get(cacheKey, resourceKey);
+      if (blocks == null) {
+        List<Statement> statements = statementChunker.chunk(tokenChunker.chunk(content, charset));
+        blocks = blockChunker.chunk(resourceKey, statements);
+        blockCache.put(cacheKey, blocks);
+      }
       index.insert(resource, blocks);
+      contentKeys.put(resourceKey, cacheKey);
     }
 
-    return index;
+    return contentKeys;
+  }
+
+  static String cacheKey(byte[] content, Charset charset) {
+    return DigestUtils.md5Hex(content) + "-" + charset.name().toLowerCase() + "-" + BLOCK_SIZE;
   }
 
-  private void detect(SonarDuplicationsIndex index, SensorContext context, Project project, List<File> sourceFiles) {
+  private void detect(SonarDuplicationsIndex index, SensorContext context, Project project, List<File> sourceFiles,
+    Map<String, String> contentKeys) {
+    boolean incremental = settings.getBoolean(INCREMENTAL_PROPERTY) && !index.isCrossProject();
+    Map<String, CloneCache.Entry> previousEntries = incremental ? cloneCache.get(project.getKey()) : null;
+    long[] changedHashes = previousEntries != null ? changedHashes(index, project, sourceFiles, contentKeys, previousEntries) : null;
+    Map<String, CloneCache.Entry> entries = Maps.newHashMap();
+    int reused = 0;
+
     ExecutorService executorService = Executors.newSingleThreadExecutor();
     try {
       for (File file : sourceFiles) {
-        LOG.debug("Detection of duplications for {}", file);
         Resource resource = getResource(file);
         String resourceKey = getFullKey(project, resource);
+        String contentKey = contentKeys.get(resourceKey);
 
         Collection<Block> fileBlocks = index.getByResource(resource, resourceKey);
 
         List<CloneGroup> clones;
-        try {
-          clones = executorService.submit(new Task(index, fileBlocks)).get(TIMEOUT, TimeUnit.SECONDS);
-        } catch (TimeoutException e) {
-          clones = null;
-          LOG.warn("Timeout during detection of duplications for " + file, e);
-        } catch (InterruptedException e) {
-          throw new SonarException("Fail during detection of duplication for "+ file, e);
-        } catch (ExecutionException e) {
-          throw new SonarException("Fail during detection of duplication for "+ file, e);
+        CloneCache.Entry previousEntry = previousEntries != null ? previousEntries.get(resourceKey) : null;
+        if (changedHashes != null && canReuse(previousEntry, contentKey, fileBlocks, changedHashes)) {
+          LOG.debug("Reuse duplications of {}", file);
+          clones = previousEntry.getClones();
+          reused++;
+        } else {
+          LOG.debug("Detection of duplications for {}", file);
+          clones = detect(executorService, index, fileBlocks, file);
         }
 
         save(context, resource, clones);
+        entries.put(resourceKey, new CloneCache.Entry(contentKey, clones));
       }
     } finally {
       executorService.shutdown();
     }
+
+    if (incremental) {
+      LOG.info("Duplications of {} files out of {} are reused from the previous analysis", reused, sourceFiles.size());
+      cloneCache.put(project.getKey(), entries);
+    }
+  }
+
+  @VisibleForTesting
+  List<CloneGroup> detect(ExecutorService executorService, SonarDuplicationsIndex index, Collection<Block> fileBlocks, File file) {
+    try {
+      return executorService.submit(new Task(index, fileBlocks)).get(TIMEOUT, TimeUnit.SECONDS);
+    } catch (TimeoutException e) {
+      LOG.warn("Timeout during detection of duplications for " + file, e);
+      return null;
+    } catch (InterruptedException e) {
+      throw new SonarException("Fail during detection of duplication for "+ file, e);
+    } catch (ExecutionException e) {
+      throw new SonarException("Fail during detection of duplication for "+ file, e);
+    }
+  }
+
+  /**
+   * Duplications of a file can only change if the file itself changed, or if one of its blocks has the same hash as
+   * a block added or removed by the changes in other files. Chunkers produce hashes of 8 bytes, files with other
+   * hashes are never reused.
+   */
+  private static boolean canReuse(@Nullable CloneCache.Entry previousEntry, String contentKey, Collection<Block> fileBlocks,
+    long[] changedHashes) {
+    if (previousEntry == null || previousEntry.getClones() == null || !previousEntry.getContentKey().equals(contentKey)) {
+      return false;
+    }
+    for (Block block : fileBlocks) {
+      if (!block.hasLongHash() || Arrays.binarySearch(changedHashes, block.getLongHash()) >= 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Hashes of the blocks of the files which were added, changed or removed since the previous analysis, in their
+   * current and previous versions. Returns null if the previous version of one of these files is no longer in cache,
+   * in which case detection is done on all the files. Hashes are sorted.
+   */
+  @CheckForNull
+  private long[] changedHashes(SonarDuplicationsIndex index, Project project, List<File> sourceFiles, Map<String, String> contentKeys,
+    Map<String, CloneCache.Entry> previousEntries) {
+    Set<Long> hashes = Sets.newHashSet();
+    for (File file : sourceFiles) {
+      Resource resource = getResource(file);
+      String resourceKey = getFullKey(project, resource);
+      CloneCache.Entry previousEntry = previousEntries.get(resourceKey);
+      if (previousEntry == null || !previousEntry.getContentKey().equals(contentKeys.get(resourceKey))) {
+        addHashes(index.getByResource(resource, resourceKey), hashes);
+        if (previousEntry != null && !addPreviousHashes(previousEntry, resourceKey, hashes)) {
+          return null;
+        }
+      }
+    }
+    for (Map.Entry<String, CloneCache.Entry> previousEntry : previousEntries.entrySet()) {
+      if (!contentKeys.containsKey(previousEntry.getKey()) && !addPreviousHashes(previousEntry.getValue(), previousEntry.getKey(), hashes)) {
+        return null;
+      }
+    }
+    long[] sortedHashes = Longs.toArray(hashes);
+    Arrays.sort(sortedHashes);
+    return sortedHashes;
+  }
+
+  private boolean addPreviousHashes(CloneCache.Entry previousEntry, String resourceKey, Set<Long> hashes) {
+    List<Block> previousBlocks = blockCache.get(previousEntry.getContentKey(), resourceKey);
+    if (previousBlocks == null) {
+      return false;
+    }
+    addHashes(previousBlocks, hashes);
+    return true;
+  }
+
+  private static void addHashes(Collection<Block> blocks, Set<Long> hashes) {
+    for (Block block : blocks) {
+      if (block.hasLongHash()) {
+        hashes.add(block.getLongHash());
+      }
+    }
   }
 
   static class Task implements Callable<List<CloneGroup>> {
+    /**
+     * Detection reuses the buffers of its algorithm, so each thread of an executor gets its own instance,
+     * which is released along with the thread. A task that exceeds the timeout may still be running
+     * when the executor of the next module starts.
+     */
+    private static final ThreadLocal<SuffixTreeCloneDetectionAlgorithm> ALGORITHM = new ThreadLocal<SuffixTreeCloneDetectionAlgorithm>() {
+      @Override
+      protected SuffixTreeCloneDetectionAlgorithm initialValue() {
+        return new SuffixTreeCloneDetectionAlgorithm();
+      }
+    };
+
     private final CloneIndex index;
     private final Collection<Block> fileBlocks;
 
@@ -179,7 +319,7 @@ public class SonarEngine extends CpdEngine {
     }
 
     public List<CloneGroup> call() {
-      return SuffixTreeCloneDetectionAlgorithm.detect(index, fileBlocks);
+      return ALGORITHM.get().detectClones(index, fileBlocks);
     }
   }
 
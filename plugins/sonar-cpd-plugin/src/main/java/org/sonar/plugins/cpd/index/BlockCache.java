@@ -0,0 +1,196 @@
+/*
+ * SonarQube, open source software quality management tool.
+ * Copyright (C) 2008-2013 SonarSource
+ * mailto:contact AT sonarsource DOT com
+ *
+ * SonarQube is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * SonarQube is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.plugins.cpd.index;
+
+import com.google.common.collect.Lists;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.sonar.api.BatchExtension;
+import org.sonar.duplications.block.Block;
+import org.sonar.duplications.block.ByteArray;
+import org.sonar.home.cache.FileCache;
+
+import javax.annotation.CheckForNull;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Keeps in the user cache the blocks computed for each source file, so that unchanged files are not tokenized again
+ * by next analyses. Entries are identified by a key computed from the content of the file, and blocks are stored
+ * without resource : they are rebuilt with the resource being analysed.
+ * <p/>
+ * {@link #FORMAT_VERSION} must be incremented when the tokenizer or the block chunker changes. The entries of
+ * the other versions are deleted on startup, as well as the entries that have not been used for
+ * {@value #MAX_AGE_IN_DAYS} days, so that the cache does not grow without bound on machines analysing many projects
+ * and branches.
+ *
+ * @since 4.1
+ */
+public class BlockCache implements BatchExtension {
+
+  private static final Logger LOG = LoggerFactory.getLogger(BlockCache.class);
+
+  static final String DIR = "_cpd";
+  static final int FORMAT_VERSION = 4;
+  private static final int MAGIC = 0x43504400 + FORMAT_VERSION;
+  static final int MAX_AGE_IN_DAYS = 30;
+  private static final long ONE_DAY_IN_MS = 24L * 60 * 60 * 1000;
+  private static final String LAST_CLEANING = "last-cleaning";
+
+  private final File dir;
+
+  public BlockCache(FileCache fileCache) {
+    this.dir = new File(new File(fileCache.getDir(), DIR), "v" + FORMAT_VERSION);
+  }
+
+  public void start() {
+    clean(System.currentTimeMillis());
+  }
+
+  /**
+   * Entries of the other format versions are always deleted. Unused entries, including the entries of {@link CloneCache},
+   * are searched at most once a day as the cache can contain many files.
+   */
+  void clean(long now) {
+    File[] versionDirs = dir.getParentFile().listFiles();
+    if (versionDirs != null) {
+      for (File versionDir : versionDirs) {
+        if (!versionDir.equals(dir)) {
+          FileUtils.deleteQuietly(versionDir);
+        }
+      }
+    }
+    File lastCleaning = new File(dir, LAST_CLEANING);
+    if (!dir.isDirectory() || (lastCleaning.exists() && now - lastCleaning.lastModified() < ONE_DAY_IN_MS)) {
+      return;
+    }
+    long oldest = now - MAX_AGE_IN_DAYS * ONE_DAY_IN_MS;
+    for (File file : FileUtils.listFiles(dir, null, true)) {
+      if (file.lastModified() < oldest) {
+        FileUtils.deleteQuietly(file);
+      }
+    }
+    try {
+      FileUtils.touch(lastCleaning);
+    } catch (IOException e) {
+      LOG.debug("Fail to write cache file: " + lastCleaning, e);
+    }
+  }
+
+  /**
+   * Returns null if the blocks are not in cache or can't be read.
+   */
+  @CheckForNull
+  public List<Block> get(String key, String resourceId) {
+    File file = entry(key);
+    if (!file.isFile()) {
+      return null;
+    }
+    DataInputStream input = null;
+    try {
+      input = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+      if (input.readInt() != MAGIC) {
+        return null;
+      }
+      int count = input.readInt();
+      List<Block> blocks = Lists.newArrayList();
+      Block.Builder builder = Block.builder().setResourceId(resourceId);
+      for (int i = 0; i < count; i++) {
+        if (input.readBoolean()) {
+          builder.setBlockHash(input.readLong());
+        } else {
+          builder.setBlockHash(new ByteArray(input.readUTF()));
+        }
+        blocks.add(builder
+          .setIndexInFile(input.readInt())
+          .setLines(input.readInt(), input.readInt())
+          .setUnit(input.readInt(), input.readInt())
+          .build());
+      }
+      markAsUsed(file);
+      return blocks;
+    } catch (IOException e) {
+      LOG.debug("Fail to read cache file: " + file, e);
+      return null;
+    } finally {
+      IOUtils.closeQuietly(input);
+    }
+  }
+
+  /**
+   * Blocks are written in a temporary file which is then renamed, so that concurrent analyses never read
+   * a partial entry. Failures are ignored, the blocks being computed again by next analysis.
+   */
+  public void put(String key, List<Block> blocks) {
+    File file = entry(key);
+    File tempFile = new File(file.getParentFile(), file.getName() + "." + System.nanoTime() + ".tmp");
+    DataOutputStream output = null;
+    try {
+      FileUtils.forceMkdir(file.getParentFile());
+      output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)));
+      output.writeInt(MAGIC);
+      output.writeInt(blocks.size());
+      for (Block block : blocks) {
+        output.writeBoolean(block.hasLongHash());
+        if (block.hasLongHash()) {
+          output.writeLong(block.getLongHash());
+        } else {
+          output.writeUTF(block.getHashHex());
+        }
+        output.writeInt(block.getIndexInFile());
+        output.writeInt(block.getStartLine());
+        output.writeInt(block.getEndLine());
+        output.writeInt(block.getStartUnit());
+        output.writeInt(block.getEndUnit());
+      }
+      output.close();
+      if (!tempFile.renameTo(file)) {
+        FileUtils.deleteQuietly(tempFile);
+      }
+    } catch (IOException e) {
+      LOG.debug("Fail to write cache file: " + file, e);
+      IOUtils.closeQuietly(output);
+      FileUtils.deleteQuietly(tempFile);
+    }
+  }
+
+  /**
+   * The date of last modification is the date of last use, so that entries that are still read are not deleted
+   */
+  static void markAsUsed(File file) {
+    if (!file.setLastModified(System.currentTimeMillis())) {
+      LOG.debug("Fail to update the date of cache file: " + file);
+    }
+  }
+
+  private File entry(String key) {
+    return new File(new File(dir, key.substring(0, 2)), key);
+  }
+}
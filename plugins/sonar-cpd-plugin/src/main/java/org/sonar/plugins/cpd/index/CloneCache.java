@@ -0,0 +1,213 @@
+/*
+ * SonarQube, open source software quality management tool.
+ * Copyright (C) 2008-2013 SonarSource
+ * mailto:contact AT sonarsource DOT com
+ *
+ * SonarQube is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * SonarQube is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.plugins.cpd.index;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.sonar.api.BatchExtension;
+import org.sonar.duplications.index.CloneGroup;
+import org.sonar.duplications.index.ClonePart;
+import org.sonar.home.cache.FileCache;
+
+import javax.annotation.CheckForNull;
+import javax.annotation.Nullable;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps in the user cache the duplications detected by the last analysis of each module, with the key of the
+ * content of each file (see {@link BlockCache}), so that they can be reused for the files which are not impacted
+ * by the changes. Entries are stored with the blocks of the same {@link BlockCache#FORMAT_VERSION}, and are deleted
+ * with them when unused.
+ *
+ * @since 4.1
+ */
+public class CloneCache implements BatchExtension {
+
+  private static final Logger LOG = LoggerFactory.getLogger(CloneCache.class);
+
+  static final String DIR = "modules";
+  private static final int MAGIC = 0x43504443;
+  private static final int TIMEOUT = -1;
+
+  private final File dir;
+
+  public CloneCache(FileCache fileCache) {
+    this.dir = new File(new File(new File(fileCache.getDir(), BlockCache.DIR), "v" + BlockCache.FORMAT_VERSION), DIR);
+  }
+
+  public static class Entry {
+    private final String contentKey;
+    private final List<CloneGroup> clones;
+
+    /**
+     * @param clones null if detection did not complete for this file
+     */
+    public Entry(String contentKey, @Nullable List<CloneGroup> clones) {
+      this.contentKey = contentKey;
+      this.clones = clones;
+    }
+
+    public String getContentKey() {
+      return contentKey;
+    }
+
+    @CheckForNull
+    public List<CloneGroup> getClones() {
+      return clones;
+    }
+  }
+
+  /**
+   * Returns the entries saved by the last analysis of the module, by resource key, or null if they are not in cache
+   * or can't be read.
+   */
+  @CheckForNull
+  public Map<String, Entry> get(String moduleKey) {
+    File file = entry(moduleKey);
+    if (!file.isFile()) {
+      return null;
+    }
+    DataInputStream input = null;
+    try {
+      input = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+      if (input.readInt() != MAGIC || !moduleKey.equals(input.readUTF())) {
+        return null;
+      }
+      int count = input.readInt();
+      Map<String, Entry> entries = Maps.newHashMap();
+      for (int i = 0; i < count; i++) {
+        String resourceKey = input.readUTF();
+        String contentKey = input.readUTF();
+        entries.put(resourceKey, new Entry(contentKey, readClones(input)));
+      }
+      BlockCache.markAsUsed(file);
+      return entries;
+    } catch (IOException e) {
+      LOG.debug("Fail to read cache file: " + file, e);
+      return null;
+    } finally {
+      IOUtils.closeQuietly(input);
+    }
+  }
+
+  /**
+   * Same as {@link BlockCache#put(String, List)}, entries are written in a temporary file which is then renamed,
+   * and failures are ignored.
+   */
+  public void put(String moduleKey, Map<String, Entry> entries) {
+    File file = entry(moduleKey);
+    File tempFile = new File(file.getParentFile(), file.getName() + "." + System.nanoTime() + ".tmp");
+    DataOutputStream output = null;
+    try {
+      FileUtils.forceMkdir(file.getParentFile());
+      output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)));
+      output.writeInt(MAGIC);
+      output.writeUTF(moduleKey);
+      output.writeInt(entries.size());
+      for (Map.Entry<String, Entry> entry : entries.entrySet()) {
+        output.writeUTF(entry.getKey());
+        output.writeUTF(entry.getValue().getContentKey());
+        writeClones(output, entry.getValue().getClones());
+      }
+      output.close();
+      // renameTo does not replace the previous entry on all platforms
+      FileUtils.deleteQuietly(file);
+      if (!tempFile.renameTo(file)) {
+        FileUtils.deleteQuietly(tempFile);
+      }
+    } catch (IOException e) {
+      LOG.debug("Fail to write cache file: " + file, e);
+      IOUtils.closeQuietly(output);
+      FileUtils.deleteQuietly(tempFile);
+    }
+  }
+
+  private static List<CloneGroup> readClones(DataInputStream input) throws IOException {
+    int count = input.readInt();
+    if (count == TIMEOUT) {
+      return null;
+    }
+    List<CloneGroup> clones = Lists.newArrayList();
+    for (int i = 0; i < count; i++) {
+      int length = input.readInt();
+      int lengthInUnits = input.readInt();
+      ClonePart origin = readPart(input);
+      int partsCount = input.readInt();
+      List<ClonePart> parts = Lists.newArrayList();
+      for (int j = 0; j < partsCount; j++) {
+        parts.add(readPart(input));
+      }
+      clones.add(CloneGroup.builder()
+        .setLength(length)
+        .setLengthInUnits(lengthInUnits)
+        .setOrigin(origin)
+        .setParts(parts)
+        .build());
+    }
+    return clones;
+  }
+
+  private static ClonePart readPart(DataInputStream input) throws IOException {
+    return new ClonePart(input.readUTF(), input.readInt(), input.readInt(), input.readInt());
+  }
+
+  private static void writeClones(DataOutputStream output, @Nullable List<CloneGroup> clones) throws IOException {
+    if (clones == null) {
+      output.writeInt(TIMEOUT);
+      return;
+    }
+    output.writeInt(clones.size());
+    for (CloneGroup clone : clones) {
+      output.writeInt(clone.getCloneUnitLength());
+      output.writeInt(clone.getLengthInUnits());
+      writePart(output, clone.getOriginPart());
+      output.writeInt(clone.getCloneParts().size());
+      for (ClonePart part : clone.getCloneParts()) {
+        writePart(output, part);
+      }
+    }
+  }
+
+  private static void writePart(DataOutputStream output, ClonePart part) throws IOException {
+    output.writeUTF(part.getResourceId());
+    output.writeInt(part.getUnitStart());
+    output.writeInt(part.getStartLine());
+    output.writeInt(part.getEndLine());
+  }
+
+  private File entry(String moduleKey) {
+    return new File(dir, DigestUtils.md5Hex(moduleKey));
+  }
+}
@@ -21,6 +21,7 @@ package org.sonar.plugins.cpd.index;
 
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import com.google.common.primitives.UnsignedLongs;
 import org.sonar.api.database.model.Snapshot;
 import org.sonar.api.resources.Project;
 import org.sonar.api.resources.Resource;
@@ -37,7 +38,12 @@ import java.util.Map;
 
 public class DbDuplicationsIndex {
 
-  private final Map<ByteArray, Collection<Block>> cache = Maps.newHashMap();
+  /**
+   * Hashes are persisted in hexadecimal, those of 8 bytes are cached by {@link Long}, others by {@link ByteArray}.
+   */
+  private final Map<Object, Collection<Block>> cache = Maps.newHashMap();
+
+  private static final int LONG_HASH_HEX_LENGTH = 16;
 
   private final ResourcePersister resourcePersister;
   private final int currentProjectSnapshotId;
@@ -73,25 +79,47 @@ public class DbDuplicationsIndex {
       int endLine = unit.getEndLine();
 
       // TODO Godin: in fact we could work directly with id instead of key - this will allow to decrease memory consumption
-      Block block = Block.builder()
+      Block.Builder builder = Block.builder();
+      Object key;
+      if (hash.length() == LONG_HASH_HEX_LENGTH) {
+        long longHash = UnsignedLongs.parseUnsignedLong(hash, 16);
+        builder.setBlockHash(longHash);
+        key = longHash;
+      } else {
+        ByteArray byteArray = new ByteArray(hash);
+        builder.setBlockHash(byteArray);
+        key = byteArray;
+      }
+      Block block = builder
           .setResourceId(resourceKey)
-          .setBlockHash(new ByteArray(hash))
           .setIndexInFile(indexInFile)
           .setLines(startLine, endLine)
           .build();
 
       // Group blocks by hash
-      Collection<Block> sameHash = cache.get(block.getBlockHash());
+      Collection<Block> sameHash = cache.get(key);
       if (sameHash == null) {
         sameHash = Lists.newArrayList();
-        cache.put(block.getBlockHash(), sameHash);
+        cache.put(key, sameHash);
       }
       sameHash.add(block);
     }
   }
 
   public Collection<Block> getByHash(ByteArray hash) {
-    Collection<Block> result = cache.get(hash);
+    String hex = hash.toHexString();
+    return get(hex.length() == LONG_HASH_HEX_LENGTH ? UnsignedLongs.parseUnsignedLong(hex, 16) : hash);
+  }
+
+  /**
+   * @since 4.1
+   */
+  public Collection<Block> getByHash(long hash) {
+    return get(hash);
+  }
+
+  private Collection<Block> get(Object key) {
+    Collection<Block> result = cache.get(key);
     if (result != null) {
       return result;
     } else {
@@ -108,7 +136,7 @@ public class DbDuplicationsIndex {
       DuplicationUnitDto unit = new DuplicationUnitDto(
           currentProjectSnapshotId,
           resourceSnapshotId,
-          block.getBlockHash().toString(),
+          block.getHashHex(),
           block.getIndexInFile(),
           block.getStartLine(),
           block.getEndLine());
@@ -24,7 +24,6 @@ import org.sonar.api.resources.Resource;
 import org.sonar.duplications.block.Block;
 import org.sonar.duplications.block.ByteArray;
 import org.sonar.duplications.index.AbstractCloneIndex;
-import org.sonar.duplications.index.CloneIndex;
 import org.sonar.duplications.index.PackedMemoryCloneIndex;
 
 import java.util.Collection;
@@ -32,7 +31,7 @@ import java.util.List;
 
 public class SonarDuplicationsIndex extends AbstractCloneIndex {
 
-  private final CloneIndex mem = new PackedMemoryCloneIndex();
+  private final PackedMemoryCloneIndex mem = new PackedMemoryCloneIndex();
   private final DbDuplicationsIndex db;
 
   public SonarDuplicationsIndex() {
@@ -43,6 +42,13 @@ public class SonarDuplicationsIndex extends AbstractCloneIndex {
     this.db = db;
   }
 
+  /**
+   * @since 4.1
+   */
+  public boolean isCrossProject() {
+    return db != null;
+  }
+
   public void insert(Resource resource, Collection<Block> blocks) {
     for (Block block : blocks) {
       mem.insert(block);
@@ -69,6 +75,17 @@ public class SonarDuplicationsIndex extends AbstractCloneIndex {
     }
   }
 
+  @Override
+  public Collection<Block> getBySequenceHash(long hash) {
+    if (db == null) {
+      return mem.getBySequenceHash(hash);
+    } else {
+      List<Block> result = Lists.newArrayList(mem.getBySequenceHash(hash));
+      result.addAll(db.getByHash(hash));
+      return result;
+    }
+  }
+
   public Collection<Block> getByResourceId(String resourceId) {
     throw new UnsupportedOperationException();
   }
@@ -19,36 +19,59 @@
  */
 package org.sonar.plugins.cpd;
 
+import com.google.common.base.Charsets;
+import org.apache.commons.configuration.PropertiesConfiguration;
+import org.apache.commons.io.FileUtils;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.ArgumentCaptor;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
 import org.sonar.api.batch.SensorContext;
+import org.sonar.api.config.Settings;
 import org.sonar.api.measures.CoreMetrics;
 import org.sonar.api.resources.File;
 import org.sonar.api.resources.JavaFile;
+import org.sonar.api.resources.Project;
 import org.sonar.api.resources.Resource;
+import org.sonar.api.scan.filesystem.FileQuery;
 import org.sonar.api.scan.filesystem.ModuleFileSystem;
 import org.sonar.api.scan.filesystem.PathResolver;
 import org.sonar.api.scan.filesystem.PathResolver.RelativePath;
 import org.sonar.api.test.IsMeasure;
 import org.sonar.duplications.index.CloneGroup;
 import org.sonar.duplications.index.ClonePart;
+import org.sonar.home.cache.FileCache;
+import org.sonar.plugins.cpd.index.BlockCache;
+import org.sonar.plugins.cpd.index.CloneCache;
+import org.sonar.plugins.cpd.index.IndexFactory;
+import org.sonar.plugins.cpd.index.SonarDuplicationsIndex;
 
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
 
 import static org.fest.assertions.Assertions.assertThat;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyCollection;
 import static org.mockito.Matchers.argThat;
 import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.atLeast;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyZeroInteractions;
 import static org.mockito.Mockito.when;
 
 public class SonarEngineTest {
 
+  @Rule
+  public TemporaryFolder temp = new TemporaryFolder();
+
   private SensorContext context;
   private Resource resource;
 
@@ -66,7 +89,7 @@ public class SonarEngineTest {
     RelativePath relativePath = new RelativePath(null, "com/foo/Bar.java");
     when(pathResolver.relativePath(anyCollection(), any(java.io.File.class))).thenReturn(relativePath);
 
-    SonarEngine engine = new SonarEngine(null, fileSystem, pathResolver, null);
+    SonarEngine engine = new SonarEngine(null, fileSystem, pathResolver, null, null, null);
     Resource resource = engine.getResource(new java.io.File(""));
 
     assertThat(resource.getKey()).isEqualTo("com.foo.Bar");
@@ -171,6 +194,99 @@ public class SonarEngineTest {
           + "</g></duplications>")));
   }
 
+  @Test
+  public void cache_key_should_depend_on_content_and_charset() {
+    String key = SonarEngine.cacheKey("class Foo {}".getBytes(), Charsets.UTF_8);
+
+    assertThat(SonarEngine.cacheKey("class Foo {}".getBytes(), Charsets.UTF_8)).isEqualTo(key);
+    assertThat(SonarEngine.cacheKey("class Bar {}".getBytes(), Charsets.UTF_8)).isNotEqualTo(key);
+    assertThat(SonarEngine.cacheKey("class Foo {}".getBytes(), Charsets.ISO_8859_1)).isNotEqualTo(key);
+  }
+
+  @Test
+  public void should_detect_duplications_only_for_files_impacted_by_changes() throws Exception {
+    java.io.File sourceDir = temp.newFolder();
+    java.io.File a = writeClass(sourceDir, "A", "int a", 15);
+    java.io.File b = writeClass(sourceDir, "B", "int a", 15);
+    java.io.File c = writeClass(sourceDir, "C", "long c", 15);
+    ModuleFileSystem fileSystem = mock(ModuleFileSystem.class);
+    when(fileSystem.files(any(FileQuery.class))).thenReturn(Arrays.asList(a, b, c));
+    when(fileSystem.sourceDirs()).thenReturn(Arrays.asList(sourceDir));
+    when(fileSystem.sourceCharset()).thenReturn(Charsets.UTF_8);
+    FileCache fileCache = mock(FileCache.class);
+    when(fileCache.getDir()).thenReturn(temp.newFolder());
+    Settings settings = new Settings().setProperty(SonarEngine.INCREMENTAL_PROPERTY, true);
+
+    SonarEngine first = analyse(fileSystem, fileCache, settings);
+    verifyDetection(first, 1, a, b, c);
+    List<Double> duplicatedLines = duplicatedLines();
+    assertThat(duplicatedLines).hasSize(2);
+
+    // unchanged files are not detected again
+    SonarEngine second = analyse(fileSystem, fileCache, settings);
+    verifyDetection(second, 0, a, b, c);
+    assertThat(duplicatedLines()).isEqualTo(duplicatedLines);
+
+    // C shares no block with A and B
+    writeClass(sourceDir, "C", "long c", 16);
+    SonarEngine third = analyse(fileSystem, fileCache, settings);
+    verifyDetection(third, 1, c);
+    verifyDetection(third, 0, a, b);
+    assertThat(duplicatedLines()).isEqualTo(duplicatedLines);
+
+    // B has blocks in common with the previous version of A
+    writeClass(sourceDir, "A", "int a", 14);
+    SonarEngine fourth = analyse(fileSystem, fileCache, settings);
+    verifyDetection(fourth, 1, a, b);
+    verifyDetection(fourth, 0, c);
+    duplicatedLines = duplicatedLines();
+    assertThat(duplicatedLines).hasSize(2);
+
+    settings.setProperty(SonarEngine.INCREMENTAL_PROPERTY, false);
+    SonarEngine notIncremental = analyse(fileSystem, fileCache, settings);
+    verifyDetection(notIncremental, 1, a, b, c);
+    assertThat(duplicatedLines()).isEqualTo(duplicatedLines);
+  }
+
+  private List<Double> duplicatedLines() {
+    ArgumentCaptor<Double> captor = ArgumentCaptor.forClass(Double.class);
+    verify(context, atLeast(0)).saveMeasure(any(Resource.class), eq(CoreMetrics.DUPLICATED_LINES), captor.capture());
+    return captor.getAllValues();
+  }
+
+  private SonarEngine analyse(ModuleFileSystem fileSystem, FileCache fileCache, Settings settings) {
+    IndexFactory indexFactory = mock(IndexFactory.class);
+    when(indexFactory.create(any(Project.class))).thenAnswer(new Answer<SonarDuplicationsIndex>() {
+      public SonarDuplicationsIndex answer(InvocationOnMock invocation) {
+        return new SonarDuplicationsIndex();
+      }
+    });
+    Project project = new Project("foo").setConfiguration(new PropertiesConfiguration());
+    context = mock(SensorContext.class);
+
+    SonarEngine engine = spy(new SonarEngine(indexFactory, fileSystem, new PathResolver(), settings, new BlockCache(fileCache),
+      new CloneCache(fileCache)));
+    engine.analyse(project, context);
+    return engine;
+  }
+
+  private static void verifyDetection(SonarEngine engine, int times, java.io.File... files) {
+    for (java.io.File file : files) {
+      verify(engine, times(times)).detect(any(ExecutorService.class), any(SonarDuplicationsIndex.class), anyCollection(), eq(file));
+    }
+  }
+
+  private static java.io.File writeClass(java.io.File dir, String name, String statement, int statements) throws Exception {
+    StringBuilder code = new StringBuilder("class ").append(name).append(" {\n  void m() {\n");
+    for (int i = 0; i < statements; i++) {
+      code.append("    ").append(statement).append(i).append(" = ").append(i).append(";\n");
+    }
+    code.append("  }\n}\n");
+    java.io.File file = new java.io.File(dir, name + ".java");
+    FileUtils.writeStringToFile(file, code.toString(), "UTF-8");
+    return file;
+  }
+
   private CloneGroup newCloneGroup(ClonePart... parts) {
     return CloneGroup.builder().setLength(0).setOrigin(parts[0]).setParts(Arrays.asList(parts)).build();
   }
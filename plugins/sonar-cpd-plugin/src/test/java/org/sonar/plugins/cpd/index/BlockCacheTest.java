@@ -0,0 +1,168 @@
+/*
+ * SonarQube, open source software quality management tool.
+ * Copyright (C) 2008-2013 SonarSource
+ * mailto:contact AT sonarsource DOT com
+ *
+ * SonarQube is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * SonarQube is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.plugins.cpd.index;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.sonar.duplications.block.Block;
+import org.sonar.duplications.block.ByteArray;
+import org.sonar.home.cache.FileCache;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.fest.assertions.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class BlockCacheTest {
+
+  @Rule
+  public TemporaryFolder temp = new TemporaryFolder();
+
+  File cacheDir;
+  BlockCache cache;
+
+  @Before
+  public void setUp() throws Exception {
+    cacheDir = temp.newFolder();
+    FileCache fileCache = mock(FileCache.class);
+    when(fileCache.getDir()).thenReturn(cacheDir);
+    cache = new BlockCache(fileCache);
+  }
+
+  @Test
+  public void should_return_null_if_not_cached() {
+    assertThat(cache.get("abcd", "foo:Bar")).isNull();
+  }
+
+  @Test
+  public void should_rebuild_blocks_with_resource() {
+    List<Block> blocks = Arrays.asList(
+      Block.builder().setResourceId("foo:Old").setBlockHash(new ByteArray(42L)).setIndexInFile(0).setLines(1, 10).build(),
+      Block.builder().setResourceId("foo:Old").setBlockHash(new ByteArray(-7L)).setIndexInFile(1).setLines(2, 12).setUnit(3, 4).build());
+    cache.put("abcd", blocks);
+
+    List<Block> cached = cache.get("abcd", "foo:New");
+    assertThat(cached).hasSize(2);
+    Block first = cached.get(0);
+    assertThat(first.getResourceId()).isEqualTo("foo:New");
+    assertThat(first.getBlockHash()).isEqualTo(new ByteArray(42L));
+    assertThat(first.getIndexInFile()).isEqualTo(0);
+    assertThat(first.getStartLine()).isEqualTo(1);
+    assertThat(first.getEndLine()).isEqualTo(10);
+    Block second = cached.get(1);
+    assertThat(second.getBlockHash()).isEqualTo(new ByteArray(-7L));
+    assertThat(second.getIndexInFile()).isEqualTo(1);
+    assertThat(second.getStartUnit()).isEqualTo(3);
+    assertThat(second.getEndUnit()).isEqualTo(4);
+  }
+
+  @Test
+  public void should_cache_hashes_of_any_size() {
+    cache.put("abcd", Arrays.asList(
+      Block.builder().setResourceId("foo:Bar").setBlockHash(-7L).build(),
+      Block.builder().setResourceId("foo:Bar").setBlockHash(new ByteArray(42)).build()));
+
+    List<Block> cached = cache.get("abcd", "foo:Bar");
+    assertThat(cached.get(0).getLongHash()).isEqualTo(-7L);
+    assertThat(cached.get(1).hasLongHash()).isFalse();
+    assertThat(cached.get(1).getBlockHash()).isEqualTo(new ByteArray(42));
+  }
+
+  @Test
+  public void should_cache_files_without_blocks() {
+    cache.put("abcd", Collections.<Block>emptyList());
+
+    assertThat(cache.get("abcd", "foo:Bar")).isEmpty();
+  }
+
+  @Test
+  public void should_ignore_corrupted_entry() throws Exception {
+    cache.put("abcd", Arrays.asList(Block.builder().setResourceId("foo:Bar").setBlockHash(new ByteArray(42L)).build()));
+    File entry = temp.getRoot().listFiles()[0];
+    File[] files = new File(new File(new File(entry, BlockCache.DIR), "v" + BlockCache.FORMAT_VERSION), "ab").listFiles();
+    assertThat(files).hasSize(1);
+    FileUtils.write(files[0], "corrupted");
+
+    assertThat(cache.get("abcd", "foo:Bar")).isNull();
+  }
+
+  @Test
+  public void should_delete_entries_of_other_versions() throws Exception {
+    File previousVersion = new File(new File(cacheDir, BlockCache.DIR), "v" + (BlockCache.FORMAT_VERSION - 1));
+    FileUtils.touch(new File(previousVersion, "ab/abcd"));
+    cache.put("abcd", Collections.<Block>emptyList());
+
+    cache.start();
+
+    assertThat(previousVersion).doesNotExist();
+    assertThat(cache.get("abcd", "foo:Bar")).isEmpty();
+  }
+
+  @Test
+  public void should_delete_unused_entries() throws Exception {
+    long now = System.currentTimeMillis();
+    long maxAge = BlockCache.MAX_AGE_IN_DAYS * 24L * 60 * 60 * 1000;
+    cache.put("abcd", Collections.<Block>emptyList());
+    cache.put("efgh", Collections.<Block>emptyList());
+    entry("abcd").setLastModified(now - maxAge - 1000);
+    entry("efgh").setLastModified(now - maxAge + 60000);
+
+    cache.clean(now);
+
+    assertThat(entry("abcd")).doesNotExist();
+    assertThat(entry("efgh")).exists();
+  }
+
+  @Test
+  public void should_search_unused_entries_once_a_day() throws Exception {
+    long now = System.currentTimeMillis();
+    cache.put("efgh", Collections.<Block>emptyList());
+    cache.clean(now);
+    cache.put("abcd", Collections.<Block>emptyList());
+    entry("abcd").setLastModified(0L);
+
+    cache.clean(now);
+    assertThat(entry("abcd")).exists();
+
+    cache.clean(now + 25L * 60 * 60 * 1000);
+    assertThat(entry("abcd")).doesNotExist();
+  }
+
+  @Test
+  public void should_mark_read_entries_as_used() throws Exception {
+    cache.put("abcd", Collections.<Block>emptyList());
+    entry("abcd").setLastModified(0L);
+
+    cache.get("abcd", "foo:Bar");
+
+    assertThat(entry("abcd").lastModified()).isGreaterThan(0L);
+  }
+
+  private File entry(String key) {
+    return new File(new File(new File(new File(cacheDir, BlockCache.DIR), "v" + BlockCache.FORMAT_VERSION), key.substring(0, 2)), key);
+  }
+}
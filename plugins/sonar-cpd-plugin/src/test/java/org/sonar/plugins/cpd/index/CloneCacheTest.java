@@ -0,0 +1,107 @@
+/*
+ * SonarQube, open source software quality management tool.
+ * Copyright (C) 2008-2013 SonarSource
+ * mailto:contact AT sonarsource DOT com
+ *
+ * SonarQube is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * SonarQube is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.plugins.cpd.index;
+
+import com.google.common.collect.ImmutableMap;
+import org.apache.commons.io.FileUtils;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.sonar.duplications.index.CloneGroup;
+import org.sonar.duplications.index.ClonePart;
+import org.sonar.home.cache.FileCache;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+
+import static org.fest.assertions.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class CloneCacheTest {
+
+  @Rule
+  public TemporaryFolder temp = new TemporaryFolder();
+
+  File cacheDir;
+  CloneCache cache;
+
+  @Before
+  public void setUp() throws Exception {
+    cacheDir = temp.newFolder();
+    FileCache fileCache = mock(FileCache.class);
+    when(fileCache.getDir()).thenReturn(cacheDir);
+    cache = new CloneCache(fileCache);
+  }
+
+  @Test
+  public void should_return_null_if_not_cached() {
+    assertThat(cache.get("foo")).isNull();
+  }
+
+  @Test
+  public void should_read_saved_entries() {
+    ClonePart origin = new ClonePart("foo:Bar", 0, 5, 20);
+    CloneGroup clone = CloneGroup.builder()
+      .setLength(3)
+      .setLengthInUnits(42)
+      .setOrigin(origin)
+      .setParts(Arrays.asList(origin, new ClonePart("foo:Baz", 2, 10, 25)))
+      .build();
+    cache.put("foo", ImmutableMap.of(
+      "foo:Bar", new CloneCache.Entry("abcd", Arrays.asList(clone)),
+      "foo:Qux", new CloneCache.Entry("efgh", Collections.<CloneGroup>emptyList()),
+      "foo:Timeout", new CloneCache.Entry("ijkl", null)));
+
+    Map<String, CloneCache.Entry> entries = cache.get("foo");
+    assertThat(entries).hasSize(3);
+    assertThat(entries.get("foo:Bar").getContentKey()).isEqualTo("abcd");
+    assertThat(entries.get("foo:Bar").getClones()).containsExactly(clone);
+    CloneGroup cached = entries.get("foo:Bar").getClones().get(0);
+    assertThat(cached.getCloneUnitLength()).isEqualTo(3);
+    assertThat(cached.getLengthInUnits()).isEqualTo(42);
+    assertThat(cached.getOriginPart()).isEqualTo(origin);
+    assertThat(entries.get("foo:Qux").getClones()).isEmpty();
+    assertThat(entries.get("foo:Timeout").getClones()).isNull();
+
+    assertThat(cache.get("other")).isNull();
+  }
+
+  @Test
+  public void should_replace_previous_entries() {
+    cache.put("foo", ImmutableMap.of("foo:Bar", new CloneCache.Entry("abcd", Collections.<CloneGroup>emptyList())));
+    cache.put("foo", ImmutableMap.of("foo:Baz", new CloneCache.Entry("efgh", Collections.<CloneGroup>emptyList())));
+
+    assertThat(cache.get("foo").keySet()).containsOnly("foo:Baz");
+  }
+
+  @Test
+  public void should_ignore_corrupted_entries() throws Exception {
+    cache.put("foo", ImmutableMap.of("foo:Bar", new CloneCache.Entry("abcd", Collections.<CloneGroup>emptyList())));
+    for (File file : FileUtils.listFiles(cacheDir, null, true)) {
+      FileUtils.writeStringToFile(file, "corrupted");
+    }
+
+    assertThat(cache.get("foo")).isNull();
+  }
+}
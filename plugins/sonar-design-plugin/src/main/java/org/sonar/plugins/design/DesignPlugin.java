@@ -20,8 +20,9 @@
 package org.sonar.plugins.design;
 
 import com.google.common.collect.ImmutableList;
-import org.sonar.api.Extension;
+import org.sonar.api.PropertyType;
 import org.sonar.api.SonarPlugin;
+import org.sonar.api.config.PropertyDefinition;
 import org.sonar.plugins.design.batch.FileTangleIndexDecorator;
 import org.sonar.plugins.design.batch.MavenDependenciesSensor;
 import org.sonar.plugins.design.batch.PackageTangleIndexDecorator;
@@ -38,8 +39,19 @@ import java.util.List;
 
 public class DesignPlugin extends SonarPlugin {
 
-  public List<Class<? extends Extension>> getExtensions() {
+  public List<?> getExtensions() {
     return ImmutableList.of(
+        PropertyDefinition.builder(ProjectDsmDecorator.FEEDBACK_EDGES_SOLVER_PROPERTY)
+            .defaultValue(ProjectDsmDecorator.EXACT_SOLVER)
+            .name("Feedback edges solver")
+            .description("Algorithm which selects the dependencies to cut in order to break cycles between modules. " +
+                "The heuristic one is bounded in time, and suits large tangles. " +
+                "Cycles between packages and between files are computed by the language plugins, which do not use this setting.")
+            .type(PropertyType.SINGLE_SELECT_LIST)
+            .options(ProjectDsmDecorator.EXACT_SOLVER, ProjectDsmDecorator.HEURISTIC_SOLVER)
+            .hidden()
+            .build(),
+
         // Batch
         MavenDependenciesSensor.class,
         ProjectDsmDecorator.class,
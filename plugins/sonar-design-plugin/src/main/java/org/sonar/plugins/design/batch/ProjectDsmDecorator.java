@@ -20,9 +20,12 @@
 package org.sonar.plugins.design.batch;
 
 import com.google.common.collect.Lists;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.sonar.api.batch.Decorator;
 import org.sonar.api.batch.DecoratorContext;
 import org.sonar.api.batch.SonarIndex;
+import org.sonar.api.config.Settings;
 import org.sonar.api.measures.CoreMetrics;
 import org.sonar.api.measures.Measure;
 import org.sonar.api.measures.PersistenceMode;
@@ -36,16 +39,25 @@ import java.util.List;
 import java.util.Set;
 
 /**
- * For performance reasons, this decorator is currently limited to matrix between modules.
+ * For performance reasons, this decorator is currently limited to matrix between modules. The matrices between packages
+ * and between files are computed by the language plugins, so {@link #FEEDBACK_EDGES_SOLVER_PROPERTY} applies to modules only.
  * Squid is optimized for cycle detections (better hashCode and equals methods of SourceCode classes than Resource).
  */
 public class ProjectDsmDecorator implements Decorator {
 
+  public static final String FEEDBACK_EDGES_SOLVER_PROPERTY = "sonar.design.feedbackEdgesSolver";
+  public static final String EXACT_SOLVER = "exact";
+  public static final String HEURISTIC_SOLVER = "heuristic";
+
+  private static final Logger LOG = LoggerFactory.getLogger(ProjectDsmDecorator.class);
+
   // hack as long as DecoratorContext does not implement SonarIndex
   private SonarIndex index;
+  private Settings settings;
 
-  public ProjectDsmDecorator(SonarIndex index) {
+  public ProjectDsmDecorator(SonarIndex index, Settings settings) {
     this.index = index;
+    this.settings = settings;
   }
 
   public boolean shouldExecuteOnProject(Project project) {
@@ -70,17 +82,27 @@ public class ProjectDsmDecorator implements Decorator {
   }
 
   private Dsm<Resource> getDsm(Collection<Resource> subProjects) {
-    CycleDetector<Resource> cycleDetector = new CycleDetector<Resource>(index, subProjects);
-    Set<Cycle> cycles = cycleDetector.getCycles();
-
-    MinimumFeedbackEdgeSetSolver solver = new MinimumFeedbackEdgeSetSolver(cycles);
-    Set<Edge> feedbackEdges = solver.getEdges();
+    Set<Edge> feedbackEdges = getFeedbackEdges(subProjects);
 
     Dsm<Resource> dsm = new Dsm<Resource>(index, subProjects, feedbackEdges);
     DsmTopologicalSorter.sort(dsm);
     return dsm;
   }
 
+  private Set<Edge> getFeedbackEdges(Collection<Resource> subProjects) {
+    if (HEURISTIC_SOLVER.equals(settings.getString(FEEDBACK_EDGES_SOLVER_PROPERTY))) {
+      HeuristicFeedbackEdgeSetSolver<Resource> solver = new HeuristicFeedbackEdgeSetSolver<Resource>(index, subProjects);
+      if (solver.isTimeBudgetExceeded()) {
+        LOG.info("Search of feedback edges between modules stopped after {} ms, optimality gap {}", HeuristicFeedbackEdgeSetSolver.DEFAULT_TIME_BUDGET_IN_MS,
+            solver.getOptimalityGap());
+      } else {
+        LOG.debug("Feedback edges of weight {}, optimality gap {}", solver.getWeightOfFeedbackEdgeSet(), solver.getOptimalityGap());
+      }
+      return solver.getEdges();
+    }
+    return new IncrementalCyclesAndFESSolver<Resource>(index, subProjects).getFeedbackEdgeSet();
+  }
+
   /**
    * sub-projects, including all descendants but not only direct children
    */
@@ -20,6 +20,8 @@
 package org.sonar.batch.bootstrap;
 
 import com.google.common.base.Joiner;
+import com.google.common.base.Throwables;
+import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 import org.apache.commons.lang.StringUtils;
@@ -30,9 +32,11 @@ import org.sonar.api.Plugin;
 import org.sonar.api.config.Settings;
 import org.sonar.api.platform.PluginMetadata;
 import org.sonar.api.platform.PluginRepository;
+import org.sonar.api.utils.SonarException;
 import org.sonar.api.utils.TempFolder;
 import org.sonar.core.plugins.PluginClassloaders;
 import org.sonar.core.plugins.PluginInstaller;
+import org.sonar.core.plugins.PluginTimings;
 import org.sonar.core.plugins.RemotePlugin;
 
 import java.io.File;
@@ -42,6 +46,11 @@ import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 public class BatchPluginRepository implements PluginRepository {
 
@@ -56,6 +65,8 @@ public class BatchPluginRepository implements PluginRepository {
   private PluginClassloaders classLoaders;
   private TempFolder tempDirectories;
   private final AnalysisMode analysisMode;
+  private final PluginInstaller installer = new PluginInstaller();
+  private final PluginTimings timings = new PluginTimings();
 
   public BatchPluginRepository(PluginDownloader pluginDownloader, TempFolder tempDirectories, Settings settings, AnalysisMode analysisMode) {
     this.pluginDownloader = pluginDownloader;
@@ -71,24 +82,76 @@ public class BatchPluginRepository implements PluginRepository {
 
   void doStart(List<RemotePlugin> remotePlugins) {
     PluginFilter filter = new PluginFilter(settings, analysisMode);
-    PluginInstaller extractor = new PluginInstaller();
-    metadataByKey = Maps.newHashMap();
+    List<Callable<PluginMetadata>> installs = Lists.newArrayList();
     for (RemotePlugin remote : remotePlugins) {
       if (filter.accepts(remote.getKey())) {
-        List<File> pluginFiles = pluginDownloader.downloadPlugin(remote);
-        List<File> extensionFiles = pluginFiles.subList(1, pluginFiles.size());
-        File targetDir = tempDirectories.newDir("plugins/" + remote.getKey());
+        installs.add(newInstall(remote, pluginDownloader.downloadPlugin(remote)));
+      }
+    }
+    metadataByKey = Maps.newHashMap();
+    for (PluginMetadata metadata : installAll(installs)) {
+      if (StringUtils.isBlank(metadata.getBasePlugin()) || filter.accepts(metadata.getBasePlugin())) {
+        metadataByKey.put(metadata.getKey(), metadata);
+      } else {
+        LOG.debug("Excluded plugin: " + metadata.getKey());
+      }
+    }
+    classLoaders = new PluginClassloaders(Thread.currentThread().getContextClassLoader());
+    pluginsByKey = classLoaders.init(metadataByKey.values(), timings);
+    timings.log(LOG);
+  }
+
+  /**
+   * Plugins downloaded with a checksum are installed once in the user cache, next to the downloaded file, and
+   * this installation is reused by the next analyses. Others are installed in a temporary directory.
+   */
+  private Callable<PluginMetadata> newInstall(final RemotePlugin remote, final List<File> pluginFiles) {
+    final List<File> extensionFiles = pluginFiles.subList(1, pluginFiles.size());
+    final String checksum = remote.getFiles().isEmpty() ? null : remote.getFiles().get(0).getHash();
+    final File targetDir;
+    if (checksum == null) {
+      targetDir = tempDirectories.newDir("plugins/" + remote.getKey());
+    } else {
+      targetDir = pluginFiles.get(0).getParentFile();
+    }
+    return new Callable<PluginMetadata>() {
+      public PluginMetadata call() {
+        long start = System.currentTimeMillis();
         LOG.debug("Installing plugin {} into {}", remote.getKey(), targetDir.getAbsolutePath());
-        PluginMetadata metadata = extractor.install(pluginFiles.get(0), remote.isCore(), extensionFiles, targetDir);
-        if (StringUtils.isBlank(metadata.getBasePlugin()) || filter.accepts(metadata.getBasePlugin())) {
-          metadataByKey.put(metadata.getKey(), metadata);
+        PluginMetadata metadata;
+        if (checksum == null) {
+          metadata = installer.install(pluginFiles.get(0), remote.isCore(), extensionFiles, targetDir);
         } else {
-          LOG.debug("Excluded plugin: " + metadata.getKey());
+          metadata = installer.installCached(pluginFiles.get(0), checksum, remote.isCore(), extensionFiles, targetDir);
         }
+        timings.add(remote.getKey(), "install", System.currentTimeMillis() - start);
+        return metadata;
       }
+    };
+  }
+
+  /**
+   * Plugins are installed in their own directory, so they are installed concurrently.
+   */
+  private List<PluginMetadata> installAll(List<Callable<PluginMetadata>> installs) {
+    List<PluginMetadata> result = Lists.newArrayList();
+    if (installs.isEmpty()) {
+      return result;
+    }
+    ExecutorService executor = Executors.newFixedThreadPool(Math.min(installs.size(), Runtime.getRuntime().availableProcessors()));
+    try {
+      for (Future<PluginMetadata> future : executor.invokeAll(installs)) {
+        result.add(future.get());
+      }
+      return result;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new SonarException("Interrupted while installing plugins", e);
+    } catch (ExecutionException e) {
+      throw Throwables.propagate(e.getCause());
+    } finally {
+      executor.shutdown();
     }
-    classLoaders = new PluginClassloaders(Thread.currentThread().getContextClassLoader());
-    pluginsByKey = classLoaders.init(metadataByKey.values());
   }
 
   public void stop() {
@@ -34,6 +34,7 @@ import org.sonar.batch.components.PastSnapshotFinderByDays;
 import org.sonar.batch.components.PastSnapshotFinderByPreviousAnalysis;
 import org.sonar.batch.components.PastSnapshotFinderByPreviousVersion;
 import org.sonar.batch.components.PastSnapshotFinderByVersion;
+import org.sonar.batch.profiling.BatchMetrics;
 import org.sonar.core.config.Logback;
 import org.sonar.core.i18n.I18nManager;
 import org.sonar.core.i18n.RuleI18nManager;
@@ -84,6 +85,8 @@ public class BootstrapContainer extends ComponentContainer {
       BatchPluginRepository.class,
       BatchSettings.class,
       ServerClient.class,
+      BatchMetrics.class,
+      ServerResponseCache.class,
       ExtensionInstaller.class,
       Logback.class,
       ServerMetadata.class,
@@ -43,12 +43,14 @@ public class JdbcDriverHolder {
   private ServerClient serverClient;
   private AnalysisMode analysisMode;
   private FileCache fileCache;
+  private ServerResponseCache responseCache;
 
   // initialized in start()
   private JdbcDriverClassLoader classLoader = null;
 
-  public JdbcDriverHolder(FileCache fileCache, AnalysisMode analysisMode, ServerClient serverClient) {
+  public JdbcDriverHolder(FileCache fileCache, AnalysisMode analysisMode, ServerClient serverClient, ServerResponseCache responseCache) {
     this.serverClient = serverClient;
+    this.responseCache = responseCache;
     this.analysisMode = analysisMode;
     this.fileCache = fileCache;
   }
@@ -138,7 +140,8 @@ public class JdbcDriverHolder {
     String url = "/deploy/jdbc-driver.txt";
     try {
       LOG.debug("Download index of jdbc-driver");
-      String indexContent = serverClient.request(url);
+      // the index is generated at server startup
+      String indexContent = responseCache.request(url);
       return indexContent.split("\\|");
     } catch (Exception e) {
       throw new SonarException("Fail to download jdbc-driver index: " + url, e);
@@ -40,10 +40,12 @@ public class PluginDownloader implements BatchComponent {
 
   private ServerClient server;
   private FileCache fileCache;
+  private ServerResponseCache responseCache;
 
-  public PluginDownloader(FileCache fileCache, ServerClient server) {
+  public PluginDownloader(FileCache fileCache, ServerClient server, ServerResponseCache responseCache) {
     this.server = server;
     this.fileCache = fileCache;
+    this.responseCache = responseCache;
   }
 
   public List<File> downloadPlugin(final RemotePlugin remote) {
@@ -74,7 +76,8 @@ public class PluginDownloader implements BatchComponent {
     String url = "/deploy/plugins/index.txt";
     try {
       LOG.debug("Download index of plugins");
-      String indexContent = server.request(url);
+      // the index is generated at server startup
+      String indexContent = responseCache.request(url);
       String[] rows = StringUtils.split(indexContent, CharUtils.LF);
       List<RemotePlugin> remoteLocations = Lists.newArrayList();
       for (String row : rows) {
@@ -21,11 +21,15 @@ package org.sonar.batch.bootstrap;
 
 import com.google.common.base.Preconditions;
 import com.google.common.base.Strings;
+import com.google.common.collect.ImmutableSortedMap;
+import com.google.common.collect.Maps;
 import com.google.common.io.Files;
 import com.google.common.io.InputSupplier;
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang.StringEscapeUtils;
 import org.apache.commons.lang.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.sonar.api.BatchComponent;
 import org.sonar.api.CoreProperties;
 import org.sonar.api.utils.HttpDownloader;
@@ -35,9 +39,11 @@ import org.sonar.batch.bootstrapper.EnvironmentInformation;
 import javax.annotation.Nullable;
 
 import java.io.File;
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URI;
+import java.util.Map;
 
 /**
  * Replace the deprecated org.sonar.batch.ServerMetadata
@@ -47,8 +53,11 @@ import java.net.URI;
  */
 public class ServerClient implements BatchComponent {
 
+  private static final Logger LOG = LoggerFactory.getLogger(ServerClient.class);
+
   private BootstrapSettings settings;
   private HttpDownloader.BaseHttpDownloader downloader;
+  private final Map<String, EndpointStats> statsByEndpoint = Maps.newHashMap();
 
   public ServerClient(BootstrapSettings settings, EnvironmentInformation env) {
     this.settings = settings;
@@ -84,12 +93,17 @@ public class ServerClient implements BatchComponent {
 
   public String request(String pathStartingWithSlash, boolean wrapHttpException, @Nullable Integer timeoutMillis) {
     InputSupplier<InputStream> inputSupplier = doRequest(pathStartingWithSlash, timeoutMillis);
+    InputStream input = null;
     try {
-      return IOUtils.toString(inputSupplier.getInput(), "UTF-8");
+      input = inputSupplier.getInput();
+      return IOUtils.toString(input, "UTF-8");
     } catch (HttpDownloader.HttpException e) {
       throw wrapHttpException ? handleHttpException(e) : e;
     } catch (IOException e) {
       throw new SonarException(String.format("Unable to request: %s", pathStartingWithSlash), e);
+    } finally {
+      // the connection is given back to the pool of keep-alive connections only when the stream is closed
+      IOUtils.closeQuietly(input);
     }
   }
 
@@ -105,12 +119,40 @@ public class ServerClient implements BatchComponent {
       } else {
         inputSupplier = downloader.newInputSupplier(uri, getLogin(), getPassword(), timeoutMillis);
       }
-      return inputSupplier;
+      return new MeasuredInputSupplier(inputSupplier, getEndpointStats(pathStartingWithSlash));
     } catch (Exception e) {
       throw new SonarException(String.format("Unable to request: %s", uri), e);
     }
   }
 
+  private synchronized EndpointStats getEndpointStats(String pathStartingWithSlash) {
+    String endpoint = StringUtils.substringBefore(pathStartingWithSlash, "?");
+    EndpointStats stats = statsByEndpoint.get(endpoint);
+    if (stats == null) {
+      stats = new EndpointStats();
+      statsByEndpoint.put(endpoint, stats);
+    }
+    return stats;
+  }
+
+  /**
+   * Statistics of the requests sent to the server, by path without query string.
+   *
+   * @since 4.1
+   */
+  public synchronized Map<String, EndpointStats> getStatsByEndpoint() {
+    return ImmutableSortedMap.copyOf(statsByEndpoint);
+  }
+
+  public void stop() {
+    if (LOG.isDebugEnabled()) {
+      for (Map.Entry<String, EndpointStats> entry : getStatsByEndpoint().entrySet()) {
+        EndpointStats stats = entry.getValue();
+        LOG.debug(String.format("%s: %d requests, %d ms, %d bytes", entry.getKey(), stats.getRequests(), stats.getTimeInMs(), stats.getBytes()));
+      }
+    }
+  }
+
   private RuntimeException handleHttpException(HttpDownloader.HttpException he) {
     if (he.getResponseCode() == 401) {
       return new SonarException(String.format(getMessageWhenNotAuthorized(), CoreProperties.LOGIN, CoreProperties.PASSWORD));
@@ -136,4 +178,113 @@ public class ServerClient implements BatchComponent {
   private String getPassword() {
     return settings.property(CoreProperties.PASSWORD);
   }
+
+  /**
+   * @since 4.1
+   */
+  public static class EndpointStats {
+    private long requests;
+    private long timeInMs;
+    private long bytes;
+
+    private synchronized void add(long timeInMs, long bytes) {
+      this.requests++;
+      this.timeInMs += timeInMs;
+      this.bytes += bytes;
+    }
+
+    public synchronized long getRequests() {
+      return requests;
+    }
+
+    /**
+     * Time from sending the request to closing the response stream
+     */
+    public synchronized long getTimeInMs() {
+      return timeInMs;
+    }
+
+    /**
+     * Uncompressed size of the response bodies
+     */
+    public synchronized long getBytes() {
+      return bytes;
+    }
+  }
+
+  private static class MeasuredInputSupplier implements InputSupplier<InputStream> {
+    private final InputSupplier<InputStream> delegate;
+    private final EndpointStats stats;
+
+    MeasuredInputSupplier(InputSupplier<InputStream> delegate, EndpointStats stats) {
+      this.delegate = delegate;
+      this.stats = stats;
+    }
+
+    public InputStream getInput() throws IOException {
+      final long start = System.currentTimeMillis();
+      InputStream input = null;
+      try {
+        input = delegate.getInput();
+      } finally {
+        if (input == null) {
+          stats.add(System.currentTimeMillis() - start, 0L);
+        }
+      }
+      return new MeasuredInputStream(input, stats, start);
+    }
+  }
+
+  /**
+   * Counts the bytes read from the response and records the request when the stream is closed.
+   */
+  private static class MeasuredInputStream extends FilterInputStream {
+    private final EndpointStats stats;
+    private final long start;
+    private long count = 0L;
+    private boolean closed = false;
+
+    MeasuredInputStream(InputStream input, EndpointStats stats, long start) {
+      super(input);
+      this.stats = stats;
+      this.start = start;
+    }
+
+    @Override
+    public int read() throws IOException {
+      int result = super.read();
+      if (result != -1) {
+        count++;
+      }
+      return result;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+      int result = super.read(b, off, len);
+      if (result != -1) {
+        count += result;
+      }
+      return result;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+      long result = super.skip(n);
+      count += result;
+      return result;
+    }
+
+    @Override
+    public void close() throws IOException {
+      try {
+        super.close();
+      } finally {
+        if (!closed) {
+          closed = true;
+          stats.add(System.currentTimeMillis() - start, count);
+        }
+      }
+    }
+  }
 }
@@ -0,0 +1,129 @@
+/*
+ * SonarQube, open source software quality management tool.
+ * Copyright (C) 2008-2013 SonarSource
+ * mailto:contact AT sonarsource DOT com
+ *
+ * SonarQube is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * SonarQube is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.batch.bootstrap;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Charsets;
+import com.google.common.io.Files;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.lang.StringUtils;
+import org.json.simple.JSONObject;
+import org.json.simple.JSONValue;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.sonar.api.BatchComponent;
+import org.sonar.home.cache.FileCache;
+
+import javax.annotation.CheckForNull;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Keeps in the user cache the responses of the web services whose content can change only when the server
+ * is restarted, like the index of plugins. The state of the server is requested once per analysis through
+ * the lightweight web service /api/server : its identifier is generated at each server startup. Cached
+ * responses are used as long as this state does not change.
+ *
+ * @since 4.1
+ */
+public class ServerResponseCache implements BatchComponent {
+
+  private static final Logger LOG = LoggerFactory.getLogger(ServerResponseCache.class);
+  static final String DIR = "_server";
+
+  private final ServerClient client;
+  private final File serverDir;
+  private String state;
+
+  public ServerResponseCache(ServerClient client, FileCache fileCache) {
+    this.client = client;
+    this.serverDir = new File(new File(fileCache.getDir(), DIR), DigestUtils.md5Hex(client.getURL()));
+  }
+
+  /**
+   * Same as {@link ServerClient#request(String)} but the response is read from the user cache if it was
+   * requested since last server startup.
+   */
+  public String request(String pathStartingWithSlash) {
+    File stateDir = new File(serverDir, state());
+    File cachedResponse = new File(stateDir, DigestUtils.md5Hex(pathStartingWithSlash));
+    String response = read(cachedResponse);
+    if (response == null) {
+      response = client.request(pathStartingWithSlash);
+      write(stateDir, cachedResponse, response);
+    } else {
+      LOG.debug("Read {} from user cache", pathStartingWithSlash);
+    }
+    return response;
+  }
+
+  @VisibleForTesting
+  String state() {
+    if (state == null) {
+      JSONObject json = (JSONObject) JSONValue.parse(client.request("/api/server"));
+      state = DigestUtils.md5Hex(json.get("id") + "|" + json.get("version"));
+      deleteOtherStates(state);
+    }
+    return state;
+  }
+
+  private void deleteOtherStates(String currentState) {
+    File[] stateDirs = serverDir.listFiles();
+    if (stateDirs != null) {
+      for (File stateDir : stateDirs) {
+        if (!stateDir.getName().equals(currentState)) {
+          FileUtils.deleteQuietly(stateDir);
+        }
+      }
+    }
+  }
+
+  @CheckForNull
+  private static String read(File cachedResponse) {
+    if (!cachedResponse.isFile()) {
+      return null;
+    }
+    try {
+      return Files.toString(cachedResponse, Charsets.UTF_8);
+    } catch (IOException e) {
+      return null;
+    }
+  }
+
+  /**
+   * The response is written in a temporary file which is then renamed, so that concurrent analyses never read
+   * a partial response. Failures are ignored, the response being requested again by next analysis.
+   */
+  private static void write(File stateDir, File cachedResponse, String response) {
+    File tempFile = new File(stateDir, cachedResponse.getName() + "." + System.nanoTime() + ".tmp");
+    try {
+      FileUtils.forceMkdir(stateDir);
+      Files.write(StringUtils.defaultString(response), tempFile, Charsets.UTF_8);
+      if (!tempFile.renameTo(cachedResponse)) {
+        FileUtils.deleteQuietly(tempFile);
+      }
+    } catch (IOException e) {
+      LOG.debug("Fail to write cache file: " + cachedResponse, e);
+      FileUtils.deleteQuietly(tempFile);
+    }
+  }
+}
@@ -19,8 +19,6 @@
  */
 package org.sonar.batch.index;
 
-import com.google.common.collect.ArrayListMultimap;
-import com.google.common.collect.ListMultimap;
 import com.google.common.collect.Lists;
 import org.sonar.api.measures.Measure;
 import org.sonar.api.measures.MeasuresFilter;
@@ -28,14 +26,30 @@ import org.sonar.api.measures.MeasuresFilters;
 import org.sonar.api.resources.Resource;
 import org.sonar.api.utils.SonarException;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 
 public final class Bucket {
 
+  private static final int INITIAL_CAPACITY = 8;
+
   private Resource resource;
-  private ListMultimap<String, Measure> measuresByMetric = ArrayListMultimap.create();
+
+  /**
+   * Measures are grouped by metric, in the order in which metrics were first added. Most metrics have a single measure,
+   * which is stored directly, others (for example rule measures) are stored in an {@link ArrayList}. This replaces a
+   * multimap, which required an entry and a list for each metric of each resource.
+   */
+  private String[] metricKeys = new String[INITIAL_CAPACITY];
+  private Object[] measuresByMetric = new Object[INITIAL_CAPACITY];
+  private int metricCount;
+
+  /**
+   * Open addressing table of the positions of metrics, incremented by one so that free slots contain 0.
+   */
+  private int[] positions = new int[2 * INITIAL_CAPACITY];
 
   private Bucket parent;
   private List<Bucket> children;
@@ -78,27 +92,91 @@ public final class Bucket {
     return parent;
   }
 
+  @SuppressWarnings("unchecked")
   public void addMeasure(Measure measure) {
-    List<Measure> metricMeasures = measuresByMetric.get(measure.getMetric().getKey());
-
-    boolean add = true;
-    if (metricMeasures != null) {
-      int index = metricMeasures.indexOf(measure);
-      if (index > -1) {
-        if (metricMeasures.get(index) == measure) {
-          add = false;
-        } else {
-          throw new SonarException("Can not add twice the same measure on " + resource + ": " + measure);
-        }
+    String metricKey = measure.getMetric().getKey();
+    int position = position(metricKey);
+    if (position < 0) {
+      append(metricKey, measure);
+      return;
+    }
+
+    Object metricMeasures = measuresByMetric[position];
+    if (metricMeasures instanceof Measure) {
+      Measure existing = (Measure) metricMeasures;
+      if (!isRegistered(existing, measure)) {
+        List<Measure> list = new ArrayList<Measure>(2);
+        list.add(existing);
+        list.add(measure);
+        measuresByMetric[position] = list;
+      }
+    } else {
+      List<Measure> list = (List<Measure>) metricMeasures;
+      int index = list.indexOf(measure);
+      if (index < 0 || !isRegistered(list.get(index), measure)) {
+        list.add(measure);
+      }
+    }
+  }
+
+  /**
+   * @return true if measure is already registered, false if it is another measure
+   * @throws SonarException if measure is another instance of a registered measure
+   */
+  private boolean isRegistered(Measure existing, Measure measure) {
+    if (existing == measure) {
+      return true;
+    }
+    if (existing.equals(measure)) {
+      throw new SonarException("Can not add twice the same measure on " + resource + ": " + measure);
+    }
+    return false;
+  }
+
+  private int position(String metricKey) {
+    int mask = positions.length - 1;
+    for (int slot = metricKey.hashCode() & mask; positions[slot] != 0; slot = (slot + 1) & mask) {
+      int position = positions[slot] - 1;
+      if (metricKeys[position].equals(metricKey)) {
+        return position;
       }
     }
-    if (add) {
-      measuresByMetric.put(measure.getMetric().getKey(), measure);
+    return -1;
+  }
+
+  private void append(String metricKey, Measure measure) {
+    if (metricCount == metricKeys.length) {
+      int capacity = 2 * metricKeys.length;
+      String[] oldKeys = metricKeys;
+      metricKeys = new String[capacity];
+      System.arraycopy(oldKeys, 0, metricKeys, 0, metricCount);
+      Object[] oldMeasures = measuresByMetric;
+      measuresByMetric = new Object[capacity];
+      System.arraycopy(oldMeasures, 0, measuresByMetric, 0, metricCount);
+      positions = new int[2 * capacity];
+      for (int i = 0; i < metricCount; i++) {
+        index(metricKeys[i], i);
+      }
     }
+    metricKeys[metricCount] = metricKey;
+    measuresByMetric[metricCount] = measure;
+    index(metricKey, metricCount);
+    metricCount++;
+  }
+
+  private void index(String metricKey, int position) {
+    int mask = positions.length - 1;
+    int slot = metricKey.hashCode() & mask;
+    while (positions[slot] != 0) {
+      slot = (slot + 1) & mask;
+    }
+    positions[slot] = position + 1;
   }
 
   public void clear() {
+    metricKeys = null;
     measuresByMetric = null;
+    positions = null;
     children = null;
     if (parent != null) {
       parent.removeChild(this);
@@ -109,13 +187,26 @@ public final class Bucket {
   public <M> M getMeasures(final MeasuresFilter<M> filter) {
     Collection<Measure> unfiltered;
     if (filter instanceof MeasuresFilters.MetricFilter) {
-      unfiltered = measuresByMetric.get(((MeasuresFilters.MetricFilter) filter).filterOnMetricKey());
+      int position = position(((MeasuresFilters.MetricFilter) filter).filterOnMetricKey());
+      unfiltered = position < 0 ? Collections.<Measure>emptyList() : measures(position);
     } else {
-      unfiltered = measuresByMetric.values();
+      unfiltered = Lists.newArrayList();
+      for (int i = 0; i < metricCount; i++) {
+        unfiltered.addAll(measures(i));
+      }
     }
     return filter.filter(unfiltered);
   }
 
+  @SuppressWarnings("unchecked")
+  private List<Measure> measures(int position) {
+    Object metricMeasures = measuresByMetric[position];
+    if (metricMeasures instanceof Measure) {
+      return Collections.singletonList((Measure) metricMeasures);
+    }
+    return (List<Measure>) metricMeasures;
+  }
+
   public boolean isExcluded() {
     return resource.isExcluded();
   }
@@ -24,6 +24,8 @@ import com.persistit.Exchange;
 import com.persistit.Key;
 import com.persistit.exception.PersistitException;
 import org.apache.commons.lang.builder.ToStringBuilder;
+import org.sonar.batch.profiling.BatchMetrics;
+import org.sonar.batch.profiling.Counter;
 
 import javax.annotation.CheckForNull;
 import java.io.Serializable;
@@ -40,10 +42,16 @@ public class Cache<K, V extends Serializable> {
   private static final String DEFAULT_GROUP = "_";
   private final String name;
   private final Exchange exchange;
+  private final Counter puts;
+  private final Counter hits;
+  private final Counter misses;
 
-  Cache(String name, Exchange exchange) {
+  Cache(String name, Exchange exchange, BatchMetrics metrics) {
     this.name = name;
     this.exchange = exchange;
+    this.puts = metrics.counter(Caches.class, name + ".puts");
+    this.hits = metrics.counter(Caches.class, name + ".hits");
+    this.misses = metrics.counter(Caches.class, name + ".misses");
   }
 
   public Cache put(K key, V value) {
@@ -56,6 +64,7 @@ public class Cache<K, V extends Serializable> {
       exchange.append(group).append(key);
       exchange.getValue().put(value);
       exchange.store();
+      puts.increment();
       return this;
     } catch (Exception e) {
       throw new IllegalStateException("Fail to put element in the cache " + name, e);
@@ -76,8 +85,10 @@ public class Cache<K, V extends Serializable> {
       exchange.append(group).append(key);
       exchange.fetch();
       if (!exchange.getValue().isDefined()) {
+        misses.increment();
         return null;
       }
+      hits.increment();
       return (V) exchange.getValue().get();
     } catch (Exception e) {
       // TODO add parameters to message
@@ -31,6 +31,7 @@ import org.picocontainer.Startable;
 import org.slf4j.LoggerFactory;
 import org.sonar.api.BatchComponent;
 import org.sonar.api.utils.TempFolder;
+import org.sonar.batch.profiling.BatchMetrics;
 
 import java.io.File;
 import java.io.Serializable;
@@ -49,9 +50,11 @@ public class Caches implements BatchComponent, Startable {
   private Persistit persistit;
   private Volume volume;
   private final TempFolder tempFolder;
+  private final BatchMetrics metrics;
 
-  public Caches(TempFolder tempFolder) {
+  public Caches(TempFolder tempFolder, BatchMetrics metrics) {
     this.tempFolder = tempFolder;
+    this.metrics = metrics;
     initPersistit();
   }
 
@@ -82,7 +85,7 @@ public class Caches implements BatchComponent, Startable {
     Preconditions.checkState(!cacheNames.contains(cacheName), "Cache is already created: " + cacheName);
     try {
       Exchange exchange = persistit.getExchange(volume, cacheName, true);
-      Cache<K, V> cache = new Cache<K, V>(cacheName, exchange);
+      Cache<K, V> cache = new Cache<K, V>(cacheName, exchange, metrics);
       cacheNames.add(cacheName);
       return cache;
     } catch (Exception e) {
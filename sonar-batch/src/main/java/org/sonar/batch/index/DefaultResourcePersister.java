@@ -28,6 +28,9 @@ import org.sonar.api.database.model.Snapshot;
 import org.sonar.api.resources.*;
 import org.sonar.api.security.ResourcePermissions;
 import org.sonar.api.utils.SonarException;
+import org.sonar.batch.profiling.BatchMetrics;
+import org.sonar.batch.profiling.Counter;
+import org.sonar.batch.profiling.Histogram;
 
 import javax.persistence.NonUniqueResultException;
 import javax.persistence.Query;
@@ -50,18 +53,27 @@ public final class DefaultResourcePersister implements ResourcePersister {
   private final ResourcePermissions permissions;
   private final SnapshotCache snapshotCache;
   private final ResourceCache resourceCache;
+  private final Counter resourceLookups;
+  private final Counter snapshotInserts;
+  private final Histogram persistTimeInMs;
 
-  public DefaultResourcePersister(DatabaseSession session, ResourcePermissions permissions, SnapshotCache snapshotCache, ResourceCache resourceCache) {
+  public DefaultResourcePersister(DatabaseSession session, ResourcePermissions permissions, SnapshotCache snapshotCache, ResourceCache resourceCache,
+    BatchMetrics metrics) {
     this.session = session;
     this.permissions = permissions;
     this.snapshotCache = snapshotCache;
     this.resourceCache = resourceCache;
+    this.resourceLookups = metrics.counter(DefaultResourcePersister.class, "resourceLookups");
+    this.snapshotInserts = metrics.counter(DefaultResourcePersister.class, "snapshotInserts");
+    this.persistTimeInMs = metrics.histogram(DefaultResourcePersister.class, "persistTimeInMs");
   }
 
   public Snapshot saveProject(Project project, Project parent) {
     Snapshot snapshot = snapshotsByResource.get(project);
     if (snapshot == null) {
+      long start = System.currentTimeMillis();
       snapshot = persistProject(project, parent);
+      persistTimeInMs.record(System.currentTimeMillis() - start);
       addToCache(project, snapshot);
     }
     return snapshot;
@@ -104,6 +116,7 @@ public final class DefaultResourcePersister implements ResourcePersister {
     snapshot.setCreatedAt(project.getAnalysisDate());
     snapshot.setBuildDate(new Date());
     snapshot = session.save(snapshot);
+    snapshotInserts.increment();
     session.commit();
 
     if (!permissions.hasRoles(project)) {
@@ -139,7 +152,9 @@ public final class DefaultResourcePersister implements ResourcePersister {
   public Snapshot saveResource(Project project, Resource resource, Resource parent) {
     Snapshot snapshot = snapshotsByResource.get(resource);
     if (snapshot == null) {
+      long start = System.currentTimeMillis();
       snapshot = persist(project, resource, parent);
+      persistTimeInMs.record(System.currentTimeMillis() - start);
       addToCache(resource, snapshot);
     }
     return snapshot;
@@ -180,6 +195,7 @@ public final class DefaultResourcePersister implements ResourcePersister {
       // The qualifier must be LIB, even if the resource is TRK, because this snapshot has no measures.
       snapshot.setQualifier(Qualifiers.LIBRARY);
       snapshot = session.save(snapshot);
+      snapshotInserts.increment();
     }
     session.commit();
     return snapshot;
@@ -214,6 +230,7 @@ public final class DefaultResourcePersister implements ResourcePersister {
     Snapshot snapshot = new Snapshot(model, parentSnapshot);
     snapshot.setBuildDate(new Date());
     snapshot = session.save(snapshot);
+    snapshotInserts.increment();
     session.commit();
     return snapshot;
   }
@@ -245,6 +262,7 @@ public final class DefaultResourcePersister implements ResourcePersister {
   private ResourceModel findOrCreateModel(Resource resource) {
     ResourceModel model;
     try {
+      resourceLookups.increment();
       model = session.getSingleResult(ResourceModel.class, "key", resource.getEffectiveKey());
       if (model == null) {
         model = createModel(resource);
@@ -35,6 +35,9 @@ import org.sonar.api.resources.ResourceUtils;
 import org.sonar.api.rules.Rule;
 import org.sonar.api.rules.RuleFinder;
 import org.sonar.api.utils.SonarException;
+import org.sonar.batch.profiling.BatchMetrics;
+import org.sonar.batch.profiling.Counter;
+import org.sonar.batch.profiling.Histogram;
 import org.sonar.core.persistence.MyBatis;
 
 import java.util.Collection;
@@ -48,12 +51,22 @@ public final class MeasurePersister {
   private final MemoryOptimizer memoryOptimizer;
   private final SetMultimap<Resource, Measure> unsavedMeasuresByResource = LinkedHashMultimap.create();
   private boolean delayedMode = false;
+  private final Counter measureInserts;
+  private final Counter measureUpdates;
+  private final Counter dataInserts;
+  private final Histogram transactionTimeInMs;
+  private final Histogram dumpSize;
 
-  public MeasurePersister(MyBatis mybatis, ResourcePersister resourcePersister, RuleFinder ruleFinder, MemoryOptimizer memoryOptimizer) {
+  public MeasurePersister(MyBatis mybatis, ResourcePersister resourcePersister, RuleFinder ruleFinder, MemoryOptimizer memoryOptimizer, BatchMetrics metrics) {
     this.mybatis = mybatis;
     this.resourcePersister = resourcePersister;
     this.ruleFinder = ruleFinder;
     this.memoryOptimizer = memoryOptimizer;
+    this.measureInserts = metrics.counter(MeasurePersister.class, "measureInserts");
+    this.measureUpdates = metrics.counter(MeasurePersister.class, "measureUpdates");
+    this.dataInserts = metrics.counter(MeasurePersister.class, "dataInserts");
+    this.transactionTimeInMs = metrics.histogram(MeasurePersister.class, "transactionTimeInMs");
+    this.dumpSize = metrics.histogram(MeasurePersister.class, "dumpSize");
   }
 
   public void setDelayedMode(boolean delayedMode) {
@@ -174,6 +187,8 @@ public final class MeasurePersister {
   }
 
   private void insert(Iterable<MeasureModelAndDetails> values) {
+    long start = System.currentTimeMillis();
+    int count = 0;
     SqlSession session = mybatis.openSession();
     try {
       MeasureMapper mapper = session.getMapper(MeasureMapper.class);
@@ -181,8 +196,10 @@ public final class MeasurePersister {
       for (MeasureModelAndDetails value : values) {
         try {
           mapper.insert(value.getMeasureModel());
+          count++;
           if (value.getMeasureModel().getMeasureData() != null) {
             mapper.insertData(value.getMeasureModel().getMeasureData());
+            dataInserts.increment();
           }
         } catch (Exception e) {
           // SONAR-4066
@@ -193,6 +210,9 @@ public final class MeasurePersister {
       session.commit();
     } finally {
       MyBatis.closeQuietly(session);
+      measureInserts.add(count);
+      dumpSize.record(count);
+      transactionTimeInMs.record(System.currentTimeMillis() - start);
     }
   }
 
@@ -200,18 +220,22 @@ public final class MeasurePersister {
     MeasureModel value = model(measure);
     value.setSnapshotId(snapshot.getId());
 
+    long start = System.currentTimeMillis();
     SqlSession session = mybatis.openSession();
     try {
       MeasureMapper mapper = session.getMapper(MeasureMapper.class);
 
       mapper.insert(value);
+      measureInserts.increment();
       if (value.getMeasureData() != null) {
         mapper.insertData(value.getMeasureData());
+        dataInserts.increment();
       }
 
       session.commit();
     } finally {
       MyBatis.closeQuietly(session);
+      transactionTimeInMs.record(System.currentTimeMillis() - start);
     }
 
     return value;
@@ -222,19 +246,23 @@ public final class MeasurePersister {
     value.setId(measure.getId());
     value.setSnapshotId(snapshot.getId());
 
+    long start = System.currentTimeMillis();
     SqlSession session = mybatis.openSession();
     try {
       MeasureMapper mapper = session.getMapper(MeasureMapper.class);
 
       mapper.update(value);
+      measureUpdates.increment();
       mapper.deleteData(value);
       if (value.getMeasureData() != null) {
         mapper.insertData(value.getMeasureData());
+        dataInserts.increment();
       }
 
       session.commit();
     } finally {
       MyBatis.closeQuietly(session);
+      transactionTimeInMs.record(System.currentTimeMillis() - start);
     }
 
     return value;
@@ -25,6 +25,9 @@ import org.sonar.api.database.model.Snapshot;
 import org.sonar.api.database.model.SnapshotSource;
 import org.sonar.api.resources.DuplicatedSourceException;
 import org.sonar.api.resources.Resource;
+import org.sonar.batch.profiling.BatchMetrics;
+import org.sonar.batch.profiling.Counter;
+import org.sonar.batch.profiling.Histogram;
 
 import java.util.Set;
 
@@ -33,10 +36,14 @@ public final class SourcePersister {
   private DatabaseSession session;
   private Set<Integer> savedSnapshotIds = Sets.newHashSet();
   private ResourcePersister resourcePersister;
+  private final Histogram savedSourceLength;
+  private final Counter sourceLoads;
 
-  public SourcePersister(DatabaseSession session, ResourcePersister resourcePersister) {
+  public SourcePersister(DatabaseSession session, ResourcePersister resourcePersister, BatchMetrics metrics) {
     this.session = session;
     this.resourcePersister = resourcePersister;
+    this.savedSourceLength = metrics.histogram(SourcePersister.class, "savedSourceLength");
+    this.sourceLoads = metrics.counter(SourcePersister.class, "sourceLoads");
   }
 
   public void saveSource(Resource resource, String source) {
@@ -46,6 +53,7 @@ public final class SourcePersister {
     }
     session.save(new SnapshotSource(snapshot.getId(), source));
     session.commit();
+    savedSourceLength.record(source.length());
     addToCache(snapshot);
   }
 
@@ -53,6 +61,7 @@ public final class SourcePersister {
     SnapshotSource source = null;
     Snapshot snapshot = resourcePersister.getSnapshot(resource);
     if (snapshot!=null && snapshot.getId()!=null) {
+      sourceLoads.increment();
       source = session.getSingleResult(SnapshotSource.class, "snapshotId", snapshot.getId());
     }
     return source!=null ? source.getData() : null;
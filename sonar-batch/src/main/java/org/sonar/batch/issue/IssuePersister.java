@@ -24,6 +24,8 @@ import org.slf4j.LoggerFactory;
 import org.sonar.api.issue.internal.DefaultIssue;
 import org.sonar.batch.bootstrap.AnalysisMode;
 import org.sonar.batch.index.ScanPersister;
+import org.sonar.batch.profiling.BatchMetrics;
+import org.sonar.batch.profiling.Histogram;
 
 /**
  * Executed at the end of project scan, when all the modules are completed.
@@ -35,11 +37,13 @@ public class IssuePersister implements ScanPersister {
   private final IssueCache issueCache;
   private final ScanIssueStorage storage;
   private AnalysisMode analysisMode;
+  private final Histogram persistTimeInMs;
 
-  public IssuePersister(IssueCache issueCache, ScanIssueStorage storage, AnalysisMode analysisMode) {
+  public IssuePersister(IssueCache issueCache, ScanIssueStorage storage, AnalysisMode analysisMode, BatchMetrics metrics) {
     this.issueCache = issueCache;
     this.storage = storage;
     this.analysisMode = analysisMode;
+    this.persistTimeInMs = metrics.histogram(IssuePersister.class, "persistTimeInMs");
   }
 
   @Override
@@ -48,7 +52,9 @@ public class IssuePersister implements ScanPersister {
       LOG.debug("IssuePersister skipped in preview mode");
       return;
     }
+    long start = System.currentTimeMillis();
     Iterable<DefaultIssue> issues = issueCache.all();
     storage.save(issues);
+    persistTimeInMs.record(System.currentTimeMillis() - start);
   }
 }
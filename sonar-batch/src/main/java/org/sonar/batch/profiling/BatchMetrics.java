@@ -0,0 +1,93 @@
+/*
+ * SonarQube, open source software quality management tool.
+ * Copyright (C) 2008-2013 SonarSource
+ * mailto:contact AT sonarsource DOT com
+ *
+ * SonarQube is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * SonarQube is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.batch.profiling;
+
+import com.google.common.collect.ImmutableSortedMap;
+import com.google.common.collect.ImmutableSortedSet;
+import com.google.common.collect.Maps;
+import org.sonar.api.BatchComponent;
+
+import java.util.Map;
+import java.util.SortedSet;
+
+/**
+ * Counters and histograms of the batch components, for example the number of rows written
+ * by persisters or the hits of caches. Unlike {@link PhasesSumUpTimeProfiler}, metrics are always
+ * collected. They are exported at the end of analysis by {@link JsonProfileExporter}
+ * when profiling is enabled.
+ *
+ * @since 4.1
+ */
+public class BatchMetrics implements BatchComponent {
+
+  private final Map<String, Map<String, Counter>> countersByComponent = Maps.newHashMap();
+  private final Map<String, Map<String, Histogram>> histogramsByComponent = Maps.newHashMap();
+
+  public synchronized Counter counter(Class<?> component, String name) {
+    Map<String, Counter> counters = getOrCreate(countersByComponent, component);
+    Counter counter = counters.get(name);
+    if (counter == null) {
+      counter = new Counter();
+      counters.put(name, counter);
+    }
+    return counter;
+  }
+
+  public synchronized Histogram histogram(Class<?> component, String name) {
+    Map<String, Histogram> histograms = getOrCreate(histogramsByComponent, component);
+    Histogram histogram = histograms.get(name);
+    if (histogram == null) {
+      histogram = new Histogram();
+      histograms.put(name, histogram);
+    }
+    return histogram;
+  }
+
+  public synchronized SortedSet<String> components() {
+    return ImmutableSortedSet.<String>naturalOrder()
+      .addAll(countersByComponent.keySet())
+      .addAll(histogramsByComponent.keySet())
+      .build();
+  }
+
+  public synchronized Map<String, Counter> counters(String component) {
+    return copy(countersByComponent.get(component));
+  }
+
+  public synchronized Map<String, Histogram> histograms(String component) {
+    return copy(histogramsByComponent.get(component));
+  }
+
+  private static <T> Map<String, T> getOrCreate(Map<String, Map<String, T>> metricsByComponent, Class<?> component) {
+    Map<String, T> metrics = metricsByComponent.get(component.getSimpleName());
+    if (metrics == null) {
+      metrics = Maps.newHashMap();
+      metricsByComponent.put(component.getSimpleName(), metrics);
+    }
+    return metrics;
+  }
+
+  private static <T> Map<String, T> copy(Map<String, T> metrics) {
+    if (metrics == null) {
+      return ImmutableSortedMap.<String, T>of();
+    }
+    return ImmutableSortedMap.copyOf(metrics);
+  }
+}
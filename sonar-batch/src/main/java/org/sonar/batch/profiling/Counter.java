@@ -17,25 +17,26 @@
  * along with this program; if not, write to the Free Software Foundation,
  * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
  */
-package org.sonar.duplications.detector.suffixtree;
+package org.sonar.batch.profiling;
 
-import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
- * Represents text.
+ * @since 4.1
  */
-public interface Text {
+public final class Counter {
 
-  /**
-   * @return length of the sequence of symbols represented by this object
-   */
-  int length();
+  private final AtomicLong value = new AtomicLong();
 
-  /**
-   * @return symbol at the specified index
-   */
-  Object symbolAt(int index);
+  public void increment() {
+    value.incrementAndGet();
+  }
 
-  List<Object> sequence(int fromIndex, int toIndex);
+  public void add(long delta) {
+    value.addAndGet(delta);
+  }
 
+  public long get() {
+    return value.get();
+  }
 }
@@ -0,0 +1,98 @@
+/*
+ * SonarQube, open source software quality management tool.
+ * Copyright (C) 2008-2013 SonarSource
+ * mailto:contact AT sonarsource DOT com
+ *
+ * SonarQube is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * SonarQube is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.batch.profiling;
+
+/**
+ * Distribution of values, for example durations in milliseconds or sizes in bytes. Values are
+ * stored in buckets of powers of two, so percentiles are approximated by the upper bound of their bucket.
+ *
+ * @since 4.1
+ */
+public final class Histogram {
+
+  private static final int BUCKETS = 64;
+
+  // bucket 0 contains zero and negative values, bucket i contains values between 2^(i-1) and 2^i - 1
+  private final long[] buckets = new long[BUCKETS];
+  private long count = 0L;
+  private long sum = 0L;
+  private long min = Long.MAX_VALUE;
+  private long max = Long.MIN_VALUE;
+
+  public synchronized void record(long value) {
+    buckets[bucket(value)]++;
+    count++;
+    sum += value;
+    min = Math.min(min, value);
+    max = Math.max(max, value);
+  }
+
+  public synchronized long count() {
+    return count;
+  }
+
+  public synchronized long sum() {
+    return sum;
+  }
+
+  public synchronized long min() {
+    return count == 0L ? 0L : min;
+  }
+
+  public synchronized long max() {
+    return count == 0L ? 0L : max;
+  }
+
+  public synchronized double mean() {
+    return count == 0L ? 0.0 : ((double) sum / count);
+  }
+
+  /**
+   * @param percent between 0 and 100
+   */
+  public synchronized long percentile(double percent) {
+    if (count == 0L) {
+      return 0L;
+    }
+    long rank = Math.max(1L, (long) Math.ceil(percent * count / 100.0));
+    long cumulated = 0L;
+    for (int i = 0; i < BUCKETS; i++) {
+      cumulated += buckets[i];
+      if (cumulated >= rank) {
+        return Math.max(min, Math.min(max, upperBound(i)));
+      }
+    }
+    return max;
+  }
+
+  private static int bucket(long value) {
+    if (value <= 0L) {
+      return 0;
+    }
+    return Long.SIZE - Long.numberOfLeadingZeros(value);
+  }
+
+  private static long upperBound(int bucket) {
+    if (bucket == 0) {
+      return 0L;
+    }
+    return bucket == BUCKETS - 1 ? Long.MAX_VALUE : (1L << bucket) - 1L;
+  }
+}
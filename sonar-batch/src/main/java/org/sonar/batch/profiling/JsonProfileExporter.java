@@ -0,0 +1,170 @@
+/*
+ * SonarQube, open source software quality management tool.
+ * Copyright (C) 2008-2013 SonarSource
+ * mailto:contact AT sonarsource DOT com
+ *
+ * SonarQube is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * SonarQube is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.batch.profiling;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.io.Closeables;
+import com.google.gson.stream.JsonWriter;
+import org.apache.commons.io.FileUtils;
+import org.picocontainer.Startable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.sonar.api.BatchComponent;
+import org.sonar.api.batch.bootstrap.ProjectDefinition;
+import org.sonar.api.batch.bootstrap.ProjectReactor;
+import org.sonar.api.utils.SonarException;
+import org.sonar.batch.bootstrap.ServerClient;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryUsage;
+import java.lang.management.ThreadMXBean;
+import java.util.Map;
+
+/**
+ * Exports {@link BatchMetrics} to the file &lt;working directory&gt;/profiling/metrics.json at the end of project scan,
+ * so that profiles of different analyses can be compared by tools.
+ *
+ * @since 4.1
+ */
+public class JsonProfileExporter implements BatchComponent, Startable {
+
+  private static final Logger LOG = LoggerFactory.getLogger(JsonProfileExporter.class);
+  private static final int[] PERCENTILES = {50, 90, 99};
+
+  private final BatchMetrics metrics;
+  private final ServerClient serverClient;
+  private final ProjectReactor reactor;
+
+  public JsonProfileExporter(BatchMetrics metrics, ServerClient serverClient, ProjectReactor reactor) {
+    this.metrics = metrics;
+    this.serverClient = serverClient;
+    this.reactor = reactor;
+  }
+
+  @Override
+  public void start() {
+    // nothing to do
+  }
+
+  @Override
+  public void stop() {
+    ProjectDefinition root = reactor.getRoot();
+    File exportFile = new File(root.getWorkDir(), "profiling/metrics.json");
+    LOG.info("Export profiling metrics to " + exportFile.getAbsolutePath());
+    Writer output = null;
+    try {
+      FileUtils.forceMkdir(exportFile.getParentFile());
+      output = new BufferedWriter(new FileWriter(exportFile));
+      writeJson(root.getKey(), output);
+
+    } catch (IOException e) {
+      throw new IllegalStateException("Unable to write profiling metrics in file " + exportFile.getAbsolutePath(), e);
+    } finally {
+      Closeables.closeQuietly(output);
+    }
+  }
+
+  @VisibleForTesting
+  void writeJson(String projectKey, Writer writer) {
+    JsonWriter json = null;
+    try {
+      json = new JsonWriter(writer);
+      json.beginObject();
+      json.name("project").value(projectKey);
+      writeComponents(json);
+      writeServerRequests(json);
+      writeJvm(json);
+      json.endObject().flush();
+
+    } catch (IOException e) {
+      throw new SonarException("Unable to write JSON profiling metrics", e);
+    } finally {
+      Closeables.closeQuietly(json);
+    }
+  }
+
+  private void writeComponents(JsonWriter json) throws IOException {
+    json.name("components").beginObject();
+    for (String component : metrics.components()) {
+      json.name(component).beginObject();
+      json.name("counters").beginObject();
+      for (Map.Entry<String, Counter> counter : metrics.counters(component).entrySet()) {
+        json.name(counter.getKey()).value(counter.getValue().get());
+      }
+      json.endObject();
+      json.name("histograms").beginObject();
+      for (Map.Entry<String, Histogram> entry : metrics.histograms(component).entrySet()) {
+        Histogram histogram = entry.getValue();
+        json.name(entry.getKey()).beginObject()
+          .name("count").value(histogram.count())
+          .name("sum").value(histogram.sum())
+          .name("min").value(histogram.min())
+          .name("max").value(histogram.max())
+          .name("mean").value(histogram.mean());
+        for (int percentile : PERCENTILES) {
+          json.name("p" + percentile).value(histogram.percentile(percentile));
+        }
+        json.endObject();
+      }
+      json.endObject();
+      json.endObject();
+    }
+    json.endObject();
+  }
+
+  private void writeServerRequests(JsonWriter json) throws IOException {
+    json.name("serverRequests").beginObject();
+    for (Map.Entry<String, ServerClient.EndpointStats> entry : serverClient.getStatsByEndpoint().entrySet()) {
+      ServerClient.EndpointStats stats = entry.getValue();
+      json.name(entry.getKey()).beginObject()
+        .name("requests").value(stats.getRequests())
+        .name("timeInMs").value(stats.getTimeInMs())
+        .name("bytes").value(stats.getBytes())
+        .endObject();
+    }
+    json.endObject();
+  }
+
+  private static void writeJvm(JsonWriter json) throws IOException {
+    MemoryUsage heap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+    ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    long gcCount = 0L;
+    long gcTimeInMs = 0L;
+    for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+      gcCount += Math.max(0L, gc.getCollectionCount());
+      gcTimeInMs += Math.max(0L, gc.getCollectionTime());
+    }
+    json.name("jvm").beginObject()
+      .name("heapUsedBytes").value(heap.getUsed())
+      .name("heapCommittedBytes").value(heap.getCommitted())
+      .name("gcCount").value(gcCount)
+      .name("gcTimeInMs").value(gcTimeInMs)
+      .name("threads").value(threads.getThreadCount())
+      .name("peakThreads").value(threads.getPeakThreadCount())
+      .name("startedThreads").value(threads.getTotalStartedThreadCount())
+      .endObject();
+  }
+}
@@ -37,11 +37,13 @@ public class LastSnapshots implements BatchComponent {
   private final AnalysisMode analysisMode;
   private final DatabaseSession session;
   private final ServerClient server;
+  private final PreviousSources previousSources;
 
-  public LastSnapshots(AnalysisMode analysisMode, DatabaseSession session, ServerClient server) {
+  public LastSnapshots(AnalysisMode analysisMode, DatabaseSession session, ServerClient server, PreviousSources previousSources) {
     this.analysisMode = analysisMode;
     this.session = session;
     this.server = server;
+    this.previousSources = previousSources;
   }
 
   public String getSource(Resource resource) {
@@ -57,6 +59,10 @@ public class LastSnapshots implements BatchComponent {
   }
 
   private String loadSourceFromWs(Resource resource) {
+    String source = previousSources.get(resource.getEffectiveKey());
+    if (source != null) {
+      return source;
+    }
     try {
       return server.request("/api/sources?resource=" + resource.getEffectiveKey() + "&format=txt", false);
     } catch (HttpDownloader.HttpException he) {
@@ -0,0 +1,147 @@
+/*
+ * SonarQube, open source software quality management tool.
+ * Copyright (C) 2008-2013 SonarSource
+ * mailto:contact AT sonarsource DOT com
+ *
+ * SonarQube is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * SonarQube is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.batch.scan;
+
+import org.apache.commons.io.FileUtils;
+import org.picocontainer.Startable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.sonar.api.BatchComponent;
+import org.sonar.api.utils.SonarException;
+import org.sonar.api.utils.TempFolder;
+import org.sonar.batch.ProjectTree;
+import org.sonar.batch.bootstrap.AnalysisMode;
+import org.sonar.batch.bootstrap.ServerClient;
+import org.sonar.batch.index.Cache;
+import org.sonar.batch.index.Caches;
+import org.sonar.core.preview.PreviewSources;
+
+import javax.annotation.CheckForNull;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * In preview mode, the sources of the last analysis of all the files of the project are downloaded
+ * in a single request, in background, as soon as the project scan starts. They are then loaded into
+ * a batch cache instead of requesting the server file per file.
+ *
+ * @since 4.1
+ */
+public class PreviousSources implements BatchComponent, Startable {
+
+  private static final Logger LOG = LoggerFactory.getLogger(PreviousSources.class);
+  static final String URL = "/batch_bootstrap/sources?project=";
+
+  private final AnalysisMode analysisMode;
+  private final ServerClient server;
+  private final ProjectTree projectTree;
+  private final Caches caches;
+  private final TempFolder tempFolder;
+
+  private ExecutorService executor;
+  private Future<File> download;
+  private Cache<String, String> cache;
+
+  public PreviousSources(AnalysisMode analysisMode, ServerClient server, ProjectTree projectTree, Caches caches, TempFolder tempFolder) {
+    this.analysisMode = analysisMode;
+    this.server = server;
+    this.projectTree = projectTree;
+    this.caches = caches;
+    this.tempFolder = tempFolder;
+  }
+
+  @Override
+  public void start() {
+    if (analysisMode.isPreview()) {
+      final String url = URL + projectTree.getRootProject().getKey();
+      final File export = tempFolder.newFile("sources", ".gz");
+      executor = Executors.newSingleThreadExecutor();
+      download = executor.submit(new Callable<File>() {
+        public File call() {
+          long start = System.currentTimeMillis();
+          server.download(url, export);
+          LOG.debug("Previous sources downloaded in {} ms", System.currentTimeMillis() - start);
+          return export;
+        }
+      });
+    }
+  }
+
+  @Override
+  public void stop() {
+    if (executor != null) {
+      executor.shutdownNow();
+      executor = null;
+    }
+  }
+
+  /**
+   * Source of the file during the last analysis, or an empty string if the file did not exist. Returns null if the
+   * sources can not be loaded in bulk, for example when the server does not support it.
+   * <p/>
+   * The batch cache is owned by the thread that calls this method for the first time, so all calls must be done
+   * by the thread that executes the analysis.
+   */
+  @CheckForNull
+  public String get(String resourceKey) {
+    if (cache == null && download != null) {
+      cache = load();
+      download = null;
+    }
+    if (cache == null) {
+      return null;
+    }
+    String source = cache.get(resourceKey);
+    return source == null ? "" : source;
+  }
+
+  @CheckForNull
+  private Cache<String, String> load() {
+    File export = null;
+    try {
+      export = download.get();
+      final Cache<String, String> sources = caches.createCache("previousSources");
+      PreviewSources.read(new FileInputStream(export), new PreviewSources.Handler() {
+        public void handle(String resourceKey, String source) {
+          sources.put(resourceKey, source);
+        }
+      });
+      return sources;
+
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return null;
+    } catch (ExecutionException e) {
+      LOG.debug("Fail to download previous sources, they will be requested file per file", e.getCause());
+      return null;
+    } catch (IOException e) {
+      throw new SonarException("Fail to read previous sources", e);
+    } finally {
+      FileUtils.deleteQuietly(export);
+    }
+  }
+}
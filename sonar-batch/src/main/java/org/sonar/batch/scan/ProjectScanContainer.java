@@ -39,6 +39,7 @@ import org.sonar.batch.components.PeriodsDefinition;
 import org.sonar.batch.index.*;
 import org.sonar.batch.issue.*;
 import org.sonar.batch.phases.GraphPersister;
+import org.sonar.batch.profiling.JsonProfileExporter;
 import org.sonar.batch.profiling.PhasesSumUpTimeProfiler;
 import org.sonar.batch.scan.filesystem.InputFileCache;
 import org.sonar.batch.scan.maven.FakeMavenPluginExecutor;
@@ -72,7 +73,7 @@ public class ProjectScanContainer extends ComponentContainer {
     addBatchExtensions();
     Settings settings = getComponentByType(Settings.class);
     if (settings != null && settings.getBoolean(CoreProperties.PROFILING_LOG_PROPERTY)) {
-      add(PhasesSumUpTimeProfiler.class);
+      add(PhasesSumUpTimeProfiler.class, JsonProfileExporter.class);
     }
   }
 
@@ -114,6 +115,7 @@ public class ProjectScanContainer extends ComponentContainer {
       DefaultFileLinesContextFactory.class,
       ProjectLock.class,
       LastSnapshots.class,
+      PreviousSources.class,
       Caches.class,
       SnapshotCache.class,
       ResourceCache.class,
@@ -140,7 +142,7 @@ public class ProjectScanContainer extends ComponentContainer {
       TestablePerspectiveLoader.class,
       TestPlanBuilder.class,
       TestableBuilder.class,
-      ScanGraph.create(),
+      ScanGraph.createCompact(),
       GraphPersister.class,
 
       // lang
@@ -37,6 +37,9 @@ import org.sonar.api.scan.filesystem.internal.DefaultInputFile;
 import org.sonar.api.scan.filesystem.internal.InputFile;
 import org.sonar.api.scan.filesystem.internal.InputFileFilter;
 import org.sonar.api.utils.PathUtils;
+import org.sonar.batch.profiling.BatchMetrics;
+import org.sonar.batch.profiling.Counter;
+import org.sonar.batch.profiling.Histogram;
 
 import javax.annotation.CheckForNull;
 import javax.annotation.Nullable;
@@ -75,21 +78,28 @@ public class FileIndex implements BatchComponent {
   private final InputFileCache cache;
   private final FileHashes fileHashes;
   private final Project project;
+  private final Counter indexedFiles;
+  private final Counter removedFiles;
+  private final Histogram indexTimeInMs;
 
   public FileIndex(List<InputFileFilter> filters, LanguageRecognizer languageRecognizer,
-                   InputFileCache cache, FileHashes fileHashes, PathResolver pathResolver, Project project) {
+                   InputFileCache cache, FileHashes fileHashes, PathResolver pathResolver, Project project, BatchMetrics metrics) {
     this.filters = filters;
     this.languageRecognizer = languageRecognizer;
     this.cache = cache;
     this.fileHashes = fileHashes;
     this.pathResolver = pathResolver;
     this.project = project;
+    this.indexedFiles = metrics.counter(FileIndex.class, "indexedFiles");
+    this.removedFiles = metrics.counter(FileIndex.class, "removedFiles");
+    this.indexTimeInMs = metrics.histogram(FileIndex.class, "indexTimeInMs");
   }
 
   void index(DefaultModuleFileSystem fileSystem) {
     Logger logger = LoggerFactory.getLogger(FileIndex.class);
     logger.info("Index files");
     // TODO log configuration too (replace FileSystemLogger)
+    long start = System.currentTimeMillis();
 
     Progress progress = new Progress(cache.fileRelativePaths(fileSystem.moduleKey()));
 
@@ -117,6 +127,9 @@ public class FileIndex implements BatchComponent {
     for (String path : progress.removedPaths) {
       cache.remove(fileSystem.moduleKey(), path);
     }
+    indexedFiles.add(progress.count);
+    removedFiles.add(progress.removedPaths.size());
+    indexTimeInMs.record(System.currentTimeMillis() - start);
 
     logger.info(String.format("%d files indexed", progress.count));
   }
@@ -20,6 +20,7 @@
 package org.sonar.batch.bootstrap;
 
 import com.google.common.collect.Lists;
+import org.apache.commons.codec.digest.DigestUtils;
 import org.codehaus.plexus.util.FileUtils;
 import org.junit.After;
 import org.junit.Before;
@@ -40,6 +41,7 @@ import java.util.List;
 
 import static org.fest.assertions.Assertions.assertThat;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyZeroInteractions;
 import static org.mockito.Mockito.when;
 
 public class BatchPluginRepositoryTest {
@@ -82,6 +84,34 @@ public class BatchPluginRepositoryTest {
     assertThat(repository.getMetadata("checkstyle").getDeployedFiles()).hasSize(4); // plugin + 3 dependencies
   }
 
+  @Test
+  public void shouldReusePluginInstalledInCache() throws IOException {
+    TempFolder tempDirs = mock(TempFolder.class);
+    RemotePlugin checkstyle = new RemotePlugin("checkstyle", true).addFile("sonar-checkstyle-plugin-2.8.jar", "abc123");
+    File pluginFile = copyFiles("sonar-checkstyle-plugin-2.8.jar").get(0);
+    File installDir = new File(pluginFile.getParentFile(), "_install-" + DigestUtils.md5Hex("abc123"));
+    FileUtils.deleteDirectory(installDir);
+
+    PluginDownloader downloader = mock(PluginDownloader.class);
+    when(downloader.downloadPlugin(checkstyle)).thenReturn(Arrays.asList(pluginFile));
+
+    repository = new BatchPluginRepository(downloader, tempDirs, new Settings(), mode);
+    repository.doStart(Arrays.asList(checkstyle));
+    repository.stop();
+
+    File marker = new File(installDir, "marker.txt");
+    FileUtils.fileWrite(marker.getAbsolutePath(), "marker");
+    repository = new BatchPluginRepository(downloader, tempDirs, new Settings(), mode);
+    repository.doStart(Arrays.asList(checkstyle));
+
+    assertThat(marker).exists();
+    assertThat(repository.getPlugin("checkstyle")).isNotNull();
+    assertThat(repository.getMetadata("checkstyle").getName()).isEqualTo("Checkstyle");
+    assertThat(repository.getMetadata("checkstyle").getDeployedFiles()).hasSize(4);
+    assertThat(repository.getMetadata("checkstyle").getFile().getParentFile()).isEqualTo(installDir);
+    verifyZeroInteractions(tempDirs);
+  }
+
   @Test
   public void shouldLoadPluginExtension() throws IOException {
     TempFolder tempDirs = mock(TempFolder.class);
@@ -69,10 +69,10 @@ public class JdbcDriverHolderTest {
     assertThat(Thread.currentThread().getContextClassLoader().getResource("foo/foo.txt")).isNull();
 
     ServerClient server = mock(ServerClient.class);
-    when(server.request("/deploy/jdbc-driver.txt")).thenReturn("ojdbc14.jar|fakemd5");
-    when(server.request("/deploy/ojdbc14.jar")).thenReturn("fakecontent");
+    ServerResponseCache responseCache = mock(ServerResponseCache.class);
+    when(responseCache.request("/deploy/jdbc-driver.txt")).thenReturn("ojdbc14.jar|fakemd5");
 
-    JdbcDriverHolder holder = new JdbcDriverHolder(cache, mode, server);
+    JdbcDriverHolder holder = new JdbcDriverHolder(cache, mode, server, responseCache);
     holder.start();
 
     assertThat(holder.getClassLoader().getResource("foo/foo.txt")).isNotNull();
@@ -89,12 +89,13 @@ public class JdbcDriverHolderTest {
     FileCache cache = mock(FileCache.class);
     when(mode.isPreview()).thenReturn(true);
     ServerClient server = mock(ServerClient.class);
-    JdbcDriverHolder holder = new JdbcDriverHolder(cache, mode, server);
+    ServerResponseCache responseCache = mock(ServerResponseCache.class);
+    JdbcDriverHolder holder = new JdbcDriverHolder(cache, mode, server, responseCache);
 
     holder.start();
 
     assertThat(holder.getClassLoader()).isNull();
-    verifyZeroInteractions(server);
+    verifyZeroInteractions(server, responseCache);
 
     // no error during stop
     holder.stop();
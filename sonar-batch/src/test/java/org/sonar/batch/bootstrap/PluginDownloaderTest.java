@@ -49,8 +49,9 @@ public class PluginDownloaderTest {
   public void should_request_list_of_plugins() {
     FileCache cache = mock(FileCache.class);
     ServerClient server = mock(ServerClient.class);
-    when(server.request("/deploy/plugins/index.txt")).thenReturn("checkstyle,true\nsqale,false");
-    PluginDownloader downloader = new PluginDownloader(cache, server);
+    ServerResponseCache responseCache = mock(ServerResponseCache.class);
+    when(responseCache.request("/deploy/plugins/index.txt")).thenReturn("checkstyle,true\nsqale,false");
+    PluginDownloader downloader = new PluginDownloader(cache, server, responseCache);
 
     List<RemotePlugin> plugins = downloader.downloadPluginIndex();
     assertThat(plugins).hasSize(2);
@@ -70,7 +71,7 @@ public class PluginDownloaderTest {
     when(cache.get(eq("checkstyle-extensions.jar"), eq("fakemd5_2"), any(FileCache.Downloader.class))).thenReturn(extensionJar);
 
     ServerClient server = mock(ServerClient.class);
-    PluginDownloader downloader = new PluginDownloader(cache, server);
+    PluginDownloader downloader = new PluginDownloader(cache, server, mock(ServerResponseCache.class));
 
     RemotePlugin plugin = new RemotePlugin("checkstyle", true)
       .addFile("checkstyle-plugin.jar", "fakemd5_1")
@@ -84,9 +85,9 @@ public class PluginDownloaderTest {
   public void should_fail_to_get_plugin_index() throws Exception {
     thrown.expect(SonarException.class);
 
-    ServerClient server = mock(ServerClient.class);
-    doThrow(new SonarException()).when(server).request("/deploy/plugins/index.txt");
+    ServerResponseCache responseCache = mock(ServerResponseCache.class);
+    doThrow(new SonarException()).when(responseCache).request("/deploy/plugins/index.txt");
 
-    new PluginDownloader(mock(FileCache.class), server).downloadPluginIndex();
+    new PluginDownloader(mock(FileCache.class), mock(ServerClient.class), responseCache).downloadPluginIndex();
   }
 }
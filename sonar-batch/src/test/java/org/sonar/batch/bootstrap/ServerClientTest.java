@@ -20,7 +20,11 @@
 package org.sonar.batch.bootstrap;
 
 import com.google.common.base.Charsets;
+import com.google.common.collect.Sets;
 import com.google.common.io.Files;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
 import org.apache.commons.io.IOUtils;
 import org.eclipse.jetty.server.Handler;
 import org.eclipse.jetty.server.Request;
@@ -31,6 +35,7 @@ import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
 import org.junit.rules.TemporaryFolder;
+import org.sonar.api.utils.SonarException;
 import org.sonar.batch.bootstrapper.EnvironmentInformation;
 
 import javax.servlet.ServletException;
@@ -39,6 +44,10 @@ import javax.servlet.http.HttpServletResponse;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.Collections;
+import java.util.Set;
 
 import static javax.servlet.http.HttpServletResponse.SC_OK;
 import static org.apache.commons.io.IOUtils.write;
@@ -103,6 +112,77 @@ public class ServerClientTest {
     assertThat(Files.toString(file, Charsets.UTF_8)).isEqualTo("this is the content");
   }
 
+  @Test
+  public void should_collect_stats_by_endpoint() throws Exception {
+    server = new MockHttpServer();
+    server.start();
+    server.setMockResponseData("this is the content");
+
+    ServerClient client = newServerClient();
+    client.request("/foo?key=one");
+    client.request("/foo?key=two");
+    client.download("/bar", temp.newFile());
+
+    assertThat(client.getStatsByEndpoint().keySet()).containsOnly("/foo", "/bar");
+    ServerClient.EndpointStats stats = client.getStatsByEndpoint().get("/foo");
+    assertThat(stats.getRequests()).isEqualTo(2);
+    assertThat(stats.getBytes()).isEqualTo(2 * "this is the content".length());
+    assertThat(stats.getTimeInMs()).isGreaterThanOrEqualTo(0);
+    assertThat(client.getStatsByEndpoint().get("/bar").getRequests()).isEqualTo(1);
+  }
+
+  @Test
+  public void should_collect_stats_of_failed_requests() throws Exception {
+    server = new MockHttpServer();
+    server.start();
+    server.setMockResponseStatus(500);
+
+    ServerClient client = newServerClient();
+    try {
+      client.request("/foo");
+    } catch (SonarException e) {
+      // expected
+    }
+
+    assertThat(client.getStatsByEndpoint().get("/foo").getRequests()).isEqualTo(1);
+    assertThat(client.getStatsByEndpoint().get("/foo").getBytes()).isEqualTo(0);
+  }
+
+  /**
+   * The JDK server logs the client port of each request. A single port means that the
+   * connection is kept alive and reused by all the requests.
+   */
+  @Test
+  public void should_reuse_keep_alive_connection() throws Exception {
+    final Set<Integer> clientPorts = Collections.synchronizedSet(Sets.<Integer>newHashSet());
+    final byte[] content = "this is the content".getBytes(Charsets.UTF_8);
+    HttpServer httpServer = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    httpServer.createContext("/", new HttpHandler() {
+      public void handle(HttpExchange exchange) throws IOException {
+        clientPorts.add(exchange.getRemoteAddress().getPort());
+        exchange.sendResponseHeaders(SC_OK, content.length);
+        OutputStream output = exchange.getResponseBody();
+        output.write(content);
+        output.close();
+      }
+    });
+    httpServer.start();
+    try {
+      when(settings.property(eq("sonar.host.url"), anyString())).thenReturn("http://localhost:" + httpServer.getAddress().getPort());
+      ServerClient client = new ServerClient(settings, new EnvironmentInformation("Junit", "4"));
+      for (int i = 0; i < 10; i++) {
+        client.request("/foo?i=" + i);
+        client.download("/bar", temp.newFile());
+      }
+
+      assertThat(clientPorts).hasSize(1);
+      assertThat(client.getStatsByEndpoint().get("/foo").getRequests()).isEqualTo(10);
+      assertThat(client.getStatsByEndpoint().get("/bar").getBytes()).isEqualTo(10L * content.length);
+    } finally {
+      httpServer.stop(0);
+    }
+  }
+
   @Test
   public void should_fail_if_unauthorized_with_no_login_password() throws Exception {
     server = new MockHttpServer();
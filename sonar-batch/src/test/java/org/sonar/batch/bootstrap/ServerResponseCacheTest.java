@@ -0,0 +1,90 @@
+/*
+ * SonarQube, open source software quality management tool.
+ * Copyright (C) 2008-2013 SonarSource
+ * mailto:contact AT sonarsource DOT com
+ *
+ * SonarQube is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * SonarQube is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.batch.bootstrap;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.sonar.home.cache.FileCache;
+
+import java.io.File;
+
+import static org.fest.assertions.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class ServerResponseCacheTest {
+
+  @Rule
+  public TemporaryFolder temp = new TemporaryFolder();
+
+  private ServerClient client = mock(ServerClient.class);
+  private FileCache fileCache = mock(FileCache.class);
+
+  @Before
+  public void before() throws Exception {
+    when(client.getURL()).thenReturn("http://localhost:9000");
+    when(fileCache.getDir()).thenReturn(temp.newFolder());
+  }
+
+  @Test
+  public void should_request_server_only_once_per_server_startup() {
+    when(client.request("/api/server")).thenReturn("{\"id\":\"20131017120000\",\"version\":\"4.1\"}");
+    when(client.request("/deploy/plugins/index.txt")).thenReturn("checkstyle,true");
+
+    assertThat(new ServerResponseCache(client, fileCache).request("/deploy/plugins/index.txt")).isEqualTo("checkstyle,true");
+    assertThat(new ServerResponseCache(client, fileCache).request("/deploy/plugins/index.txt")).isEqualTo("checkstyle,true");
+
+    verify(client, times(1)).request("/deploy/plugins/index.txt");
+  }
+
+  @Test
+  public void should_request_server_again_after_restart() {
+    when(client.request("/api/server")).thenReturn("{\"id\":\"20131017120000\",\"version\":\"4.1\"}");
+    when(client.request("/deploy/plugins/index.txt")).thenReturn("checkstyle,true");
+    new ServerResponseCache(client, fileCache).request("/deploy/plugins/index.txt");
+
+    when(client.request("/api/server")).thenReturn("{\"id\":\"20131018080000\",\"version\":\"4.1\"}");
+    when(client.request("/deploy/plugins/index.txt")).thenReturn("checkstyle,true\nsqale,false");
+    ServerResponseCache cache = new ServerResponseCache(client, fileCache);
+
+    assertThat(cache.request("/deploy/plugins/index.txt")).isEqualTo("checkstyle,true\nsqale,false");
+    verify(client, times(2)).request("/deploy/plugins/index.txt");
+    // responses of the previous startup are deleted
+    File serverDir = new File(fileCache.getDir(), ServerResponseCache.DIR).listFiles()[0];
+    assertThat(serverDir.list()).containsOnly(cache.state());
+  }
+
+  @Test
+  public void should_request_server_state_once() {
+    when(client.request("/api/server")).thenReturn("{\"id\":\"20131017120000\",\"version\":\"4.1\"}");
+    when(client.request("/deploy/plugins/index.txt")).thenReturn("checkstyle,true");
+    when(client.request("/deploy/jdbc-driver.txt")).thenReturn("h2.jar|abc");
+
+    ServerResponseCache cache = new ServerResponseCache(client, fileCache);
+    cache.request("/deploy/plugins/index.txt");
+    cache.request("/deploy/jdbc-driver.txt");
+
+    verify(client, times(1)).request("/api/server");
+  }
+}
@@ -0,0 +1,93 @@
+/*
+ * SonarQube, open source software quality management tool.
+ * Copyright (C) 2008-2013 SonarSource
+ * mailto:contact AT sonarsource DOT com
+ *
+ * SonarQube is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * SonarQube is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.batch.index;
+
+import org.junit.Ignore;
+import org.junit.Test;
+import org.sonar.api.measures.Measure;
+import org.sonar.api.measures.MeasuresFilter;
+import org.sonar.api.measures.MeasuresFilters;
+import org.sonar.api.measures.Metric;
+import org.sonar.api.resources.Directory;
+import org.sonar.api.resources.File;
+import org.sonar.api.resources.Project;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Measures the heap retained by the measures of a large module, and the time to aggregate them on directories as
+ * decorators do. Ignored as results depend on the virtual machine and on the garbage collector.
+ */
+@Ignore
+public class BucketBenchmarkTest {
+
+  private static final int DIRECTORIES = 100;
+  private static final int FILES_PER_DIRECTORY = 100;
+  private static final int METRICS = 60;
+
+  @Test
+  public void aggregate_measures_of_large_module() {
+    List<MeasuresFilter<Measure>> filters = new ArrayList<MeasuresFilter<Measure>>();
+    Metric[] metrics = new Metric[METRICS];
+    for (int m = 0; m < METRICS; m++) {
+      metrics[m] = new Metric("metric" + m);
+      filters.add(MeasuresFilters.metric(metrics[m]));
+    }
+
+    long heapBefore = usedHeap();
+    Bucket module = new Bucket(new Project("module"));
+    for (int d = 0; d < DIRECTORIES; d++) {
+      Bucket directory = new Bucket(new Directory("dir" + d)).setParent(module);
+      for (int f = 0; f < FILES_PER_DIRECTORY; f++) {
+        Bucket file = new Bucket(new File("dir" + d, "File" + f + ".java")).setParent(directory);
+        for (Metric metric : metrics) {
+          file.addMeasure(new Measure(metric, (double) f));
+        }
+      }
+    }
+    long heap = usedHeap() - heapBefore;
+    System.out.println(String.format("%d files: %d MB retained, %d bytes per measure", DIRECTORIES * FILES_PER_DIRECTORY,
+      heap / (1024 * 1024), heap / ((long) DIRECTORIES * FILES_PER_DIRECTORY * METRICS)));
+
+    for (int run = 0; run < 5; run++) {
+      long start = System.currentTimeMillis();
+      double total = 0;
+      for (Bucket directory : module.getChildren()) {
+        for (MeasuresFilter<Measure> filter : filters) {
+          double sum = 0;
+          for (Bucket file : directory.getChildren()) {
+            sum += file.getMeasures(filter).getValue();
+          }
+          total += sum;
+        }
+      }
+      System.out.println(String.format("Aggregation of %d metrics on directories: %d ms (%.0f)", METRICS, System.currentTimeMillis() - start, total));
+    }
+  }
+
+  private static long usedHeap() {
+    Runtime runtime = Runtime.getRuntime();
+    for (int i = 0; i < 3; i++) {
+      System.gc();
+    }
+    return runtime.totalMemory() - runtime.freeMemory();
+  }
+}
@@ -23,6 +23,7 @@ import org.junit.Test;
 import org.sonar.api.measures.Measure;
 import org.sonar.api.measures.MeasuresFilters;
 import org.sonar.api.measures.Metric;
+import org.sonar.api.measures.RuleMeasure;
 import org.sonar.api.resources.JavaFile;
 import org.sonar.api.resources.JavaPackage;
 import org.sonar.api.rules.Rule;
@@ -30,6 +31,7 @@ import org.sonar.api.rules.Violation;
 import org.sonar.api.utils.SonarException;
 
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
 import static org.hamcrest.core.IsNot.not;
 import static org.junit.Assert.*;
 import static org.junit.internal.matchers.IsCollectionContaining.hasItem;
@@ -87,6 +89,37 @@ public class BucketTest {
     fileBucket.addMeasure(measure);
   }
 
+  @Test
+  public void shouldKeepSeveralMeasuresOfMetric() {
+    Bucket fileBucket = new Bucket(javaFile);
+    Measure measure = new Measure(ncloc).setValue(1200.0);
+    RuleMeasure ruleMeasure = RuleMeasure.createForRule(ncloc, Rule.create("checkstyle", "foo"), 3.0);
+    RuleMeasure otherRuleMeasure = RuleMeasure.createForRule(ncloc, Rule.create("checkstyle", "bar"), 5.0);
+    fileBucket.addMeasure(ruleMeasure);
+    fileBucket.addMeasure(measure);
+    fileBucket.addMeasure(otherRuleMeasure);
+    fileBucket.addMeasure(ruleMeasure);
+
+    assertThat(fileBucket.getMeasures(MeasuresFilters.all()).size(), is(3));
+    assertThat(fileBucket.getMeasures(MeasuresFilters.metric(ncloc)), is(measure));
+    assertThat(fileBucket.getMeasures(MeasuresFilters.rules(ncloc)).size(), is(2));
+  }
+
+  @Test
+  public void shouldIndexManyMetrics() {
+    Bucket fileBucket = new Bucket(javaFile);
+    for (int i = 0; i < 100; i++) {
+      fileBucket.addMeasure(new Measure(new Metric("metric" + i)).setValue((double) i));
+    }
+
+    assertThat(fileBucket.getMeasures(MeasuresFilters.all()).size(), is(100));
+    assertThat(fileBucket.getMeasures(MeasuresFilters.all()).iterator().next().getValue(), is(0.0));
+    for (int i = 0; i < 100; i++) {
+      assertThat(fileBucket.getMeasures(MeasuresFilters.metric("metric" + i)).getValue(), is((double) i));
+    }
+    assertThat(fileBucket.getMeasures(MeasuresFilters.metric("unknown")), nullValue());
+  }
+
   @Test
   public void shouldBeEquals() {
     assertEquals(new Bucket(javaPackage), new Bucket(javaPackage));
@@ -29,6 +29,7 @@ import org.sonar.api.CoreProperties;
 import org.sonar.batch.bootstrap.BootstrapProperties;
 import org.sonar.batch.bootstrap.BootstrapSettings;
 import org.sonar.batch.bootstrap.TempFolderProvider;
+import org.sonar.batch.profiling.BatchMetrics;
 
 import java.io.File;
 import java.io.IOException;
@@ -43,13 +44,17 @@ public class CachesTest {
   public static TemporaryFolder temp = new TemporaryFolder();
 
   public static Caches createCacheOnTemp(TemporaryFolder temp) {
+    return createCacheOnTemp(temp, new BatchMetrics());
+  }
+
+  public static Caches createCacheOnTemp(TemporaryFolder temp, BatchMetrics metrics) {
     BootstrapSettings bootstrapSettings = new BootstrapSettings(new BootstrapProperties(Collections.emptyMap()));
     try {
       bootstrapSettings.properties().put(CoreProperties.WORKING_DIRECTORY, temp.newFolder().getAbsolutePath());
     } catch (IOException e) {
       throw new RuntimeException(e);
     }
-    return new Caches(new TempFolderProvider().provide(bootstrapSettings));
+    return new Caches(new TempFolderProvider().provide(bootstrapSettings), metrics);
   }
 
   Caches caches;
@@ -64,6 +69,25 @@ public class CachesTest {
     caches.stop();
   }
 
+  @Test
+  public void should_count_puts_hits_and_misses() throws Exception {
+    BatchMetrics metrics = new BatchMetrics();
+    Caches caches = createCacheOnTemp(temp, metrics);
+    try {
+      Cache<String, String> cache = caches.createCache("issues");
+      cache.put("foo", "bar");
+      cache.get("foo");
+      cache.get("foo");
+      cache.get("other");
+
+      assertThat(metrics.counters("Caches").get("issues.puts").get()).isEqualTo(1L);
+      assertThat(metrics.counters("Caches").get("issues.hits").get()).isEqualTo(2L);
+      assertThat(metrics.counters("Caches").get("issues.misses").get()).isEqualTo(1L);
+    } finally {
+      caches.stop();
+    }
+  }
+
   @Test
   public void should_stop_and_clean_temp_dir() throws Exception {
     File tempDir = caches.tempDir();
@@ -25,6 +25,7 @@ import org.sonar.api.database.model.Snapshot;
 import org.sonar.api.resources.DuplicatedSourceException;
 import org.sonar.api.resources.JavaFile;
 import org.sonar.api.resources.Resource;
+import org.sonar.batch.profiling.BatchMetrics;
 import org.sonar.jpa.test.AbstractDbUnitTestCase;
 
 import static org.mockito.Matchers.any;
@@ -41,7 +42,7 @@ public class SourcePersisterTest extends AbstractDbUnitTestCase {
     Snapshot snapshot = getSession().getSingleResult(Snapshot.class, "id", 1000);
     ResourcePersister resourcePersister = mock(ResourcePersister.class);
     when(resourcePersister.getSnapshotOrFail(any(Resource.class))).thenReturn(snapshot);
-    sourcePersister = new SourcePersister(getSession(), resourcePersister);
+    sourcePersister = new SourcePersister(getSession(), resourcePersister, new BatchMetrics());
   }
 
   @Test
@@ -23,6 +23,7 @@ import org.junit.Before;
 import org.junit.Test;
 import org.sonar.api.issue.internal.DefaultIssue;
 import org.sonar.batch.bootstrap.AnalysisMode;
+import org.sonar.batch.profiling.BatchMetrics;
 import org.sonar.core.persistence.AbstractDaoTestCase;
 
 import java.util.Arrays;
@@ -49,7 +50,7 @@ public class IssuePersisterTest extends AbstractDaoTestCase {
     storage = mock(ScanIssueStorage.class);
 
     mode = mock(AnalysisMode.class);
-    persister = new IssuePersister(issueCache, storage, mode);
+    persister = new IssuePersister(issueCache, storage, mode, new BatchMetrics());
   }
 
   @Test
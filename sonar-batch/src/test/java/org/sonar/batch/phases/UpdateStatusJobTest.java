@@ -35,6 +35,7 @@ import org.sonar.batch.index.DefaultResourcePersister;
 import org.sonar.batch.index.ResourceCache;
 import org.sonar.batch.index.ResourcePersister;
 import org.sonar.batch.index.SnapshotCache;
+import org.sonar.batch.profiling.BatchMetrics;
 import org.sonar.jpa.test.AbstractDbUnitTestCase;
 
 import javax.persistence.Query;
@@ -78,7 +79,7 @@ public class UpdateStatusJobTest extends AbstractDbUnitTestCase {
     Project project = new Project("foo");
     project.setId(1);
     UpdateStatusJob job = new UpdateStatusJob(new Settings().appendProperty(CoreProperties.SERVER_BASE_URL, "http://myserver/"), mock(ServerClient.class), session,
-      new DefaultResourcePersister(session, mock(ResourcePermissions.class), mock(SnapshotCache.class), mock(ResourceCache.class)),
+      new DefaultResourcePersister(session, mock(ResourcePermissions.class), mock(SnapshotCache.class), mock(ResourceCache.class), new BatchMetrics()),
       project, loadSnapshot(snapshotId), mode);
     job.execute();
 
@@ -0,0 +1,50 @@
+/*
+ * SonarQube, open source software quality management tool.
+ * Copyright (C) 2008-2013 SonarSource
+ * mailto:contact AT sonarsource DOT com
+ *
+ * SonarQube is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * SonarQube is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.batch.profiling;
+
+import org.junit.Test;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+public class BatchMetricsTest {
+
+  @Test
+  public void should_register_metrics_by_component() {
+    BatchMetrics metrics = new BatchMetrics();
+    metrics.counter(String.class, "foo").increment();
+    metrics.counter(String.class, "foo").add(2L);
+    metrics.histogram(Integer.class, "bar").record(5L);
+
+    assertThat(metrics.components()).containsOnly("String", "Integer");
+    assertThat(metrics.counters("String").get("foo").get()).isEqualTo(3L);
+    assertThat(metrics.counters("Integer")).isEmpty();
+    assertThat(metrics.histograms("Integer").get("bar").count()).isEqualTo(1L);
+    assertThat(metrics.histograms("String")).isEmpty();
+  }
+
+  @Test
+  public void unknown_component() {
+    BatchMetrics metrics = new BatchMetrics();
+
+    assertThat(metrics.components()).isEmpty();
+    assertThat(metrics.counters("Unknown")).isEmpty();
+    assertThat(metrics.histograms("Unknown")).isEmpty();
+  }
+}
@@ -0,0 +1,77 @@
+/*
+ * SonarQube, open source software quality management tool.
+ * Copyright (C) 2008-2013 SonarSource
+ * mailto:contact AT sonarsource DOT com
+ *
+ * SonarQube is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * SonarQube is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.batch.profiling;
+
+import org.junit.Test;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+public class HistogramTest {
+
+  @Test
+  public void empty_histogram() {
+    Histogram histogram = new Histogram();
+
+    assertThat(histogram.count()).isEqualTo(0L);
+    assertThat(histogram.sum()).isEqualTo(0L);
+    assertThat(histogram.min()).isEqualTo(0L);
+    assertThat(histogram.max()).isEqualTo(0L);
+    assertThat(histogram.mean()).isEqualTo(0.0);
+    assertThat(histogram.percentile(50)).isEqualTo(0L);
+  }
+
+  @Test
+  public void record_values() {
+    Histogram histogram = new Histogram();
+    for (long value = 1L; value <= 100L; value++) {
+      histogram.record(value);
+    }
+
+    assertThat(histogram.count()).isEqualTo(100L);
+    assertThat(histogram.sum()).isEqualTo(5050L);
+    assertThat(histogram.min()).isEqualTo(1L);
+    assertThat(histogram.max()).isEqualTo(100L);
+    assertThat(histogram.mean()).isEqualTo(50.5);
+  }
+
+  @Test
+  public void percentiles_are_upper_bounds_of_power_of_two_buckets() {
+    Histogram histogram = new Histogram();
+    for (long value = 1L; value <= 100L; value++) {
+      histogram.record(value);
+    }
+
+    // the 50th value is in the bucket [32, 63]
+    assertThat(histogram.percentile(50)).isEqualTo(63L);
+    // the 99th value is in the bucket [64, 127], bounded by max
+    assertThat(histogram.percentile(99)).isEqualTo(100L);
+    assertThat(histogram.percentile(0)).isEqualTo(1L);
+  }
+
+  @Test
+  public void record_zero_and_large_values() {
+    Histogram histogram = new Histogram();
+    histogram.record(0L);
+    histogram.record(Long.MAX_VALUE);
+
+    assertThat(histogram.percentile(50)).isEqualTo(0L);
+    assertThat(histogram.percentile(100)).isEqualTo(Long.MAX_VALUE);
+  }
+}
@@ -0,0 +1,86 @@
+/*
+ * SonarQube, open source software quality management tool.
+ * Copyright (C) 2008-2013 SonarSource
+ * mailto:contact AT sonarsource DOT com
+ *
+ * SonarQube is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * SonarQube is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.batch.profiling;
+
+import com.google.common.collect.ImmutableMap;
+import org.apache.commons.io.FileUtils;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.skyscreamer.jsonassert.JSONAssert;
+import org.sonar.api.batch.bootstrap.ProjectDefinition;
+import org.sonar.api.batch.bootstrap.ProjectReactor;
+import org.sonar.batch.bootstrap.ServerClient;
+
+import java.io.File;
+import java.io.StringWriter;
+
+import static org.fest.assertions.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class JsonProfileExporterTest {
+
+  @Rule
+  public TemporaryFolder temp = new TemporaryFolder();
+
+  BatchMetrics metrics = new BatchMetrics();
+  ServerClient serverClient = mock(ServerClient.class);
+
+  @Before
+  public void prepare() {
+    metrics.counter(String.class, "calls").add(3L);
+    metrics.histogram(String.class, "timeInMs").record(10L);
+    when(serverClient.getStatsByEndpoint()).thenReturn(ImmutableMap.of("/batch/global", new ServerClient.EndpointStats()));
+  }
+
+  @Test
+  public void should_write_metrics() throws Exception {
+    JsonProfileExporter exporter = new JsonProfileExporter(metrics, serverClient, mock(ProjectReactor.class));
+
+    StringWriter writer = new StringWriter();
+    exporter.writeJson("struts", writer);
+
+    JSONAssert.assertEquals("{" +
+      "\"project\": \"struts\"," +
+      "\"components\": {\"String\": {" +
+      "  \"counters\": {\"calls\": 3}," +
+      "  \"histograms\": {\"timeInMs\": {\"count\": 1, \"sum\": 10, \"min\": 10, \"max\": 10, \"mean\": 10.0, \"p50\": 10, \"p90\": 10, \"p99\": 10}}" +
+      "}}," +
+      "\"serverRequests\": {\"/batch/global\": {\"requests\": 0, \"timeInMs\": 0, \"bytes\": 0}}" +
+      "}", writer.toString(), false);
+    assertThat(writer.toString()).contains("\"jvm\":{\"heapUsedBytes\":");
+  }
+
+  @Test
+  public void should_export_file_in_working_directory_of_root_project() throws Exception {
+    File workDir = temp.newFolder();
+    ProjectReactor reactor = new ProjectReactor(ProjectDefinition.create().setKey("struts").setWorkDir(workDir));
+    JsonProfileExporter exporter = new JsonProfileExporter(metrics, serverClient, reactor);
+
+    exporter.start();
+    exporter.stop();
+
+    File exportFile = new File(workDir, "profiling/metrics.json");
+    assertThat(exportFile).exists();
+    assertThat(FileUtils.readFileToString(exportFile)).startsWith("{\"project\":\"struts\"");
+  }
+}
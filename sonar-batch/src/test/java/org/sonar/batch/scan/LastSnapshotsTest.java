@@ -46,10 +46,12 @@ public class LastSnapshotsTest extends AbstractDbUnitTestCase {
   @Rule
   public ExpectedException thrown = ExpectedException.none();
   private AnalysisMode mode;
+  private PreviousSources previousSources;
 
   @Before
   public void before() {
     mode = mock(AnalysisMode.class);
+    previousSources = mock(PreviousSources.class);
   }
 
   @Test
@@ -57,7 +59,7 @@ public class LastSnapshotsTest extends AbstractDbUnitTestCase {
     setupData("last_snapshot");
     ServerClient server = mock(ServerClient.class);
 
-    LastSnapshots lastSnapshots = new LastSnapshots(mode, getSession(), server);
+    LastSnapshots lastSnapshots = new LastSnapshots(mode, getSession(), server, previousSources);
 
     assertThat(lastSnapshots.getSource(newFile())).isEqualTo("this is bar");
     verifyZeroInteractions(server);
@@ -68,7 +70,7 @@ public class LastSnapshotsTest extends AbstractDbUnitTestCase {
     setupData("no_last_snapshot");
     ServerClient server = mock(ServerClient.class);
 
-    LastSnapshots lastSnapshots = new LastSnapshots(mode, getSession(), server);
+    LastSnapshots lastSnapshots = new LastSnapshots(mode, getSession(), server, previousSources);
 
     assertThat(lastSnapshots.getSource(newFile())).isEqualTo("");
     verifyZeroInteractions(server);
@@ -81,13 +83,26 @@ public class LastSnapshotsTest extends AbstractDbUnitTestCase {
     when(server.request(anyString(), eq(false))).thenReturn("downloaded source of Bar.c");
 
     when(mode.isPreview()).thenReturn(true);
-    LastSnapshots lastSnapshots = new LastSnapshots(mode, getSession(), server);
+    LastSnapshots lastSnapshots = new LastSnapshots(mode, getSession(), server, previousSources);
 
     String source = lastSnapshots.getSource(newFile());
     assertThat(source).isEqualTo("downloaded source of Bar.c");
     verify(server).request("/api/sources?resource=myproject:org/foo/Bar.c&format=txt", false);
   }
 
+  @Test
+  public void should_read_source_loaded_in_bulk_if_preview_mode() {
+    setupData("last_snapshot");
+    ServerClient server = mock(ServerClient.class);
+    when(previousSources.get("myproject:org/foo/Bar.c")).thenReturn("bulk source of Bar.c");
+
+    when(mode.isPreview()).thenReturn(true);
+    LastSnapshots lastSnapshots = new LastSnapshots(mode, getSession(), server, previousSources);
+
+    assertThat(lastSnapshots.getSource(newFile())).isEqualTo("bulk source of Bar.c");
+    verifyZeroInteractions(server);
+  }
+
   @Test
   public void should_fail_to_download_source_from_ws() throws URISyntaxException {
     setupData("last_snapshot");
@@ -95,7 +110,7 @@ public class LastSnapshotsTest extends AbstractDbUnitTestCase {
     when(server.request(anyString(), eq(false))).thenThrow(new HttpDownloader.HttpException(new URI(""), 500));
 
     when(mode.isPreview()).thenReturn(true);
-    LastSnapshots lastSnapshots = new LastSnapshots(mode, getSession(), server);
+    LastSnapshots lastSnapshots = new LastSnapshots(mode, getSession(), server, previousSources);
 
     thrown.expect(HttpDownloader.HttpException.class);
     lastSnapshots.getSource(newFile());
@@ -108,7 +123,7 @@ public class LastSnapshotsTest extends AbstractDbUnitTestCase {
     when(server.request(anyString(), eq(false))).thenThrow(new HttpDownloader.HttpException(new URI(""), 404));
 
     when(mode.isPreview()).thenReturn(true);
-    LastSnapshots lastSnapshots = new LastSnapshots(mode, getSession(), server);
+    LastSnapshots lastSnapshots = new LastSnapshots(mode, getSession(), server, previousSources);
 
     String source = lastSnapshots.getSource(newFile());
     assertThat(source).isEqualTo("");
@@ -120,7 +135,7 @@ public class LastSnapshotsTest extends AbstractDbUnitTestCase {
     setupData("last_snapshot");
     ServerClient server = mock(ServerClient.class);
 
-    LastSnapshots lastSnapshots = new LastSnapshots(mode, getSession(), server);
+    LastSnapshots lastSnapshots = new LastSnapshots(mode, getSession(), server, previousSources);
 
     String source = lastSnapshots.getSource(new Project("my-project"));
     assertThat(source).isEqualTo("");
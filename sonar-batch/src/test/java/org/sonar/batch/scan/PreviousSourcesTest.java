@@ -0,0 +1,130 @@
+/*
+ * SonarQube, open source software quality management tool.
+ * Copyright (C) 2008-2013 SonarSource
+ * mailto:contact AT sonarsource DOT com
+ *
+ * SonarQube is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * SonarQube is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.batch.scan;
+
+import com.google.common.base.Charsets;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.sonar.api.resources.Project;
+import org.sonar.api.utils.SonarException;
+import org.sonar.api.utils.TempFolder;
+import org.sonar.batch.ProjectTree;
+import org.sonar.batch.bootstrap.AnalysisMode;
+import org.sonar.batch.bootstrap.ServerClient;
+import org.sonar.batch.index.Caches;
+import org.sonar.batch.index.CachesTest;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.zip.GZIPOutputStream;
+
+import static org.fest.assertions.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
+
+public class PreviousSourcesTest {
+
+  @Rule
+  public TemporaryFolder temp = new TemporaryFolder();
+
+  AnalysisMode mode = mock(AnalysisMode.class);
+  ServerClient server = mock(ServerClient.class);
+  ProjectTree projectTree = mock(ProjectTree.class);
+  TempFolder tempFolder = mock(TempFolder.class);
+  Caches caches;
+  PreviousSources previousSources;
+
+  @Before
+  public void before() throws Exception {
+    caches = CachesTest.createCacheOnTemp(temp);
+    when(projectTree.getRootProject()).thenReturn(new Project("struts"));
+    when(tempFolder.newFile("sources", ".gz")).thenReturn(temp.newFile());
+    previousSources = new PreviousSources(mode, server, projectTree, caches, tempFolder);
+  }
+
+  @After
+  public void after() {
+    previousSources.stop();
+    caches.stop();
+  }
+
+  @Test
+  public void should_load_sources_in_bulk_if_preview_mode() {
+    when(mode.isPreview()).thenReturn(true);
+    doAnswer(new Answer() {
+      public Object answer(InvocationOnMock invocation) throws IOException {
+        writeExport((File) invocation.getArguments()[1], "struts:Foo.java", "class Foo {}", "struts:Bar.java", "class Bar {}");
+        return null;
+      }
+    }).when(server).download(eq("/batch_bootstrap/sources?project=struts"), any(File.class));
+
+    previousSources.start();
+
+    assertThat(previousSources.get("struts:Foo.java")).isEqualTo("class Foo {}");
+    assertThat(previousSources.get("struts:Bar.java")).isEqualTo("class Bar {}");
+    // new file
+    assertThat(previousSources.get("struts:Baz.java")).isEqualTo("");
+  }
+
+  @Test
+  public void should_return_null_if_sources_can_not_be_loaded_in_bulk() {
+    when(mode.isPreview()).thenReturn(true);
+    doThrow(new SonarException("404")).when(server).download(eq("/batch_bootstrap/sources?project=struts"), any(File.class));
+
+    previousSources.start();
+
+    assertThat(previousSources.get("struts:Foo.java")).isNull();
+  }
+
+  @Test
+  public void should_not_load_sources_if_not_preview_mode() {
+    when(mode.isPreview()).thenReturn(false);
+
+    previousSources.start();
+
+    assertThat(previousSources.get("struts:Foo.java")).isNull();
+    verifyZeroInteractions(server);
+  }
+
+  private static void writeExport(File file, String... keysAndSources) throws IOException {
+    DataOutputStream output = new DataOutputStream(new GZIPOutputStream(new FileOutputStream(file)));
+    try {
+      for (String s : keysAndSources) {
+        byte[] bytes = s.getBytes(Charsets.UTF_8);
+        output.writeInt(bytes.length);
+        output.write(bytes);
+      }
+    } finally {
+      output.close();
+    }
+  }
+}
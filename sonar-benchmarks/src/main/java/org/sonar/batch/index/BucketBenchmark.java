@@ -0,0 +1,106 @@
+/*
+ * SonarQube, open source software quality management tool.
+ * Copyright (C) 2008-2013 SonarSource
+ * mailto:contact AT sonarsource DOT com
+ *
+ * SonarQube is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * SonarQube is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.batch.index;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.sonar.api.measures.Measure;
+import org.sonar.api.measures.MeasuresFilter;
+import org.sonar.api.measures.MeasuresFilters;
+import org.sonar.api.measures.Metric;
+import org.sonar.api.resources.Directory;
+import org.sonar.api.resources.File;
+import org.sonar.api.resources.Project;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Storage of the measures of a large module, and their aggregation on directories as decorators do. Memory allocated
+ * by the storage is reported by the GC profiler.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(2)
+public class BucketBenchmark {
+
+  private static final int FILES_PER_DIRECTORY = 100;
+  private static final int METRICS = 60;
+
+  @Param({"10", "100"})
+  int directories;
+
+  Metric[] metrics;
+  List<MeasuresFilter<Measure>> filters;
+  Bucket module;
+
+  @Setup(Level.Trial)
+  public void generate() {
+    metrics = new Metric[METRICS];
+    filters = new ArrayList<MeasuresFilter<Measure>>();
+    for (int m = 0; m < METRICS; m++) {
+      metrics[m] = new Metric("metric" + m);
+      filters.add(MeasuresFilters.metric(metrics[m]));
+    }
+    module = storeMeasures();
+  }
+
+  @Benchmark
+  public Bucket storeMeasures() {
+    Bucket result = new Bucket(new Project("module"));
+    for (int d = 0; d < directories; d++) {
+      Bucket directory = new Bucket(new Directory("dir" + d)).setParent(result);
+      for (int f = 0; f < FILES_PER_DIRECTORY; f++) {
+        Bucket file = new Bucket(new File("dir" + d, "File" + f + ".java")).setParent(directory);
+        for (Metric metric : metrics) {
+          file.addMeasure(new Measure(metric, (double) f));
+        }
+      }
+    }
+    return result;
+  }
+
+  @Benchmark
+  public double aggregateOnDirectories() {
+    double total = 0;
+    for (Bucket directory : module.getChildren()) {
+      for (MeasuresFilter<Measure> filter : filters) {
+        for (Bucket file : directory.getChildren()) {
+          total += file.getMeasures(filter).getValue();
+        }
+      }
+    }
+    return total;
+  }
+}
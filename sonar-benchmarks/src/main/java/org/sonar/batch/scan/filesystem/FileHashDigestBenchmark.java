@@ -0,0 +1,83 @@
+/*
+ * SonarQube, open source software quality management tool.
+ * Copyright (C) 2008-2013 SonarSource
+ * mailto:contact AT sonarsource DOT com
+ *
+ * SonarQube is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * SonarQube is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.batch.scan.filesystem;
+
+import org.apache.commons.io.FileUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.sonar.benchmarks.SyntheticCorpus;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hash of a source file ignoring ends of lines, as computed for each indexed file.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(2)
+public class FileHashDigestBenchmark {
+
+  private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+  @Param({"1000", "20000"})
+  int lines;
+
+  @Param({"LF", "CRLF"})
+  String endOfLine;
+
+  File file;
+
+  @Setup(Level.Trial)
+  public void generate() throws IOException {
+    String source = new SyntheticCorpus().newFile(lines);
+    if ("CRLF".equals(endOfLine)) {
+      source = source.replace("\n", "\r\n");
+    }
+    file = File.createTempFile("FileHashDigestBenchmark", ".java");
+    FileUtils.writeStringToFile(file, source, "UTF-8");
+  }
+
+  @TearDown(Level.Trial)
+  public void delete() {
+    FileUtils.deleteQuietly(file);
+  }
+
+  @Benchmark
+  public String hash() {
+    return FileHashDigest.INSTANCE.hash(file, UTF_8);
+  }
+}
@@ -0,0 +1,137 @@
+/*
+ * SonarQube, open source software quality management tool.
+ * Copyright (C) 2008-2013 SonarSource
+ * mailto:contact AT sonarsource DOT com
+ *
+ * SonarQube is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * SonarQube is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.benchmarks;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.lang.StringUtils;
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
+import org.json.simple.JSONValue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SortedMap;
+
+/**
+ * Compares two result files generated by JMH with the options "-rf json -rff &lt;file&gt;", for example the results
+ * of a baseline build and the results of a candidate build. A change is reported only when the confidence
+ * intervals of the two scores do not overlap.
+ */
+public final class CompareResults {
+
+  private CompareResults() {
+    // only static methods
+  }
+
+  public static void main(String[] args) throws IOException {
+    if (args.length != 2) {
+      System.err.println("Usage: java -cp benchmarks.jar " + CompareResults.class.getName() + " <baseline.json> <candidate.json>");
+      System.exit(1);
+    }
+    compare(load(new File(args[0])), load(new File(args[1])), System.out);
+  }
+
+  static SortedMap<String, Score> load(File file) throws IOException {
+    return parse(FileUtils.readFileToString(file, "UTF-8"));
+  }
+
+  static SortedMap<String, Score> parse(String json) {
+    SortedMap<String, Score> scores = Maps.newTreeMap();
+    for (Object item : (JSONArray) JSONValue.parse(json)) {
+      JSONObject result = (JSONObject) item;
+      StringBuilder name = new StringBuilder((String) result.get("benchmark"));
+      JSONObject params = (JSONObject) result.get("params");
+      if (params != null) {
+        List<String> keys = Lists.newArrayList();
+        for (Object key : params.keySet()) {
+          keys.add((String) key);
+        }
+        Collections.sort(keys);
+        for (String key : keys) {
+          name.append(' ').append(key).append('=').append(params.get(key));
+        }
+      }
+      JSONObject metric = (JSONObject) result.get("primaryMetric");
+      scores.put(name.toString(), new Score(toDouble(metric.get("score")), toDouble(metric.get("scoreError")), (String) metric.get("scoreUnit")));
+    }
+    return scores;
+  }
+
+  private static double toDouble(Object value) {
+    if (value instanceof Number) {
+      return ((Number) value).doubleValue();
+    }
+    // "NaN" is written as a string
+    return Double.parseDouble((String) value);
+  }
+
+  static void compare(Map<String, Score> baseline, Map<String, Score> candidate, PrintStream output) {
+    for (Map.Entry<String, Score> entry : baseline.entrySet()) {
+      Score before = entry.getValue();
+      Score after = candidate.get(entry.getKey());
+      if (after == null) {
+        output.println(String.format("%s: missing in candidate", entry.getKey()));
+      } else {
+        output.println(String.format(Locale.ENGLISH, "%s: %s -> %s (%+.1f%%) %s", entry.getKey(), before, after,
+          100.0 * (after.score - before.score) / before.score, verdict(before, after)));
+      }
+    }
+  }
+
+  static String verdict(Score before, Score after) {
+    if (after.score - after.error > before.score + before.error) {
+      return isThroughput(before) ? "IMPROVEMENT" : "REGRESSION";
+    }
+    if (after.score + after.error < before.score - before.error) {
+      return isThroughput(before) ? "REGRESSION" : "IMPROVEMENT";
+    }
+    return "";
+  }
+
+  private static boolean isThroughput(Score score) {
+    // throughput units are "ops/ms", average time units are "ms/op"
+    return StringUtils.startsWith(score.unit, "ops/");
+  }
+
+  static class Score {
+    final double score;
+    final double error;
+    final String unit;
+
+    Score(double score, double error, String unit) {
+      this.score = score;
+      // NaN when measured by a single iteration
+      this.error = Double.isNaN(error) ? 0.0 : error;
+      this.unit = unit;
+    }
+
+    @Override
+    public String toString() {
+      return String.format(Locale.ENGLISH, "%.3f +/- %.3f %s", score, error, unit);
+    }
+  }
+}
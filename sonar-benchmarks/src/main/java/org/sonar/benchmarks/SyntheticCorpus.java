@@ -0,0 +1,132 @@
+/*
+ * SonarQube, open source software quality management tool.
+ * Copyright (C) 2008-2013 SonarSource
+ * mailto:contact AT sonarsource DOT com
+ *
+ * SonarQube is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * SonarQube is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.benchmarks;
+
+import com.google.common.base.Splitter;
+import com.google.common.collect.Lists;
+
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generates Java-like source files from a seed, so that all the benchmarks of a build, and of two different builds,
+ * execute on exactly the same input. Methods are picked from a shared pool, so files contain duplicated blocks
+ * as real projects do.
+ */
+public final class SyntheticCorpus {
+
+  public static final long SEED = 42L;
+
+  private static final String[] STATEMENTS = {
+    "int result = a + b;",
+    "result = result * 31 + %d;",
+    "if (a > %d) {",
+    "return a - b;",
+    "}",
+    "for (int i = 0; i < %d; i++) {",
+    "b += i;",
+    "String message = \"value of a is \" + a + \" & b is <\" + b + \">\";",
+    "LOG.debug(message);",
+    "values.add(Integer.valueOf(%d));",
+    "throw new IllegalStateException(\"Unexpected value: \" + a);"
+  };
+
+  private final Random random;
+  private final List<List<String>> methodsPool = Lists.newArrayList();
+  private int fileIndex = 0;
+
+  public SyntheticCorpus(long seed, int methodsPoolSize) {
+    this.random = new Random(seed);
+    for (int i = 0; i < methodsPoolSize; i++) {
+      methodsPool.add(newMethod(i));
+    }
+  }
+
+  public SyntheticCorpus() {
+    this(SEED, 500);
+  }
+
+  /**
+   * @param lines approximate number of lines
+   */
+  public String newFile(int lines) {
+    int index = fileIndex++;
+    StringBuilder sb = new StringBuilder();
+    sb.append("package org.sonar.synthetic;\n\n");
+    sb.append("/**\n * Generated class ").append(index).append("\n */\n");
+    sb.append("public class Generated").append(index).append(" {\n");
+    int count = 6;
+    while (count < lines - 1) {
+      int kind = random.nextInt(10);
+      if (kind == 0) {
+        sb.append("  // comment ").append(random.nextInt(1000)).append(" of class ").append(index).append('\n');
+        count++;
+      } else if (kind < 3) {
+        sb.append("  private static final String FIELD_").append(count).append(" = \"value ").append(random.nextInt(1000)).append("\";\n");
+        count++;
+      } else {
+        for (String line : methodsPool.get(random.nextInt(methodsPool.size()))) {
+          sb.append(line).append('\n');
+          count++;
+        }
+      }
+    }
+    sb.append("}\n");
+    return sb.toString();
+  }
+
+  /**
+   * Copy of the source in which about the given percentage of lines are inserted, deleted or changed,
+   * as between two analyses of the same file.
+   */
+  public String modify(String source, int percent) {
+    StringBuilder sb = new StringBuilder();
+    for (String line : lines(source)) {
+      if (random.nextInt(100) < percent) {
+        int change = random.nextInt(3);
+        if (change == 0) {
+          sb.append("    // inserted line ").append(random.nextInt(1000)).append('\n').append(line).append('\n');
+        } else if (change == 1) {
+          sb.append(line).append(" // changed\n");
+        }
+        // else line is deleted
+      } else {
+        sb.append(line).append('\n');
+      }
+    }
+    return sb.toString();
+  }
+
+  public static List<String> lines(String source) {
+    return Lists.newArrayList(Splitter.on('\n').split(source));
+  }
+
+  private List<String> newMethod(int index) {
+    List<String> lines = Lists.newArrayList();
+    lines.add("  public int method" + index + "(int a, int b) {");
+    int statements = 3 + random.nextInt(12);
+    for (int i = 0; i < statements; i++) {
+      lines.add("    " + String.format(STATEMENTS[random.nextInt(STATEMENTS.length)], random.nextInt(100)));
+    }
+    lines.add("    return result;");
+    lines.add("  }");
+    return lines;
+  }
+}
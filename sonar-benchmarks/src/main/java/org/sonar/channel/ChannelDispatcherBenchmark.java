@@ -0,0 +1,123 @@
+/*
+ * SonarQube, open source software quality management tool.
+ * Copyright (C) 2008-2013 SonarSource
+ * mailto:contact AT sonarsource DOT com
+ *
+ * SonarQube is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * SonarQube is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.channel;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.sonar.benchmarks.SyntheticCorpus;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tokenization of a source by {@link ChannelDispatcher}, with and without the dispatch table on first character.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(2)
+public class ChannelDispatcherBenchmark {
+
+  private static final String[] TOKENS = {
+    "\\s++",
+    "//[^\\n\\r]*+",
+    "/\\*[\\s\\S]*?\\*/",
+    "\"([^\"\\\\]*+(\\\\[\\s\\S])?+)*+\"",
+    "'([^'\\n\\\\]*+(\\\\.)?+)*+'",
+    "\\p{javaJavaIdentifierStart}++\\p{javaJavaIdentifierPart}*+",
+    "[0-9_]++\\.([0-9_]++)?+([Ee][+-]?+[0-9_]++)?+[fFdD]?+",
+    "0[xX][0-9a-fA-F_]++[lL]?+",
+    "[0-9_]++[lL]?+",
+    "."};
+
+  @Param({"1000", "20000"})
+  int lines;
+
+  String source;
+  ChannelDispatcher<int[]> withTable;
+  ChannelDispatcher<int[]> withoutTable;
+
+  @Setup(Level.Trial)
+  public void generate() {
+    source = new SyntheticCorpus().newFile(lines);
+    ChannelDispatcher.Builder withTableBuilder = ChannelDispatcher.builder();
+    ChannelDispatcher.Builder withoutTableBuilder = ChannelDispatcher.builder();
+    for (String regex : TOKENS) {
+      withTableBuilder.addChannel(new CountingChannel(regex));
+      withoutTableBuilder.addChannel(new UndeclaredChannel(new CountingChannel(regex)));
+    }
+    withTable = withTableBuilder.build();
+    withoutTable = withoutTableBuilder.build();
+  }
+
+  @Benchmark
+  public int dispatchOnFirstCharacter() {
+    return tokenize(withTable);
+  }
+
+  @Benchmark
+  public int tryAllChannels() {
+    return tokenize(withoutTable);
+  }
+
+  private int tokenize(ChannelDispatcher<int[]> dispatcher) {
+    int[] tokens = new int[1];
+    dispatcher.consume(new CodeReader(source), tokens);
+    return tokens[0];
+  }
+
+  private static class CountingChannel extends RegexChannel<int[]> {
+    CountingChannel(String regex) {
+      super(regex);
+    }
+
+    @Override
+    protected void consume(CharSequence token, int[] output) {
+      output[0]++;
+    }
+  }
+
+  /**
+   * Hides the start characters of the wrapped channel, which is then tried on any character
+   */
+  private static class UndeclaredChannel extends Channel<int[]> {
+    private final Channel<int[]> channel;
+
+    UndeclaredChannel(Channel<int[]> channel) {
+      this.channel = channel;
+    }
+
+    @Override
+    public boolean consume(CodeReader code, int[] output) {
+      return channel.consume(code, output);
+    }
+  }
+}
@@ -0,0 +1,136 @@
+/*
+ * SonarQube, open source software quality management tool.
+ * Copyright (C) 2008-2013 SonarSource
+ * mailto:contact AT sonarsource DOT com
+ *
+ * SonarQube is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * SonarQube is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.channel;
+
+import org.apache.commons.io.FileUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.sonar.benchmarks.SyntheticCorpus;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reading of a source file character by character, and its tokenization by regular expressions and by automata.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(2)
+public class CodeBufferBenchmark {
+
+  private static final String[] TOKENS = {"\\s+", "//[^\\n\\r]*", "\"[^\"\\n]*\"", "[a-zA-Z_][a-zA-Z0-9_]*", "[0-9]+", "."};
+  private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+  @Param({"1000", "20000"})
+  int lines;
+
+  String source;
+  File file;
+  ChannelDispatcher<int[]> regexDispatcher;
+  ChannelDispatcher<int[]> dfaDispatcher;
+
+  @Setup(Level.Trial)
+  public void generate() throws IOException {
+    source = new SyntheticCorpus().newFile(lines);
+    file = File.createTempFile("CodeBufferBenchmark", ".java");
+    FileUtils.writeStringToFile(file, source, "UTF-8");
+
+    ChannelDispatcher.Builder regex = ChannelDispatcher.builder();
+    ChannelDispatcher.Builder dfa = ChannelDispatcher.builder();
+    for (String token : TOKENS) {
+      regex.addChannel(new RegexChannel<int[]>(token) {
+        @Override
+        protected void consume(CharSequence token, int[] output) {
+          output[0]++;
+        }
+      });
+      dfa.addChannel(new DfaChannel<int[]>(token) {
+        @Override
+        protected void consume(CharSequence token, int[] output) {
+          output[0]++;
+        }
+      });
+    }
+    regexDispatcher = regex.build();
+    dfaDispatcher = dfa.build();
+  }
+
+  @TearDown(Level.Trial)
+  public void delete() {
+    FileUtils.deleteQuietly(file);
+  }
+
+  @Benchmark
+  public int popString() {
+    return popAll(new CodeReader(source));
+  }
+
+  @Benchmark
+  public int popDecodedFile() {
+    return popAll(new CodeReader(file, UTF_8));
+  }
+
+  @Benchmark
+  public int tokenizeReaderWithRegularExpressions() throws IOException {
+    int[] tokens = new int[1];
+    InputStreamReader reader = new InputStreamReader(new FileInputStream(file), UTF_8);
+    try {
+      regexDispatcher.consume(new CodeReader(reader), tokens);
+    } finally {
+      reader.close();
+    }
+    return tokens[0];
+  }
+
+  @Benchmark
+  public int tokenizeFileWithAutomata() {
+    int[] tokens = new int[1];
+    dfaDispatcher.consume(new CodeReader(file, UTF_8), tokens);
+    return tokens[0];
+  }
+
+  private static int popAll(CodeReader reader) {
+    int sum = 0;
+    int c = reader.pop();
+    while (c != -1) {
+      sum += c;
+      c = reader.pop();
+    }
+    return sum;
+  }
+}
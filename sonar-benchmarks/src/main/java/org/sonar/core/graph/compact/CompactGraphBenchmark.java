@@ -0,0 +1,111 @@
+/*
+ * SonarQube, open source software quality management tool.
+ * Copyright (C) 2008-2013 SonarSource
+ * mailto:contact AT sonarsource DOT com
+ *
+ * SonarQube is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * SonarQube is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.core.graph.compact;
+
+import com.tinkerpop.blueprints.Direction;
+import com.tinkerpop.blueprints.Edge;
+import com.tinkerpop.blueprints.KeyIndexableGraph;
+import com.tinkerpop.blueprints.Vertex;
+import com.tinkerpop.blueprints.impls.tg.TinkerGraph;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Build and browse of a synthetic coverage graph, stored in {@link CompactGraph} and in {@link TinkerGraph}.
+ * Run with <code>-prof gc</code> to compare the memory allocated to build the graph.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 2, jvmArgsAppend = "-Xmx2g")
+public class CompactGraphBenchmark {
+
+  private static final int FILES = 20000;
+  private static final int TEST_CASES = 50000;
+
+  @Param({"compact", "tinker"})
+  String implementation;
+
+  @Param({"1000000"})
+  int edges;
+
+  KeyIndexableGraph builtGraph;
+
+  @Setup(Level.Trial)
+  public void generate() {
+    builtGraph = build();
+  }
+
+  @Benchmark
+  public KeyIndexableGraph build() {
+    KeyIndexableGraph graph = "compact".equals(implementation) ? new CompactGraph() : new TinkerGraph();
+    graph.createKeyIndex("key", Vertex.class);
+    Vertex[] files = new Vertex[FILES];
+    for (int i = 0; i < FILES; i++) {
+      files[i] = graph.addVertex(null);
+      files[i].setProperty("key", key(i));
+      files[i].setProperty("qualifier", "FIL");
+    }
+    Vertex[] testCases = new Vertex[TEST_CASES];
+    for (int i = 0; i < TEST_CASES; i++) {
+      testCases[i] = graph.addVertex(null);
+      testCases[i].setProperty("name", "test" + i);
+      testCases[i].setProperty("status", "ok");
+    }
+    Random random = new Random(42);
+    for (int i = 0; i < edges; i++) {
+      Edge edge = graph.addEdge(null, testCases[random.nextInt(TEST_CASES)], files[random.nextInt(FILES)], "covers");
+      edge.setProperty("lines", Arrays.asList(random.nextInt(1000), random.nextInt(1000)));
+    }
+    return graph;
+  }
+
+  @Benchmark
+  public long browse() {
+    long properties = 0;
+    for (int i = 0; i < FILES; i++) {
+      Vertex file = builtGraph.getVertices("key", key(i)).iterator().next();
+      for (Edge edge : file.getEdges(Direction.IN, "covers")) {
+        properties += edge.getVertex(Direction.OUT).getPropertyKeys().size();
+      }
+    }
+    return properties;
+  }
+
+  private static String key(int file) {
+    return "org.sonar:project:src/main/java/org/sonar/File" + file + ".java";
+  }
+}
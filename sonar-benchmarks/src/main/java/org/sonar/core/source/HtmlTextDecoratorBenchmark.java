@@ -0,0 +1,109 @@
+/*
+ * SonarQube, open source software quality management tool.
+ * Copyright (C) 2008-2013 SonarSource
+ * mailto:contact AT sonarsource DOT com
+ *
+ * SonarQube is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * SonarQube is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.core.source;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.sonar.benchmarks.SyntheticCorpus;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decoration of a source with syntax highlighting and symbol references, entirely and by windows of 100 lines
+ * as displayed by the source viewer.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(2)
+public class HtmlTextDecoratorBenchmark {
+
+  private static final String[] KEYWORDS = {"public ", "private ", "return ", "int ", "if ", "for ", "throw "};
+
+  @Param({"1000", "20000"})
+  int lines;
+
+  String source;
+  String highlighting;
+  String symbols;
+
+  @Setup(Level.Trial)
+  public void generate() {
+    source = new SyntheticCorpus().newFile(lines);
+    StringBuilder highlightingBuilder = new StringBuilder();
+    StringBuilder symbolsBuilder = new StringBuilder();
+    int offset = 0;
+    for (String line : SyntheticCorpus.lines(source)) {
+      String trimmed = line.trim();
+      int start = offset + line.indexOf(trimmed);
+      for (String keyword : KEYWORDS) {
+        if (trimmed.startsWith(keyword)) {
+          highlightingBuilder.append(start).append(',').append(start + keyword.length() - 1).append(",k;");
+        }
+      }
+      int string = line.indexOf('"');
+      if (string >= 0) {
+        highlightingBuilder.append(offset + string).append(',').append(offset + line.lastIndexOf('"') + 1).append(",s;");
+      }
+      int comment = line.indexOf("//");
+      if (comment >= 0) {
+        highlightingBuilder.append(offset + comment).append(',').append(offset + line.length()).append(",cd;");
+      }
+      int field = line.indexOf("FIELD_");
+      if (field >= 0) {
+        symbolsBuilder.append(offset + field).append(',').append(offset + field + 6).append(',').append(offset + field).append(';');
+      }
+      offset += line.length() + 1;
+    }
+    highlighting = highlightingBuilder.toString();
+    symbols = symbolsBuilder.toString();
+  }
+
+  @Benchmark
+  public List<String> wholeFile() {
+    return new HtmlTextDecorator().decorateTextWithHtml(source, load());
+  }
+
+  @Benchmark
+  public List<String> windowOfHundredLines() {
+    int from = lines / 2;
+    return new HtmlTextDecorator().decorateTextWithHtml(source, load(), from, from + 99);
+  }
+
+  private DecorationDataHolder load() {
+    DecorationDataHolder decorationData = new DecorationDataHolder();
+    decorationData.loadSyntaxHighlightingData(highlighting);
+    decorationData.loadSymbolReferences(symbols);
+    return decorationData;
+  }
+}
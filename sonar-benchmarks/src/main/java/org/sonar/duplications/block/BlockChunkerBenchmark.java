@@ -0,0 +1,89 @@
+/*
+ * SonarQube, open source software quality management tool.
+ * Copyright (C) 2008-2013 SonarSource
+ * mailto:contact AT sonarsource DOT com
+ *
+ * SonarQube is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * SonarQube is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.duplications.block;
+
+import com.google.common.collect.Lists;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.sonar.benchmarks.SyntheticCorpus;
+import org.sonar.duplications.statement.Statement;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rolling hash of the blocks of statements of a file, before their insertion into the clone index.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(2)
+public class BlockChunkerBenchmark {
+
+  /**
+   * Default size of blocks for Java
+   */
+  public static final int BLOCK_SIZE = 10;
+
+  @Param({"1000", "20000"})
+  int lines;
+
+  List<Statement> statements;
+  BlockChunker chunker;
+
+  @Setup(Level.Trial)
+  public void generate() {
+    statements = statements(new SyntheticCorpus().newFile(lines));
+    chunker = new BlockChunker(BLOCK_SIZE);
+  }
+
+  @Benchmark
+  public List<Block> chunk() {
+    return chunker.chunk("Generated.java", statements);
+  }
+
+  /**
+   * One statement per non-empty line, the value being the trimmed line
+   */
+  public static List<Statement> statements(String source) {
+    List<Statement> statements = Lists.newArrayList();
+    int line = 1;
+    for (String text : SyntheticCorpus.lines(source)) {
+      String value = text.trim();
+      if (value.length() > 0) {
+        statements.add(new Statement(line, line, value));
+      }
+      line++;
+    }
+    return statements;
+  }
+}
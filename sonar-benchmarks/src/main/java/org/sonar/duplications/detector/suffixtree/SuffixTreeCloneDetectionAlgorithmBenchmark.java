@@ -0,0 +1,106 @@
+/*
+ * SonarQube, open source software quality management tool.
+ * Copyright (C) 2008-2013 SonarSource
+ * mailto:contact AT sonarsource DOT com
+ *
+ * SonarQube is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * SonarQube is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.duplications.detector.suffixtree;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.sonar.duplications.block.Block;
+import org.sonar.duplications.index.PackedMemoryCloneIndex;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Detection of the clones of every file of an index where files share many fragments, as done by the CPD engine
+ * at the end of the analysis of a module.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(2)
+public class SuffixTreeCloneDetectionAlgorithmBenchmark {
+
+  private static final int BLOCKS_PER_FILE = 400;
+  private static final int FRAGMENTS = 200;
+  private static final int FRAGMENT_LENGTH = 20;
+
+  @Param({"100", "500"})
+  int files;
+
+  PackedMemoryCloneIndex index;
+  List<List<Block>> blocksByFile;
+
+  @Setup(Level.Trial)
+  public void generate() {
+    Random random = new Random(42);
+    long[][] fragments = new long[FRAGMENTS][FRAGMENT_LENGTH];
+    for (long[] fragment : fragments) {
+      for (int i = 0; i < FRAGMENT_LENGTH; i++) {
+        fragment[i] = random.nextInt(10000);
+      }
+    }
+
+    index = new PackedMemoryCloneIndex();
+    blocksByFile = new ArrayList<List<Block>>();
+    for (int file = 0; file < files; file++) {
+      List<Block> blocks = new ArrayList<Block>();
+      while (blocks.size() < BLOCKS_PER_FILE) {
+        long[] fragment = random.nextBoolean() ? fragments[random.nextInt(FRAGMENTS)] : null;
+        for (int i = 0; i < FRAGMENT_LENGTH; i++) {
+          int indexInFile = blocks.size();
+          Block block = Block.builder()
+            .setResourceId("file" + file)
+            .setBlockHash(fragment != null ? fragment[i] : random.nextLong())
+            .setIndexInFile(indexInFile)
+            .setLines(indexInFile, indexInFile + 10)
+            .setUnit(indexInFile, indexInFile + 10)
+            .build();
+          blocks.add(block);
+          index.insert(block);
+        }
+      }
+      blocksByFile.add(blocks);
+    }
+  }
+
+  @Benchmark
+  public int detectClonesOfEveryFile() {
+    SuffixTreeCloneDetectionAlgorithm algorithm = new SuffixTreeCloneDetectionAlgorithm();
+    int groups = 0;
+    for (List<Block> blocks : blocksByFile) {
+      groups += algorithm.detectClones(index, blocks).size();
+    }
+    return groups;
+  }
+}
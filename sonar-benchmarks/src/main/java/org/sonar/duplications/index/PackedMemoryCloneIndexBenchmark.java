@@ -0,0 +1,95 @@
+/*
+ * SonarQube, open source software quality management tool.
+ * Copyright (C) 2008-2013 SonarSource
+ * mailto:contact AT sonarsource DOT com
+ *
+ * SonarQube is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * SonarQube is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.duplications.index;
+
+import com.google.common.collect.Lists;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.sonar.benchmarks.SyntheticCorpus;
+import org.sonar.duplications.block.Block;
+import org.sonar.duplications.block.BlockChunker;
+import org.sonar.duplications.block.BlockChunkerBenchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Insertion of the blocks of a project into the clone index, then lookup of the blocks of a sample of files
+ * by hash, as done by the CPD engine for each file.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(2)
+public class PackedMemoryCloneIndexBenchmark {
+
+  private static final int LINES_PER_FILE = 300;
+  private static final int QUERIED_FILES = 100;
+
+  @Param({"1000", "5000"})
+  int files;
+
+  List<Block> blocks;
+  PackedMemoryCloneIndex sortedIndex;
+
+  @Setup(Level.Trial)
+  public void generate() {
+    SyntheticCorpus corpus = new SyntheticCorpus();
+    BlockChunker chunker = new BlockChunker(BlockChunkerBenchmark.BLOCK_SIZE);
+    blocks = Lists.newArrayList();
+    for (int i = 0; i < files; i++) {
+      blocks.addAll(chunker.chunk("file-" + i, BlockChunkerBenchmark.statements(corpus.newFile(LINES_PER_FILE))));
+    }
+    sortedIndex = insertAndSort();
+  }
+
+  @Benchmark
+  public PackedMemoryCloneIndex insertAndSort() {
+    PackedMemoryCloneIndex index = new PackedMemoryCloneIndex();
+    for (Block block : blocks) {
+      index.insert(block);
+    }
+    // the index is sorted on first query
+    index.getBySequenceHash(blocks.get(0).getBlockHash());
+    return index;
+  }
+
+  @Benchmark
+  public void query(Blackhole blackhole) {
+    for (int i = 0; i < QUERIED_FILES; i++) {
+      for (Block block : sortedIndex.getByResourceId("file-" + i)) {
+        blackhole.consume(sortedIndex.getBySequenceHash(block.getBlockHash()));
+      }
+    }
+  }
+}
@@ -0,0 +1,118 @@
+/*
+ * SonarQube, open source software quality management tool.
+ * Copyright (C) 2008-2013 SonarSource
+ * mailto:contact AT sonarsource DOT com
+ *
+ * SonarQube is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * SonarQube is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.graph;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Search of cycles and feedback edges on a large synthetic package graph : modules are layered, and the packages of
+ * each module are layered except for a few back dependencies which create tangles.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(2)
+public class CycleDetectionBenchmark {
+
+  private static final int PACKAGES_PER_MODULE = 60;
+  private static final int DEPENDENCIES_PER_PACKAGE = 4;
+  private static final int BACK_DEPENDENCIES_PER_MODULE = 4;
+  private static final int MAX_CYCLES = 100000;
+  private static final long TIME_BUDGET_IN_MS = 10000;
+
+  @Param({"10", "50"})
+  int modules;
+
+  DirectedGraph<String, StringEdge> graph;
+  StronglyConnectedComponents<String> components;
+
+  @Setup(Level.Trial)
+  public void generate() {
+    Random random = new Random(42);
+    graph = DirectedGraph.createStringDirectedGraph();
+    for (int m = 0; m < modules; m++) {
+      for (int p = 0; p < PACKAGES_PER_MODULE; p++) {
+        graph.addVertex(name(m, p));
+        for (int d = 0; d < DEPENDENCIES_PER_PACKAGE; d++) {
+          String to;
+          if (p + 1 < PACKAGES_PER_MODULE && random.nextInt(4) > 0) {
+            to = name(m, p + 1 + random.nextInt(PACKAGES_PER_MODULE - p - 1));
+          } else if (m > 0) {
+            to = name(random.nextInt(m), random.nextInt(PACKAGES_PER_MODULE));
+          } else {
+            continue;
+          }
+          addEdge(name(m, p), to, 1 + random.nextInt(10));
+        }
+      }
+      for (int b = 0; b < BACK_DEPENDENCIES_PER_MODULE; b++) {
+        int from = PACKAGES_PER_MODULE / 2 + random.nextInt(PACKAGES_PER_MODULE / 2);
+        addEdge(name(m, from), name(m, random.nextInt(from)), 1 + random.nextInt(10));
+      }
+    }
+    components = new StronglyConnectedComponents<String>(graph);
+  }
+
+  @Benchmark
+  public StronglyConnectedComponents<String> stronglyConnectedComponents() {
+    return new StronglyConnectedComponents<String>(graph);
+  }
+
+  @Benchmark
+  public int elementaryCycles() {
+    return new ElementaryCycleDetector<String>(components).detectCyclesWithUpperLimit(MAX_CYCLES).size();
+  }
+
+  @Benchmark
+  public int incrementalSolver() {
+    return new IncrementalCyclesAndFESSolver<String>(graph, graph.getVertices()).getWeightOfFeedbackEdgeSet();
+  }
+
+  @Benchmark
+  public int heuristicSolver() {
+    return new HeuristicFeedbackEdgeSetSolver<String>(components, TIME_BUDGET_IN_MS).getWeightOfFeedbackEdgeSet();
+  }
+
+  private void addEdge(String from, String to, int weight) {
+    if (!graph.hasEdge(from, to)) {
+      graph.addEdge(from, to, weight);
+    }
+  }
+
+  private static String name(int module, int p) {
+    return "org.module" + module + ".package" + p;
+  }
+}
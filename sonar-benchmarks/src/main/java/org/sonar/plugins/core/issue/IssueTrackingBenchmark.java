@@ -0,0 +1,124 @@
+/*
+ * SonarQube, open source software quality management tool.
+ * Copyright (C) 2008-2013 SonarSource
+ * mailto:contact AT sonarsource DOT com
+ *
+ * SonarQube is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * SonarQube is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.plugins.core.issue;
+
+import com.google.common.collect.Lists;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.sonar.api.issue.Issue;
+import org.sonar.api.issue.internal.DefaultIssue;
+import org.sonar.api.rule.RuleKey;
+import org.sonar.benchmarks.SyntheticCorpus;
+import org.sonar.core.issue.db.IssueDto;
+import org.sonar.plugins.core.issue.tracking.SourceChecksum;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Matching of the issues of a file with the issues of its previous analysis, when about 10% of its lines changed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(2)
+public class IssueTrackingBenchmark {
+
+  private static final int CHANGED_LINES_PERCENT = 10;
+  private static final int RULES = 5;
+
+  @Param({"2000"})
+  int lines;
+
+  @Param({"100", "1000"})
+  int issues;
+
+  String referenceSource;
+  String source;
+  List<IssueDto> referenceIssues;
+  List<DefaultIssue> newIssues;
+  IssueTracking tracking = new IssueTracking();
+
+  @Setup(Level.Trial)
+  public void generate() {
+    SyntheticCorpus corpus = new SyntheticCorpus();
+    referenceSource = corpus.newFile(lines);
+    source = corpus.modify(referenceSource, CHANGED_LINES_PERCENT);
+    int referenceLines = SyntheticCorpus.lines(referenceSource).size();
+    int newLines = SyntheticCorpus.lines(source).size();
+    List<String> referenceChecksums = SourceChecksum.lineChecksumsOfFile(referenceSource);
+
+    Random random = new Random(SyntheticCorpus.SEED);
+    referenceIssues = Lists.newArrayList();
+    newIssues = Lists.newArrayList();
+    for (int i = 0; i < issues; i++) {
+      int rule = random.nextInt(RULES);
+      String message = "Message of rule " + rule;
+      int referenceLine = 1 + random.nextInt(referenceLines);
+
+      IssueDto referenceIssue = new IssueDto();
+      referenceIssue.setId((long) i);
+      referenceIssue.setKee("ISSUE-" + i);
+      referenceIssue.setLine(referenceLine);
+      referenceIssue.setMessage(message);
+      referenceIssue.setRuleKey_unit_test_only("squid", "Rule" + rule);
+      referenceIssue.setChecksum(SourceChecksum.getChecksumForLine(referenceChecksums, referenceLine));
+      referenceIssue.setStatus(Issue.STATUS_OPEN);
+      referenceIssues.add(referenceIssue);
+
+      // the issue is still raised, on the same line or close to it because of the changed lines
+      int line = Math.min(newLines, Math.max(1, referenceLine + random.nextInt(21) - 10));
+      newIssues.add(new DefaultIssue().setMessage(message).setLine(line).setRuleKey(RuleKey.of("squid", "Rule" + rule)).setStatus(Issue.STATUS_OPEN));
+    }
+  }
+
+  /**
+   * The result is given to the black hole as its class is not public
+   */
+  @Benchmark
+  public void track(Blackhole blackhole) {
+    SourceHashHolder sourceHashHolder = new SourceHashHolder(null, null, null) {
+      @Override
+      public String getSource() {
+        return source;
+      }
+
+      @Override
+      public String getReferenceSource() {
+        return referenceSource;
+      }
+    };
+    blackhole.consume(tracking.track(sourceHashHolder, referenceIssues, newIssues));
+  }
+}
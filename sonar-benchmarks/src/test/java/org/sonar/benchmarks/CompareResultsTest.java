@@ -0,0 +1,72 @@
+/*
+ * SonarQube, open source software quality management tool.
+ * Copyright (C) 2008-2013 SonarSource
+ * mailto:contact AT sonarsource DOT com
+ *
+ * SonarQube is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * SonarQube is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.benchmarks;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.Map;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+public class CompareResultsTest {
+
+  @Test
+  public void should_parse_jmh_results() {
+    Map<String, CompareResults.Score> scores = CompareResults.parse("[" +
+      "{\"benchmark\": \"org.sonar.Foo.bar\", \"mode\": \"avgt\", \"params\": {\"lines\": \"1000\", \"eol\": \"LF\"}," +
+      "  \"primaryMetric\": {\"score\": 12.5, \"scoreError\": 0.5, \"scoreUnit\": \"us/op\"}}," +
+      "{\"benchmark\": \"org.sonar.Foo.baz\", \"mode\": \"avgt\"," +
+      "  \"primaryMetric\": {\"score\": 3, \"scoreError\": \"NaN\", \"scoreUnit\": \"us/op\"}}" +
+      "]");
+
+    assertThat(scores.keySet()).containsOnly("org.sonar.Foo.bar eol=LF lines=1000", "org.sonar.Foo.baz");
+    assertThat(scores.get("org.sonar.Foo.bar eol=LF lines=1000").score).isEqualTo(12.5);
+    assertThat(scores.get("org.sonar.Foo.bar eol=LF lines=1000").error).isEqualTo(0.5);
+    assertThat(scores.get("org.sonar.Foo.baz").error).isEqualTo(0.0);
+  }
+
+  @Test
+  public void should_report_changes_only_when_confidence_intervals_do_not_overlap() {
+    CompareResults.Score before = new CompareResults.Score(10.0, 1.0, "us/op");
+
+    assertThat(CompareResults.verdict(before, new CompareResults.Score(10.5, 1.0, "us/op"))).isEmpty();
+    assertThat(CompareResults.verdict(before, new CompareResults.Score(15.0, 1.0, "us/op"))).isEqualTo("REGRESSION");
+    assertThat(CompareResults.verdict(before, new CompareResults.Score(5.0, 1.0, "us/op"))).isEqualTo("IMPROVEMENT");
+
+    CompareResults.Score throughput = new CompareResults.Score(10.0, 1.0, "ops/ms");
+    assertThat(CompareResults.verdict(throughput, new CompareResults.Score(15.0, 1.0, "ops/ms"))).isEqualTo("IMPROVEMENT");
+  }
+
+  @Test
+  public void should_print_comparison() {
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    CompareResults.compare(
+      CompareResults.parse("[{\"benchmark\": \"Foo.bar\", \"primaryMetric\": {\"score\": 10, \"scoreError\": 1, \"scoreUnit\": \"us/op\"}}," +
+        "{\"benchmark\": \"Foo.removed\", \"primaryMetric\": {\"score\": 10, \"scoreError\": 1, \"scoreUnit\": \"us/op\"}}]"),
+      CompareResults.parse("[{\"benchmark\": \"Foo.bar\", \"primaryMetric\": {\"score\": 5, \"scoreError\": 1, \"scoreUnit\": \"us/op\"}}]"),
+      new PrintStream(output));
+
+    String report = output.toString();
+    assertThat(report).contains("Foo.bar: 10.000 +/- 1.000 us/op -> 5.000 +/- 1.000 us/op (-50.0%) IMPROVEMENT");
+    assertThat(report).contains("Foo.removed: missing in candidate");
+  }
+}
@@ -0,0 +1,55 @@
+/*
+ * SonarQube, open source software quality management tool.
+ * Copyright (C) 2008-2013 SonarSource
+ * mailto:contact AT sonarsource DOT com
+ *
+ * SonarQube is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * SonarQube is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.benchmarks;
+
+import org.junit.Test;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+public class SyntheticCorpusTest {
+
+  @Test
+  public void should_generate_same_files_from_same_seed() {
+    SyntheticCorpus corpus = new SyntheticCorpus();
+    String first = corpus.newFile(1000);
+    String second = corpus.newFile(1000);
+
+    assertThat(new SyntheticCorpus().newFile(1000)).isEqualTo(first);
+    assertThat(second).isNotEqualTo(first);
+  }
+
+  @Test
+  public void should_generate_approximate_number_of_lines() {
+    String source = new SyntheticCorpus().newFile(1000);
+
+    assertThat(source).startsWith("package org.sonar.synthetic;");
+    assertThat(source).endsWith("}\n");
+    assertThat(SyntheticCorpus.lines(source).size()).isGreaterThanOrEqualTo(1000).isLessThan(1020);
+  }
+
+  @Test
+  public void should_modify_lines() {
+    SyntheticCorpus corpus = new SyntheticCorpus();
+    String source = corpus.newFile(1000);
+
+    assertThat(corpus.modify(source, 0)).isEqualTo(source + "\n");
+    assertThat(corpus.modify(source, 10)).isNotEqualTo(source);
+  }
+}
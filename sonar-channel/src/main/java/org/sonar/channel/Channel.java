@@ -32,4 +32,15 @@ public abstract class Channel<O> {
    * @return false if the Channel doesn't want to consume the character stream, true otherwise.
    */
   public abstract boolean consume(CodeReader code, O output);
+
+  /**
+   * Tells whether the character stream can be consumed when its next character is the given one. {@link ChannelDispatcher} relies
+   * on this method to try only the channels which can start with the next character. Channels which can't tell, for example because
+   * they depend on the state of the output, must return true, which is the default.
+   *
+   * @since 4.1
+   */
+  public boolean canStartWith(char c) {
+    return true;
+  }
 }
@@ -34,6 +34,11 @@ public class ChannelDispatcher<O> extends Channel<O> {
 
   private final Channel<O>[] channels;
 
+  /**
+   * Channels which can start with each ASCII character, see {@link StartCharacters}
+   */
+  private final Channel<O>[][] dispatchTable;
+
   /**
    * @deprecated in version 2.9. Please use the builder() method
    */
@@ -60,19 +65,22 @@ public class ChannelDispatcher<O> extends Channel<O> {
   public ChannelDispatcher(List<Channel> channels, boolean failIfNoChannelToConsumeOneCharacter) {
     this.channels = channels.toArray(new Channel[channels.size()]);
     this.failIfNoChannelToConsumeOneCharacter = failIfNoChannelToConsumeOneCharacter;
+    this.dispatchTable = dispatchTable(this.channels);
   }
 
   private ChannelDispatcher(Builder builder) {
     this.channels = builder.channels.toArray(new Channel[builder.channels.size()]);
     this.failIfNoChannelToConsumeOneCharacter = builder.failIfNoChannelToConsumeOneCharacter;
+    this.dispatchTable = dispatchTable(this.channels);
   }
 
   @Override
   public boolean consume(CodeReader code, O output) {
     int nextChar = code.peek();
     while (nextChar != -1) {
+      Channel<O>[] candidates = nextChar < dispatchTable.length ? dispatchTable[nextChar] : channels;
       boolean characterConsumed = false;
-      for (Channel<O> channel : channels) {
+      for (Channel<O> channel : candidates) {
         if (channel.consume(code, output)) {
           characterConsumed = true;
           break;
@@ -94,6 +102,19 @@ public class ChannelDispatcher<O> extends Channel<O> {
     return true;
   }
 
+  @SuppressWarnings("unchecked")
+  private static <O> Channel<O>[][] dispatchTable(Channel<O>[] channels) {
+    int[][] indexes = StartCharacters.dispatchTable(channels);
+    Channel<O>[][] table = new Channel[indexes.length][];
+    for (int c = 0; c < indexes.length; c++) {
+      table[c] = new Channel[indexes[c].length];
+      for (int i = 0; i < indexes[c].length; i++) {
+        table[c][i] = channels[indexes[c][i]];
+      }
+    }
+    return table;
+  }
+
   Channel[] getChannels() {
     return channels;
   }
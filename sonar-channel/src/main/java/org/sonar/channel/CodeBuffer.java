@@ -19,11 +19,19 @@
  */
 package org.sonar.channel;
 
+import java.io.CharArrayReader;
+import java.io.File;
 import java.io.FilterReader;
 import java.io.IOException;
 import java.io.Reader;
 import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
 
+import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.IOUtils;
 
 /**
@@ -41,29 +49,66 @@ public class CodeBuffer implements CharSequence {
   private int lastChar = -1;
   private Cursor cursor;
   private char[] buffer;
+  /**
+   * Number of characters of the buffer, which can be lower than its capacity
+   */
+  private int bufferLength;
   private int bufferPosition = 0;
   private static final char LF = '\n';
   private static final char CR = '\r';
   private int tabWidth;
 
   private boolean recordingMode = false;
-  private StringBuilder recordedCharacters = new StringBuilder();
+  private int recordingStart;
+  private View reusableView;
 
   protected CodeBuffer(String code, CodeReaderConfiguration configuration) {
-    this(new StringReader(code), configuration);
+    cursor = new Cursor();
+    tabWidth = configuration.getTabWidth();
+    if (configuration.getCodeReaderFilters().length == 0) {
+      buffer = code.toCharArray();
+      bufferLength = buffer.length;
+    } else {
+      read(new StringReader(code), configuration);
+    }
   }
-  
+
   /**
    * Note that this constructor will read everything from reader and will close it.
    */
   protected CodeBuffer(Reader initialCodeReader, CodeReaderConfiguration configuration) {
+    cursor = new Cursor();
+    tabWidth = configuration.getTabWidth();
+    read(initialCodeReader, configuration);
+  }
+
+  /**
+   * Decodes the file directly into the buffer, without intermediate Reader. The file is closed once read.
+   *
+   * @since 4.1
+   */
+  protected CodeBuffer(File file, Charset charset, CodeReaderConfiguration configuration) {
+    this(readFile(file), charset, configuration);
+  }
+
+  /**
+   * Decodes the bytes directly into the buffer, without intermediate Reader.
+   *
+   * @since 4.1
+   */
+  protected CodeBuffer(byte[] content, Charset charset, CodeReaderConfiguration configuration) {
+    cursor = new Cursor();
+    tabWidth = configuration.getTabWidth();
+    decode(ByteBuffer.wrap(content), charset);
+    if (configuration.getCodeReaderFilters().length > 0) {
+      read(new CharArrayReader(buffer, 0, bufferLength), configuration);
+    }
+  }
+
+  private void read(Reader initialCodeReader, CodeReaderConfiguration configuration) {
     Reader reader = null;
 
     try {
-      lastChar = -1;
-      cursor = new Cursor();
-      tabWidth = configuration.getTabWidth();
-
       /* Setup the filters on the reader */
       reader = initialCodeReader;
       for (CodeReaderFilter<?> codeReaderFilter : configuration.getCodeReaderFilters()) {
@@ -71,6 +116,7 @@ public class CodeBuffer implements CharSequence {
       }
 
       buffer = IOUtils.toCharArray(reader);
+      bufferLength = buffer.length;
     } catch (IOException e) {
       throw new ChannelException(e.getMessage(), e);
     } finally {
@@ -78,20 +124,47 @@ public class CodeBuffer implements CharSequence {
     }
   }
 
+  private static byte[] readFile(File file) {
+    try {
+      return FileUtils.readFileToByteArray(file);
+    } catch (IOException e) {
+      throw new ChannelException("Unable to read " + file, e);
+    }
+  }
+
+  private void decode(ByteBuffer bytes, Charset charset) {
+    CharsetDecoder decoder = charset.newDecoder()
+      .onMalformedInput(CodingErrorAction.REPLACE)
+      .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    CharBuffer chars = CharBuffer.allocate((int) (bytes.remaining() * (double) decoder.maxCharsPerByte()) + 1);
+    while (decoder.decode(bytes, chars, true).isOverflow()) {
+      chars = grow(chars);
+    }
+    while (decoder.flush(chars).isOverflow()) {
+      chars = grow(chars);
+    }
+    buffer = chars.array();
+    bufferLength = chars.position();
+  }
+
+  private static CharBuffer grow(CharBuffer chars) {
+    CharBuffer larger = CharBuffer.allocate(chars.capacity() * 2);
+    chars.flip();
+    larger.put(chars);
+    return larger;
+  }
+
   /**
    * Read and consume the next character
    * 
    * @return the next character or -1 if the end of the stream is reached
    */
   public final int pop() {
-    if (bufferPosition >= buffer.length) {
+    if (bufferPosition >= bufferLength) {
       return -1;
     }
     int character = buffer[bufferPosition++];
     updateCursorPosition(character);
-    if (recordingMode) {
-      recordedCharacters.append((char)character);
-    }
     lastChar = character;
     return character;
   }
@@ -167,14 +240,55 @@ public class CodeBuffer implements CharSequence {
   }
 
   public final void startRecording() {
-    recordingMode = true;
+    if (!recordingMode) {
+      recordingMode = true;
+      recordingStart = bufferPosition;
+    }
   }
 
+  /**
+   * Returns the characters consumed since {@link #startRecording()}. They are not copied : the returned sequence
+   * is a read-only view on the buffer, and a String is created only if {@link CharSequence#toString()} is called.
+   */
   public final CharSequence stopRecording() {
+    if (!recordingMode) {
+      return "";
+    }
     recordingMode = false;
-    CharSequence result = recordedCharacters;
-    recordedCharacters = new StringBuilder();
-    return result;
+    return view(recordingStart, bufferPosition - recordingStart);
+  }
+
+  /**
+   * Read-only view on the characters of the buffer at the given absolute position
+   */
+  final CharSequence view(int start, int length) {
+    return new View(buffer, start, length);
+  }
+
+  /**
+   * Same as {@link #view(int, int)}, but the same instance is returned by each call, so it's valid only until next call
+   */
+  final CharSequence reusableView(int start, int length) {
+    if (reusableView == null) {
+      reusableView = new View(buffer, start, length);
+    } else {
+      reusableView.start = start;
+      reusableView.length = length;
+    }
+    return reusableView;
+  }
+
+  /**
+   * Copies the current position of the cursor to the given cursor
+   */
+  final Cursor copyCursorTo(Cursor target) {
+    target.line = cursor.line;
+    target.column = cursor.column;
+    return target;
+  }
+
+  final int bufferPosition() {
+    return bufferPosition;
   }
 
   /**
@@ -189,8 +303,15 @@ public class CodeBuffer implements CharSequence {
     return (char)intAt(index);
   }
 
+  /**
+   * Returns the length of the longest match of the automaton at the cursor, or -1 if none.
+   */
+  final int match(Dfa dfa) {
+    return dfa.match(buffer, bufferPosition, bufferLength);
+  }
+
   protected final int intAt(int index) {
-    if (bufferPosition + index >= buffer.length) {
+    if (bufferPosition + index >= bufferLength) {
       return -1;
     }
     return buffer[bufferPosition + index];
@@ -200,7 +321,7 @@ public class CodeBuffer implements CharSequence {
    * Returns the relative length of the string (i.e. excluding the popped chars)
    */
   public final int length() {
-    return buffer.length - bufferPosition;
+    return bufferLength - bufferPosition;
   }
 
   public final CharSequence subSequence(int start, int end) {
@@ -240,6 +361,41 @@ public class CodeBuffer implements CharSequence {
     }
   }
 
+  private static final class View implements CharSequence {
+    private final char[] chars;
+    private int start;
+    private int length;
+
+    View(char[] chars, int start, int length) {
+      this.chars = chars;
+      this.start = start;
+      this.length = length;
+    }
+
+    public int length() {
+      return length;
+    }
+
+    public char charAt(int index) {
+      if (index < 0 || index >= length) {
+        throw new IndexOutOfBoundsException("Index: " + index + ", length: " + length);
+      }
+      return chars[start + index];
+    }
+
+    public CharSequence subSequence(int from, int to) {
+      if (from < 0 || to > length || from > to) {
+        throw new IndexOutOfBoundsException("From: " + from + ", to: " + to + ", length: " + length);
+      }
+      return new View(chars, start + from, to - from);
+    }
+
+    @Override
+    public String toString() {
+      return new String(chars, start, length);
+    }
+  }
+
   /**
    * Bridge class between CodeBuffer and CodeReaderFilter
    */
@@ -19,8 +19,10 @@
  */
 package org.sonar.channel;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.Reader;
+import java.nio.charset.Charset;
 import java.util.regex.Matcher;
 
 /**
@@ -30,6 +32,7 @@ import java.util.regex.Matcher;
 public class CodeReader extends CodeBuffer {
 
   private Cursor previousCursor;
+  private Cursor dfaCursor;
 
   /*
    * Constructor needed to be backward compatible (before using CodeReaderFilter)
@@ -70,6 +73,50 @@ public class CodeReader extends CodeBuffer {
     super(code, configuration);
   }
 
+  /**
+   * Creates a code reader on a file. The file is decoded directly into the buffer of the reader, without intermediate Reader.
+   *
+   * @param file
+   *          the file to read code from
+   * @param charset
+   *          the encoding of the file
+   * @param configuration
+   *          the configuration parameters
+   * @since 4.1
+   */
+  public CodeReader(File file, Charset charset, CodeReaderConfiguration configuration) {
+    super(file, charset, configuration);
+  }
+
+  /**
+   * @since 4.1
+   */
+  public CodeReader(File file, Charset charset) {
+    super(file, charset, new CodeReaderConfiguration());
+  }
+
+  /**
+   * Creates a code reader on the content of a file, which is decoded directly into the buffer of the reader.
+   *
+   * @param content
+   *          the bytes of the code
+   * @param charset
+   *          the encoding of the content
+   * @param configuration
+   *          the configuration parameters
+   * @since 4.1
+   */
+  public CodeReader(byte[] content, Charset charset, CodeReaderConfiguration configuration) {
+    super(content, charset, configuration);
+  }
+
+  /**
+   * @since 4.1
+   */
+  public CodeReader(byte[] content, Charset charset) {
+    super(content, charset, new CodeReaderConfiguration());
+  }
+
   /**
    * Read and consume the next character
    *
@@ -203,6 +250,58 @@ public class CodeReader extends CodeBuffer {
     return -1;
   }
 
+  /**
+   * Read and consume the longest sequence of next characters which is matched by a given automaton
+   *
+   * @param dfa
+   *          the automaton
+   * @param appendable
+   *          the consumed characters are appended to this appendable
+   * @return number of consumed characters or -1 if the automaton doesn't match
+   * @since 4.1
+   */
+  public final int popTo(Dfa dfa, Appendable appendable) {
+    int length = match(dfa);
+    if (length < 0) {
+      return -1;
+    }
+    try {
+      previousCursor = getCursor().clone();
+      for (int i = 0; i < length; i++) {
+        appendable.append((char) pop());
+      }
+      return length;
+    } catch (IOException e) {
+      throw new ChannelException(e.getMessage(), e);
+    }
+  }
+
+  /**
+   * Read and consume the longest sequence of next characters which is matched by a given automaton. In order to not create garbage
+   * on each token, the consumed characters are not copied but returned as a read-only view on the buffer of this reader, and the
+   * previous cursor is updated in place. Both are valid only until next call of this method.
+   *
+   * @param dfa
+   *          the automaton
+   * @return the consumed characters or null if the automaton doesn't match
+   * @since 4.1
+   */
+  public final CharSequence popTo(Dfa dfa) {
+    int length = match(dfa);
+    if (length < 0) {
+      return null;
+    }
+    int start = bufferPosition();
+    if (dfaCursor == null) {
+      dfaCursor = getCursor().clone();
+    }
+    previousCursor = copyCursorTo(dfaCursor);
+    for (int i = 0; i < length; i++) {
+      pop();
+    }
+    return reusableView(start, length);
+  }
+
   public final Cursor getPreviousCursor() {
     return previousCursor;
   }
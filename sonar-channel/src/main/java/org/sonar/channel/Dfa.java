@@ -0,0 +1,752 @@
+/*
+ * SonarQube, open source software quality management tool.
+ * Copyright (C) 2008-2013 SonarSource
+ * mailto:contact AT sonarsource DOT com
+ *
+ * SonarQube is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * SonarQube is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.channel;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Deterministic finite automaton compiled from a restricted regular expression, which finds the longest match
+ * at a given position without backtracking nor allocation. Supported syntax :
+ * <ul>
+ * <li>characters, escaped metacharacters, <code>\n \r \t \f \\uXXXX</code></li>
+ * <li>character classes <code>[a-z_]</code>, <code>[^"\\]</code>, <code>.</code> (any character except line terminators),
+ * <code>\s \S \d \D \w \W</code>, <code>\p{javaJavaIdentifierStart} \p{javaJavaIdentifierPart}</code></li>
+ * <li>groups <code>(...)</code> and <code>(?:...)</code>, alternation <code>|</code></li>
+ * <li>greedy repetitions <code>* + ? {n} {n,} {n,m}</code></li>
+ * </ul>
+ * The automaton returns the longest match, whereas {@link java.util.regex.Pattern} returns the first match found by
+ * backtracking. Both are the same only if the expression is not ambiguous, so the expressions where a character can be
+ * matched by two parts at the same position (like <code>a|ab</code> or <code>a*(ab)?</code>) are rejected, as well as the
+ * alternations whose empty alternative is not the last one. Possessive and reluctant quantifiers, anchors, lookarounds and
+ * back-references are not supported. Such expressions must be matched by a {@link RegexChannel}.
+ * Characters are matched one by one, so supplementary characters never match the Java identifier classes.
+ *
+ * @since 4.1
+ */
+public final class Dfa {
+
+  private static final int CHAR_COUNT = Character.MAX_VALUE + 1;
+  private static final int MAX_STATES = 10000;
+  private static final int DEAD = -1;
+
+  private final String expression;
+
+  /**
+   * Lower bounds of the classes of equivalent characters, in ascending order
+   */
+  private final int[] classBounds;
+  private final int[] asciiClasses;
+  private final int classCount;
+
+  /**
+   * Transitions of state s on class c are stored at index s * classCount + c
+   */
+  private final int[] transitions;
+  private final boolean[] accepting;
+
+  private Dfa(String expression, int[] classBounds, int[] transitions, boolean[] accepting) {
+    this.expression = expression;
+    this.classBounds = classBounds;
+    this.classCount = classBounds.length;
+    this.transitions = transitions;
+    this.accepting = accepting;
+    this.asciiClasses = new int[StartCharacters.LIMIT];
+    for (int c = 0; c < asciiClasses.length; c++) {
+      asciiClasses[c] = classOf((char) c);
+    }
+  }
+
+  /**
+   * @throws IllegalArgumentException if the expression is not valid or uses an unsupported construct
+   */
+  public static Dfa compile(String expression) {
+    Node node = new Parser(expression).parse();
+    Nfa nfa = new Nfa();
+    int[] fragment = node.build(nfa);
+    return nfa.determinize(expression, fragment[0], fragment[1]);
+  }
+
+  public String expression() {
+    return expression;
+  }
+
+  /**
+   * Returns the length of the longest match starting at index <code>start</code>, or -1 if none.
+   */
+  public int match(char[] chars, int start, int end) {
+    int state = 0;
+    int longest = accepting[0] ? 0 : -1;
+    for (int i = start; i < end; i++) {
+      char c = chars[i];
+      state = transitions[state * classCount + (c < asciiClasses.length ? asciiClasses[c] : classOf(c))];
+      if (state == DEAD) {
+        break;
+      }
+      if (accepting[state]) {
+        longest = i - start + 1;
+      }
+    }
+    return longest;
+  }
+
+  /**
+   * Returns the length of the longest match at the beginning of the given sequence, or -1 if none.
+   */
+  public int match(CharSequence chars) {
+    int state = 0;
+    int longest = accepting[0] ? 0 : -1;
+    for (int i = 0; i < chars.length(); i++) {
+      char c = chars.charAt(i);
+      state = transitions[state * classCount + (c < asciiClasses.length ? asciiClasses[c] : classOf(c))];
+      if (state == DEAD) {
+        break;
+      }
+      if (accepting[state]) {
+        longest = i + 1;
+      }
+    }
+    return longest;
+  }
+
+  /**
+   * Tells whether a non-empty match can start with the given character.
+   */
+  public boolean canStartWith(char c) {
+    return transitions[classOf(c)] != DEAD;
+  }
+
+  private int classOf(char c) {
+    int index = Arrays.binarySearch(classBounds, c);
+    return index >= 0 ? index : (-index - 2);
+  }
+
+  @Override
+  public String toString() {
+    return expression;
+  }
+
+  private abstract static class Node {
+    /**
+     * Adds the states of this node to the NFA and returns its start and end states
+     */
+    abstract int[] build(Nfa nfa);
+
+    /**
+     * Tells whether this node matches the empty string
+     */
+    abstract boolean isNullable();
+  }
+
+  private static final class CharsNode extends Node {
+    private final BitSet chars;
+
+    CharsNode(BitSet chars) {
+      this.chars = chars;
+    }
+
+    @Override
+    int[] build(Nfa nfa) {
+      int start = nfa.newState();
+      int end = nfa.newState();
+      nfa.addTransition(start, chars, end);
+      return new int[] {start, end};
+    }
+
+    @Override
+    boolean isNullable() {
+      return false;
+    }
+  }
+
+  private static final class ConcatNode extends Node {
+    private final List<Node> nodes;
+
+    ConcatNode(List<Node> nodes) {
+      this.nodes = nodes;
+    }
+
+    @Override
+    int[] build(Nfa nfa) {
+      int start = nfa.newState();
+      int end = start;
+      for (Node node : nodes) {
+        int[] fragment = node.build(nfa);
+        nfa.addEpsilon(end, fragment[0]);
+        end = fragment[1];
+      }
+      return new int[] {start, end};
+    }
+
+    @Override
+    boolean isNullable() {
+      for (Node node : nodes) {
+        if (!node.isNullable()) {
+          return false;
+        }
+      }
+      return true;
+    }
+  }
+
+  private static final class AlternationNode extends Node {
+    private final List<Node> nodes;
+
+    AlternationNode(List<Node> nodes) {
+      this.nodes = nodes;
+    }
+
+    @Override
+    int[] build(Nfa nfa) {
+      int start = nfa.newState();
+      int end = nfa.newState();
+      for (Node node : nodes) {
+        int[] fragment = node.build(nfa);
+        nfa.addEpsilon(start, fragment[0]);
+        nfa.addEpsilon(fragment[1], end);
+      }
+      return new int[] {start, end};
+    }
+
+    @Override
+    boolean isNullable() {
+      for (Node node : nodes) {
+        if (node.isNullable()) {
+          return true;
+        }
+      }
+      return false;
+    }
+  }
+
+  private static final class RepetitionNode extends Node {
+    private final Node node;
+    private final int min;
+    /**
+     * -1 if unbounded
+     */
+    private final int max;
+
+    RepetitionNode(Node node, int min, int max) {
+      this.node = node;
+      this.min = min;
+      this.max = max;
+    }
+
+    @Override
+    int[] build(Nfa nfa) {
+      int start = nfa.newState();
+      int end = start;
+      for (int i = 0; i < min; i++) {
+        int[] fragment = node.build(nfa);
+        nfa.addEpsilon(end, fragment[0]);
+        end = fragment[1];
+      }
+      if (max < 0) {
+        int[] fragment = node.build(nfa);
+        int loopEnd = nfa.newState();
+        nfa.addEpsilon(end, fragment[0]);
+        nfa.addEpsilon(end, loopEnd);
+        nfa.addEpsilon(fragment[1], fragment[0]);
+        nfa.addEpsilon(fragment[1], loopEnd);
+        end = loopEnd;
+      } else {
+        int optionalEnd = nfa.newState();
+        for (int i = min; i < max; i++) {
+          int[] fragment = node.build(nfa);
+          nfa.addEpsilon(end, fragment[0]);
+          nfa.addEpsilon(end, optionalEnd);
+          end = fragment[1];
+        }
+        nfa.addEpsilon(end, optionalEnd);
+        end = optionalEnd;
+      }
+      return new int[] {start, end};
+    }
+
+    @Override
+    boolean isNullable() {
+      return min == 0 || node.isNullable();
+    }
+  }
+
+  /**
+   * Thompson automaton : each state has epsilon transitions and at most one transition on a set of characters
+   */
+  private static final class Nfa {
+    private final List<List<Integer>> epsilons = new ArrayList<List<Integer>>();
+    private final List<BitSet> chars = new ArrayList<BitSet>();
+    private final List<Integer> targets = new ArrayList<Integer>();
+
+    int newState() {
+      epsilons.add(new ArrayList<Integer>(2));
+      chars.add(null);
+      targets.add(DEAD);
+      return epsilons.size() - 1;
+    }
+
+    void addEpsilon(int from, int to) {
+      epsilons.get(from).add(to);
+    }
+
+    void addTransition(int from, BitSet on, int to) {
+      chars.set(from, on);
+      targets.set(from, to);
+    }
+
+    Dfa determinize(String expression, int startState, int endState) {
+      int[] classBounds = classBounds();
+      // characters sets of the states, expressed as sets of classes
+      BitSet[] stateClasses = new BitSet[chars.size()];
+      for (int s = 0; s < chars.size(); s++) {
+        BitSet set = chars.get(s);
+        if (set != null) {
+          stateClasses[s] = new BitSet(classBounds.length);
+          for (int c = 0; c < classBounds.length; c++) {
+            if (set.get(classBounds[c])) {
+              stateClasses[s].set(c);
+            }
+          }
+        }
+      }
+
+      Map<BitSet, Integer> dfaStates = new HashMap<BitSet, Integer>();
+      List<BitSet> pending = new LinkedList<BitSet>();
+      List<Boolean> accepting = new ArrayList<Boolean>();
+      int[] transitions = new int[16 * classBounds.length];
+
+      BitSet start = closure(singleton(startState));
+      dfaStates.put(start, 0);
+      accepting.add(start.get(endState));
+      pending.add(start);
+      while (!pending.isEmpty()) {
+        BitSet current = pending.remove(0);
+        checkUnambiguous(expression, current, stateClasses);
+        int from = dfaStates.get(current);
+        for (int c = 0; c < classBounds.length; c++) {
+          BitSet next = new BitSet();
+          for (int s = current.nextSetBit(0); s >= 0; s = current.nextSetBit(s + 1)) {
+            if (stateClasses[s] != null && stateClasses[s].get(c)) {
+              next.set(targets.get(s));
+            }
+          }
+          int to = DEAD;
+          if (!next.isEmpty()) {
+            next = closure(next);
+            Integer existing = dfaStates.get(next);
+            if (existing == null) {
+              if (dfaStates.size() >= MAX_STATES) {
+                throw new IllegalArgumentException("Regular expression is too complex: " + expression);
+              }
+              existing = dfaStates.size();
+              dfaStates.put(next, existing);
+              accepting.add(next.get(endState));
+              pending.add(next);
+            }
+            to = existing;
+          }
+          int index = from * classBounds.length + c;
+          if (index >= transitions.length) {
+            transitions = Arrays.copyOf(transitions, Math.max(index + 1, transitions.length * 2));
+          }
+          transitions[index] = to;
+        }
+      }
+
+      boolean[] acceptingStates = new boolean[accepting.size()];
+      for (int s = 0; s < acceptingStates.length; s++) {
+        acceptingStates[s] = accepting.get(s);
+      }
+      return new Dfa(expression, classBounds, Arrays.copyOf(transitions, acceptingStates.length * classBounds.length), acceptingStates);
+    }
+
+    /**
+     * Backtracking and longest match give the same result when a character can be matched by at most one of the states
+     * reached at the same position
+     */
+    private static void checkUnambiguous(String expression, BitSet states, BitSet[] stateClasses) {
+      BitSet matched = new BitSet();
+      for (int s = states.nextSetBit(0); s >= 0; s = states.nextSetBit(s + 1)) {
+        if (stateClasses[s] != null) {
+          if (matched.intersects(stateClasses[s])) {
+            throw new IllegalArgumentException("Ambiguous regular expression, its longest match is not always its first match: " + expression);
+          }
+          matched.or(stateClasses[s]);
+        }
+      }
+    }
+
+    /**
+     * Splits the characters into classes, whose characters belong to the same sets
+     */
+    private int[] classBounds() {
+      BitSet bounds = new BitSet(CHAR_COUNT);
+      bounds.set(0);
+      for (BitSet set : chars) {
+        if (set != null) {
+          for (int i = set.nextSetBit(0); i >= 0; i = set.nextSetBit(i)) {
+            bounds.set(i);
+            i = set.nextClearBit(i);
+            if (i < CHAR_COUNT) {
+              bounds.set(i);
+            }
+          }
+        }
+      }
+      int[] result = new int[bounds.cardinality()];
+      int index = 0;
+      for (int i = bounds.nextSetBit(0); i >= 0; i = bounds.nextSetBit(i + 1)) {
+        result[index] = i;
+        index++;
+      }
+      return result;
+    }
+
+    private static BitSet singleton(int state) {
+      BitSet result = new BitSet();
+      result.set(state);
+      return result;
+    }
+
+    private BitSet closure(BitSet states) {
+      BitSet result = (BitSet) states.clone();
+      List<Integer> pending = new ArrayList<Integer>();
+      for (int s = states.nextSetBit(0); s >= 0; s = states.nextSetBit(s + 1)) {
+        pending.add(s);
+      }
+      while (!pending.isEmpty()) {
+        int state = pending.remove(pending.size() - 1);
+        for (int next : epsilons.get(state)) {
+          if (!result.get(next)) {
+            result.set(next);
+            pending.add(next);
+          }
+        }
+      }
+      return result;
+    }
+  }
+
+  private static final class Parser {
+    private final String expression;
+    private int index = 0;
+
+    Parser(String expression) {
+      this.expression = expression;
+    }
+
+    Node parse() {
+      Node node = alternation();
+      if (index < expression.length()) {
+        throw error("Unexpected character '" + expression.charAt(index) + "'");
+      }
+      return node;
+    }
+
+    private Node alternation() {
+      List<Node> nodes = new ArrayList<Node>();
+      nodes.add(concatenation());
+      while (accept('|')) {
+        if (nodes.get(nodes.size() - 1).isNullable()) {
+          throw error("Only the last alternative can match the empty string");
+        }
+        nodes.add(concatenation());
+      }
+      return nodes.size() == 1 ? nodes.get(0) : new AlternationNode(nodes);
+    }
+
+    private Node concatenation() {
+      List<Node> nodes = new ArrayList<Node>();
+      while (index < expression.length() && expression.charAt(index) != '|' && expression.charAt(index) != ')') {
+        nodes.add(repetition());
+      }
+      return nodes.size() == 1 ? nodes.get(0) : new ConcatNode(nodes);
+    }
+
+    private Node repetition() {
+      Node node = atom();
+      while (index < expression.length()) {
+        char c = expression.charAt(index);
+        int min;
+        int max;
+        if (c == '*') {
+          min = 0;
+          max = -1;
+        } else if (c == '+') {
+          min = 1;
+          max = -1;
+        } else if (c == '?') {
+          min = 0;
+          max = 1;
+        } else if (c == '{') {
+          index++;
+          min = number();
+          max = min;
+          if (accept(',')) {
+            max = peek() == '}' ? -1 : number();
+          }
+          if (peek() != '}' || (max >= 0 && max < min)) {
+            throw error("Invalid repetition");
+          }
+        } else {
+          return node;
+        }
+        index++;
+        if (accept('?')) {
+          throw error("Reluctant quantifiers are not supported");
+        }
+        if (accept('+')) {
+          throw error("Possessive quantifiers are not supported");
+        }
+        node = new RepetitionNode(node, min, max);
+      }
+      return node;
+    }
+
+    private Node atom() {
+      char c = next();
+      switch (c) {
+        case '(':
+          if (accept('?') && !accept(':')) {
+            throw error("Only non-capturing groups are supported");
+          }
+          Node node = alternation();
+          if (!accept(')')) {
+            throw error("Missing ')'");
+          }
+          return node;
+        case '[':
+          return new CharsNode(characterClass());
+        case '.':
+          return new CharsNode(anyCharacter());
+        case '\\':
+          return new CharsNode(escape());
+        case '^':
+        case '$':
+        case ')':
+        case '*':
+        case '+':
+        case '?':
+        case '{':
+          throw error("Unexpected character '" + c + "'");
+        default:
+          return new CharsNode(single(c));
+      }
+    }
+
+    private BitSet characterClass() {
+      boolean negated = accept('^');
+      BitSet result = new BitSet(CHAR_COUNT);
+      boolean first = true;
+      while (first || peek() != ']') {
+        first = false;
+        char c = next();
+        if (c == '[' || (c == '&' && peek() == '&')) {
+          throw error("Nested classes and intersections are not supported");
+        }
+        if (c == '\\') {
+          BitSet escaped = escape();
+          if (escaped.cardinality() != 1 || peek() != '-') {
+            result.or(escaped);
+            continue;
+          }
+          c = (char) escaped.nextSetBit(0);
+        }
+        if (peek() == '-' && index + 1 < expression.length() && expression.charAt(index + 1) != ']') {
+          index++;
+          char to = next();
+          if (to == '\\') {
+            BitSet escaped = escape();
+            if (escaped.cardinality() != 1) {
+              throw error("Invalid range");
+            }
+            to = (char) escaped.nextSetBit(0);
+          }
+          if (to < c) {
+            throw error("Invalid range");
+          }
+          result.set(c, to + 1);
+        } else {
+          result.set(c);
+        }
+      }
+      index++;
+      if (negated) {
+        result.flip(0, CHAR_COUNT);
+      }
+      return result;
+    }
+
+    private BitSet escape() {
+      char c = next();
+      switch (c) {
+        case 'n':
+          return single('\n');
+        case 'r':
+          return single('\r');
+        case 't':
+          return single('\t');
+        case 'f':
+          return single('\f');
+        case 'u':
+          if (index + 4 > expression.length()) {
+            throw error("Invalid unicode escape");
+          }
+          try {
+            char unicode = (char) Integer.parseInt(expression.substring(index, index + 4), 16);
+            index += 4;
+            return single(unicode);
+          } catch (NumberFormatException e) {
+            throw error("Invalid unicode escape");
+          }
+        case 's':
+          return whitespaces();
+        case 'S':
+          return complement(whitespaces());
+        case 'd':
+          return range('0', '9');
+        case 'D':
+          return complement(range('0', '9'));
+        case 'w':
+          return wordCharacters();
+        case 'W':
+          return complement(wordCharacters());
+        case 'p':
+          return property();
+        case 'P':
+          return complement(property());
+        default:
+          if (Character.isLetterOrDigit(c)) {
+            throw error("Unsupported escape '\\" + c + "'");
+          }
+          return single(c);
+      }
+    }
+
+    private BitSet property() {
+      if (!accept('{')) {
+        throw error("Missing '{'");
+      }
+      int end = expression.indexOf('}', index);
+      if (end < 0) {
+        throw error("Missing '}'");
+      }
+      String name = expression.substring(index, end);
+      index = end + 1;
+      BitSet result = new BitSet(CHAR_COUNT);
+      if ("javaJavaIdentifierStart".equals(name)) {
+        for (int c = 0; c < CHAR_COUNT; c++) {
+          result.set(c, Character.isJavaIdentifierStart((char) c));
+        }
+      } else if ("javaJavaIdentifierPart".equals(name)) {
+        for (int c = 0; c < CHAR_COUNT; c++) {
+          result.set(c, Character.isJavaIdentifierPart((char) c));
+        }
+      } else {
+        throw error("Unsupported property '" + name + "'");
+      }
+      return result;
+    }
+
+    private int number() {
+      int start = index;
+      while (index < expression.length() && Character.isDigit(expression.charAt(index))) {
+        index++;
+      }
+      if (start == index) {
+        throw error("Number expected");
+      }
+      return Integer.parseInt(expression.substring(start, index));
+    }
+
+    private boolean accept(char c) {
+      if (index < expression.length() && expression.charAt(index) == c) {
+        index++;
+        return true;
+      }
+      return false;
+    }
+
+    private int peek() {
+      return index < expression.length() ? expression.charAt(index) : -1;
+    }
+
+    private char next() {
+      if (index >= expression.length()) {
+        throw error("Unexpected end of expression");
+      }
+      char c = expression.charAt(index);
+      index++;
+      return c;
+    }
+
+    private IllegalArgumentException error(String message) {
+      return new IllegalArgumentException(message + " at index " + index + " of regular expression: " + expression);
+    }
+
+    private static BitSet single(char c) {
+      BitSet result = new BitSet(CHAR_COUNT);
+      result.set(c);
+      return result;
+    }
+
+    private static BitSet range(char from, char to) {
+      BitSet result = new BitSet(CHAR_COUNT);
+      result.set(from, to + 1);
+      return result;
+    }
+
+    private static BitSet complement(BitSet set) {
+      BitSet result = (BitSet) set.clone();
+      result.flip(0, CHAR_COUNT);
+      return result;
+    }
+
+    private static BitSet whitespaces() {
+      BitSet result = range('\t', '\r');
+      result.set(' ');
+      return result;
+    }
+
+    private static BitSet wordCharacters() {
+      BitSet result = range('a', 'z');
+      result.set('A', 'Z' + 1);
+      result.set('0', '9' + 1);
+      result.set('_');
+      return result;
+    }
+
+    private static BitSet anyCharacter() {
+      BitSet result = new BitSet(CHAR_COUNT);
+      result.set(0, CHAR_COUNT);
+      result.clear('\n');
+      result.clear('\r');
+      result.clear('\u0085');
+      result.clear('\u2028');
+      result.clear('\u2029');
+      return result;
+    }
+  }
+}
@@ -0,0 +1,73 @@
+/*
+ * SonarQube, open source software quality management tool.
+ * Copyright (C) 2008-2013 SonarSource
+ * mailto:contact AT sonarsource DOT com
+ *
+ * SonarQube is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * SonarQube is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.channel;
+
+/**
+ * Same as {@link RegexChannel}, but the tokens are matched by a {@link Dfa}, which finds the longest match without backtracking.
+ * Only a subset of the regular expressions is supported, see {@link Dfa}.
+ *
+ * @since 4.1
+ */
+public abstract class DfaChannel<O> extends Channel<O> {
+
+  private final Dfa dfa;
+
+  /**
+   * Create a DfaChannel object with the required regular expression
+   *
+   * @param regex
+   *          regular expression to be used to try matching the next characters in the stream
+   * @throws IllegalArgumentException if the regular expression is not supported by {@link Dfa}
+   */
+  public DfaChannel(String regex) {
+    this(Dfa.compile(regex));
+  }
+
+  public DfaChannel(Dfa dfa) {
+    this.dfa = dfa;
+  }
+
+  @Override
+  public final boolean consume(CodeReader code, O output) {
+    CharSequence token = code.popTo(dfa);
+    if (token != null && token.length() > 0) {
+      consume(token, output);
+      return true;
+    }
+    return false;
+  }
+
+  @Override
+  public boolean canStartWith(char c) {
+    return dfa.canStartWith(c);
+  }
+
+  /**
+   * The consume method is called each time the automaton matches the next characters in the character streams.
+   *
+   * @param token
+   *          the token consumed in the character stream. It is a view on the buffer of the code reader, which is valid only
+   *          during this call
+   * @param output
+   *          the OUPUT object which can be optionally fed
+   */
+  protected abstract void consume(CharSequence token, O output);
+
+}
@@ -29,6 +29,7 @@ public abstract class RegexChannel<O> extends Channel<O> {
 
   private final StringBuilder tmpBuilder = new StringBuilder();
   private final Matcher matcher;
+  private boolean[] startCharacters;
 
   /**
    * Create a RegexChannel object with the required regular expression
@@ -50,6 +51,14 @@ public abstract class RegexChannel<O> extends Channel<O> {
     return false;
   }
 
+  @Override
+  public boolean canStartWith(char c) {
+    if (startCharacters == null) {
+      startCharacters = StartCharacters.of(matcher.pattern());
+    }
+    return c >= startCharacters.length || startCharacters[c];
+  }
+
   /**
    * The consume method is called each time the regular expression used to create the RegexChannel object matches the next characters in the
    * character streams.
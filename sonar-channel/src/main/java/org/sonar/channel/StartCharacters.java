@@ -0,0 +1,125 @@
+/*
+ * SonarQube, open source software quality management tool.
+ * Copyright (C) 2008-2013 SonarSource
+ * mailto:contact AT sonarsource DOT com
+ *
+ * SonarQube is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * SonarQube is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.channel;
+
+import java.util.Arrays;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Computes the characters which can start the tokens consumed by channels, in order to build the dispatch tables
+ * of {@link ChannelDispatcher}. Only ASCII characters are dispatched, all the channels being tried on other characters.
+ *
+ * @since 4.1
+ */
+public final class StartCharacters {
+
+  /**
+   * Characters lower than this limit are dispatched.
+   */
+  public static final int LIMIT = 128;
+
+  private StartCharacters() {
+    // only static methods
+  }
+
+  /**
+   * Returns, for each ASCII character, whether a match of the given pattern can start with it. The pattern is tried on the
+   * single character, then on the character followed by an unreadable sequence : a character is rejected only if the
+   * regular expression engine fails on both attempts without reading further, so that no input starting with this
+   * character can match.
+   */
+  public static boolean[] of(Pattern pattern) {
+    boolean[] result = new boolean[LIMIT];
+    for (char c = 0; c < LIMIT; c++) {
+      result[c] = canStartWith(pattern, c);
+    }
+    return result;
+  }
+
+  private static boolean canStartWith(Pattern pattern, char c) {
+    Matcher matcher = pattern.matcher(String.valueOf(c));
+    if (matcher.lookingAt() || matcher.hitEnd()) {
+      return true;
+    }
+    try {
+      return pattern.matcher(new FirstCharacterSequence(c)).lookingAt();
+    } catch (UnreadableCharacterException e) {
+      return true;
+    }
+  }
+
+  /**
+   * Returns, for each ASCII character, the indexes of the channels which can start with it, in the order of the given array.
+   */
+  public static int[][] dispatchTable(Channel<?>[] channels) {
+    int[][] table = new int[LIMIT][];
+    int[] candidates = new int[channels.length];
+    for (char c = 0; c < LIMIT; c++) {
+      int count = 0;
+      for (int i = 0; i < channels.length; i++) {
+        if (channels[i].canStartWith(c)) {
+          candidates[count] = i;
+          count++;
+        }
+      }
+      table[c] = Arrays.copyOf(candidates, count);
+    }
+    return table;
+  }
+
+  private static final class FirstCharacterSequence implements CharSequence {
+    private static final int LENGTH = 1 << 16;
+    private final char first;
+
+    FirstCharacterSequence(char first) {
+      this.first = first;
+    }
+
+    public int length() {
+      return LENGTH;
+    }
+
+    public char charAt(int index) {
+      if (index == 0) {
+        return first;
+      }
+      throw UnreadableCharacterException.INSTANCE;
+    }
+
+    public CharSequence subSequence(int start, int end) {
+      throw UnreadableCharacterException.INSTANCE;
+    }
+
+    @Override
+    public String toString() {
+      throw UnreadableCharacterException.INSTANCE;
+    }
+  }
+
+  private static final class UnreadableCharacterException extends RuntimeException {
+    private static final UnreadableCharacterException INSTANCE = new UnreadableCharacterException();
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+      return this;
+    }
+  }
+}
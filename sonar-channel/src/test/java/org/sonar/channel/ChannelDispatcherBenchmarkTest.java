@@ -0,0 +1,108 @@
+/*
+ * SonarQube, open source software quality management tool.
+ * Copyright (C) 2008-2013 SonarSource
+ * mailto:contact AT sonarsource DOT com
+ *
+ * SonarQube is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * SonarQube is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.channel;
+
+import org.junit.Ignore;
+import org.junit.Test;
+
+/**
+ * Compares the throughput of {@link ChannelDispatcher} on Java-like source code, with and without the dispatch table
+ * on first character. Ignored as it takes about ten seconds.
+ */
+@Ignore
+public class ChannelDispatcherBenchmarkTest {
+
+  private static final String[] TOKENS = {
+    "\\s++",
+    "//[^\\n\\r]*+",
+    "/\\*[\\s\\S]*?\\*/",
+    "\"([^\"\\\\]*+(\\\\[\\s\\S])?+)*+\"",
+    "'([^'\\n\\\\]*+(\\\\.)?+)*+'",
+    "\\p{javaJavaIdentifierStart}++\\p{javaJavaIdentifierPart}*+",
+    "[0-9_]++\\.([0-9_]++)?+([Ee][+-]?+[0-9_]++)?+[fFdD]?+",
+    "0[xX][0-9a-fA-F_]++[lL]?+",
+    "[0-9_]++[lL]?+",
+    "."};
+
+  private static final String SOURCE = "/*\n * License header\n */\npackage org.sonar.foo;\n\n"
+    + "public class Foo extends Bar {\n  // line comment\n  private static final long SIZE = 0x1FFFL;\n"
+    + "  public String toString(int i, double d) {\n    return \"value: \" + (i * 3.14d) + 'c' + SIZE;\n  }\n}\n";
+
+  private static final int COPIES = 20000;
+  private static final int ITERATIONS = 10;
+
+  @Test
+  public void compare_with_and_without_dispatch_table() {
+    StringBuilder code = new StringBuilder();
+    for (int i = 0; i < COPIES; i++) {
+      code.append(SOURCE);
+    }
+    String source = code.toString();
+
+    ChannelDispatcher.Builder withTable = ChannelDispatcher.builder();
+    ChannelDispatcher.Builder withoutTable = ChannelDispatcher.builder();
+    for (String regex : TOKENS) {
+      withTable.addChannel(new CountingChannel(regex));
+      withoutTable.addChannel(new UndeclaredChannel(new CountingChannel(regex)));
+    }
+    run("Without dispatch table", withoutTable.<int[]>build(), source);
+    run("With dispatch table", withTable.<int[]>build(), source);
+  }
+
+  private static void run(String name, ChannelDispatcher<int[]> dispatcher, String source) {
+    // warm up
+    dispatcher.consume(new CodeReader(source), new int[1]);
+    long start = System.currentTimeMillis();
+    int[] tokens = new int[1];
+    for (int i = 0; i < ITERATIONS; i++) {
+      dispatcher.consume(new CodeReader(source), tokens);
+    }
+    long duration = System.currentTimeMillis() - start;
+    System.out.println(String.format("%s: %d tokens, %d ms, %.1f MB/s", name, tokens[0], duration,
+      ((double) source.length() * ITERATIONS / (1024 * 1024)) / (duration / 1000.0)));
+  }
+
+  private static class CountingChannel extends RegexChannel<int[]> {
+    CountingChannel(String regex) {
+      super(regex);
+    }
+
+    @Override
+    protected void consume(CharSequence token, int[] output) {
+      output[0]++;
+    }
+  }
+
+  /**
+   * Hides the start characters of the wrapped channel, which is then tried on any character
+   */
+  private static class UndeclaredChannel extends Channel<int[]> {
+    private final Channel<int[]> channel;
+
+    UndeclaredChannel(Channel<int[]> channel) {
+      this.channel = channel;
+    }
+
+    @Override
+    public boolean consume(CodeReader code, int[] output) {
+      return channel.consume(code, output);
+    }
+  }
+}
@@ -48,6 +48,36 @@ public class ChannelDispatcherTest {
     dispatcher.consume(new CodeReader("two words"), new StringBuilder());
   }
 
+  @Test
+  public void shouldTryOnlyChannelsWhichCanStartWithNextCharacter() {
+    DigitChannel digits = new DigitChannel();
+    ChannelDispatcher<StringBuilder> dispatcher = ChannelDispatcher.builder().addChannels(digits, new SpaceDeletionChannel()).build();
+    StringBuilder output = new StringBuilder();
+    dispatcher.consume(new CodeReader("a1 b2 \u00e93"), output);
+    assertThat(output.toString(), is("a<1>b<2>\u00e9<3>"));
+    // letters and spaces are not submitted to the channel of digits, except non-ASCII characters
+    assertThat(digits.attempts, is(4));
+  }
+
+  private static class DigitChannel extends Channel<StringBuilder> {
+    private int attempts = 0;
+
+    @Override
+    public boolean consume(CodeReader code, StringBuilder output) {
+      attempts++;
+      if (Character.isDigit(code.peek())) {
+        output.append('<').append((char) code.pop()).append('>');
+        return true;
+      }
+      return false;
+    }
+
+    @Override
+    public boolean canStartWith(char c) {
+      return c >= '0' && c <= '9';
+    }
+  }
+
   private static class SpaceDeletionChannel extends Channel<StringBuilder> {
     @Override
     public boolean consume(CodeReader code, StringBuilder output) {
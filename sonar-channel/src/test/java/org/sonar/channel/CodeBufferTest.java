@@ -23,13 +23,24 @@ import static junit.framework.Assert.assertEquals;
 import static org.hamcrest.core.Is.is;
 import static org.junit.Assert.assertThat;
 
+import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
 import java.util.regex.Pattern;
 
+import org.apache.commons.io.FileUtils;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
 public class CodeBufferTest {
 
+  @Rule
+  public TemporaryFolder temp = new TemporaryFolder();
+
   private CodeReaderConfiguration defaulConfiguration = new CodeReaderConfiguration();
 
   @Test
@@ -109,6 +120,90 @@ public class CodeBufferTest {
     assertEquals("", reader.stopRecording().toString());
   }
 
+  @Test
+  public void recordedCharactersShouldBeReadOnlyView() {
+    CodeReader reader = new CodeReader("123456");
+    reader.startRecording();
+    reader.pop();
+    reader.pop();
+    CharSequence recorded = reader.stopRecording();
+    assertThat(recorded.length(), is(2));
+    assertThat(recorded.charAt(1), is('2'));
+    assertEquals("12", recorded.toString());
+    assertEquals("2", recorded.subSequence(1, 2).toString());
+  }
+
+  @Test
+  public void shouldReadFile() throws Exception {
+    File file = temp.newFile("Foo.java");
+    FileUtils.writeStringToFile(file, "été\ncode", "UTF-8");
+    CodeBuffer code = new CodeBuffer(file, Charset.forName("UTF-8"), new CodeReaderConfiguration());
+    assertThat(code.length(), is(8));
+    assertThat((char) code.pop(), is('é'));
+    assertThat(code.charAt(3), is('c'));
+    assertThat(code.charAt(7), is((char) -1));
+
+    code = new CodeBuffer(file, Charset.forName("ISO-8859-1"), new CodeReaderConfiguration());
+    assertThat(code.length(), is(10));
+  }
+
+  @Test
+  public void shouldReadEmptyFile() throws Exception {
+    CodeBuffer code = new CodeBuffer(temp.newFile("Empty.java"), Charset.forName("UTF-8"), new CodeReaderConfiguration());
+    assertThat(code.length(), is(0));
+    assertThat(code.pop(), is(-1));
+  }
+
+  @Test
+  public void shouldReadLargeFile() throws Exception {
+    File file = temp.newFile("Large.java");
+    Writer writer = new OutputStreamWriter(new FileOutputStream(file), "UTF-16");
+    for (int i = 0; i < 100000; i++) {
+      writer.write("line é ");
+      writer.write(Integer.toString(i));
+      writer.write('\n');
+    }
+    writer.close();
+    assertThat(file.length() > 1024L * 1024, is(true));
+
+    CodeBuffer code = new CodeBuffer(file, Charset.forName("UTF-16"), new CodeReaderConfiguration());
+    String expectedEnd = "line é 99999\n";
+    int length = code.length();
+    for (int i = 0; i < expectedEnd.length(); i++) {
+      assertThat(code.charAt(length - expectedEnd.length() + i), is(expectedEnd.charAt(i)));
+    }
+    assertThat((char) code.pop(), is('l'));
+  }
+
+  @Test
+  public void shouldReleaseFile() throws Exception {
+    File file = temp.newFile("Foo.java");
+    FileUtils.writeStringToFile(file, "code", "UTF-8");
+    new CodeBuffer(file, Charset.forName("UTF-8"), new CodeReaderConfiguration());
+
+    assertThat(file.delete(), is(true));
+  }
+
+  @Test
+  public void shouldDecodeBytes() throws Exception {
+    CodeBuffer code = new CodeBuffer("été\ncode".getBytes("UTF-8"), Charset.forName("UTF-8"), new CodeReaderConfiguration());
+
+    assertThat(code.length(), is(8));
+    assertThat((char) code.pop(), is('é'));
+  }
+
+  @Test
+  public void shouldApplyFiltersOnFile() throws Exception {
+    File file = temp.newFile("Foo.java");
+    FileUtils.writeStringToFile(file, "abcd12efgh34", "UTF-8");
+    CodeReaderConfiguration configuration = new CodeReaderConfiguration();
+    configuration.setCodeReaderFilters(new ReplaceNumbersFilter());
+    CodeBuffer code = new CodeBuffer(file, Charset.forName("UTF-8"), configuration);
+    assertEquals('-', code.charAt(4));
+    assertEquals('e', code.charAt(6));
+    assertThat(code.length(), is(12));
+  }
+
   @Test
   public void testCharAt() {
     CodeBuffer reader = new CodeBuffer("123456", defaulConfiguration);
@@ -0,0 +1,106 @@
+/*
+ * SonarQube, open source software quality management tool.
+ * Copyright (C) 2008-2013 SonarSource
+ * mailto:contact AT sonarsource DOT com
+ *
+ * SonarQube is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * SonarQube is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.channel;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.Charset;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Ignore;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Compares the memory allocated to tokenize a large generated file, when it is read through a Reader and tokenized by regular
+ * expressions, and when it is decoded directly into the buffer and tokenized by automata. Ignored as it requires
+ * an Oracle/OpenJDK virtual machine to measure allocations.
+ */
+@Ignore
+public class CodeReaderAllocationBenchmarkTest {
+
+  private static final String[] TOKENS = {"\\s+", "//[^\\n\\r]*", "\"[^\"\\n]*\"", "[a-zA-Z_][a-zA-Z0-9_]*", "[0-9]+", "."};
+  private static final Charset UTF_8 = Charset.forName("UTF-8");
+  private static final int ITERATIONS = 5;
+
+  @Rule
+  public TemporaryFolder temp = new TemporaryFolder();
+
+  @Test
+  public void compare_allocations() throws IOException {
+    File file = temp.newFile("Generated.java");
+    StringBuilder code = new StringBuilder();
+    for (int i = 0; i < 200000; i++) {
+      code.append("  private static final String FIELD_").append(i).append(" = \"value ").append(i).append("\"; // generated\n");
+    }
+    FileUtils.writeStringToFile(file, code.toString(), "UTF-8");
+
+    ChannelDispatcher.Builder regex = ChannelDispatcher.builder();
+    ChannelDispatcher.Builder dfa = ChannelDispatcher.builder();
+    for (String token : TOKENS) {
+      regex.addChannel(new RegexChannel<int[]>(token) {
+        @Override
+        protected void consume(CharSequence token, int[] output) {
+          output[0]++;
+        }
+      });
+      dfa.addChannel(new DfaChannel<int[]>(token) {
+        @Override
+        protected void consume(CharSequence token, int[] output) {
+          output[0]++;
+        }
+      });
+    }
+    ChannelDispatcher<int[]> regexDispatcher = regex.build();
+    ChannelDispatcher<int[]> dfaDispatcher = dfa.build();
+
+    for (int run = 0; run < 2; run++) {
+      long before = allocatedBytes();
+      long start = System.currentTimeMillis();
+      int[] tokens = new int[1];
+      for (int i = 0; i < ITERATIONS; i++) {
+        regexDispatcher.consume(new CodeReader(new InputStreamReader(new FileInputStream(file), UTF_8)), tokens);
+      }
+      print("Reader and regular expressions", tokens[0], file, allocatedBytes() - before, System.currentTimeMillis() - start);
+
+      before = allocatedBytes();
+      start = System.currentTimeMillis();
+      tokens[0] = 0;
+      for (int i = 0; i < ITERATIONS; i++) {
+        dfaDispatcher.consume(new CodeReader(file, UTF_8), tokens);
+      }
+      print("File and automata", tokens[0], file, allocatedBytes() - before, System.currentTimeMillis() - start);
+    }
+  }
+
+  private static void print(String name, int tokens, File file, long allocated, long duration) {
+    System.out.println(String.format("%s: %d tokens, %d ms, %.1f bytes allocated per byte of source", name, tokens, duration,
+      (double) allocated / (file.length() * ITERATIONS)));
+  }
+
+  private static long allocatedBytes() {
+    com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    return bean.getThreadAllocatedBytes(Thread.currentThread().getId());
+  }
+}
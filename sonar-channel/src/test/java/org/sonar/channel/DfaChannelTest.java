@@ -0,0 +1,140 @@
+/*
+ * SonarQube, open source software quality management tool.
+ * Copyright (C) 2008-2013 SonarSource
+ * mailto:contact AT sonarsource DOT com
+ *
+ * SonarQube is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * SonarQube is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.channel;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import org.junit.Test;
+
+public class DfaChannelTest {
+
+  @Test
+  public void shouldMatch() {
+    ChannelDispatcher<StringBuilder> dispatcher = ChannelDispatcher.builder().addChannel(new MyWordChannel()).addChannel(new BlackholeChannel()).build();
+    StringBuilder output = new StringBuilder();
+    dispatcher.consume(new CodeReader("my word"), output);
+    assertThat(output.toString(), is("<w>my</w> <w>word</w>"));
+  }
+
+  @Test
+  public void shouldProduceSameTokensThanRegexChannel() {
+    String code = "int i = 0x1F; // comment\n/* multi\n * line */ String s = \"a \\\" b\";\n";
+    ChannelDispatcher<StringBuilder> regex = ChannelDispatcher.builder()
+        .addChannel(new Tokens(new RegexChannelOf("//[^\\n\\r]*+")))
+        .addChannel(new Tokens(new RegexChannelOf("/\\*[\\s\\S]*?\\*/")))
+        .addChannel(new Tokens(new RegexChannelOf("\"([^\"\\\\]*+(\\\\[\\s\\S])?+)*+\"")))
+        .addChannel(new Tokens(new RegexChannelOf("\\w++")))
+        .addChannel(new BlackholeChannel())
+        .build();
+    ChannelDispatcher<StringBuilder> dfa = ChannelDispatcher.builder()
+        .addChannel(new Tokens(new DfaChannelOf("//[^\\n\\r]*")))
+        .addChannel(new Tokens(new DfaChannelOf("/\\*[^*]*\\*+([^/*][^*]*\\*+)*/")))
+        .addChannel(new Tokens(new DfaChannelOf("\"([^\"\\\\]*(\\\\[\\s\\S])?)*\"")))
+        .addChannel(new Tokens(new DfaChannelOf("\\w+")))
+        .addChannel(new BlackholeChannel())
+        .build();
+    StringBuilder regexOutput = new StringBuilder();
+    regex.consume(new CodeReader(code), regexOutput);
+    StringBuilder dfaOutput = new StringBuilder();
+    dfa.consume(new CodeReader(code), dfaOutput);
+    assertThat(dfaOutput.toString(), is(regexOutput.toString()));
+    assertThat(dfaOutput.toString(), is("[int] [i] = [0x1F]; [// comment]\n[/* multi\n * line */] [String] [s] = [\"a \\\" b\"];\n"));
+  }
+
+  @Test
+  public void shouldUpdateCursor() {
+    CodeReader code = new CodeReader("ab\ncd");
+    StringBuilder token = new StringBuilder();
+    assertThat(code.popTo(Dfa.compile("[a-z\\n]+"), token), is(5));
+    assertThat(token.toString(), is("ab\ncd"));
+    assertThat(code.getPreviousCursor().getLine(), is(1));
+    assertThat(code.getLinePosition(), is(2));
+    assertThat(code.getColumnPosition(), is(2));
+    assertThat(code.popTo(Dfa.compile("x"), token), is(-1));
+  }
+
+  @Test
+  public void shouldReturnViewOnConsumedCharacters() {
+    CodeReader code = new CodeReader("foo bar");
+    CharSequence token = code.popTo(Dfa.compile("[a-z]+"));
+    assertThat(token.toString(), is("foo"));
+    assertThat(code.getColumnPosition(), is(3));
+    assertThat(code.popTo(Dfa.compile("[a-z]+")), is((CharSequence) null));
+    assertThat(code.peek(), is((int) ' '));
+  }
+
+  private static class MyWordChannel extends DfaChannel<StringBuilder> {
+
+    public MyWordChannel() {
+      super("\\w+");
+    }
+
+    @Override
+    protected void consume(CharSequence token, StringBuilder output) {
+      output.append("<w>" + token + "</w>");
+    }
+  }
+
+  private static class Tokens extends Channel<StringBuilder> {
+    private final Channel<StringBuilder> channel;
+
+    Tokens(Channel<StringBuilder> channel) {
+      this.channel = channel;
+    }
+
+    @Override
+    public boolean consume(CodeReader code, StringBuilder output) {
+      return channel.consume(code, output);
+    }
+  }
+
+  private static class RegexChannelOf extends RegexChannel<StringBuilder> {
+    RegexChannelOf(String regex) {
+      super(regex);
+    }
+
+    @Override
+    protected void consume(CharSequence token, StringBuilder output) {
+      output.append('[').append(token).append(']');
+    }
+  }
+
+  private static class DfaChannelOf extends DfaChannel<StringBuilder> {
+    DfaChannelOf(String regex) {
+      super(regex);
+    }
+
+    @Override
+    protected void consume(CharSequence token, StringBuilder output) {
+      output.append('[').append(token).append(']');
+    }
+  }
+
+  private static class BlackholeChannel extends Channel<StringBuilder> {
+
+    @Override
+    public boolean consume(CodeReader code, StringBuilder output) {
+      output.append((char) code.pop());
+      return true;
+    }
+  }
+
+}
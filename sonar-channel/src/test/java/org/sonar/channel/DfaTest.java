@@ -0,0 +1,154 @@
+/*
+ * SonarQube, open source software quality management tool.
+ * Copyright (C) 2008-2013 SonarSource
+ * mailto:contact AT sonarsource DOT com
+ *
+ * SonarQube is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * SonarQube is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.channel;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.junit.Test;
+
+public class DfaTest {
+
+  private static final String[] EXPRESSIONS = {
+    "a",
+    "abc|b|",
+    "[a-c]*",
+    "[^ab]+b?",
+    "(ab|b)*c",
+    "(?:a|b){2,3}",
+    "a{2}b{1,}",
+    "\\s|\\S\\d",
+    "\\w+",
+    "\\W.",
+    "/\\*[^*]*\\*+([^/*][^*]*\\*+)*/",
+    "\"([^\"\\\\]|\\\\[\\s\\S])*\"",
+    "[0-9_]+\\.([0-9_]+)?([Ee][+-]?[0-9_]+)?[fFdD]?",
+    "0[xX][0-9a-fA-F_]+[lL]?",
+    "\\p{javaJavaIdentifierStart}\\p{javaJavaIdentifierPart}*",
+    "[\\-\\]\\\\]+",
+    "\\u0061\\.\\*"};
+
+  private static final String ALPHABET = "abc/*\"\\.xX0159eE+-_fL \t\n\ré ]";
+
+  @Test
+  public void shouldFindSameMatchAsRegularExpressions() {
+    Random random = new Random(42);
+    for (String expression : EXPRESSIONS) {
+      Dfa dfa = Dfa.compile(expression);
+      Matcher matcher = Pattern.compile(expression).matcher("");
+      for (int i = 0; i < 2000; i++) {
+        String input = randomString(random);
+        assertThat(expression + " on '" + input + "'", dfa.match(input), is(firstMatch(matcher, input)));
+        char[] chars = ("#" + input + "#").toCharArray();
+        assertThat(expression + " on '" + input + "'", dfa.match(chars, 1, chars.length - 1), is(firstMatch(matcher, input)));
+      }
+    }
+  }
+
+  @Test
+  public void shouldRejectAmbiguousExpressions() {
+    for (String expression : new String[] {"abc|ab|a", "(ab|a)*c", "[^a]+b?", "a*(ab)?", "\\p{javaJavaIdentifierStart}+\\p{javaJavaIdentifierPart}*"}) {
+      try {
+        Dfa.compile(expression);
+        fail(expression);
+      } catch (IllegalArgumentException e) {
+        assertThat(e.getMessage(), containsString("Ambiguous"));
+      }
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void shouldRejectEmptyAlternativeBeforeOthers() {
+    // the regular expression matches the empty string on "b"
+    Dfa.compile("a?|b");
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void shouldNotSupportPossessiveQuantifiers() {
+    Dfa.compile("a*+b");
+  }
+
+  @Test
+  public void shouldMatchEmptyString() {
+    assertThat(Dfa.compile("a*").match("b"), is(0));
+    assertThat(Dfa.compile("a").match(""), is(-1));
+  }
+
+  @Test
+  public void shouldComputeStartCharacters() {
+    Dfa dfa = Dfa.compile("//[^\\n]*|\\p{javaJavaIdentifierStart}+");
+    assertThat(dfa.canStartWith('/'), is(true));
+    assertThat(dfa.canStartWith('a'), is(true));
+    assertThat(dfa.canStartWith('é'), is(true));
+    assertThat(dfa.canStartWith('1'), is(false));
+    assertThat(dfa.canStartWith('*'), is(false));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void shouldNotSupportReluctantQuantifiers() {
+    Dfa.compile("/\\*[\\s\\S]*?\\*/");
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void shouldNotSupportAnchors() {
+    Dfa.compile("^a");
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void shouldNotSupportLookarounds() {
+    Dfa.compile("a(?=b)");
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void shouldNotSupportBackReferences() {
+    Dfa.compile("(a)\\1");
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void shouldFailOnUnbalancedGroup() {
+    Dfa.compile("(ab");
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void shouldFailOnUnsupportedProperty() {
+    Dfa.compile("\\p{Alpha}");
+  }
+
+  private static String randomString(Random random) {
+    int length = random.nextInt(12);
+    StringBuilder sb = new StringBuilder(length);
+    for (int i = 0; i < length; i++) {
+      sb.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+    }
+    return sb.toString();
+  }
+
+  private static int firstMatch(Matcher matcher, String input) {
+    matcher.reset(input);
+    return matcher.lookingAt() ? matcher.end() : -1;
+  }
+
+}
@@ -0,0 +1,98 @@
+/*
+ * SonarQube, open source software quality management tool.
+ * Copyright (C) 2008-2013 SonarSource
+ * mailto:contact AT sonarsource DOT com
+ *
+ * SonarQube is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * SonarQube is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.channel;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.util.regex.Pattern;
+
+import org.junit.Test;
+
+public class StartCharactersTest {
+
+  @Test
+  public void shouldComputeStartCharactersOfCharacterClass() {
+    boolean[] startCharacters = StartCharacters.of(Pattern.compile("[a-c]\\w*+"));
+    assertThat(startCharacters.length, is(StartCharacters.LIMIT));
+    assertThat(startCharacters['a'], is(true));
+    assertThat(startCharacters['c'], is(true));
+    assertThat(startCharacters['d'], is(false));
+    assertThat(startCharacters[' '], is(false));
+  }
+
+  @Test
+  public void shouldComputeStartCharactersOfLiterals() {
+    boolean[] startCharacters = StartCharacters.of(Pattern.compile("//[^\\n]*+|/\\*[\\s\\S]*?\\*/|class"));
+    assertThat(startCharacters['/'], is(true));
+    assertThat(startCharacters['c'], is(true));
+    assertThat(startCharacters['*'], is(false));
+    assertThat(startCharacters['l'], is(false));
+  }
+
+  @Test
+  public void shouldAcceptAllCharactersWhenPatternCanMatchEmptyString() {
+    boolean[] startCharacters = StartCharacters.of(Pattern.compile("\\s*+x?"));
+    for (char c = 0; c < StartCharacters.LIMIT; c++) {
+      assertThat(startCharacters[c], is(true));
+    }
+  }
+
+  @Test
+  public void shouldAcceptCharactersWhichCanBeSkippedBeforeTheToken() {
+    boolean[] startCharacters = StartCharacters.of(Pattern.compile("\\s*+x"));
+    assertThat(startCharacters[' '], is(true));
+    assertThat(startCharacters['\n'], is(true));
+    assertThat(startCharacters['x'], is(true));
+    assertThat(startCharacters['y'], is(false));
+  }
+
+  @Test
+  public void shouldSupportFlagsAndEndOfInput() {
+    assertThat(StartCharacters.of(Pattern.compile("(?i)class"))['C'], is(true));
+    assertThat(StartCharacters.of(Pattern.compile("a\\z"))['a'], is(true));
+    assertThat(StartCharacters.of(Pattern.compile("a$"))['a'], is(true));
+    assertThat(StartCharacters.of(Pattern.compile("a(?=b)"))['a'], is(true));
+    assertThat(StartCharacters.of(Pattern.compile("a(?=b)"))['b'], is(false));
+  }
+
+  @Test
+  public void shouldListCandidateChannelsInOrder() {
+    Channel<StringBuilder> any = new Channel<StringBuilder>() {
+      @Override
+      public boolean consume(CodeReader code, StringBuilder output) {
+        return false;
+      }
+    };
+    Channel<StringBuilder> digits = new RegexChannel<StringBuilder>("[0-9]++") {
+      @Override
+      protected void consume(CharSequence token, StringBuilder output) {
+      }
+    };
+    int[][] table = StartCharacters.dispatchTable(new Channel[] {digits, any});
+    assertThat(table.length, is(StartCharacters.LIMIT));
+    assertThat(table['1'].length, is(2));
+    assertThat(table['1'][0], is(0));
+    assertThat(table['1'][1], is(1));
+    assertThat(table['a'].length, is(1));
+    assertThat(table['a'][0], is(1));
+  }
+
+}
@@ -37,6 +37,15 @@ public abstract class InlineDocTokenizer extends Tokenizer {
     this.startToken = startToken.toCharArray();
   }
 
+  @Override
+  public boolean canStartWith(char c) {
+    if (getClass() != CDocTokenizer.class) {
+      // subclasses may override consume()
+      return true;
+    }
+    return c == startToken[0];
+  }
+
   @Override
   public boolean consume(CodeReader code, HtmlCodeBuilder codeBuilder) {
     if (code.peek() == startToken[0] && Arrays.equals(code.peek(startToken.length), startToken)) {
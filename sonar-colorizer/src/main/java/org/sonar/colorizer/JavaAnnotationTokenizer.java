@@ -38,6 +38,15 @@ public class JavaAnnotationTokenizer extends Tokenizer {
     }
   };
 
+  @Override
+  public boolean canStartWith(char c) {
+    if (getClass() != JavaAnnotationTokenizer.class) {
+      // subclasses may override consume()
+      return true;
+    }
+    return c == '@';
+  }
+
   @Override
   public boolean consume(CodeReader code, HtmlCodeBuilder codeBuilder) {
     if (code.peek() == '@') {
@@ -50,6 +50,15 @@ public class JavaConstantTokenizer extends Tokenizer {
     return false;
   }
 
+  @Override
+  public boolean canStartWith(char c) {
+    if (getClass() != JavaConstantTokenizer.class) {
+      // subclasses may override consume()
+      return true;
+    }
+    return isJavaConstantStart(c);
+  }
+
   @Override
   public boolean consume(CodeReader code, HtmlCodeBuilder codeBuilder) {
     if (hasNextToken(code)) {
@@ -20,6 +20,7 @@
 package org.sonar.colorizer;
 
 import org.sonar.channel.CodeReader;
+import org.sonar.channel.StartCharacters;
 
 import java.util.Collections;
 import java.util.HashSet;
@@ -37,6 +38,7 @@ public class KeywordsTokenizer extends NotThreadSafeTokenizer {
   private boolean caseInsensitive = false;
   private Matcher matcher;
   private final StringBuilder tmpBuilder = new StringBuilder();
+  private boolean[] startCharacters;
   private static final String DEFAULT_REGEX = "[a-zA-Z_][a-zA-Z0-9_]*+";
 
   private Set<String> keywords = new HashSet<String>();
@@ -59,6 +61,18 @@ public class KeywordsTokenizer extends NotThreadSafeTokenizer {
     this.matcher = Pattern.compile(DEFAULT_REGEX).matcher("");
   }
 
+  @Override
+  public boolean canStartWith(char c) {
+    if (getClass() != KeywordsTokenizer.class && getClass() != CaseInsensitiveKeywordsTokenizer.class) {
+      // subclasses may override consume()
+      return true;
+    }
+    if (startCharacters == null) {
+      startCharacters = StartCharacters.of(matcher.pattern());
+    }
+    return c >= startCharacters.length || startCharacters[c];
+  }
+
   @Override
   public boolean consume(CodeReader code, HtmlCodeBuilder codeBuilder) {
     if (code.popTo(matcher, tmpBuilder) > 0) {
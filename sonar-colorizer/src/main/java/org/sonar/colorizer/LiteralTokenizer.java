@@ -36,6 +36,15 @@ public class LiteralTokenizer extends Tokenizer {
     this("", "");
   }
 
+  @Override
+  public boolean canStartWith(char c) {
+    if (getClass() != LiteralTokenizer.class) {
+      // subclasses may override consume()
+      return true;
+    }
+    return c == '\'' || c == '\"';
+  }
+
   @Override
   public boolean consume(CodeReader code, HtmlCodeBuilder codeBuilder) {
     if (code.peek() == '\'' || code.peek() == '\"') {
@@ -23,6 +23,7 @@ import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import org.sonar.channel.CodeReader;
+import org.sonar.channel.StartCharacters;
 
 public class RegexpTokenizer extends NotThreadSafeTokenizer{
 
@@ -30,6 +31,7 @@ public class RegexpTokenizer extends NotThreadSafeTokenizer{
   private final String tagAfter;
   private final Matcher matcher;
   private final StringBuilder tmpBuilder = new StringBuilder();
+  private boolean[] startCharacters;
 
   /**
    * @param tagBefore
@@ -45,6 +47,18 @@ public class RegexpTokenizer extends NotThreadSafeTokenizer{
     this.matcher = Pattern.compile(regexp).matcher("");
   }
 
+  @Override
+  public boolean canStartWith(char c) {
+    if (getClass() != RegexpTokenizer.class) {
+      // subclasses may override consume()
+      return true;
+    }
+    if (startCharacters == null) {
+      startCharacters = StartCharacters.of(matcher.pattern());
+    }
+    return c >= startCharacters.length || startCharacters[c];
+  }
+
   @Override
   public boolean consume(CodeReader code, HtmlCodeBuilder codeBuilder) {
     if (code.popTo(matcher, tmpBuilder) > 0) {
@@ -33,6 +33,15 @@ public class StringTokenizer extends Tokenizer {
     tokenizer = new LiteralTokenizer("", "");
   }
 
+  @Override
+  public boolean canStartWith(char c) {
+    if (getClass() != StringTokenizer.class) {
+      // subclasses may override consume()
+      return true;
+    }
+    return tokenizer.canStartWith(c);
+  }
+
   @Override
   public boolean consume(CodeReader code, HtmlCodeBuilder output) {
     return tokenizer.consume(code, output);
@@ -21,6 +21,7 @@ package org.sonar.colorizer;
 
 import org.sonar.channel.Channel;
 import org.sonar.channel.CodeReader;
+import org.sonar.channel.StartCharacters;
 
 import java.util.List;
 
@@ -28,12 +29,20 @@ public class TokenizerDispatcher {
 
   private Channel<HtmlCodeBuilder>[] tokenizers;
 
+  /**
+   * Indexes of the tokenizers which can start with each ASCII character. Indexes are used instead of instances because
+   * not thread-safe tokenizers are cloned.
+   */
+  private final int[][] dispatchTable;
+
   public TokenizerDispatcher(Channel<HtmlCodeBuilder>... tokenizers) {
     this.tokenizers = tokenizers;
+    this.dispatchTable = StartCharacters.dispatchTable(tokenizers);
   }
 
   public TokenizerDispatcher(List<Channel<HtmlCodeBuilder>> tokenizersArray) {
     this.tokenizers = tokenizersArray.toArray(new Channel[tokenizersArray.size()]);
+    this.dispatchTable = StartCharacters.dispatchTable(tokenizers);
   }
 
   public final String colorize(String code) {
@@ -46,9 +55,18 @@ public class TokenizerDispatcher {
     cloneNotThreadSafeTokenizers();
     nextChar:
     while (code.peek() != -1) {
-      for (Channel<HtmlCodeBuilder> codeTokenizer : tokenizers) {
-        if (codeTokenizer.consume(code, colorizedCode)) {
-          continue nextChar;
+      int nextChar = code.peek();
+      if (nextChar < dispatchTable.length) {
+        for (int candidate : dispatchTable[nextChar]) {
+          if (tokenizers[candidate].consume(code, colorizedCode)) {
+            continue nextChar;
+          }
+        }
+      } else {
+        for (Channel<HtmlCodeBuilder> codeTokenizer : tokenizers) {
+          if (codeTokenizer.consume(code, colorizedCode)) {
+            continue nextChar;
+          }
         }
       }
       colorizedCode.append((char) code.pop());
@@ -20,6 +20,7 @@
 package org.sonar.colorizer;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 import org.junit.Before;
@@ -56,4 +57,18 @@ public class LiteralTokenizerTest {
     assertTrue(tokenizer.consume(new CodeReader("\"to\\'to\""), codeBuilder));
     assertEquals("<s>\"to\\'to\"</s>", codeBuilder.toString());
   }
+
+  @Test
+  public void canStartWith() {
+    assertTrue(new LiteralTokenizer("<s>", "</s>").canStartWith('"'));
+    assertFalse(new LiteralTokenizer("<s>", "</s>").canStartWith('a'));
+
+    LiteralTokenizer subclass = new LiteralTokenizer("<s>", "</s>") {
+      @Override
+      public boolean consume(CodeReader code, HtmlCodeBuilder codeBuilder) {
+        return code.peek() == '`' || super.consume(code, codeBuilder);
+      }
+    };
+    assertTrue(subclass.canStartWith('`'));
+  }
 }
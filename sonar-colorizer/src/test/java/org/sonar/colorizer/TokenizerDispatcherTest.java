@@ -75,6 +75,14 @@ public class TokenizerDispatcherTest {
     colorization.colorize("source code");
   }
 
+  @Test
+  public void testDispatchOnFirstCharacter() {
+    TokenizerDispatcher colorization = newColorizer(new CDocTokenizer("<c>", "</c>"), new JavaAnnotationTokenizer("<a>", "</a>"),
+        new LiteralTokenizer("<s>", "</s>"), new JavaConstantTokenizer("<h>", "</h>"), new KeywordsTokenizer("<k>", "</k>", JavaKeywords.get()));
+    assertThat(colorization.colorize("@Foo public static final String FOO = \"\u00e9\"; // comment"),
+        is("<a>@Foo</a> <k>public</k> <k>static</k> <k>final</k> String <h>FOO</h> = <s>\"\u00e9\"</s>; <c>// comment</c>"));
+  }
+
   private TokenizerDispatcher newColorizer(Channel<HtmlCodeBuilder>... tokenizers) {
     return new TokenizerDispatcher(Arrays.asList(tokenizers));
   }
@@ -30,6 +30,7 @@ import org.sonar.api.resources.Resource;
 import org.sonar.core.graph.BeanGraph;
 import org.sonar.core.graph.BeanIterable;
 import org.sonar.core.graph.GraphUtil;
+import org.sonar.core.graph.compact.CompactGraph;
 
 import javax.annotation.Nullable;
 
@@ -50,6 +51,18 @@ public class ScanGraph extends BeanGraph implements BatchComponent {
     return new ScanGraph(graph);
   }
 
+  /**
+   * Same as {@link #create()}, but backed by a {@link CompactGraph}, which uses much less memory on large projects.
+   * Its vertices can not be linked to the vertices of another graph.
+   *
+   * @since 4.1
+   */
+  public static ScanGraph createCompact() {
+    CompactGraph graph = new CompactGraph();
+    graph.createKeyIndex("key", Vertex.class);
+    return new ScanGraph(graph);
+  }
+
   public ComponentVertex wrapComponent(Vertex vertex) {
     return wrap(vertex, ComponentVertex.class);
   }
@@ -17,21 +17,14 @@
  * along with this program; if not, write to the Free Software Foundation,
  * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
  */
-package org.sonar.duplications.detector.suffixtree;
+package org.sonar.core.graph.binary;
 
-import org.sonar.duplications.detector.suffixtree.AbstractText;
-import org.sonar.duplications.detector.suffixtree.Text;
-
-/**
- * Implementation of {@link Text} based on {@link String}.
- */
-public class StringText extends AbstractText {
-
-  public StringText(String text) {
-    super(text.length());
-    for (int i = 0; i < text.length(); i++) {
-      symbols.add(Character.valueOf(text.charAt(i)));
-    }
+public class BinaryGraphException extends RuntimeException {
+  public BinaryGraphException(String message) {
+    super(message);
   }
 
+  public BinaryGraphException(String message, Throwable cause) {
+    super(message, cause);
+  }
 }
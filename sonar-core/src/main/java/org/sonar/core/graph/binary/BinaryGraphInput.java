@@ -0,0 +1,132 @@
+/*
+ * SonarQube, open source software quality management tool.
+ * Copyright (C) 2008-2013 SonarSource
+ * mailto:contact AT sonarsource DOT com
+ *
+ * SonarQube is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * SonarQube is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.core.graph.binary;
+
+import com.google.common.base.Charsets;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+import javax.annotation.CheckForNull;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Low-level decoding of the binary graph format. Not thread-safe.
+ */
+class BinaryGraphInput {
+
+  private final DataInputStream input;
+
+  BinaryGraphInput(InputStream input) {
+    this.input = new DataInputStream(input);
+  }
+
+  long readVarint() throws IOException {
+    long result = 0L;
+    int shift = 0;
+    while (shift < 64) {
+      int b = input.readUnsignedByte();
+      result |= (long) (b & 0x7F) << shift;
+      if ((b & 0x80) == 0) {
+        return result;
+      }
+      shift += 7;
+    }
+    throw new BinaryGraphException("Malformed varint");
+  }
+
+  int readVarintAsInt() throws IOException {
+    return (int) readVarint();
+  }
+
+  long readSignedVarint() throws IOException {
+    long raw = readVarint();
+    return (raw >>> 1) ^ -(raw & 1);
+  }
+
+  String readString() throws IOException {
+    byte[] bytes = new byte[readVarintAsInt()];
+    input.readFully(bytes);
+    return new String(bytes, Charsets.UTF_8);
+  }
+
+  String readId() throws IOException {
+    byte type = input.readByte();
+    if (type == BinaryGraphTokens.ID_NUMBER) {
+      return String.valueOf(readVarint());
+    }
+    if (type == BinaryGraphTokens.ID_STRING) {
+      return readString();
+    }
+    throw new BinaryGraphException("Unknown id type: " + type);
+  }
+
+  byte readByte() throws IOException {
+    return input.readByte();
+  }
+
+  void readFully(byte[] bytes) throws IOException {
+    input.readFully(bytes);
+  }
+
+  @CheckForNull
+  Object readValue() throws IOException {
+    byte type = input.readByte();
+    switch (type) {
+      case BinaryGraphTokens.TYPE_NULL:
+        return null;
+      case BinaryGraphTokens.TYPE_TRUE:
+        return Boolean.TRUE;
+      case BinaryGraphTokens.TYPE_FALSE:
+        return Boolean.FALSE;
+      case BinaryGraphTokens.TYPE_INTEGER:
+        return (int) readSignedVarint();
+      case BinaryGraphTokens.TYPE_LONG:
+        return readSignedVarint();
+      case BinaryGraphTokens.TYPE_FLOAT:
+        return input.readFloat();
+      case BinaryGraphTokens.TYPE_DOUBLE:
+        return input.readDouble();
+      case BinaryGraphTokens.TYPE_STRING:
+        return readString();
+      case BinaryGraphTokens.TYPE_LIST:
+        int size = readVarintAsInt();
+        List<Object> list = Lists.newArrayListWithCapacity(size);
+        for (int i = 0; i < size; i++) {
+          list.add(readValue());
+        }
+        return list;
+      case BinaryGraphTokens.TYPE_MAP:
+        int entries = readVarintAsInt();
+        Map<String, Object> map = Maps.newHashMap();
+        for (int i = 0; i < entries; i++) {
+          String key = readString();
+          map.put(key, readValue());
+        }
+        return map;
+      default:
+        throw new BinaryGraphException("Unknown property type: " + type);
+    }
+  }
+}
@@ -0,0 +1,132 @@
+/*
+ * SonarQube, open source software quality management tool.
+ * Copyright (C) 2008-2013 SonarSource
+ * mailto:contact AT sonarsource DOT com
+ *
+ * SonarQube is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * SonarQube is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.core.graph.binary;
+
+import com.google.common.base.Charsets;
+
+import javax.annotation.Nullable;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Array;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Low-level encoding of the binary graph format. Not thread-safe.
+ */
+class BinaryGraphOutput {
+
+  private static final Pattern NUMERIC_ID = Pattern.compile("0|[1-9][0-9]{0,17}");
+
+  private final DataOutputStream output;
+
+  BinaryGraphOutput(OutputStream output) {
+    this.output = new DataOutputStream(output);
+  }
+
+  void writeVarint(long value) throws IOException {
+    long remaining = value;
+    while ((remaining & ~0x7FL) != 0L) {
+      output.writeByte((int) ((remaining & 0x7F) | 0x80));
+      remaining >>>= 7;
+    }
+    output.writeByte((int) remaining);
+  }
+
+  void writeSignedVarint(long value) throws IOException {
+    writeVarint((value << 1) ^ (value >> 63));
+  }
+
+  void writeString(String s) throws IOException {
+    byte[] bytes = s.getBytes(Charsets.UTF_8);
+    writeVarint(bytes.length);
+    output.write(bytes);
+  }
+
+  void writeId(Object id) throws IOException {
+    String s = id.toString();
+    if (NUMERIC_ID.matcher(s).matches()) {
+      output.writeByte(BinaryGraphTokens.ID_NUMBER);
+      writeVarint(Long.parseLong(s));
+    } else {
+      output.writeByte(BinaryGraphTokens.ID_STRING);
+      writeString(s);
+    }
+  }
+
+  void writeBlock(ByteArrayOutputStream block) throws IOException {
+    writeVarint(block.size());
+    block.writeTo(output);
+  }
+
+  void writeValue(@Nullable Object value) throws IOException {
+    if (value == null) {
+      output.writeByte(BinaryGraphTokens.TYPE_NULL);
+    } else if (value instanceof Boolean) {
+      output.writeByte((Boolean) value ? BinaryGraphTokens.TYPE_TRUE : BinaryGraphTokens.TYPE_FALSE);
+    } else if (value instanceof Integer) {
+      output.writeByte(BinaryGraphTokens.TYPE_INTEGER);
+      writeSignedVarint((Integer) value);
+    } else if (value instanceof Long) {
+      output.writeByte(BinaryGraphTokens.TYPE_LONG);
+      writeSignedVarint((Long) value);
+    } else if (value instanceof Float) {
+      output.writeByte(BinaryGraphTokens.TYPE_FLOAT);
+      output.writeFloat((Float) value);
+    } else if (value instanceof Double) {
+      output.writeByte(BinaryGraphTokens.TYPE_DOUBLE);
+      output.writeDouble((Double) value);
+    } else if (value instanceof List) {
+      List list = (List) value;
+      output.writeByte(BinaryGraphTokens.TYPE_LIST);
+      writeVarint(list.size());
+      for (Object item : list) {
+        writeValue(item);
+      }
+    } else if (value.getClass().isArray()) {
+      int length = Array.getLength(value);
+      output.writeByte(BinaryGraphTokens.TYPE_LIST);
+      writeVarint(length);
+      for (int i = 0; i < length; i++) {
+        writeValue(Array.get(value, i));
+      }
+    } else if (value instanceof Map) {
+      Map<Object, Object> map = (Map<Object, Object>) value;
+      output.writeByte(BinaryGraphTokens.TYPE_MAP);
+      writeVarint(map.size());
+      for (Map.Entry<Object, Object> entry : map.entrySet()) {
+        writeString(entry.getKey().toString());
+        writeValue(entry.getValue());
+      }
+    } else {
+      // same fallback as GraphSON : unsupported types are serialized as strings
+      output.writeByte(BinaryGraphTokens.TYPE_STRING);
+      writeString(value.toString());
+    }
+  }
+
+  void flush() throws IOException {
+    output.flush();
+  }
+}
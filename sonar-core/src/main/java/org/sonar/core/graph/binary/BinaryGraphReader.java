@@ -0,0 +1,110 @@
+/*
+ * SonarQube, open source software quality management tool.
+ * Copyright (C) 2008-2013 SonarSource
+ * mailto:contact AT sonarsource DOT com
+ *
+ * SonarQube is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * SonarQube is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.core.graph.binary;
+
+import com.tinkerpop.blueprints.Edge;
+import com.tinkerpop.blueprints.Element;
+import com.tinkerpop.blueprints.Graph;
+import com.tinkerpop.blueprints.Vertex;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Streaming reader of the format generated by {@link BinaryGraphWriter}.
+ *
+ * @since 4.1
+ */
+public class BinaryGraphReader {
+
+  public Graph read(byte[] data, Graph toGraph) {
+    return read(new ByteArrayInputStream(data), toGraph);
+  }
+
+  /**
+   * Load all the vertices and edges into the given graph.
+   */
+  public Graph read(InputStream input, Graph toGraph) {
+    try {
+      BinaryGraphInput body = openBody(input);
+      String[] keys = readKeys(body);
+
+      Vertex[] vertices = new Vertex[body.readVarintAsInt()];
+      for (int i = 0; i < vertices.length; i++) {
+        vertices[i] = toGraph.addVertex(body.readId());
+        readProperties(body, keys, vertices[i]);
+      }
+
+      int edgeCount = body.readVarintAsInt();
+      for (int i = 0; i < edgeCount; i++) {
+        String id = body.readId();
+        Vertex out = vertices[body.readVarintAsInt()];
+        Vertex in = vertices[body.readVarintAsInt()];
+        Edge edge = toGraph.addEdge(id, out, in, keys[body.readVarintAsInt()]);
+        readProperties(body, keys, edge);
+      }
+      return toGraph;
+    } catch (IOException e) {
+      throw new BinaryGraphException("Unable to read binary graph", e);
+    }
+  }
+
+  private static BinaryGraphInput openBody(InputStream input) throws IOException {
+    BinaryGraphInput header = new BinaryGraphInput(input);
+    byte[] magic = new byte[BinaryGraphTokens.MAGIC.length];
+    header.readFully(magic);
+    if (!Arrays.equals(magic, BinaryGraphTokens.MAGIC)) {
+      throw new BinaryGraphException("Not a binary graph");
+    }
+    byte version = header.readByte();
+    if (version != BinaryGraphTokens.VERSION) {
+      throw new BinaryGraphException("Unsupported version of binary graph: " + version);
+    }
+    int flags = header.readByte();
+    if ((flags & BinaryGraphTokens.FLAG_COMPRESSED) != 0) {
+      return new BinaryGraphInput(new InflaterInputStream(input));
+    }
+    return header;
+  }
+
+  private static String[] readKeys(BinaryGraphInput body) throws IOException {
+    String[] keys = new String[body.readVarintAsInt()];
+    for (int i = 0; i < keys.length; i++) {
+      keys[i] = body.readString();
+    }
+    return keys;
+  }
+
+  private static void readProperties(BinaryGraphInput body, String[] keys, Element element) throws IOException {
+    // size of block is useless when all properties are loaded
+    body.readVarint();
+    int propertyCount = body.readVarintAsInt();
+    for (int i = 0; i < propertyCount; i++) {
+      String key = keys[body.readVarintAsInt()];
+      Object value = body.readValue();
+      if (value != null) {
+        element.setProperty(key, value);
+      }
+    }
+  }
+}
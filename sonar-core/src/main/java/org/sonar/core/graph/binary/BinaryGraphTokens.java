@@ -0,0 +1,56 @@
+/*
+ * SonarQube, open source software quality management tool.
+ * Copyright (C) 2008-2013 SonarSource
+ * mailto:contact AT sonarsource DOT com
+ *
+ * SonarQube is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * SonarQube is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.core.graph.binary;
+
+/**
+ * Layout of the binary graph format :
+ * <pre>
+ *   header     : MAGIC (2 bytes), VERSION (1 byte), flags (1 byte, see {@link #FLAG_COMPRESSED})
+ *   body       : optionally deflated when {@link #FLAG_COMPRESSED} is set
+ *     keys     : varint count, then UTF-8 strings. Property keys and edge labels are referenced by their index.
+ *     vertices : varint count, then for each vertex : id, varint size of properties block, properties block
+ *     edges    : varint count, then for each edge : id, varint index of out vertex, varint index of in vertex,
+ *                varint index of label, varint size of properties block, properties block
+ * </pre>
+ * Ids are written as varint when they are non-negative decimal numbers, else as strings.
+ * Properties blocks are prefixed by their size so that readers can skip them without decoding values.
+ */
+class BinaryGraphTokens {
+  private BinaryGraphTokens() {
+  }
+
+  static final byte[] MAGIC = {'S', 'G'};
+  static final byte VERSION = 1;
+  static final int FLAG_COMPRESSED = 1;
+
+  static final byte ID_NUMBER = 0;
+  static final byte ID_STRING = 1;
+
+  static final byte TYPE_NULL = 0;
+  static final byte TYPE_TRUE = 1;
+  static final byte TYPE_FALSE = 2;
+  static final byte TYPE_INTEGER = 3;
+  static final byte TYPE_LONG = 4;
+  static final byte TYPE_FLOAT = 5;
+  static final byte TYPE_DOUBLE = 6;
+  static final byte TYPE_STRING = 7;
+  static final byte TYPE_LIST = 8;
+  static final byte TYPE_MAP = 9;
+}
@@ -0,0 +1,146 @@
+/*
+ * SonarQube, open source software quality management tool.
+ * Copyright (C) 2008-2013 SonarSource
+ * mailto:contact AT sonarsource DOT com
+ *
+ * SonarQube is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * SonarQube is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.core.graph.binary;
+
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Maps;
+import com.tinkerpop.blueprints.Direction;
+import com.tinkerpop.blueprints.Edge;
+import com.tinkerpop.blueprints.Element;
+import com.tinkerpop.blueprints.Graph;
+import com.tinkerpop.blueprints.Vertex;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Map;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * Compact alternative to {@link org.sonar.core.graph.graphson.GraphsonWriter}. Property keys and edge labels
+ * are interned, ids are encoded as varints and the body can be deflated.
+ *
+ * @see BinaryGraphTokens for the layout
+ * @since 4.1
+ */
+public class BinaryGraphWriter {
+
+  public void write(Graph graph, OutputStream output, boolean compress) {
+    try {
+      output.write(BinaryGraphTokens.MAGIC);
+      output.write(BinaryGraphTokens.VERSION);
+      output.write(compress ? BinaryGraphTokens.FLAG_COMPRESSED : 0);
+      if (compress) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+          DeflaterOutputStream deflated = new DeflaterOutputStream(output, deflater);
+          writeBody(graph, deflated);
+          deflated.finish();
+        } finally {
+          deflater.end();
+        }
+      } else {
+        writeBody(graph, output);
+      }
+      output.flush();
+    } catch (IOException e) {
+      throw new BinaryGraphException("Fail to write binary graph", e);
+    }
+  }
+
+  public byte[] write(Graph graph, boolean compress) {
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    write(graph, output, compress);
+    return output.toByteArray();
+  }
+
+  private void writeBody(Graph graph, OutputStream stream) throws IOException {
+    BinaryGraphOutput output = new BinaryGraphOutput(stream);
+    Map<String, Integer> keys = internKeys(graph);
+    output.writeVarint(keys.size());
+    for (String key : keys.keySet()) {
+      output.writeString(key);
+    }
+
+    ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+    BinaryGraphOutput bufferOutput = new BinaryGraphOutput(buffer);
+
+    Map<Object, Integer> vertexIndexes = Maps.newHashMap();
+    output.writeVarint(Iterables.size(graph.getVertices()));
+    for (Vertex vertex : graph.getVertices()) {
+      vertexIndexes.put(vertex.getId(), vertexIndexes.size());
+      output.writeId(vertex.getId());
+      writeProperties(vertex, keys, output, buffer, bufferOutput);
+    }
+
+    output.writeVarint(Iterables.size(graph.getEdges()));
+    for (Edge edge : graph.getEdges()) {
+      output.writeId(edge.getId());
+      output.writeVarint(vertexIndex(vertexIndexes, edge.getVertex(Direction.OUT)));
+      output.writeVarint(vertexIndex(vertexIndexes, edge.getVertex(Direction.IN)));
+      output.writeVarint(keys.get(edge.getLabel()));
+      writeProperties(edge, keys, output, buffer, bufferOutput);
+    }
+    output.flush();
+  }
+
+  private static int vertexIndex(Map<Object, Integer> vertexIndexes, Vertex vertex) {
+    Integer index = vertexIndexes.get(vertex.getId());
+    if (index == null) {
+      throw new BinaryGraphException("Edge refers to a vertex which is not part of the graph: " + vertex.getId());
+    }
+    return index;
+  }
+
+  private static void writeProperties(Element element, Map<String, Integer> keys, BinaryGraphOutput output,
+                                      ByteArrayOutputStream buffer, BinaryGraphOutput bufferOutput) throws IOException {
+    buffer.reset();
+    bufferOutput.writeVarint(element.getPropertyKeys().size());
+    for (String key : element.getPropertyKeys()) {
+      bufferOutput.writeVarint(keys.get(key));
+      bufferOutput.writeValue(element.getProperty(key));
+    }
+    bufferOutput.flush();
+    output.writeBlock(buffer);
+  }
+
+  private static Map<String, Integer> internKeys(Graph graph) {
+    Map<String, Integer> keys = Maps.newLinkedHashMap();
+    for (Vertex vertex : graph.getVertices()) {
+      for (String key : vertex.getPropertyKeys()) {
+        intern(keys, key);
+      }
+    }
+    for (Edge edge : graph.getEdges()) {
+      intern(keys, edge.getLabel());
+      for (String key : edge.getPropertyKeys()) {
+        intern(keys, key);
+      }
+    }
+    return keys;
+  }
+
+  private static void intern(Map<String, Integer> keys, String key) {
+    if (!keys.containsKey(key)) {
+      keys.put(key, keys.size());
+    }
+  }
+}
@@ -0,0 +1,65 @@
+/*
+ * SonarQube, open source software quality management tool.
+ * Copyright (C) 2008-2013 SonarSource
+ * mailto:contact AT sonarsource DOT com
+ *
+ * SonarQube is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * SonarQube is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.core.graph.compact;
+
+import com.tinkerpop.blueprints.Direction;
+import com.tinkerpop.blueprints.Edge;
+import com.tinkerpop.blueprints.Vertex;
+import com.tinkerpop.blueprints.util.ExceptionFactory;
+import com.tinkerpop.blueprints.util.StringFactory;
+
+class CompactEdge extends CompactElement implements Edge {
+
+  CompactEdge(CompactGraph graph, int id) {
+    super(graph, id);
+  }
+
+  @Override
+  PropertyColumns properties() {
+    return graph.edgeProperties;
+  }
+
+  @Override
+  public void setProperty(String key, Object value) {
+    if (StringFactory.LABEL.equals(key)) {
+      throw ExceptionFactory.propertyKeyLabelIsReservedForEdges();
+    }
+    super.setProperty(key, value);
+  }
+
+  public Vertex getVertex(Direction direction) {
+    if (direction == Direction.OUT) {
+      return new CompactVertex(graph, graph.edgeOutVertex(id));
+    }
+    if (direction == Direction.IN) {
+      return new CompactVertex(graph, graph.edgeInVertex(id));
+    }
+    throw ExceptionFactory.bothIsNotSupported();
+  }
+
+  public String getLabel() {
+    return graph.edgeLabel(id);
+  }
+
+  @Override
+  public String toString() {
+    return StringFactory.edgeString(this);
+  }
+}
@@ -0,0 +1,94 @@
+/*
+ * SonarQube, open source software quality management tool.
+ * Copyright (C) 2008-2013 SonarSource
+ * mailto:contact AT sonarsource DOT com
+ *
+ * SonarQube is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * SonarQube is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.core.graph.compact;
+
+import com.tinkerpop.blueprints.Element;
+import com.tinkerpop.blueprints.util.ExceptionFactory;
+
+import java.util.Set;
+
+/**
+ * Lightweight view of an element stored in {@link CompactGraph}. Instances are created on demand
+ * and are equal when they refer to the same id.
+ */
+abstract class CompactElement implements Element {
+
+  final CompactGraph graph;
+  final int id;
+
+  CompactElement(CompactGraph graph, int id) {
+    this.graph = graph;
+    this.id = id;
+  }
+
+  abstract PropertyColumns properties();
+
+  public Object getProperty(String key) {
+    return properties().get(key, id);
+  }
+
+  public Set<String> getPropertyKeys() {
+    return properties().keys(id);
+  }
+
+  public void setProperty(String key, Object value) {
+    if (key == null || "".equals(key)) {
+      throw ExceptionFactory.elementKeyCanNotBeEmpty();
+    }
+    if ("id".equals(key)) {
+      throw ExceptionFactory.propertyKeyIdIsReserved();
+    }
+    if (value == null) {
+      removeProperty(key);
+    } else {
+      Object previous = properties().set(key, id, value);
+      graph.onPropertyChanged(this, key, previous, value);
+    }
+  }
+
+  public Object removeProperty(String key) {
+    Object previous = properties().remove(key, id);
+    if (previous != null) {
+      graph.onPropertyChanged(this, key, previous, null);
+    }
+    return previous;
+  }
+
+  public Object getId() {
+    return id;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    CompactElement that = (CompactElement) o;
+    return id == that.id && graph == that.graph;
+  }
+
+  @Override
+  public int hashCode() {
+    return id;
+  }
+}
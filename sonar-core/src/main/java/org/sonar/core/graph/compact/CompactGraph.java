@@ -0,0 +1,472 @@
+/*
+ * SonarQube, open source software quality management tool.
+ * Copyright (C) 2008-2013 SonarSource
+ * mailto:contact AT sonarsource DOT com
+ *
+ * SonarQube is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * SonarQube is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.core.graph.compact;
+
+import com.google.common.collect.AbstractIterator;
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Multimap;
+import com.tinkerpop.blueprints.Direction;
+import com.tinkerpop.blueprints.Edge;
+import com.tinkerpop.blueprints.Element;
+import com.tinkerpop.blueprints.Features;
+import com.tinkerpop.blueprints.KeyIndexableGraph;
+import com.tinkerpop.blueprints.Vertex;
+import com.tinkerpop.blueprints.util.ExceptionFactory;
+import com.tinkerpop.blueprints.util.PropertyFilteredIterable;
+import com.tinkerpop.blueprints.util.StringFactory;
+
+import javax.annotation.CheckForNull;
+import javax.annotation.Nullable;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * In-memory graph optimized for the batch : vertices and edges are identified by sequential ints,
+ * properties are stored by column and adjacency lists are arrays of edge ids. Elements returned
+ * by this graph are lightweight views which are created on demand.
+ * <p/>
+ * Supplied ids are ignored. Not thread-safe.
+ *
+ * @since 4.1
+ */
+public class CompactGraph implements KeyIndexableGraph {
+
+  private static final int INITIAL_CAPACITY = 16;
+  private static final int[] EMPTY = new int[0];
+  private static final Features FEATURES = new Features();
+
+  static {
+    FEATURES.supportsDuplicateEdges = true;
+    FEATURES.supportsSelfLoops = true;
+    FEATURES.supportsSerializableObjectProperty = true;
+    FEATURES.supportsBooleanProperty = true;
+    FEATURES.supportsDoubleProperty = true;
+    FEATURES.supportsFloatProperty = true;
+    FEATURES.supportsIntegerProperty = true;
+    FEATURES.supportsPrimitiveArrayProperty = true;
+    FEATURES.supportsUniformListProperty = true;
+    FEATURES.supportsMixedListProperty = true;
+    FEATURES.supportsLongProperty = true;
+    FEATURES.supportsMapProperty = true;
+    FEATURES.supportsStringProperty = true;
+    FEATURES.ignoresSuppliedIds = true;
+    FEATURES.isPersistent = false;
+    FEATURES.isRDFModel = false;
+    FEATURES.isWrapper = false;
+    FEATURES.supportsIndices = false;
+    FEATURES.supportsVertexIndex = false;
+    FEATURES.supportsEdgeIndex = false;
+    FEATURES.supportsKeyIndices = true;
+    FEATURES.supportsVertexKeyIndex = true;
+    FEATURES.supportsEdgeKeyIndex = true;
+    FEATURES.supportsEdgeIteration = true;
+    FEATURES.supportsVertexIteration = true;
+    FEATURES.supportsEdgeRetrieval = true;
+    FEATURES.supportsVertexProperties = true;
+    FEATURES.supportsEdgeProperties = true;
+    FEATURES.supportsTransactions = false;
+    FEATURES.supportsThreadedTransactions = false;
+  }
+
+  final PropertyColumns vertexProperties = new PropertyColumns();
+  final PropertyColumns edgeProperties = new PropertyColumns();
+
+  private int vertexCount = 0;
+  private final BitSet removedVertices = new BitSet();
+  private int[][] outEdges = new int[INITIAL_CAPACITY][];
+  private int[] outDegrees = new int[INITIAL_CAPACITY];
+  private int[][] inEdges = new int[INITIAL_CAPACITY][];
+  private int[] inDegrees = new int[INITIAL_CAPACITY];
+
+  private int edgeCount = 0;
+  private final BitSet removedEdges = new BitSet();
+  private int[] edgeOutVertices = new int[INITIAL_CAPACITY];
+  private int[] edgeInVertices = new int[INITIAL_CAPACITY];
+  private int[] edgeLabels = new int[INITIAL_CAPACITY];
+  private final List<String> labels = Lists.newArrayList();
+  private final Map<String, Integer> labelIndexes = Maps.newHashMap();
+
+  private final Map<String, Multimap<Object, Integer>> vertexKeyIndices = Maps.newHashMap();
+  private final Map<String, Multimap<Object, Integer>> edgeKeyIndices = Maps.newHashMap();
+
+  public Features getFeatures() {
+    return FEATURES;
+  }
+
+  public Vertex addVertex(@Nullable Object id) {
+    int vertexId = vertexCount;
+    if (vertexId == outEdges.length) {
+      int capacity = PropertyColumns.capacity(outEdges.length, vertexId);
+      outEdges = Arrays.copyOf(outEdges, capacity);
+      outDegrees = Arrays.copyOf(outDegrees, capacity);
+      inEdges = Arrays.copyOf(inEdges, capacity);
+      inDegrees = Arrays.copyOf(inDegrees, capacity);
+    }
+    outEdges[vertexId] = EMPTY;
+    inEdges[vertexId] = EMPTY;
+    vertexCount++;
+    return new CompactVertex(this, vertexId);
+  }
+
+  @CheckForNull
+  public Vertex getVertex(Object id) {
+    if (id == null) {
+      throw ExceptionFactory.vertexIdCanNotBeNull();
+    }
+    int vertexId = toInt(id);
+    if (vertexId < 0 || vertexId >= vertexCount || removedVertices.get(vertexId)) {
+      return null;
+    }
+    return new CompactVertex(this, vertexId);
+  }
+
+  public void removeVertex(Vertex vertex) {
+    int vertexId = ((CompactVertex) vertex).id;
+    for (int edgeId : Arrays.copyOf(outEdges[vertexId], outDegrees[vertexId])) {
+      removeEdge(edgeId);
+    }
+    for (int edgeId : Arrays.copyOf(inEdges[vertexId], inDegrees[vertexId])) {
+      removeEdge(edgeId);
+    }
+    removeFromIndices(vertexKeyIndices, vertexProperties, vertexId);
+    vertexProperties.removeAll(vertexId);
+    outEdges[vertexId] = null;
+    inEdges[vertexId] = null;
+    removedVertices.set(vertexId);
+  }
+
+  public Iterable<Vertex> getVertices() {
+    return new Iterable<Vertex>() {
+      public Iterator<Vertex> iterator() {
+        return new AbstractIterator<Vertex>() {
+          private int cursor = 0;
+
+          @Override
+          protected Vertex computeNext() {
+            cursor = removedVertices.nextClearBit(cursor);
+            if (cursor >= vertexCount) {
+              return endOfData();
+            }
+            return new CompactVertex(CompactGraph.this, cursor++);
+          }
+        };
+      }
+    };
+  }
+
+  public Iterable<Vertex> getVertices(String key, Object value) {
+    Multimap<Object, Integer> index = vertexKeyIndices.get(key);
+    if (index != null) {
+      List<Vertex> result = Lists.newArrayList();
+      for (Integer vertexId : index.get(value)) {
+        result.add(new CompactVertex(this, vertexId));
+      }
+      return result;
+    }
+    return new PropertyFilteredIterable<Vertex>(key, value, getVertices());
+  }
+
+  public Edge addEdge(@Nullable Object id, Vertex outVertex, Vertex inVertex, String label) {
+    if (label == null) {
+      throw new IllegalArgumentException("Edge label can not be null");
+    }
+    int outId = vertexId(outVertex);
+    int inId = vertexId(inVertex);
+    int edgeId = edgeCount;
+    if (edgeId == edgeLabels.length) {
+      int capacity = PropertyColumns.capacity(edgeLabels.length, edgeId);
+      edgeOutVertices = Arrays.copyOf(edgeOutVertices, capacity);
+      edgeInVertices = Arrays.copyOf(edgeInVertices, capacity);
+      edgeLabels = Arrays.copyOf(edgeLabels, capacity);
+    }
+    edgeOutVertices[edgeId] = outId;
+    edgeInVertices[edgeId] = inId;
+    edgeLabels[edgeId] = internLabel(label);
+    outEdges[outId] = append(outEdges[outId], outDegrees[outId], edgeId);
+    outDegrees[outId]++;
+    inEdges[inId] = append(inEdges[inId], inDegrees[inId], edgeId);
+    inDegrees[inId]++;
+    edgeCount++;
+    return new CompactEdge(this, edgeId);
+  }
+
+  private int vertexId(Vertex vertex) {
+    if (!(vertex instanceof CompactVertex) || ((CompactVertex) vertex).graph != this || removedVertices.get(((CompactVertex) vertex).id)) {
+      throw new IllegalArgumentException("Vertex does not belong to this graph: " + vertex);
+    }
+    return ((CompactVertex) vertex).id;
+  }
+
+  @CheckForNull
+  public Edge getEdge(Object id) {
+    if (id == null) {
+      throw ExceptionFactory.edgeIdCanNotBeNull();
+    }
+    int edgeId = toInt(id);
+    if (edgeId < 0 || edgeId >= edgeCount || removedEdges.get(edgeId)) {
+      return null;
+    }
+    return new CompactEdge(this, edgeId);
+  }
+
+  public void removeEdge(Edge edge) {
+    removeEdge(((CompactEdge) edge).id);
+  }
+
+  private void removeEdge(int edgeId) {
+    int outId = edgeOutVertices[edgeId];
+    int inId = edgeInVertices[edgeId];
+    outDegrees[outId] = remove(outEdges[outId], outDegrees[outId], edgeId);
+    inDegrees[inId] = remove(inEdges[inId], inDegrees[inId], edgeId);
+    removeFromIndices(edgeKeyIndices, edgeProperties, edgeId);
+    edgeProperties.removeAll(edgeId);
+    removedEdges.set(edgeId);
+  }
+
+  public Iterable<Edge> getEdges() {
+    return new Iterable<Edge>() {
+      public Iterator<Edge> iterator() {
+        return new AbstractIterator<Edge>() {
+          private int cursor = 0;
+
+          @Override
+          protected Edge computeNext() {
+            cursor = removedEdges.nextClearBit(cursor);
+            if (cursor >= edgeCount) {
+              return endOfData();
+            }
+            return new CompactEdge(CompactGraph.this, cursor++);
+          }
+        };
+      }
+    };
+  }
+
+  public Iterable<Edge> getEdges(String key, Object value) {
+    Multimap<Object, Integer> index = edgeKeyIndices.get(key);
+    if (index != null) {
+      List<Edge> result = Lists.newArrayList();
+      for (Integer edgeId : index.get(value)) {
+        result.add(new CompactEdge(this, edgeId));
+      }
+      return result;
+    }
+    return new PropertyFilteredIterable<Edge>(key, value, getEdges());
+  }
+
+  public void shutdown() {
+    // nothing to release
+  }
+
+  public <T extends Element> void createKeyIndex(String key, Class<T> elementClass) {
+    if (Vertex.class.isAssignableFrom(elementClass)) {
+      createKeyIndex(key, vertexKeyIndices, vertexProperties, getVertices());
+    } else if (Edge.class.isAssignableFrom(elementClass)) {
+      createKeyIndex(key, edgeKeyIndices, edgeProperties, getEdges());
+    } else {
+      throw ExceptionFactory.classIsNotIndexable(elementClass);
+    }
+  }
+
+  public <T extends Element> void dropKeyIndex(String key, Class<T> elementClass) {
+    indices(elementClass).remove(key);
+  }
+
+  public <T extends Element> Set<String> getIndexedKeys(Class<T> elementClass) {
+    return Collections.unmodifiableSet(indices(elementClass).keySet());
+  }
+
+  public long countVertices() {
+    return vertexCount - removedVertices.cardinality();
+  }
+
+  public long countEdges() {
+    return edgeCount - removedEdges.cardinality();
+  }
+
+  @Override
+  public String toString() {
+    return StringFactory.graphString(this, "vertices:" + countVertices() + " edges:" + countEdges());
+  }
+
+  Iterable<Edge> adjacentEdges(int vertexId, Direction direction, String... labels) {
+    int[] labelFilter = labelFilter(labels);
+    if (labelFilter != null && labelFilter.length == 0) {
+      return Collections.emptyList();
+    }
+    ImmutableList.Builder<Edge> result = ImmutableList.builder();
+    if (direction != Direction.IN) {
+      collectEdges(outEdges[vertexId], outDegrees[vertexId], labelFilter, result);
+    }
+    if (direction != Direction.OUT) {
+      collectEdges(inEdges[vertexId], inDegrees[vertexId], labelFilter, result);
+    }
+    return result.build();
+  }
+
+  int edgeOutVertex(int edgeId) {
+    return edgeOutVertices[edgeId];
+  }
+
+  int edgeInVertex(int edgeId) {
+    return edgeInVertices[edgeId];
+  }
+
+  String edgeLabel(int edgeId) {
+    return labels.get(edgeLabels[edgeId]);
+  }
+
+  void onPropertyChanged(CompactElement element, String key, @Nullable Object previous, @Nullable Object value) {
+    Multimap<Object, Integer> index = (element instanceof CompactVertex ? vertexKeyIndices : edgeKeyIndices).get(key);
+    if (index != null) {
+      if (previous != null) {
+        index.remove(previous, element.id);
+      }
+      if (value != null) {
+        index.put(value, element.id);
+      }
+    }
+  }
+
+  private void collectEdges(int[] edgeIds, int degree, @Nullable int[] labelFilter, ImmutableList.Builder<Edge> result) {
+    for (int i = 0; i < degree; i++) {
+      int edgeId = edgeIds[i];
+      if (labelFilter == null || contains(labelFilter, edgeLabels[edgeId])) {
+        result.add(new CompactEdge(this, edgeId));
+      }
+    }
+  }
+
+  /**
+   * @return null if all labels are accepted
+   */
+  @CheckForNull
+  private int[] labelFilter(String... filter) {
+    if (filter.length == 0) {
+      return null;
+    }
+    int[] result = new int[filter.length];
+    int size = 0;
+    for (String label : filter) {
+      Integer index = labelIndexes.get(label);
+      if (index != null) {
+        result[size] = index;
+        size++;
+      }
+    }
+    return Arrays.copyOf(result, size);
+  }
+
+  private int internLabel(String label) {
+    Integer index = labelIndexes.get(label);
+    if (index == null) {
+      index = labels.size();
+      labels.add(label);
+      labelIndexes.put(label, index);
+    }
+    return index;
+  }
+
+  private <T extends Element> Map<String, Multimap<Object, Integer>> indices(Class<T> elementClass) {
+    if (Vertex.class.isAssignableFrom(elementClass)) {
+      return vertexKeyIndices;
+    }
+    if (Edge.class.isAssignableFrom(elementClass)) {
+      return edgeKeyIndices;
+    }
+    throw ExceptionFactory.classIsNotIndexable(elementClass);
+  }
+
+  private static <E extends Element> void createKeyIndex(String key, Map<String, Multimap<Object, Integer>> indices,
+                                                         PropertyColumns properties, Iterable<E> elements) {
+    if (indices.containsKey(key)) {
+      throw ExceptionFactory.indexAlreadyExists(key);
+    }
+    Multimap<Object, Integer> index = ArrayListMultimap.create();
+    for (E element : elements) {
+      int elementId = ((CompactElement) element).id;
+      Object value = properties.get(key, elementId);
+      if (value != null) {
+        index.put(value, elementId);
+      }
+    }
+    indices.put(key, index);
+  }
+
+  private static void removeFromIndices(Map<String, Multimap<Object, Integer>> indices, PropertyColumns properties, int elementId) {
+    for (Map.Entry<String, Multimap<Object, Integer>> entry : indices.entrySet()) {
+      Object value = properties.get(entry.getKey(), elementId);
+      if (value != null) {
+        entry.getValue().remove(value, elementId);
+      }
+    }
+  }
+
+  private static int toInt(Object id) {
+    if (id instanceof Number) {
+      return ((Number) id).intValue();
+    }
+    try {
+      return Integer.parseInt(id.toString());
+    } catch (NumberFormatException e) {
+      return -1;
+    }
+  }
+
+  private static int[] append(int[] array, int size, int value) {
+    int[] result = array;
+    if (size == array.length) {
+      result = Arrays.copyOf(array, size == 0 ? 2 : (size + (size >> 1) + 1));
+    }
+    result[size] = value;
+    return result;
+  }
+
+  /**
+   * @return the new size
+   */
+  private static int remove(int[] array, int size, int value) {
+    for (int i = 0; i < size; i++) {
+      if (array[i] == value) {
+        System.arraycopy(array, i + 1, array, i, size - i - 1);
+        return size - 1;
+      }
+    }
+    return size;
+  }
+
+  private static boolean contains(int[] array, int value) {
+    for (int i : array) {
+      if (i == value) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
@@ -0,0 +1,57 @@
+/*
+ * SonarQube, open source software quality management tool.
+ * Copyright (C) 2008-2013 SonarSource
+ * mailto:contact AT sonarsource DOT com
+ *
+ * SonarQube is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * SonarQube is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.core.graph.compact;
+
+import com.tinkerpop.blueprints.Direction;
+import com.tinkerpop.blueprints.Edge;
+import com.tinkerpop.blueprints.Query;
+import com.tinkerpop.blueprints.Vertex;
+import com.tinkerpop.blueprints.util.DefaultQuery;
+import com.tinkerpop.blueprints.util.StringFactory;
+import com.tinkerpop.blueprints.util.VerticesFromEdgesIterable;
+
+class CompactVertex extends CompactElement implements Vertex {
+
+  CompactVertex(CompactGraph graph, int id) {
+    super(graph, id);
+  }
+
+  @Override
+  PropertyColumns properties() {
+    return graph.vertexProperties;
+  }
+
+  public Iterable<Edge> getEdges(Direction direction, String... labels) {
+    return graph.adjacentEdges(id, direction, labels);
+  }
+
+  public Iterable<Vertex> getVertices(Direction direction, String... labels) {
+    return new VerticesFromEdgesIterable(this, direction, labels);
+  }
+
+  public Query query() {
+    return new DefaultQuery(this);
+  }
+
+  @Override
+  public String toString() {
+    return StringFactory.vertexString(this);
+  }
+}
@@ -0,0 +1,228 @@
+/*
+ * SonarQube, open source software quality management tool.
+ * Copyright (C) 2008-2013 SonarSource
+ * mailto:contact AT sonarsource DOT com
+ *
+ * SonarQube is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * SonarQube is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.core.graph.compact;
+
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+
+import javax.annotation.CheckForNull;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Column-oriented storage of element properties : one column of values per property key,
+ * indexed by element id. Long and integer values are stored unboxed, in primitive arrays, as long as
+ * all the values of the key have the same type. Not thread-safe.
+ */
+class PropertyColumns {
+
+  private final Map<String, Column> columns = Maps.newLinkedHashMap();
+
+  @CheckForNull
+  Object get(String key, int id) {
+    Column column = columns.get(key);
+    return column != null ? column.get(id) : null;
+  }
+
+  @CheckForNull
+  Object set(String key, int id, Object value) {
+    Column column = columns.get(key);
+    if (column == null) {
+      column = newColumn(value);
+      columns.put(key, column);
+    } else if (!column.accepts(value)) {
+      column = new ObjectColumn(column);
+      columns.put(key, column);
+    }
+    Object previous = column.get(id);
+    column.set(id, value);
+    return previous;
+  }
+
+  @CheckForNull
+  Object remove(String key, int id) {
+    Column column = columns.get(key);
+    if (column == null) {
+      return null;
+    }
+    Object previous = column.get(id);
+    column.clear(id);
+    return previous;
+  }
+
+  Set<String> keys(int id) {
+    Set<String> keys = Sets.newHashSet();
+    for (Map.Entry<String, Column> entry : columns.entrySet()) {
+      if (entry.getValue().contains(id)) {
+        keys.add(entry.getKey());
+      }
+    }
+    return keys;
+  }
+
+  void removeAll(int id) {
+    for (Column column : columns.values()) {
+      column.clear(id);
+    }
+  }
+
+  static int capacity(int current, int id) {
+    int capacity = Math.max(current, 16);
+    while (capacity <= id) {
+      capacity += capacity >> 1;
+    }
+    return capacity;
+  }
+
+  private static Column newColumn(Object value) {
+    if (value instanceof Long) {
+      return new LongColumn();
+    }
+    if (value instanceof Integer) {
+      return new IntColumn();
+    }
+    return new ObjectColumn();
+  }
+
+  /**
+   * Values of a property key. The ids of the elements having a value are flagged in a bit set, so that
+   * primitive columns do not need a reserved value.
+   */
+  private abstract static class Column {
+    final BitSet present = new BitSet();
+
+    boolean contains(int id) {
+      return present.get(id);
+    }
+
+    @CheckForNull
+    Object get(int id) {
+      return present.get(id) ? value(id) : null;
+    }
+
+    void set(int id, Object value) {
+      store(id, value);
+      present.set(id);
+    }
+
+    void clear(int id) {
+      if (present.get(id)) {
+        present.clear(id);
+        erase(id);
+      }
+    }
+
+    abstract boolean accepts(Object value);
+
+    abstract Object value(int id);
+
+    abstract void store(int id, Object value);
+
+    void erase(int id) {
+      // nothing to release by default
+    }
+  }
+
+  private static final class LongColumn extends Column {
+    private long[] values = new long[0];
+
+    @Override
+    boolean accepts(Object value) {
+      return value instanceof Long;
+    }
+
+    @Override
+    Object value(int id) {
+      return values[id];
+    }
+
+    @Override
+    void store(int id, Object value) {
+      if (id >= values.length) {
+        values = Arrays.copyOf(values, capacity(values.length, id));
+      }
+      values[id] = (Long) value;
+    }
+  }
+
+  private static final class IntColumn extends Column {
+    private int[] values = new int[0];
+
+    @Override
+    boolean accepts(Object value) {
+      return value instanceof Integer;
+    }
+
+    @Override
+    Object value(int id) {
+      return values[id];
+    }
+
+    @Override
+    void store(int id, Object value) {
+      if (id >= values.length) {
+        values = Arrays.copyOf(values, capacity(values.length, id));
+      }
+      values[id] = (Integer) value;
+    }
+  }
+
+  private static final class ObjectColumn extends Column {
+    private Object[] values = new Object[0];
+
+    ObjectColumn() {
+    }
+
+    /**
+     * Copy of a primitive column, when a value of another type is set on its key
+     */
+    ObjectColumn(Column column) {
+      for (int id = column.present.nextSetBit(0); id >= 0; id = column.present.nextSetBit(id + 1)) {
+        set(id, column.value(id));
+      }
+    }
+
+    @Override
+    boolean accepts(Object value) {
+      return true;
+    }
+
+    @Override
+    Object value(int id) {
+      return values[id];
+    }
+
+    @Override
+    void store(int id, Object value) {
+      if (id >= values.length) {
+        values = Arrays.copyOf(values, capacity(values.length, id));
+      }
+      values[id] = value;
+    }
+
+    @Override
+    void erase(int id) {
+      values[id] = null;
+    }
+  }
+}
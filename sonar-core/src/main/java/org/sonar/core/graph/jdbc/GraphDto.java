@@ -20,6 +20,18 @@
 package org.sonar.core.graph.jdbc;
 
 public class GraphDto {
+
+  /**
+   * JSON format of the graphs persisted before 4.1
+   */
+  public static final String FORMAT_GRAPHSON = "graphson";
+
+  /**
+   * Base64 encoding of {@link org.sonar.core.graph.binary.BinaryGraphWriter} output
+   * @since 4.1
+   */
+  public static final String FORMAT_BINARY = "binary";
+
   private long id;
   private long resourceId;
   private long snapshotId;
@@ -19,7 +19,11 @@
  */
 package org.sonar.core.issue.db;
 
+import com.google.common.collect.Iterables;
 import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import org.apache.ibatis.executor.BatchResult;
 import org.apache.ibatis.session.SqlSession;
 import org.sonar.api.issue.Issue;
 import org.sonar.api.issue.IssueComment;
@@ -30,10 +34,14 @@ import org.sonar.api.rules.Rule;
 import org.sonar.api.rules.RuleFinder;
 import org.sonar.core.persistence.BatchSession;
 import org.sonar.core.persistence.MyBatis;
+import org.sonar.core.persistence.dialect.Oracle;
 
+import java.sql.Statement;
 import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Save issues into database. It is executed :
@@ -46,6 +54,12 @@ import java.util.List;
  */
 public abstract class IssueStorage {
 
+  /**
+   * Number of issues updated per JDBC batch. It must stay lower than {@link BatchSession#MAX_BATCH_SIZE}
+   * so that the session does not flush statements by itself, which would lose the number of updated rows.
+   */
+  static final int UPDATE_CHUNK_SIZE = BatchSession.MAX_BATCH_SIZE / 2;
+
   private final MyBatis mybatis;
   private final RuleFinder ruleFinder;
   private final UpdateConflictResolver conflictResolver = new UpdateConflictResolver();
@@ -60,8 +74,6 @@ public abstract class IssueStorage {
   }
 
   public void save(Iterable<DefaultIssue> issues) {
-    // Batch session can not be used for updates. It does not return the number of updated rows,
-    // required for detecting conflicts.
     Date now = new Date();
     List<DefaultIssue> toBeUpdated = batchInsert(issues, now);
     update(toBeUpdated, now);
@@ -102,11 +114,82 @@ public abstract class IssueStorage {
 
   private void update(List<DefaultIssue> toBeUpdated, Date now) {
     if (!toBeUpdated.isEmpty()) {
+      List<DefaultIssue> toBeVerified = Lists.newArrayList();
+      BatchSession batchSession = mybatis.openBatchSession();
+      try {
+        boolean updateCounts = returnsBatchUpdateCounts(batchSession.getConfiguration().getDatabaseId());
+        IssueMapper issueMapper = batchSession.getMapper(IssueMapper.class);
+        IssueChangeMapper issueChangeMapper = batchSession.getMapper(IssueChangeMapper.class);
+        for (List<DefaultIssue> chunk : Iterables.partition(toBeUpdated, UPDATE_CHUNK_SIZE)) {
+          Set<DefaultIssue> chunkToBeVerified = batchUpdate(batchSession, issueMapper, now, chunk, updateCounts);
+          for (DefaultIssue issue : chunk) {
+            if (!chunkToBeVerified.contains(issue)) {
+              insertChanges(issueChangeMapper, issue);
+            }
+          }
+          batchSession.commit();
+          toBeVerified.addAll(chunkToBeVerified);
+        }
+      } finally {
+        MyBatis.closeQuietly(batchSession);
+      }
+      updateOneByOne(toBeVerified, now);
+    }
+  }
+
+  /**
+   * Oracle drivers return {@link Statement#SUCCESS_NO_INFO} for each statement of a JDBC batch,
+   * so conflicts can not be detected in batch.
+   */
+  boolean returnsBatchUpdateCounts(String databaseId) {
+    return !Oracle.ID.equals(databaseId);
+  }
+
+  /**
+   * Optimistic locking is applied by {@link IssueMapper#updateIfBeforeSelectedDate(IssueDto)}. The number of rows
+   * updated by each statement of the JDBC batch is used to detect the conflicts.
+   *
+   * @return the issues that must be updated one by one, either because of a conflict or because
+   * the JDBC driver does not return the number of updated rows. Their changes are not inserted yet.
+   */
+  private Set<DefaultIssue> batchUpdate(BatchSession batchSession, IssueMapper issueMapper, Date now, List<DefaultIssue> issues,
+                                        boolean updateCounts) {
+    Set<DefaultIssue> toBeVerified = Sets.newLinkedHashSet();
+    // statements are grouped by SQL request in order to get the largest JDBC batches
+    Map<IssueDto, DefaultIssue> issuesByDto = Maps.newLinkedHashMap();
+    for (DefaultIssue issue : issues) {
+      if (isUpdatedWithoutLocking(issue)) {
+        issueMapper.update(IssueDto.toDtoForUpdate(issue, now));
+      } else if (updateCounts) {
+        issuesByDto.put(IssueDto.toDtoForUpdate(issue, now), issue);
+      } else {
+        toBeVerified.add(issue);
+      }
+    }
+    for (IssueDto dto : issuesByDto.keySet()) {
+      issueMapper.updateIfBeforeSelectedDate(dto);
+    }
+    for (BatchResult batchResult : batchSession.flushStatements()) {
+      List<Object> parameters = batchResult.getParameterObjects();
+      int[] counts = batchResult.getUpdateCounts();
+      for (int i = 0; i < counts.length; i++) {
+        DefaultIssue issue = issuesByDto.get(parameters.get(i));
+        // SUCCESS_NO_INFO is not a conflict : the statement has been executed
+        if (issue != null && counts[i] == 0) {
+          toBeVerified.add(issue);
+        }
+      }
+    }
+    return toBeVerified;
+  }
+
+  private void updateOneByOne(List<DefaultIssue> issues, Date now) {
+    if (!issues.isEmpty()) {
       SqlSession session = mybatis.openSession();
       try {
         IssueMapper issueMapper = session.getMapper(IssueMapper.class);
         IssueChangeMapper issueChangeMapper = session.getMapper(IssueChangeMapper.class);
-        for (DefaultIssue issue : toBeUpdated) {
+        for (DefaultIssue issue : issues) {
           update(issueMapper, now, issue);
           insertChanges(issueChangeMapper, issue);
         }
@@ -117,10 +200,14 @@ public abstract class IssueStorage {
     }
   }
 
+  private static boolean isUpdatedWithoutLocking(DefaultIssue issue) {
+    // Issue is closed by scan or changed by end-user
+    return Issue.STATUS_CLOSED.equals(issue.status()) || issue.selectedAt() == null;
+  }
+
   private void update(IssueMapper issueMapper, Date now, DefaultIssue issue) {
     IssueDto dto = IssueDto.toDtoForUpdate(issue, now);
-    if (Issue.STATUS_CLOSED.equals(issue.status()) || issue.selectedAt() == null) {
-      // Issue is closed by scan or changed by end-user
+    if (isUpdatedWithoutLocking(issue)) {
       issueMapper.update(dto);
 
     } else {
@@ -28,6 +28,7 @@ import org.sonar.api.security.DefaultGroups;
 import org.sonar.api.task.TaskComponent;
 import org.sonar.api.web.UserRole;
 import org.sonar.core.persistence.MyBatis;
+import org.sonar.core.user.AuthorizationDao;
 import org.sonar.core.user.GroupDto;
 import org.sonar.core.user.GroupRoleDto;
 import org.sonar.core.user.RoleDao;
@@ -54,13 +55,16 @@ public class PermissionFacade implements TaskComponent, ServerComponent {
   private final UserDao userDao;
   private final PermissionTemplateDao permissionTemplateDao;
   private final Settings settings;
+  private final AuthorizationDao authorizationDao;
 
-  public PermissionFacade(MyBatis myBatis, RoleDao roleDao, UserDao userDao, PermissionTemplateDao permissionTemplateDao, Settings settings) {
+  public PermissionFacade(MyBatis myBatis, RoleDao roleDao, UserDao userDao, PermissionTemplateDao permissionTemplateDao, Settings settings,
+                          AuthorizationDao authorizationDao) {
     this.myBatis = myBatis;
     this.roleDao = roleDao;
     this.userDao = userDao;
     this.permissionTemplateDao = permissionTemplateDao;
     this.settings = settings;
+    this.authorizationDao = authorizationDao;
   }
 
   public void insertUserPermission(@Nullable Long resourceId, Long userId, String permission, @Nullable SqlSession session) {
@@ -72,6 +76,7 @@ public class PermissionFacade implements TaskComponent, ServerComponent {
       roleDao.insertUserRole(userRoleDto, session);
     } else {
       roleDao.insertUserRole(userRoleDto);
+      authorizationDao.clearCache();
     }
   }
 
@@ -88,6 +93,7 @@ public class PermissionFacade implements TaskComponent, ServerComponent {
       roleDao.deleteUserRole(userRoleDto, session);
     } else {
       roleDao.deleteUserRole(userRoleDto);
+      authorizationDao.clearCache();
     }
   }
 
@@ -104,6 +110,7 @@ public class PermissionFacade implements TaskComponent, ServerComponent {
       roleDao.insertGroupRole(groupRole, session);
     } else {
       roleDao.insertGroupRole(groupRole);
+      authorizationDao.clearCache();
     }
   }
 
@@ -131,6 +138,7 @@ public class PermissionFacade implements TaskComponent, ServerComponent {
       roleDao.deleteGroupRole(groupRole, session);
     } else {
       roleDao.deleteGroupRole(groupRole);
+      authorizationDao.clearCache();
     }
   }
 
@@ -179,7 +187,7 @@ public class PermissionFacade implements TaskComponent, ServerComponent {
           insertGroupPermission(resourceId, groupId, groupPermission.getPermission(), session);
         }
       }
-      session.commit();
+      commit(session);
     } finally {
       MyBatis.closeQuietly(session);
     }
@@ -194,6 +202,15 @@ public class PermissionFacade implements TaskComponent, ServerComponent {
     roleDao.deleteUserRolesByResourceId(resourceId, session);
   }
 
+  /**
+   * Permissions changed in a session are not visible to other sessions before commit, so the cache of authorizations
+   * is cleared after commit. Otherwise another request could cache the old permissions again in the meantime.
+   */
+  public void commit(SqlSession session) {
+    session.commit();
+    authorizationDao.clearCache();
+  }
+
   public List<String> selectGroupPermissions(String group, Long componentId) {
     return roleDao.selectGroupPermissions(group, componentId);
   }
@@ -209,7 +226,7 @@ public class PermissionFacade implements TaskComponent, ServerComponent {
       grantDefaultRoles(componentId, qualifier, UserRole.ADMIN, session);
       grantDefaultRoles(componentId, qualifier, UserRole.USER, session);
       grantDefaultRoles(componentId, qualifier, UserRole.CODEVIEWER, session);
-      session.commit();
+      commit(session);
     } finally {
       MyBatis.closeQuietly(session);
     }
@@ -77,6 +77,14 @@ public class PluginClassloaders {
   }
 
   public Map<String, Plugin> init(Collection<PluginMetadata> plugins) {
+    return init(plugins, new PluginTimings());
+  }
+
+  /**
+   * @param timings receives the time spent to instantiate each plugin
+   * @since 4.1
+   */
+  public Map<String, Plugin> init(Collection<PluginMetadata> plugins, PluginTimings timings) {
     List<PluginMetadata> children = Lists.newArrayList();
     for (PluginMetadata plugin : plugins) {
       if (StringUtils.isBlank(plugin.getBasePlugin())) {
@@ -94,7 +102,9 @@ public class PluginClassloaders {
 
     Map<String, Plugin> pluginsByKey = Maps.newHashMap();
     for (PluginMetadata metadata : plugins) {
+      long start = System.currentTimeMillis();
       pluginsByKey.put(metadata.getKey(), instantiatePlugin(metadata));
+      timings.add(metadata.getKey(), "instantiate", System.currentTimeMillis() - start);
     }
     return pluginsByKey;
   }
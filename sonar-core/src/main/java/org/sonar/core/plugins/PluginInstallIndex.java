@@ -0,0 +1,282 @@
+/*
+ * SonarQube, open source software quality management tool.
+ * Copyright (C) 2008-2013 SonarSource
+ * mailto:contact AT sonarsource DOT com
+ *
+ * SonarQube is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * SonarQube is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.core.plugins;
+
+import com.google.common.base.Joiner;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.filefilter.FileFilterUtils;
+import org.apache.commons.lang.StringUtils;
+
+import javax.annotation.CheckForNull;
+import javax.annotation.Nullable;
+
+import java.io.File;
+import java.io.FileFilter;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Index written in the directory of an installed plugin. It records the fingerprint of the installed files,
+ * the files that were deployed and the metadata read from the manifest, so that a plugin that did not change
+ * is neither unzipped nor opened again on next startup.
+ *
+ * @since 4.1
+ */
+final class PluginInstallIndex {
+
+  static final String FILENAME = "sonar-install.properties";
+
+  private static final String FINGERPRINT = "fingerprint";
+  private static final String CHECKSUM = "checksum";
+  private static final String DEPLOYED_FILE_PREFIX = "deployedFile.";
+  private static final String FILE = "file";
+  private static final String KEY = "key";
+  private static final String NAME = "name";
+  private static final String DESCRIPTION = "description";
+  private static final String LICENSE = "license";
+  private static final String ORGANIZATION = "organization";
+  private static final String ORGANIZATION_URL = "organizationUrl";
+  private static final String MAIN_CLASS = "mainClass";
+  private static final String VERSION = "version";
+  private static final String SONAR_VERSION = "sonarVersion";
+  private static final String HOMEPAGE = "homepage";
+  private static final String ISSUE_TRACKER_URL = "issueTrackerUrl";
+  private static final String DEPENDENCIES = "dependencies";
+  private static final String CHILD_FIRST = "useChildFirstClassLoader";
+  private static final String BASE_PLUGIN = "basePlugin";
+  private static final String IMPLEMENTATION_BUILD = "implementationBuild";
+  private static final String PARENT = "parent";
+  private static final String REQUIRED_PLUGINS = "requiredPlugins";
+
+  private PluginInstallIndex() {
+    // only static methods
+  }
+
+  /**
+   * The fingerprint of an installation is the checksum of the plugin file, completed by the name, size and date
+   * of the deprecated extensions that are copied with it.
+   */
+  static String fingerprint(String checksum, @Nullable List<File> deprecatedExtensions) {
+    StringBuilder sb = new StringBuilder(checksum);
+    if (deprecatedExtensions != null) {
+      for (File extension : deprecatedExtensions) {
+        sb.append('|').append(extension.getName()).append(':').append(extension.length()).append(':').append(extension.lastModified());
+      }
+    }
+    return sb.toString();
+  }
+
+  /**
+   * Saves the index of the plugin installed in the given directory. Nothing is saved if some deployed files are
+   * located outside this directory.
+   */
+  static void save(DefaultPluginMetadata metadata, File pluginBasedir, String checksum) {
+    Properties props = new Properties();
+    props.setProperty(FINGERPRINT, fingerprint(checksum, metadata.getDeprecatedExtensions()));
+    props.setProperty(CHECKSUM, checksum);
+    List<File> deployedFiles = metadata.getDeployedFiles();
+    for (int index = 0; index < deployedFiles.size(); index++) {
+      String path = relativePath(pluginBasedir, deployedFiles.get(index));
+      if (path == null) {
+        return;
+      }
+      props.setProperty(DEPLOYED_FILE_PREFIX + index, path);
+    }
+    setIfNotNull(props, FILE, relativePath(pluginBasedir, metadata.getFile()));
+    setIfNotNull(props, KEY, metadata.getKey());
+    setIfNotNull(props, NAME, metadata.getName());
+    setIfNotNull(props, DESCRIPTION, metadata.getDescription());
+    setIfNotNull(props, LICENSE, metadata.getLicense());
+    setIfNotNull(props, ORGANIZATION, metadata.getOrganization());
+    setIfNotNull(props, ORGANIZATION_URL, metadata.getOrganizationUrl());
+    setIfNotNull(props, MAIN_CLASS, metadata.getMainClass());
+    setIfNotNull(props, VERSION, metadata.getVersion());
+    setIfNotNull(props, SONAR_VERSION, metadata.getSonarVersion());
+    setIfNotNull(props, HOMEPAGE, metadata.getHomepage());
+    setIfNotNull(props, ISSUE_TRACKER_URL, metadata.getIssueTrackerUrl());
+    props.setProperty(DEPENDENCIES, Joiner.on(' ').join(metadata.getPathsToInternalDeps()));
+    props.setProperty(CHILD_FIRST, String.valueOf(metadata.isUseChildFirstClassLoader()));
+    setIfNotNull(props, BASE_PLUGIN, metadata.getBasePlugin());
+    setIfNotNull(props, IMPLEMENTATION_BUILD, metadata.getImplementationBuild());
+    setIfNotNull(props, PARENT, metadata.getParent());
+    props.setProperty(REQUIRED_PLUGINS, Joiner.on(',').join(metadata.getRequiredPlugins()));
+
+    OutputStream output = null;
+    try {
+      output = new FileOutputStream(new File(pluginBasedir, FILENAME));
+      props.store(output, null);
+    } catch (IOException e) {
+      // the plugin will be installed again on next startup
+      FileUtils.deleteQuietly(new File(pluginBasedir, FILENAME));
+    } finally {
+      IOUtils.closeQuietly(output);
+    }
+  }
+
+  /**
+   * Returns the files deployed by a previous installation having the same fingerprint, or null if the directory
+   * does not contain such an installation or if some of its files were deleted.
+   */
+  @CheckForNull
+  static List<File> loadDeployedFiles(File pluginBasedir, String fingerprint) {
+    Properties props = load(pluginBasedir, fingerprint);
+    return props != null ? deployedFiles(pluginBasedir, props) : null;
+  }
+
+  /**
+   * Same as {@link #loadDeployedFiles(java.io.File, String)} but also restores the metadata read from the manifest
+   * of the plugin. The returned metadata contains the deployed files.
+   */
+  @CheckForNull
+  static DefaultPluginMetadata loadMetadata(File pluginBasedir, String fingerprint) {
+    Properties props = load(pluginBasedir, fingerprint);
+    if (props == null || props.getProperty(FILE) == null) {
+      return null;
+    }
+    List<File> deployedFiles = deployedFiles(pluginBasedir, props);
+    if (deployedFiles == null) {
+      return null;
+    }
+    DefaultPluginMetadata metadata = toMetadata(props, new File(pluginBasedir, props.getProperty(FILE)));
+    for (File deployedFile : deployedFiles) {
+      metadata.addDeployedFile(deployedFile);
+    }
+    return metadata;
+  }
+
+  /**
+   * Restores the metadata read from the manifests of the plugins installed in the subdirectories of deployDir,
+   * by checksum of plugin file. The returned metadata do not contain deployed files, and their file is null when the
+   * plugin file is not located in the installation directory.
+   */
+  static Map<String, DefaultPluginMetadata> loadManifests(File deployDir) {
+    Map<String, DefaultPluginMetadata> result = Maps.newHashMap();
+    File[] pluginBasedirs = deployDir.listFiles((FileFilter) FileFilterUtils.directoryFileFilter());
+    if (pluginBasedirs != null) {
+      for (File pluginBasedir : pluginBasedirs) {
+        Properties props = load(pluginBasedir);
+        if (props != null && props.getProperty(CHECKSUM) != null) {
+          String path = props.getProperty(FILE);
+          result.put(props.getProperty(CHECKSUM), toMetadata(props, path != null ? new File(pluginBasedir, path) : null));
+        }
+      }
+    }
+    return result;
+  }
+
+  private static DefaultPluginMetadata toMetadata(Properties props, @Nullable File file) {
+    DefaultPluginMetadata metadata = DefaultPluginMetadata.create(file);
+    metadata.setKey(props.getProperty(KEY));
+    metadata.setName(props.getProperty(NAME));
+    metadata.setDescription(props.getProperty(DESCRIPTION));
+    metadata.setLicense(props.getProperty(LICENSE));
+    metadata.setOrganization(props.getProperty(ORGANIZATION));
+    metadata.setOrganizationUrl(props.getProperty(ORGANIZATION_URL));
+    metadata.setMainClass(props.getProperty(MAIN_CLASS));
+    metadata.setVersion(props.getProperty(VERSION));
+    metadata.setSonarVersion(props.getProperty(SONAR_VERSION));
+    metadata.setHomepage(props.getProperty(HOMEPAGE));
+    metadata.setIssueTrackerUrl(props.getProperty(ISSUE_TRACKER_URL));
+    metadata.setPathsToInternalDeps(split(props.getProperty(DEPENDENCIES), " "));
+    metadata.setUseChildFirstClassLoader(Boolean.parseBoolean(props.getProperty(CHILD_FIRST)));
+    metadata.setBasePlugin(props.getProperty(BASE_PLUGIN));
+    metadata.setImplementationBuild(props.getProperty(IMPLEMENTATION_BUILD));
+    metadata.setParent(props.getProperty(PARENT));
+    metadata.setRequiredPlugins(split(props.getProperty(REQUIRED_PLUGINS), ","));
+    return metadata;
+  }
+
+  @CheckForNull
+  private static Properties load(File pluginBasedir, String fingerprint) {
+    Properties props = load(pluginBasedir);
+    return props != null && fingerprint.equals(props.getProperty(FINGERPRINT)) ? props : null;
+  }
+
+  @CheckForNull
+  private static Properties load(File pluginBasedir) {
+    File indexFile = new File(pluginBasedir, FILENAME);
+    if (!indexFile.isFile()) {
+      return null;
+    }
+    Properties props = new Properties();
+    InputStream input = null;
+    try {
+      input = new FileInputStream(indexFile);
+      props.load(input);
+    } catch (IOException e) {
+      return null;
+    } finally {
+      IOUtils.closeQuietly(input);
+    }
+    return props;
+  }
+
+  @CheckForNull
+  private static List<File> deployedFiles(File pluginBasedir, Properties props) {
+    List<File> files = Lists.newArrayList();
+    String path = props.getProperty(DEPLOYED_FILE_PREFIX + 0);
+    while (path != null) {
+      File file = new File(pluginBasedir, path);
+      if (!file.exists()) {
+        return null;
+      }
+      files.add(file);
+      path = props.getProperty(DEPLOYED_FILE_PREFIX + files.size());
+    }
+    return files;
+  }
+
+  @CheckForNull
+  private static String relativePath(File dir, @Nullable File file) {
+    if (file == null) {
+      return null;
+    }
+    String dirPath = dir.getAbsolutePath() + File.separator;
+    String filePath = file.getAbsolutePath();
+    if (!filePath.startsWith(dirPath)) {
+      return null;
+    }
+    return filePath.substring(dirPath.length()).replace(File.separatorChar, '/');
+  }
+
+  private static void setIfNotNull(Properties props, String key, @Nullable String value) {
+    if (value != null) {
+      props.setProperty(key, value);
+    }
+  }
+
+  private static List<String> split(@Nullable String value, String separator) {
+    if (StringUtils.isEmpty(value)) {
+      return Collections.emptyList();
+    }
+    return Arrays.asList(StringUtils.split(value, separator));
+  }
+}
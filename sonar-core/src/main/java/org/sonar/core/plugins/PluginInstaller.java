@@ -19,6 +19,7 @@
  */
 package org.sonar.core.plugins;
 
+import org.apache.commons.codec.digest.DigestUtils;
 import org.apache.commons.io.FileUtils;
 import org.sonar.api.utils.SonarException;
 import org.sonar.api.utils.ZipUtils;
@@ -28,11 +29,14 @@ import java.io.File;
 import java.io.IOException;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.Random;
 import java.util.zip.ZipEntry;
 
 public class PluginInstaller {
 
   private static final String FAIL_TO_INSTALL_PLUGIN = "Fail to install plugin: ";
+  private static final String INSTALL_DIR_PREFIX = "_install-";
 
   public DefaultPluginMetadata install(File pluginFile, boolean isCore, List<File> deprecatedExtensions, File pluginBasedir) {
     try {
@@ -57,6 +61,92 @@ public class PluginInstaller {
     }
   }
 
+  /**
+   * Same as {@link #install(java.io.File, boolean, java.util.List, java.io.File)}, except that the plugin is installed
+   * in a subdirectory of cacheDir named after the checksum of the file and the deprecated extensions, and that this
+   * installation is reused if it already exists. The installation is done in a temporary directory that is then
+   * renamed, so that several processes can share the same cache. An existing installation is never deleted, as it may
+   * be used by another process.
+   *
+   * @since 4.1
+   */
+  public DefaultPluginMetadata installCached(File pluginFile, String checksum, boolean isCore, List<File> deprecatedExtensions, File cacheDir) {
+    String fingerprint = PluginInstallIndex.fingerprint(checksum, deprecatedExtensions);
+    File pluginBasedir = new File(cacheDir, INSTALL_DIR_PREFIX + DigestUtils.md5Hex(fingerprint));
+    DefaultPluginMetadata metadata = PluginInstallIndex.loadMetadata(pluginBasedir, fingerprint);
+    if (metadata == null) {
+      File tempDir = newTempDir(pluginBasedir);
+      PluginInstallIndex.save(install(pluginFile, isCore, deprecatedExtensions, tempDir), tempDir, checksum);
+      if (!pluginBasedir.exists() && tempDir.renameTo(pluginBasedir)) {
+        metadata = PluginInstallIndex.loadMetadata(pluginBasedir, fingerprint);
+      } else {
+        // installed at the same time by another process, or an incomplete installation that is not replaced
+        metadata = PluginInstallIndex.loadMetadata(pluginBasedir, fingerprint);
+        if (metadata == null) {
+          metadata = PluginInstallIndex.loadMetadata(tempDir, fingerprint);
+        } else {
+          FileUtils.deleteQuietly(tempDir);
+        }
+      }
+      if (metadata == null) {
+        throw new SonarException(FAIL_TO_INSTALL_PLUGIN + pluginFile);
+      }
+    }
+    metadata.setCore(isCore);
+    metadata.setDeprecatedExtensions(deprecatedExtensions);
+    return metadata;
+  }
+
+  /**
+   * Same as {@link #install(DefaultPluginMetadata, java.io.File)}, except that the files deployed in pluginBasedir are
+   * kept if they were installed from a file with the same checksum and the same deprecated extensions. Otherwise the
+   * directory is cleaned before installation.
+   *
+   * @return true if the plugin has been installed, false if the previous installation has been reused
+   * @since 4.1
+   */
+  public boolean installCached(DefaultPluginMetadata metadata, String checksum, File pluginBasedir) {
+    String fingerprint = PluginInstallIndex.fingerprint(checksum, metadata.getDeprecatedExtensions());
+    List<File> deployedFiles = PluginInstallIndex.loadDeployedFiles(pluginBasedir, fingerprint);
+    if (deployedFiles != null) {
+      for (File deployedFile : deployedFiles) {
+        metadata.addDeployedFile(deployedFile);
+      }
+      return false;
+    }
+    try {
+      FileUtils.forceMkdir(pluginBasedir);
+      FileUtils.cleanDirectory(pluginBasedir);
+    } catch (IOException e) {
+      throw new SonarException(FAIL_TO_INSTALL_PLUGIN + metadata, e);
+    }
+    install(metadata, pluginBasedir);
+    PluginInstallIndex.save(metadata, pluginBasedir, checksum);
+    return true;
+  }
+
+  /**
+   * Metadata read from the manifests of the plugins installed by {@link #installCached(DefaultPluginMetadata, String, java.io.File)}
+   * in the subdirectories of deployDir, by checksum of plugin file. They avoid opening again the plugin files that
+   * did not change.
+   *
+   * @since 4.1
+   */
+  public Map<String, DefaultPluginMetadata> loadInstalledMetadata(File deployDir) {
+    return PluginInstallIndex.loadManifests(deployDir);
+  }
+
+  private File newTempDir(File pluginBasedir) {
+    File parent = pluginBasedir.getAbsoluteFile().getParentFile();
+    File tempDir = new File(parent, "_tmp-" + pluginBasedir.getName() + "-" + System.currentTimeMillis() + "-" + new Random().nextInt(1000));
+    try {
+      FileUtils.forceMkdir(tempDir);
+      return tempDir;
+    } catch (IOException e) {
+      throw new SonarException("Fail to create temporary directory: " + tempDir, e);
+    }
+  }
+
   private void install(DefaultPluginMetadata metadata, File pluginBasedir, File deployedPlugin) {
     try {
       metadata.addDeployedFile(deployedPlugin);
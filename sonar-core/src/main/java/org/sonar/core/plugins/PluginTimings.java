@@ -0,0 +1,93 @@
+/*
+ * SonarQube, open source software quality management tool.
+ * Copyright (C) 2008-2013 SonarSource
+ * mailto:contact AT sonarsource DOT com
+ *
+ * SonarQube is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * SonarQube is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.core.plugins;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import org.slf4j.Logger;
+
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Durations of the steps executed for each plugin during startup, for example installation and instantiation.
+ * Durations can be recorded concurrently. The report is logged in debug level, slowest plugins first.
+ *
+ * @since 4.1
+ */
+public class PluginTimings {
+
+  private final Map<String, Map<String, Long>> durationsByPlugin = Maps.newLinkedHashMap();
+
+  public synchronized PluginTimings add(String pluginKey, String step, long durationMs) {
+    Map<String, Long> durations = durationsByPlugin.get(pluginKey);
+    if (durations == null) {
+      durations = Maps.newLinkedHashMap();
+      durationsByPlugin.put(pluginKey, durations);
+    }
+    Long previous = durations.get(step);
+    durations.put(step, previous == null ? durationMs : (previous + durationMs));
+    return this;
+  }
+
+  public synchronized long total(String pluginKey) {
+    long total = 0L;
+    Map<String, Long> durations = durationsByPlugin.get(pluginKey);
+    if (durations != null) {
+      for (Long duration : durations.values()) {
+        total += duration;
+      }
+    }
+    return total;
+  }
+
+  public synchronized List<String> report() {
+    List<String> keys = Lists.newArrayList(durationsByPlugin.keySet());
+    Collections.sort(keys, new Comparator<String>() {
+      public int compare(String key1, String key2) {
+        long diff = total(key2) - total(key1);
+        return diff == 0L ? key1.compareTo(key2) : (diff > 0L ? 1 : -1);
+      }
+    });
+    List<String> lines = Lists.newArrayList();
+    for (String key : keys) {
+      StringBuilder line = new StringBuilder();
+      line.append(key).append(": ").append(total(key)).append(" ms");
+      String separator = " (";
+      for (Map.Entry<String, Long> entry : durationsByPlugin.get(key).entrySet()) {
+        line.append(separator).append(entry.getKey()).append(' ').append(entry.getValue()).append(" ms");
+        separator = ", ";
+      }
+      lines.add(line.append(')').toString());
+    }
+    return lines;
+  }
+
+  public void log(Logger logger) {
+    if (logger.isDebugEnabled()) {
+      logger.debug("Plugin startup times:");
+      for (String line : report()) {
+        logger.debug("  " + line);
+      }
+    }
+  }
+}
@@ -0,0 +1,127 @@
+/*
+ * SonarQube, open source software quality management tool.
+ * Copyright (C) 2008-2013 SonarSource
+ * mailto:contact AT sonarsource DOT com
+ *
+ * SonarQube is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * SonarQube is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.core.preview;
+
+import com.google.common.base.Charsets;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang.StringUtils;
+import org.apache.ibatis.session.ResultContext;
+import org.apache.ibatis.session.ResultHandler;
+import org.sonar.api.ServerComponent;
+import org.sonar.api.utils.SonarException;
+import org.sonar.core.persistence.MyBatis;
+import org.sonar.core.source.jdbc.FileSourceDto;
+import org.sonar.core.source.jdbc.SnapshotSourceDao;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Export of the sources of the last analysis of all the files of a project, so that preview analysis can
+ * track issues without requesting the sources file per file.
+ * <p/>
+ * The export is a GZIP stream of records. Each record is made of the resource key and the source, both
+ * written as the length of their UTF-8 bytes followed by the bytes.
+ *
+ * @since 4.1
+ */
+public class PreviewSources implements ServerComponent {
+
+  public interface Handler {
+    void handle(String resourceKey, String source);
+  }
+
+  private final SnapshotSourceDao dao;
+
+  public PreviewSources(MyBatis mybatis) {
+    this(new SnapshotSourceDao(mybatis));
+  }
+
+  PreviewSources(SnapshotSourceDao dao) {
+    this.dao = dao;
+  }
+
+  /**
+   * Writes the export to the given stream while sources are read from database, so that the sources of a large
+   * project are not loaded in memory. The stream is not closed.
+   */
+  public void export(final long rootProjectId, OutputStream output) {
+    try {
+      GZIPOutputStream gzip = new GZIPOutputStream(output);
+      final DataOutputStream data = new DataOutputStream(gzip);
+      dao.selectLastSourcesOfProject(rootProjectId, new ResultHandler() {
+        public void handleResult(ResultContext context) {
+          FileSourceDto dto = (FileSourceDto) context.getResultObject();
+          try {
+            writeString(data, dto.getResourceKey());
+            writeString(data, StringUtils.defaultString(dto.getSource()));
+          } catch (IOException e) {
+            throw new SonarException("Fail to export sources of project " + rootProjectId, e);
+          }
+        }
+      });
+      data.flush();
+      gzip.finish();
+    } catch (IOException e) {
+      throw new SonarException("Fail to export sources of project " + rootProjectId, e);
+    }
+  }
+
+  /**
+   * Reads an export generated by {@link #export(long, java.io.OutputStream)}. The stream is closed by this method.
+   */
+  public static void read(InputStream input, Handler handler) {
+    try {
+      DataInputStream data = new DataInputStream(new GZIPInputStream(input));
+      while (true) {
+        String resourceKey;
+        try {
+          resourceKey = readString(data);
+        } catch (EOFException e) {
+          // end of export
+          break;
+        }
+        handler.handle(resourceKey, readString(data));
+      }
+    } catch (IOException e) {
+      throw new SonarException("Fail to read the export of sources", e);
+    } finally {
+      IOUtils.closeQuietly(input);
+    }
+  }
+
+  private static void writeString(DataOutputStream output, String s) throws IOException {
+    byte[] bytes = s.getBytes(Charsets.UTF_8);
+    output.writeInt(bytes.length);
+    output.write(bytes);
+  }
+
+  private static String readString(DataInputStream input) throws IOException {
+    byte[] bytes = new byte[input.readInt()];
+    input.readFully(bytes);
+    return new String(bytes, Charsets.UTF_8);
+  }
+}
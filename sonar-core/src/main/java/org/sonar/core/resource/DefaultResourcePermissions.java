@@ -56,7 +56,7 @@ public class DefaultResourcePermissions implements ResourcePermissions {
         if (user != null) {
           permissionFacade.deleteUserPermission(Long.valueOf(resource.getId()), user.getId(), role, session);
           permissionFacade.insertUserPermission(Long.valueOf(resource.getId()), user.getId(), role, session);
-          session.commit();
+          permissionFacade.commit(session);
         }
       } finally {
         MyBatis.closeQuietly(session);
@@ -70,7 +70,7 @@ public class DefaultResourcePermissions implements ResourcePermissions {
       try {
         permissionFacade.deleteGroupPermission(Long.valueOf(resource.getId()), groupName, role, session);
         permissionFacade.insertGroupPermission(Long.valueOf(resource.getId()), groupName, role, session);
-        session.commit();
+        permissionFacade.commit(session);
       } finally {
         MyBatis.closeQuietly(session);
       }
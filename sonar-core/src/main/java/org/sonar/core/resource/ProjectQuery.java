@@ -0,0 +1,165 @@
+/*
+ * SonarQube, open source software quality management tool.
+ * Copyright (C) 2008-2013 SonarSource
+ * mailto:contact AT sonarsource DOT com
+ *
+ * SonarQube is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * SonarQube is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.core.resource;
+
+import org.apache.commons.lang.StringUtils;
+
+import javax.annotation.CheckForNull;
+import javax.annotation.Nullable;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+import static com.google.common.collect.Lists.newArrayList;
+
+/**
+ * Filters, sorts and pages projects in database
+ *
+ * @since 4.1
+ */
+public class ProjectQuery {
+
+  public enum Kind {
+    /**
+     * Enabled projects having a last snapshot
+     */
+    COMPLETED,
+
+    /**
+     * Enabled projects, even without snapshot or without last snapshot
+     */
+    INCLUDING_NOT_COMPLETED,
+
+    /**
+     * Projects having unprocessed snapshots but no processed one
+     */
+    GHOSTS
+  }
+
+  private Kind kind = Kind.COMPLETED;
+  private Collection<String> qualifiers = Collections.emptyList();
+  private List<String> keys = Collections.emptyList();
+  private List<String> names = Collections.emptyList();
+  private Boolean asc = null;
+  private List<String> keysSql = Collections.emptyList();
+  private List<String> namesSql = Collections.emptyList();
+
+  private ProjectQuery() {
+  }
+
+  public static ProjectQuery create() {
+    return new ProjectQuery();
+  }
+
+  public Kind getKind() {
+    return kind;
+  }
+
+  public ProjectQuery setKind(Kind kind) {
+    this.kind = kind;
+    return this;
+  }
+
+  public boolean isCompleted() {
+    return kind == Kind.COMPLETED;
+  }
+
+  public boolean isGhosts() {
+    return kind == Kind.GHOSTS;
+  }
+
+  /**
+   * Qualifiers of projects. Projects are not filtered by qualifier if empty.
+   */
+  public Collection<String> getQualifiers() {
+    return qualifiers;
+  }
+
+  public ProjectQuery setQualifiers(Collection<String> qualifiers) {
+    this.qualifiers = qualifiers;
+    return this;
+  }
+
+  /**
+   * Parts of keys, case-insensitive. A project is selected if its key contains one of them.
+   */
+  public List<String> getKeys() {
+    return keys;
+  }
+
+  public ProjectQuery setKeys(Collection<String> keys) {
+    this.keys = newArrayList(keys);
+    this.keysSql = toSql(keys);
+    return this;
+  }
+
+  /**
+   * Parts of names, case-insensitive. A project is selected if its name contains one of them.
+   */
+  public List<String> getNames() {
+    return names;
+  }
+
+  public ProjectQuery setNames(Collection<String> names) {
+    this.names = newArrayList(names);
+    this.namesSql = toSql(names);
+    return this;
+  }
+
+  /**
+   * Sort by name, case-insensitive. Null if projects are not sorted.
+   */
+  @CheckForNull
+  public Boolean getAsc() {
+    return asc;
+  }
+
+  public ProjectQuery setAsc(@Nullable Boolean asc) {
+    this.asc = asc;
+    return this;
+  }
+
+  /**
+   * Upper-case LIKE patterns of {@link #getKeys()}. Used by MyBatis mappers.
+   */
+  public List<String> getKeysSql() {
+    return keysSql;
+  }
+
+  /**
+   * Upper-case LIKE patterns of {@link #getNames()}. Used by MyBatis mappers.
+   */
+  public List<String> getNamesSql() {
+    return namesSql;
+  }
+
+  private static List<String> toSql(Collection<String> patterns) {
+    List<String> sql = newArrayList();
+    for (String pattern : patterns) {
+      String s = StringUtils.replace(pattern.toUpperCase(Locale.ENGLISH), "/", "//");
+      s = StringUtils.replace(s, "%", "/%");
+      s = StringUtils.replace(s, "_", "/_");
+      sql.add("%" + s + "%");
+    }
+    return sql;
+  }
+}
@@ -246,6 +246,46 @@ public class ResourceDao {
     }
   }
 
+  /**
+   * Return all the projects matching the query
+   *
+   * @since 4.1
+   */
+  public List<Component> selectProjects(ProjectQuery query) {
+    SqlSession session = mybatis.openSession();
+    try {
+      return toComponents(session.getMapper(ResourceMapper.class).selectProjectsByQuery(query));
+    } finally {
+      MyBatis.closeQuietly(session);
+    }
+  }
+
+  /**
+   * Return a page of the projects matching the query. Only the rows of the page are read from database.
+   *
+   * @since 4.1
+   */
+  public List<Component> selectProjects(ProjectQuery query, int offset, int pageSize) {
+    SqlSession session = mybatis.openSession();
+    try {
+      return toComponents(session.getMapper(ResourceMapper.class).selectProjectsPageByQuery(query, offset, pageSize));
+    } finally {
+      MyBatis.closeQuietly(session);
+    }
+  }
+
+  /**
+   * @since 4.1
+   */
+  public int countProjects(ProjectQuery query) {
+    SqlSession session = mybatis.openSession();
+    try {
+      return session.getMapper(ResourceMapper.class).countProjectsByQuery(query);
+    } finally {
+      MyBatis.closeQuietly(session);
+    }
+  }
+
   /**
    * Return provisioned projects = enabled projects without snapshot
    */
@@ -78,6 +78,21 @@ public interface ResourceMapper {
 
   List<ResourceDto> selectProjectsByQualifiers(@Param("qualifiers") Collection<String> qualifier);
 
+  /**
+   * @since 4.1
+   */
+  List<ResourceDto> selectProjectsByQuery(@Param("query") ProjectQuery query);
+
+  /**
+   * @since 4.1
+   */
+  List<ResourceDto> selectProjectsPageByQuery(@Param("query") ProjectQuery query, @Param("offset") int offset, @Param("pageSize") int pageSize);
+
+  /**
+   * @since 4.1
+   */
+  int countProjectsByQuery(@Param("query") ProjectQuery query);
+
   List<ResourceDto> selectGhostsProjects(@Param("qualifiers") Collection<String> qualifier);
 
   List<ResourceDto> selectProvisionedProjects(@Param("qualifiers") Collection<String> qualifier);
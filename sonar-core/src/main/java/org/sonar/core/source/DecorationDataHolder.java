@@ -20,9 +20,11 @@
 package org.sonar.core.source;
 
 import com.google.common.collect.Lists;
+import com.google.common.primitives.Ints;
 
 import java.util.Arrays;
-import java.util.Iterator;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
 
 class DecorationDataHolder {
@@ -32,14 +34,24 @@ class DecorationDataHolder {
   private static final String SYMBOL_PREFIX = "sym-";
   private static final String HIGHLIGHTABLE = "sym";
 
-  private List<OpeningHtmlTag> openingTagsEntries;
-  private int openingTagsIndex;
-  private List<Integer> closingTagsOffsets;
-  private int closingTagsIndex;
+  private static final Comparator<OpeningHtmlTag> BY_START_OFFSET = new Comparator<OpeningHtmlTag>() {
+    public int compare(OpeningHtmlTag left, OpeningHtmlTag right) {
+      return Ints.compare(left.getStartOffset(), right.getStartOffset());
+    }
+  };
+
+  private final List<OpeningHtmlTag> openingTagsEntries;
+  private int[] closingTagsOffsets;
+  private int closingTagsCount;
+
+  // boundaries sorted by offset, computed once all the data is loaded
+  private boolean sorted = true;
+  private int[] openingTagsStartOffsets;
+  private String[] openingTagsCssClasses;
 
   DecorationDataHolder() {
     openingTagsEntries = Lists.newArrayList();
-    closingTagsOffsets = Lists.newArrayList();
+    closingTagsOffsets = new int[16];
   }
 
   void loadSymbolReferences(String symbolsReferences) {
@@ -58,59 +70,81 @@ class DecorationDataHolder {
     String[] rules = syntaxHighlightingRules.split(ENTITY_SEPARATOR);
     for (String rule : rules) {
       String[] ruleFields = rule.split(FIELD_SEPARATOR);
-      insertAndPreserveOrder(new OpeningHtmlTag(Integer.parseInt(ruleFields[0]), ruleFields[2]), openingTagsEntries);
-      insertAndPreserveOrder(Integer.parseInt(ruleFields[1]), closingTagsOffsets);
+      addOpeningTag(new OpeningHtmlTag(Integer.parseInt(ruleFields[0]), ruleFields[2]));
+      addClosingTag(Integer.parseInt(ruleFields[1]));
     }
   }
 
   List<OpeningHtmlTag> getOpeningTagsEntries() {
+    sort();
     return openingTagsEntries;
   }
 
-  OpeningHtmlTag getCurrentOpeningTagEntry() {
-    return openingTagsIndex < openingTagsEntries.size() ? openingTagsEntries.get(openingTagsIndex) : null;
+  List<Integer> getClosingTagsOffsets() {
+    return Ints.asList(getSortedClosingTagsOffsets());
   }
 
-  void nextOpeningTagEntry() {
-    openingTagsIndex++;
+  /**
+   * Start offsets of the opening tags, in ascending order. Tags starting at the same offset are kept in loading order.
+   */
+  int[] getOpeningTagsStartOffsets() {
+    sort();
+    return openingTagsStartOffsets;
   }
 
-  List<Integer> getClosingTagsOffsets() {
-    return closingTagsOffsets;
+  /**
+   * CSS classes of the opening tags, in the same order as {@link #getOpeningTagsStartOffsets()}.
+   */
+  String[] getOpeningTagsCssClasses() {
+    sort();
+    return openingTagsCssClasses;
   }
 
-  int getCurrentClosingTagOffset() {
-    return closingTagsIndex < closingTagsOffsets.size() ? closingTagsOffsets.get(closingTagsIndex) : -1;
-  }
-
-  void nextClosingTagOffset() {
-    closingTagsIndex++;
+  int[] getSortedClosingTagsOffsets() {
+    sort();
+    return closingTagsOffsets;
   }
 
   private void loadSymbolOccurrences(int declarationStartOffset, int symbolLength, String[] symbolOccurrences) {
+    String cssClass = SYMBOL_PREFIX + declarationStartOffset + " " + HIGHLIGHTABLE;
     for (String symbolOccurrence : symbolOccurrences) {
       int occurrenceStartOffset = Integer.parseInt(symbolOccurrence);
       int occurrenceEndOffset = occurrenceStartOffset + symbolLength;
-      insertAndPreserveOrder(new OpeningHtmlTag(occurrenceStartOffset, SYMBOL_PREFIX + declarationStartOffset + " " + HIGHLIGHTABLE), openingTagsEntries);
-      insertAndPreserveOrder(occurrenceEndOffset, closingTagsOffsets);
+      addOpeningTag(new OpeningHtmlTag(occurrenceStartOffset, cssClass));
+      addClosingTag(occurrenceEndOffset);
     }
   }
 
-  private void insertAndPreserveOrder(OpeningHtmlTag newEntry, List<OpeningHtmlTag> openingHtmlTags) {
-    int insertionIndex = 0;
-    Iterator<OpeningHtmlTag> tagIterator = openingHtmlTags.iterator();
-    while (tagIterator.hasNext() && tagIterator.next().getStartOffset() <= newEntry.getStartOffset()) {
-      insertionIndex++;
+  private void addOpeningTag(OpeningHtmlTag tag) {
+    openingTagsEntries.add(tag);
+    sorted = false;
+  }
+
+  private void addClosingTag(int offset) {
+    if (closingTagsCount == closingTagsOffsets.length) {
+      closingTagsOffsets = Arrays.copyOf(closingTagsOffsets, Math.max(16, closingTagsCount * 2));
     }
-    openingHtmlTags.add(insertionIndex, newEntry);
+    closingTagsOffsets[closingTagsCount] = offset;
+    closingTagsCount++;
+    sorted = false;
   }
 
-  private void insertAndPreserveOrder(int newOffset, List<Integer> orderedOffsets) {
-    int insertionIndex = 0;
-    Iterator<Integer> entriesIterator = orderedOffsets.iterator();
-    while (entriesIterator.hasNext() && entriesIterator.next() <= newOffset) {
-      insertionIndex++;
+  /**
+   * Sorting once is much cheaper than inserting each entry at its position when highlighting is dense.
+   * The sort is stable, so tags sharing the same offset stay in loading order.
+   */
+  private void sort() {
+    if (!sorted || openingTagsStartOffsets == null) {
+      Collections.sort(openingTagsEntries, BY_START_OFFSET);
+      openingTagsStartOffsets = new int[openingTagsEntries.size()];
+      openingTagsCssClasses = new String[openingTagsEntries.size()];
+      for (int i = 0; i < openingTagsStartOffsets.length; i++) {
+        openingTagsStartOffsets[i] = openingTagsEntries.get(i).getStartOffset();
+        openingTagsCssClasses[i] = openingTagsEntries.get(i).getCssClass();
+      }
+      closingTagsOffsets = Arrays.copyOf(closingTagsOffsets, closingTagsCount);
+      Arrays.sort(closingTagsOffsets);
+      sorted = true;
     }
-    orderedOffsets.add(insertionIndex, newOffset);
   }
 }
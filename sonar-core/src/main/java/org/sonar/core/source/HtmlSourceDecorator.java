@@ -28,16 +28,31 @@ import org.sonar.core.source.jdbc.SnapshotDataDao;
 import org.sonar.core.source.jdbc.SnapshotDataDto;
 import org.sonar.core.source.jdbc.SnapshotSourceDao;
 
+import javax.annotation.CheckForNull;
+
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * @since 3.6
  */
 public class HtmlSourceDecorator implements ServerComponent {
 
+  /**
+   * Maximum number of characters of the sources and of the rendered lines kept in memory. Least recently used
+   * snapshots are evicted first, and a source which is bigger than the whole cache is not kept. The source and the
+   * decoration data of a snapshot never change once the analysis is done, so entries do not have to be invalidated.
+   */
+  @VisibleForTesting
+  static final long CACHE_MAX_CHARS = 2L * 1024 * 1024;
+
   private final SnapshotSourceDao snapshotSourceDao;
   private final SnapshotDataDao snapshotDataDao;
+  private final Map<Long, DecoratedSource> cache = new LinkedHashMap<Long, DecoratedSource>(16, 0.75f, true);
 
   public HtmlSourceDecorator(MyBatis myBatis) {
     this.snapshotSourceDao = new SnapshotSourceDao(myBatis);
@@ -50,7 +65,53 @@ public class HtmlSourceDecorator implements ServerComponent {
     this.snapshotDataDao= snapshotDataDao;
   }
 
+  @CheckForNull
   public List<String> getDecoratedSourceAsHtml(long snapshotId) {
+    return getDecoratedSourceAsHtml(snapshotId, 1, Integer.MAX_VALUE);
+  }
+
+  /**
+   * Returns the decorated lines <code>from</code> to <code>to</code> (1-based, inclusive) of the source. The range is
+   * truncated to the lines that exist in the source.
+   *
+   * @return null if the snapshot has no source or no highlighting data
+   * @since 4.1
+   */
+  @CheckForNull
+  public List<String> getDecoratedSourceAsHtml(long snapshotId, int from, int to) {
+    DecoratedSource decoratedSource;
+    synchronized (cache) {
+      decoratedSource = cache.get(snapshotId);
+    }
+    if (decoratedSource == null) {
+      decoratedSource = load(snapshotId);
+      if (decoratedSource == null) {
+        return null;
+      }
+    }
+    List<String> lines = decoratedSource.lines(from, to);
+    // the size of the entry grows with the rendered lines
+    cache(snapshotId, decoratedSource);
+    return lines;
+  }
+
+  private void cache(long snapshotId, DecoratedSource decoratedSource) {
+    synchronized (cache) {
+      cache.put(snapshotId, decoratedSource);
+      long chars = 0;
+      for (DecoratedSource cached : cache.values()) {
+        chars += cached.chars();
+      }
+      Iterator<DecoratedSource> leastRecentlyUsed = cache.values().iterator();
+      while (chars > CACHE_MAX_CHARS && leastRecentlyUsed.hasNext()) {
+        chars -= leastRecentlyUsed.next().chars();
+        leastRecentlyUsed.remove();
+      }
+    }
+  }
+
+  @CheckForNull
+  private DecoratedSource load(long snapshotId) {
     List<String> highlightingDataTypes = Lists.newArrayList(SnapshotDataTypes.SYNTAX_HIGHLIGHTING,
       SnapshotDataTypes.SYMBOL_HIGHLIGHTING);
 
@@ -63,9 +124,7 @@ public class HtmlSourceDecorator implements ServerComponent {
         for (SnapshotDataDto snapshotDataEntry : snapshotDataEntries) {
           loadSnapshotData(decorationDataHolder, snapshotDataEntry);
         }
-
-        HtmlTextDecorator textDecorator = new HtmlTextDecorator();
-        return textDecorator.decorateTextWithHtml(snapshotSource, decorationDataHolder);
+        return new DecoratedSource(snapshotSource, decorationDataHolder);
       }
     }
     return null;
@@ -80,4 +139,75 @@ public class HtmlSourceDecorator implements ServerComponent {
       }
     }
   }
+
+  /**
+   * Source and parsed decoration data of a snapshot, with the lines already rendered. Lines are rendered on demand,
+   * one requested range at a time.
+   */
+  @VisibleForTesting
+  static class DecoratedSource {
+    private final String source;
+    private final DecorationDataHolder decorationDataHolder;
+    private final String[] renderedLines;
+    private long renderedChars = 0;
+
+    DecoratedSource(String source, DecorationDataHolder decorationDataHolder) {
+      this.source = source;
+      this.decorationDataHolder = decorationDataHolder;
+      this.renderedLines = new String[countLines(source)];
+    }
+
+    synchronized List<String> lines(int from, int to) {
+      int first = Math.max(from, 1);
+      int last = Math.min(to, renderedLines.length);
+      if (first > last) {
+        return Lists.newArrayList();
+      }
+      if (!isRendered(first, last)) {
+        List<String> lines = new HtmlTextDecorator().decorateTextWithHtml(source, decorationDataHolder, first, last);
+        for (int i = 0; i < lines.size() && first - 1 + i < renderedLines.length; i++) {
+          if (renderedLines[first - 1 + i] == null) {
+            renderedLines[first - 1 + i] = lines.get(i);
+            renderedChars += lines.get(i).length();
+          }
+        }
+      }
+      return Lists.newArrayList(Arrays.asList(renderedLines).subList(first - 1, last));
+    }
+
+    /**
+     * Characters of the source and of the rendered lines, the decoration data being proportional to the source
+     */
+    synchronized long chars() {
+      return source.length() + renderedChars;
+    }
+
+    private boolean isRendered(int first, int last) {
+      for (int i = first - 1; i < last; i++) {
+        if (renderedLines[i] == null) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    /**
+     * Same line breaks as {@link HtmlTextDecorator}: LF, CRLF and CR, a trailing line break being followed by an empty line.
+     */
+    @VisibleForTesting
+    static int countLines(String source) {
+      if (source.isEmpty()) {
+        return 0;
+      }
+      int lines = 1;
+      for (int i = 0; i < source.length(); i++) {
+        char c = source.charAt(i);
+        if (c == HtmlTextDecorator.LF_END_OF_LINE
+          || (c == HtmlTextDecorator.CR_END_OF_LINE && (i + 1 == source.length() || source.charAt(i + 1) != HtmlTextDecorator.LF_END_OF_LINE))) {
+          lines++;
+        }
+      }
+      return lines;
+    }
+  }
 }
@@ -20,18 +20,14 @@
 package org.sonar.core.source;
 
 import com.google.common.collect.Lists;
-import com.google.common.io.Closeables;
-import org.slf4j.LoggerFactory;
 
-import java.io.BufferedReader;
-import java.io.IOException;
-import java.io.StringReader;
-import java.util.Collection;
+import java.util.Arrays;
 import java.util.List;
 
-import static org.sonar.core.source.CharactersReader.END_OF_STREAM;
-
 /**
+ * Decorates text in a single pass over its characters, walking the tag boundaries sorted by
+ * {@link DecorationDataHolder}. A single buffer is reused for all the lines.
+ *
  * @since 3.6
  */
 class HtmlTextDecorator {
@@ -45,151 +41,132 @@ class HtmlTextDecorator {
   static final String ENCODED_HTML_CLOSING = "&gt;";
   static final String ENCODED_AMPERSAND = "&amp;";
 
-  List<String> decorateTextWithHtml(String text, DecorationDataHolder decorationDataHolder) {
-
-    StringBuilder currentHtmlLine = new StringBuilder();
-    List<String> decoratedHtmlLines = Lists.newArrayList();
-
-    BufferedReader stringBuffer = null;
+  private static final String OPENING_TAG_START = "<span class=\"";
+  private static final String OPENING_TAG_END = "\">";
+  private static final String CLOSING_TAG = "</span>";
+  private static final int NO_CHAR = -1;
 
-    try {
-      stringBuffer = new BufferedReader(new StringReader(text));
+  private final StringBuilder currentHtmlLine = new StringBuilder(256);
+  private String[] openTags = new String[8];
+  private int openTagsCount;
 
-      CharactersReader charsReader = new CharactersReader(stringBuffer);
+  List<String> decorateTextWithHtml(String text, DecorationDataHolder decorationDataHolder) {
+    return decorateTextWithHtml(text, decorationDataHolder, 1, Integer.MAX_VALUE);
+  }
 
-      while (charsReader.readNextChar()) {
+  /**
+   * Decorates the lines <code>from</code> to <code>to</code> (1-based, inclusive). Preceding lines are still
+   * scanned in order to know the tags opened before the range, but they are not kept in memory, and the
+   * text following the range is not read at all.
+   */
+  List<String> decorateTextWithHtml(String text, DecorationDataHolder decorationDataHolder, int from, int to) {
+    int[] openingTagsOffsets = decorationDataHolder.getOpeningTagsStartOffsets();
+    String[] openingTagsCssClasses = decorationDataHolder.getOpeningTagsCssClasses();
+    int[] closingTagsOffsets = decorationDataHolder.getSortedClosingTagsOffsets();
+    int openingTagsIndex = 0;
+    int closingTagsIndex = 0;
 
-        if (shouldStartNewLine(charsReader)) {
-          decoratedHtmlLines.add(currentHtmlLine.toString());
-          currentHtmlLine = new StringBuilder();
-          if (shouldReopenPendingTags(charsReader)) {
-            reopenCurrentSyntaxTags(charsReader, currentHtmlLine);
-          }
+    List<String> decoratedHtmlLines = Lists.newArrayList();
+    currentHtmlLine.setLength(0);
+    openTagsCount = 0;
+    int currentLine = 1;
+    int previousChar = NO_CHAR;
+
+    for (int index = 0; index < text.length(); index++) {
+      char currentChar = text.charAt(index);
+
+      if (previousChar == LF_END_OF_LINE || (previousChar == CR_END_OF_LINE && currentChar != LF_END_OF_LINE)) {
+        addLine(decoratedHtmlLines, currentLine >= from);
+        currentLine++;
+        if (currentLine > to) {
+          return decoratedHtmlLines;
         }
-
-        int numberOfTagsToClose = getNumberOfTagsToClose(charsReader.getCurrentIndex(), decorationDataHolder);
-        closeCompletedTags(charsReader, numberOfTagsToClose, currentHtmlLine);
-
-        if (shouldClosePendingTags(charsReader)) {
-          closeCurrentSyntaxTags(charsReader, currentHtmlLine);
+        if (currentChar != LF_END_OF_LINE && (previousChar == LF_END_OF_LINE || currentChar != CR_END_OF_LINE)) {
+          reopenCurrentSyntaxTags();
         }
+      }
 
-        Collection<String> tagsToOpen = getTagsToOpen(charsReader.getCurrentIndex(), decorationDataHolder);
-        openNewTags(charsReader, tagsToOpen, currentHtmlLine);
-
-        if (shouldAppendCharToHtmlOutput(charsReader)) {
-          char currentChar = (char) charsReader.getCurrentValue();
-          currentHtmlLine.append(normalize(currentChar));
+      while (closingTagsIndex < closingTagsOffsets.length && closingTagsOffsets[closingTagsIndex] == index) {
+        currentHtmlLine.append(CLOSING_TAG);
+        if (openTagsCount > 0) {
+          openTagsCount--;
         }
+        closingTagsIndex++;
       }
 
-      closeCurrentSyntaxTags(charsReader, currentHtmlLine);
-
-      if (shouldStartNewLine(charsReader)) {
-        decoratedHtmlLines.add(currentHtmlLine.toString());
-        decoratedHtmlLines.add("");
-      } else if (currentHtmlLine.length() > 0) {
-        decoratedHtmlLines.add(currentHtmlLine.toString());
+      if (currentChar == CR_END_OF_LINE || (currentChar == LF_END_OF_LINE && previousChar != CR_END_OF_LINE)) {
+        closeCurrentSyntaxTags();
       }
 
-    } catch (IOException exception) {
-      String errorMsg = "An exception occurred while highlighting the syntax of one of the project's files";
-      LoggerFactory.getLogger(HtmlTextDecorator.class).error(errorMsg);
-      throw new IllegalStateException(errorMsg, exception);
-    } finally {
-      Closeables.closeQuietly(stringBuffer);
-    }
-
-    return decoratedHtmlLines;
-  }
+      while (openingTagsIndex < openingTagsOffsets.length && openingTagsOffsets[openingTagsIndex] == index) {
+        openTag(openingTagsCssClasses[openingTagsIndex]);
+        openingTagsIndex++;
+      }
 
-  private char[] normalize(char currentChar) {
-    char[] normalizedChars;
-    if (currentChar == HTML_OPENING) {
-      normalizedChars = ENCODED_HTML_OPENING.toCharArray();
-    } else if (currentChar == HTML_CLOSING) {
-      normalizedChars = ENCODED_HTML_CLOSING.toCharArray();
-    } else if (currentChar == AMPERSAND) {
-      normalizedChars = ENCODED_AMPERSAND.toCharArray();
-    } else {
-      normalizedChars = new char[] {currentChar};
+      if (currentChar != CR_END_OF_LINE && currentChar != LF_END_OF_LINE) {
+        appendEscaped(currentChar);
+      }
+      previousChar = currentChar;
     }
-    return normalizedChars;
-  }
-
-  private boolean shouldAppendCharToHtmlOutput(CharactersReader charsReader) {
-    return charsReader.getCurrentValue() != CR_END_OF_LINE && charsReader.getCurrentValue() != LF_END_OF_LINE;
-  }
 
-  private int getNumberOfTagsToClose(int currentIndex, DecorationDataHolder dataHolder) {
-    int numberOfTagsToClose = 0;
+    closeCurrentSyntaxTags();
 
-    while (currentIndex == dataHolder.getCurrentClosingTagOffset()) {
-      numberOfTagsToClose++;
-      dataHolder.nextClosingTagOffset();
+    if (previousChar == LF_END_OF_LINE || previousChar == CR_END_OF_LINE) {
+      addLine(decoratedHtmlLines, currentLine >= from);
+      currentLine++;
+      if (currentLine >= from && currentLine <= to) {
+        decoratedHtmlLines.add("");
+      }
+    } else if (currentHtmlLine.length() > 0) {
+      addLine(decoratedHtmlLines, currentLine >= from);
     }
-    return numberOfTagsToClose;
+    return decoratedHtmlLines;
   }
 
-  private Collection<String> getTagsToOpen(int currentIndex, DecorationDataHolder dataHolder) {
-    Collection<String> tagsToOpen = Lists.newArrayList();
-    while (dataHolder.getCurrentOpeningTagEntry() != null && currentIndex == dataHolder.getCurrentOpeningTagEntry().getStartOffset()) {
-      tagsToOpen.add(dataHolder.getCurrentOpeningTagEntry().getCssClass());
-      dataHolder.nextOpeningTagEntry();
+  private void addLine(List<String> decoratedHtmlLines, boolean inRange) {
+    if (inRange) {
+      decoratedHtmlLines.add(currentHtmlLine.toString());
     }
-    return tagsToOpen;
-  }
-
-  private boolean shouldClosePendingTags(CharactersReader charactersReader) {
-    return charactersReader.getCurrentValue() == CR_END_OF_LINE
-      || (charactersReader.getCurrentValue() == LF_END_OF_LINE && charactersReader.getPreviousValue() != CR_END_OF_LINE)
-      || (charactersReader.getCurrentValue() == END_OF_STREAM && charactersReader.getPreviousValue() != LF_END_OF_LINE);
+    currentHtmlLine.setLength(0);
   }
 
-  private boolean shouldReopenPendingTags(CharactersReader charactersReader) {
-    return (charactersReader.getPreviousValue() == LF_END_OF_LINE && charactersReader.getCurrentValue() != LF_END_OF_LINE)
-      || (charactersReader.getPreviousValue() == CR_END_OF_LINE && charactersReader.getCurrentValue() != CR_END_OF_LINE
-      && charactersReader.getCurrentValue() != LF_END_OF_LINE);
-  }
-
-  private boolean shouldStartNewLine(CharactersReader charactersReader) {
-    return charactersReader.getPreviousValue() == LF_END_OF_LINE
-      || (charactersReader.getPreviousValue() == CR_END_OF_LINE && charactersReader.getCurrentValue() != LF_END_OF_LINE);
-  }
-
-  private void closeCompletedTags(CharactersReader charactersReader, int numberOfTagsToClose,
-      StringBuilder decoratedText) {
-    for (int i = 0; i < numberOfTagsToClose; i++) {
-      injectClosingHtml(decoratedText);
-      charactersReader.removeLastOpenTag();
+  private void appendEscaped(char currentChar) {
+    if (currentChar == HTML_OPENING) {
+      currentHtmlLine.append(ENCODED_HTML_OPENING);
+    } else if (currentChar == HTML_CLOSING) {
+      currentHtmlLine.append(ENCODED_HTML_CLOSING);
+    } else if (currentChar == AMPERSAND) {
+      currentHtmlLine.append(ENCODED_AMPERSAND);
+    } else {
+      currentHtmlLine.append(currentChar);
     }
   }
 
-  private void openNewTags(CharactersReader charactersReader, Collection<String> tagsToOpen,
-      StringBuilder decoratedText) {
-    for (String tagToOpen : tagsToOpen) {
-      injectOpeningHtmlForRule(tagToOpen, decoratedText);
-      charactersReader.registerOpenTag(tagToOpen);
+  private void openTag(String cssClass) {
+    injectOpeningHtmlForRule(cssClass);
+    if (openTagsCount == openTags.length) {
+      openTags = Arrays.copyOf(openTags, openTagsCount * 2);
     }
+    openTags[openTagsCount] = cssClass;
+    openTagsCount++;
   }
 
-  private void closeCurrentSyntaxTags(CharactersReader charactersReader, StringBuilder decoratedText) {
-    for (int i = 0; i < charactersReader.getOpenTags().size(); i++) {
-      injectClosingHtml(decoratedText);
+  private void closeCurrentSyntaxTags() {
+    for (int i = 0; i < openTagsCount; i++) {
+      currentHtmlLine.append(CLOSING_TAG);
     }
   }
 
-  private void reopenCurrentSyntaxTags(CharactersReader charactersReader, StringBuilder decoratedText) {
-    for (String tags : charactersReader.getOpenTags()) {
-      injectOpeningHtmlForRule(tags, decoratedText);
+  /**
+   * Tags are reopened starting from the innermost one.
+   */
+  private void reopenCurrentSyntaxTags() {
+    for (int i = openTagsCount - 1; i >= 0; i--) {
+      injectOpeningHtmlForRule(openTags[i]);
     }
   }
 
-  private void injectOpeningHtmlForRule(String textType, StringBuilder decoratedText) {
-    decoratedText.append("<span class=\"").append(textType).append("\">");
-  }
-
-  private void injectClosingHtml(StringBuilder decoratedText) {
-    decoratedText.append("</span>");
+  private void injectOpeningHtmlForRule(String textType) {
+    currentHtmlLine.append(OPENING_TAG_START).append(textType).append(OPENING_TAG_END);
   }
 }
@@ -17,33 +17,33 @@
  * along with this program; if not, write to the Free Software Foundation,
  * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
  */
-package org.sonar.duplications.detector.suffixtree;
+package org.sonar.core.source.jdbc;
 
-import java.util.ArrayList;
-import java.util.List;
-
-public abstract class AbstractText implements Text {
-
-  protected final List<Object> symbols;
+/**
+ * Source of a file, identified by its key.
+ *
+ * @since 4.1
+ */
+public class FileSourceDto {
 
-  public AbstractText(int size) {
-    this.symbols = new ArrayList<Object>(size);
-  }
+  private String resourceKey;
+  private String source;
 
-  public AbstractText(List<Object> symbols) {
-    this.symbols = symbols;
+  public String getResourceKey() {
+    return resourceKey;
   }
 
-  public int length() {
-    return symbols.size();
+  public FileSourceDto setResourceKey(String resourceKey) {
+    this.resourceKey = resourceKey;
+    return this;
   }
 
-  public Object symbolAt(int index) {
-    return symbols.get(index);
+  public String getSource() {
+    return source;
   }
 
-  public List<Object> sequence(int fromIndex, int toIndex) {
-    return symbols.subList(fromIndex, toIndex);
+  public FileSourceDto setSource(String source) {
+    this.source = source;
+    return this;
   }
-
 }
@@ -20,6 +20,7 @@
 
 package org.sonar.core.source.jdbc;
 
+import org.apache.ibatis.session.ResultHandler;
 import org.apache.ibatis.session.SqlSession;
 import org.sonar.core.persistence.MyBatis;
 
@@ -46,4 +47,19 @@ public class SnapshotSourceDao {
       MyBatis.closeQuietly(session);
     }
   }
+
+  /**
+   * Streams the sources of the last analysis of all the files of a project and of its modules. Each result is
+   * a {@link FileSourceDto}.
+   *
+   * @since 4.1
+   */
+  public void selectLastSourcesOfProject(long rootProjectId, ResultHandler handler) {
+    SqlSession session = mybatis.openSession();
+    try {
+      session.getMapper(SnapshotSourceMapper.class).selectLastSourcesOfProject(rootProjectId, handler);
+    } finally {
+      MyBatis.closeQuietly(session);
+    }
+  }
 }
@@ -21,6 +21,7 @@
 package org.sonar.core.source.jdbc;
 
 import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.session.ResultHandler;
 
 /**
  * @since 3.6
@@ -28,4 +29,9 @@ import org.apache.ibatis.annotations.Param;
 public interface SnapshotSourceMapper {
 
   String selectSnapshotSource(@Param("sid") long snapshotId);
+
+  /**
+   * @since 4.1
+   */
+  void selectLastSourcesOfProject(@Param("rootProjectId") long rootProjectId, ResultHandler handler);
 }
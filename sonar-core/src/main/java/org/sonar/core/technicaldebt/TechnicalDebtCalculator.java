@@ -22,6 +22,7 @@ package org.sonar.core.technicaldebt;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.ListMultimap;
+import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import org.slf4j.LoggerFactory;
 import org.sonar.api.BatchExtension;
@@ -30,8 +31,9 @@ import org.sonar.api.issue.Issue;
 import org.sonar.api.issue.internal.WorkDayDuration;
 import org.sonar.api.measures.CoreMetrics;
 import org.sonar.api.measures.Measure;
+import org.sonar.api.measures.MeasuresFilter;
 import org.sonar.api.measures.MeasuresFilters;
-import org.sonar.api.measures.Metric;
+import org.sonar.api.qualitymodel.Characteristic;
 import org.sonar.api.rules.Violation;
 import org.sonar.core.technicaldebt.functions.Functions;
 
@@ -41,9 +43,31 @@ import java.util.Map;
 
 /**
  * Computes the remediation cost based on the quality and analysis models.
+ * <p/>
+ * Only the requirements which have violations on the resource, or costs on its children, are aggregated : remediation
+ * functions are expected to return no cost when there are no violations. The costs of the root characteristics are
+ * always computed, even when null, in order to be saved on projects.
  */
 public class TechnicalDebtCalculator implements BatchExtension {
 
+  /**
+   * Costs of characteristics and requirements saved on children. Being a {@link MeasuresFilters.MetricFilter}, only
+   * the measures of the technical debt metric are read.
+   */
+  private static final MeasuresFilter<Collection<Measure>> CHARACTERISTIC_COSTS = new MeasuresFilters.MetricFilter<Collection<Measure>>(CoreMetrics.TECHNICAL_DEBT) {
+    public Collection<Measure> filter(Collection<Measure> measures) {
+      List<Measure> result = Lists.newArrayList();
+      if (measures != null) {
+        for (Measure measure : measures) {
+          if (measure.getClass().equals(Measure.class) && measure.getCharacteristic() != null && measure.getPersonId() == null) {
+            result.add(measure);
+          }
+        }
+      }
+      return result;
+    }
+  };
+
   private double total = 0.0;
   private Map<TechnicalDebtCharacteristic, Double> characteristicCosts = Maps.newHashMap();
   private Map<TechnicalDebtRequirement, Double> requirementCosts = Maps.newHashMap();
@@ -52,6 +76,12 @@ public class TechnicalDebtCalculator implements BatchExtension {
   private final TechnicalDebtConverter converter;
   private TechnicalDebtModel technicalDebtModel;
 
+  /**
+   * Lazily loaded from the model
+   */
+  private Map<Characteristic, TechnicalDebtRequirement> requirementsByCharacteristic;
+  private List<TechnicalDebtCharacteristic> rootCharacteristics;
+
   public TechnicalDebtCalculator(TechnicalDebtModel technicalDebtModel, Functions functions, TechnicalDebtConverter converter) {
     this.technicalDebtModel = technicalDebtModel;
     this.functions = functions;
@@ -69,15 +99,57 @@ public class TechnicalDebtCalculator implements BatchExtension {
   public void compute(DecoratorContext context) {
     reset();
 
+    loadModel();
+    for (TechnicalDebtCharacteristic rootCharacteristic : rootCharacteristics) {
+      characteristicCosts.put(rootCharacteristic, 0.0);
+    }
+
     // group violations by requirement
     ListMultimap<TechnicalDebtRequirement, Violation> violationsByRequirement = groupViolations(context);
 
-    // the total cost is: cost(violations)
-    for (TechnicalDebtRequirement requirement : technicalDebtModel.getAllRequirements()) {
-      List<Violation> violations = violationsByRequirement.get(requirement);
-      double allViolationsCost = computeTechnicalDebt(CoreMetrics.TECHNICAL_DEBT, context, requirement, violations);
-      updateRequirementCosts(requirement, allViolationsCost);
+    // the total cost is: cost(violations) + cost(children)
+    Map<TechnicalDebtRequirement, Double> costs = Maps.newHashMap();
+    for (TechnicalDebtRequirement requirement : violationsByRequirement.keySet()) {
+      costs.put(requirement, functions.costInHours(requirement, violationsByRequirement.get(requirement)));
+    }
+    for (Measure measure : context.getChildrenMeasures(CHARACTERISTIC_COSTS)) {
+      TechnicalDebtRequirement requirement = requirementsByCharacteristic.get(measure.getCharacteristic());
+      if (requirement != null && measure.getValue() != null) {
+        Double cost = costs.get(requirement);
+        costs.put(requirement, cost == null ? measure.getValue() : cost + measure.getValue());
+      }
+    }
+
+    for (Map.Entry<TechnicalDebtRequirement, Double> entry : costs.entrySet()) {
+      updateRequirementCosts(entry.getKey(), entry.getValue());
+    }
+  }
+
+  private void loadModel() {
+    if (requirementsByCharacteristic == null) {
+      requirementsByCharacteristic = Maps.newHashMap();
+      for (TechnicalDebtRequirement requirement : technicalDebtModel.getAllRequirements()) {
+        requirementsByCharacteristic.put(requirement.toCharacteristic(), requirement);
+      }
+      rootCharacteristics = Lists.newArrayList();
+      for (TechnicalDebtCharacteristic characteristic : technicalDebtModel.getCharacteristics()) {
+        if (hasRequirements(characteristic)) {
+          rootCharacteristics.add(characteristic);
+        }
+      }
+    }
+  }
+
+  private static boolean hasRequirements(TechnicalDebtCharacteristic characteristic) {
+    if (!characteristic.getRequirements().isEmpty()) {
+      return true;
+    }
+    for (TechnicalDebtCharacteristic subCharacteristic : characteristic.getSubCharacteristics()) {
+      if (hasRequirements(subCharacteristic)) {
+        return true;
+      }
     }
+    return false;
   }
 
   public double getTotal() {
@@ -115,20 +187,6 @@ public class TechnicalDebtCalculator implements BatchExtension {
     propagateCostInParents(requirement.getParent(), cost);
   }
 
-  private double computeTechnicalDebt(Metric metric, DecoratorContext context, TechnicalDebtRequirement requirement, Collection<Violation> violations) {
-    double cost = 0.0;
-    if (violations != null) {
-      cost = functions.costInHours(requirement, violations);
-    }
-
-    for (Measure measure : context.getChildrenMeasures(MeasuresFilters.characteristic(metric, requirement.toCharacteristic()))) {
-      if (measure.getCharacteristic() != null && measure.getCharacteristic().equals(requirement.toCharacteristic()) && measure.getValue() != null) {
-        cost += measure.getValue();
-      }
-    }
-    return cost;
-  }
-
   private void reset() {
     total = 0.0;
     characteristicCosts.clear();
@@ -20,6 +20,7 @@
 package org.sonar.core.user;
 
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Sets;
 import org.apache.ibatis.session.SqlSession;
 import org.sonar.api.ServerComponent;
@@ -28,12 +29,30 @@ import org.sonar.core.persistence.MyBatis;
 import javax.annotation.Nullable;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static com.google.common.collect.Maps.newHashMap;
 
+/**
+ * Authorized components are cached by user and role, as a single page can check permissions many times. The cache
+ * must be cleared by {@link #clearCache()} when permissions, group members or projects change. As permissions of new
+ * projects are also granted by the batch, cached entries expire after {@link #CACHE_MAX_AGE_IN_MS}.
+ * <p/>
+ * The cache is local to the JVM : changes done by another server sharing the same database are seen after
+ * {@link #CACHE_MAX_AGE_IN_MS} at most. It holds {@link #MAX_CACHE_ENTRIES} users and roles at most.
+ */
 public class AuthorizationDao implements ServerComponent {
 
+  static final long CACHE_MAX_AGE_IN_MS = 60000L;
+  static final int MAX_CACHE_ENTRIES = 1000;
+  private static final int MAX_CACHED_COMPONENTS_PER_ENTRY = 10000;
+
   private final MyBatis mybatis;
+  private final ConcurrentMap<String, CacheEntry> cache = new ConcurrentHashMap<String, CacheEntry>();
+  private final AtomicLong cacheHits = new AtomicLong();
+  private final AtomicLong cacheMisses = new AtomicLong();
 
   public AuthorizationDao(MyBatis mybatis) {
     this.mybatis = mybatis;
@@ -53,6 +72,34 @@ public class AuthorizationDao implements ServerComponent {
     if (componentIds.isEmpty()) {
       return Collections.emptySet();
     }
+    CacheEntry entry = cacheEntry(userId, role);
+    Set<Long> authorizedIds = Sets.newHashSet();
+    Set<Long> unknownIds = Sets.newHashSet();
+    for (Long componentId : componentIds) {
+      Boolean authorized = entry.authorizedComponents.get(componentId);
+      if (authorized == null) {
+        unknownIds.add(componentId);
+      } else if (authorized) {
+        authorizedIds.add(componentId);
+      }
+    }
+    if (unknownIds.isEmpty()) {
+      cacheHits.incrementAndGet();
+      return authorizedIds;
+    }
+    cacheMisses.incrementAndGet();
+
+    Set<Long> selectedIds = selectAuthorizedComponentIds(unknownIds, userId, role, session);
+    if (entry.authorizedComponents.size() < MAX_CACHED_COMPONENTS_PER_ENTRY) {
+      for (Long componentId : unknownIds) {
+        entry.authorizedComponents.put(componentId, selectedIds.contains(componentId));
+      }
+    }
+    authorizedIds.addAll(selectedIds);
+    return authorizedIds;
+  }
+
+  private Set<Long> selectAuthorizedComponentIds(Set<Long> componentIds, @Nullable Integer userId, String role, SqlSession session) {
     String sql;
     Map<String, Object> params;
     if (userId == null) {
@@ -81,13 +128,23 @@ public class AuthorizationDao implements ServerComponent {
   }
 
   public Collection<Long> selectAuthorizedRootProjectsIds(@Nullable Integer userId, String role, SqlSession session) {
+    CacheEntry entry = cacheEntry(userId, role);
+    Set<Long> rootProjectIds = entry.authorizedRootProjects;
+    if (rootProjectIds != null) {
+      cacheHits.incrementAndGet();
+      return rootProjectIds;
+    }
+    cacheMisses.incrementAndGet();
+
     String sql;
     Map<String, Object> params = newHashMap();
     sql = "selectAuthorizedRootProjectsIds";
     params.put("userId", userId);
     params.put("role", role);
 
-    return session.selectList(sql, params);
+    rootProjectIds = ImmutableSet.copyOf(session.<Long>selectList(sql, params));
+    entry.authorizedRootProjects = rootProjectIds;
+    return rootProjectIds;
   }
 
   public List<String> selectGlobalPermissions(@Nullable String userLogin){
@@ -100,4 +157,67 @@ public class AuthorizationDao implements ServerComponent {
       MyBatis.closeQuietly(session);
     }
   }
+
+  /**
+   * Must be called when permissions, members of groups or projects change
+   */
+  public void clearCache() {
+    cache.clear();
+  }
+
+  public long getCacheHits() {
+    return cacheHits.get();
+  }
+
+  public long getCacheMisses() {
+    return cacheMisses.get();
+  }
+
+  private CacheEntry cacheEntry(@Nullable Integer userId, String role) {
+    String key = userId + ":" + role;
+    long now = now();
+    CacheEntry entry = cache.get(key);
+    if (entry == null || entry.isExpired(now)) {
+      if (cache.size() >= MAX_CACHE_ENTRIES) {
+        evict(now);
+      }
+      entry = new CacheEntry(now);
+      cache.put(key, entry);
+    }
+    return entry;
+  }
+
+  /**
+   * Removes the expired entries, or all entries if none is expired
+   */
+  private void evict(long now) {
+    boolean evicted = false;
+    for (Iterator<CacheEntry> it = cache.values().iterator(); it.hasNext(); ) {
+      if (it.next().isExpired(now)) {
+        it.remove();
+        evicted = true;
+      }
+    }
+    if (!evicted) {
+      cache.clear();
+    }
+  }
+
+  long now() {
+    return System.currentTimeMillis();
+  }
+
+  private static final class CacheEntry {
+    private final long createdAt;
+    private final ConcurrentMap<Long, Boolean> authorizedComponents = new ConcurrentHashMap<Long, Boolean>();
+    private volatile Set<Long> authorizedRootProjects;
+
+    private CacheEntry(long createdAt) {
+      this.createdAt = createdAt;
+    }
+
+    private boolean isExpired(long now) {
+      return now - createdAt > CACHE_MAX_AGE_IN_MS;
+    }
+  }
 }
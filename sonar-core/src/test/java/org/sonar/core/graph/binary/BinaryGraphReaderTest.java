@@ -0,0 +1,107 @@
+/*
+ * SonarQube, open source software quality management tool.
+ * Copyright (C) 2008-2013 SonarSource
+ * mailto:contact AT sonarsource DOT com
+ *
+ * SonarQube is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * SonarQube is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.core.graph.binary;
+
+import com.google.common.collect.ImmutableMap;
+import com.tinkerpop.blueprints.Direction;
+import com.tinkerpop.blueprints.Edge;
+import com.tinkerpop.blueprints.Graph;
+import com.tinkerpop.blueprints.Vertex;
+import com.tinkerpop.blueprints.impls.tg.TinkerGraph;
+import com.tinkerpop.blueprints.impls.tg.TinkerGraphFactory;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+public class BinaryGraphReaderTest {
+
+  @Test
+  public void read_compressed_graph() {
+    verifyRoundTrip(true);
+  }
+
+  @Test
+  public void read_uncompressed_graph() {
+    verifyRoundTrip(false);
+  }
+
+  @Test
+  public void read_typed_properties() {
+    TinkerGraph graph = new TinkerGraph();
+    Vertex v = graph.addVertex("key:with:colons");
+    v.setProperty("string", "foo");
+    v.setProperty("int", -3);
+    v.setProperty("long", 10000000000L);
+    v.setProperty("float", 1.5f);
+    v.setProperty("double", 0.4954959595959);
+    v.setProperty("boolean", true);
+    v.setProperty("list", Arrays.asList(1, 2, null, "four"));
+    v.setProperty("map", ImmutableMap.of("big", 10000000000L, "small", 0.5));
+
+    TinkerGraph copy = new TinkerGraph();
+    new BinaryGraphReader().read(new BinaryGraphWriter().write(graph, true), copy);
+
+    Vertex copyV = copy.getVertex("key:with:colons");
+    assertThat(copyV.getProperty("string")).isEqualTo("foo");
+    assertThat(copyV.getProperty("int")).isEqualTo(-3);
+    assertThat(copyV.getProperty("long")).isEqualTo(10000000000L);
+    assertThat(copyV.getProperty("float")).isEqualTo(1.5f);
+    assertThat(copyV.getProperty("double")).isEqualTo(0.4954959595959);
+    assertThat(copyV.getProperty("boolean")).isEqualTo(true);
+    assertThat((List) copyV.getProperty("list")).containsExactly(1, 2, null, "four");
+    Map map = (Map) copyV.getProperty("map");
+    assertThat(map.get("big")).isEqualTo(10000000000L);
+    assertThat(map.get("small")).isEqualTo(0.5);
+  }
+
+  @Test(expected = BinaryGraphException.class)
+  public void fail_if_not_binary_graph() {
+    new BinaryGraphReader().read("{\"mode\":\"EXTENDED\"}".getBytes(), new TinkerGraph());
+  }
+
+  private void verifyRoundTrip(boolean compress) {
+    Graph graph = TinkerGraphFactory.createTinkerGraph();
+    byte[] data = new BinaryGraphWriter().write(graph, compress);
+
+    TinkerGraph copy = new TinkerGraph();
+    new BinaryGraphReader().read(data, copy);
+
+    for (Vertex vertex : graph.getVertices()) {
+      Vertex copyVertex = copy.getVertex(vertex.getId());
+      assertThat(copyVertex).isNotNull();
+      assertThat(copyVertex.getPropertyKeys()).isEqualTo(vertex.getPropertyKeys());
+      for (String key : vertex.getPropertyKeys()) {
+        assertThat(copyVertex.getProperty(key)).isEqualTo(vertex.getProperty(key));
+      }
+    }
+    for (Edge edge : graph.getEdges()) {
+      Edge copyEdge = copy.getEdge(edge.getId());
+      assertThat(copyEdge.getLabel()).isEqualTo(edge.getLabel());
+      assertThat(copyEdge.getVertex(Direction.OUT).getId()).isEqualTo(edge.getVertex(Direction.OUT).getId());
+      assertThat(copyEdge.getVertex(Direction.IN).getId()).isEqualTo(edge.getVertex(Direction.IN).getId());
+      assertThat(copyEdge.getProperty("weight")).isEqualTo(edge.getProperty("weight"));
+    }
+    assertThat(copy.getEdges()).hasSize(6);
+  }
+}
@@ -0,0 +1,68 @@
+/*
+ * SonarQube, open source software quality management tool.
+ * Copyright (C) 2008-2013 SonarSource
+ * mailto:contact AT sonarsource DOT com
+ *
+ * SonarQube is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * SonarQube is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.core.graph.binary;
+
+import com.tinkerpop.blueprints.Graph;
+import com.tinkerpop.blueprints.Vertex;
+import com.tinkerpop.blueprints.impls.tg.TinkerGraph;
+import com.tinkerpop.blueprints.impls.tg.TinkerGraphFactory;
+import org.junit.Test;
+import org.sonar.core.graph.graphson.GraphsonMode;
+import org.sonar.core.graph.graphson.GraphsonWriter;
+
+import java.io.StringWriter;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+public class BinaryGraphWriterTest {
+
+  @Test
+  public void write_header() {
+    Graph g = TinkerGraphFactory.createTinkerGraph();
+
+    byte[] uncompressed = new BinaryGraphWriter().write(g, false);
+    assertThat(uncompressed[0]).isEqualTo((byte) 'S');
+    assertThat(uncompressed[1]).isEqualTo((byte) 'G');
+    assertThat(uncompressed[2]).isEqualTo(BinaryGraphTokens.VERSION);
+    assertThat(uncompressed[3]).isEqualTo((byte) 0);
+
+    byte[] compressed = new BinaryGraphWriter().write(g, true);
+    assertThat(compressed[3]).isEqualTo((byte) BinaryGraphTokens.FLAG_COMPRESSED);
+  }
+
+  @Test
+  public void should_be_smaller_than_graphson() {
+    TinkerGraph g = new TinkerGraph();
+    Vertex previous = g.addVertex(null);
+    for (int i = 0; i < 500; i++) {
+      Vertex v = g.addVertex(null);
+      v.setProperty("key", "org.sonar:project:src/main/java/Foo" + i + ".java");
+      v.setProperty("lines", i * 3);
+      g.addEdge(null, previous, v, "covers").setProperty("weight", i);
+      previous = v;
+    }
+
+    StringWriter graphson = new StringWriter();
+    new GraphsonWriter().write(g, graphson, GraphsonMode.EXTENDED);
+
+    assertThat(new BinaryGraphWriter().write(g, false).length).isLessThan(graphson.toString().length() / 3);
+    assertThat(new BinaryGraphWriter().write(g, true).length).isLessThan(graphson.toString().length() / 10);
+  }
+}
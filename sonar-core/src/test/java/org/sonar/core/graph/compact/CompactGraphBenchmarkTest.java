@@ -0,0 +1,100 @@
+/*
+ * SonarQube, open source software quality management tool.
+ * Copyright (C) 2008-2013 SonarSource
+ * mailto:contact AT sonarsource DOT com
+ *
+ * SonarQube is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * SonarQube is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.core.graph.compact;
+
+import com.tinkerpop.blueprints.Direction;
+import com.tinkerpop.blueprints.Edge;
+import com.tinkerpop.blueprints.Graph;
+import com.tinkerpop.blueprints.KeyIndexableGraph;
+import com.tinkerpop.blueprints.Vertex;
+import com.tinkerpop.blueprints.impls.tg.TinkerGraph;
+import org.junit.Ignore;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Compares heap usage and speed of {@link CompactGraph} and {@link TinkerGraph} on a synthetic coverage
+ * graph of one million edges. Ignored as it takes about one minute and requires -Xmx2g.
+ */
+@Ignore
+public class CompactGraphBenchmarkTest {
+
+  private static final int FILES = 20000;
+  private static final int TEST_CASES = 50000;
+  private static final int EDGES = 1000000;
+
+  @Test
+  public void compare_with_tinker_graph() {
+    run("TinkerGraph", new TinkerGraph());
+    run("CompactGraph", new CompactGraph());
+  }
+
+  private void run(String name, KeyIndexableGraph graph) {
+    long heapBefore = usedHeap();
+    long start = System.currentTimeMillis();
+    graph.createKeyIndex("key", Vertex.class);
+    Vertex[] files = new Vertex[FILES];
+    for (int i = 0; i < FILES; i++) {
+      files[i] = graph.addVertex(null);
+      files[i].setProperty("key", "org.sonar:project:src/main/java/org/sonar/File" + i + ".java");
+      files[i].setProperty("qualifier", "FIL");
+    }
+    Vertex[] testCases = new Vertex[TEST_CASES];
+    for (int i = 0; i < TEST_CASES; i++) {
+      testCases[i] = graph.addVertex(null);
+      testCases[i].setProperty("name", "test" + i);
+      testCases[i].setProperty("status", "ok");
+    }
+    Random random = new Random(42);
+    for (int i = 0; i < EDGES; i++) {
+      Edge edge = graph.addEdge(null, testCases[random.nextInt(TEST_CASES)], files[random.nextInt(FILES)], "covers");
+      edge.setProperty("lines", Arrays.asList(random.nextInt(1000), random.nextInt(1000)));
+    }
+    long buildTime = System.currentTimeMillis() - start;
+    long heap = usedHeap() - heapBefore;
+
+    start = System.currentTimeMillis();
+    long lines = 0;
+    for (int i = 0; i < FILES; i++) {
+      Vertex file = graph.getVertices("key", "org.sonar:project:src/main/java/org/sonar/File" + i + ".java").iterator().next();
+      for (Edge edge : file.getEdges(Direction.IN, "covers")) {
+        lines += edge.getVertex(Direction.OUT).getPropertyKeys().size();
+      }
+    }
+    long browseTime = System.currentTimeMillis() - start;
+
+    System.out.println(String.format("%s: heap=%dMB build=%dms browse=%dms (%d)", name, heap / 1024 / 1024, buildTime, browseTime, lines));
+    keepAlive(graph);
+  }
+
+  private static void keepAlive(Graph graph) {
+    graph.shutdown();
+  }
+
+  private static long usedHeap() {
+    for (int i = 0; i < 3; i++) {
+      System.gc();
+    }
+    Runtime runtime = Runtime.getRuntime();
+    return runtime.totalMemory() - runtime.freeMemory();
+  }
+}
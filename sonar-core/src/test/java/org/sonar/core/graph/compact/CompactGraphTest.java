@@ -0,0 +1,216 @@
+/*
+ * SonarQube, open source software quality management tool.
+ * Copyright (C) 2008-2013 SonarSource
+ * mailto:contact AT sonarsource DOT com
+ *
+ * SonarQube is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * SonarQube is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.core.graph.compact;
+
+import com.tinkerpop.blueprints.Direction;
+import com.tinkerpop.blueprints.Edge;
+import com.tinkerpop.blueprints.Vertex;
+import org.junit.Test;
+import org.sonar.core.graph.SubGraph;
+import org.sonar.core.graph.EdgePath;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static org.fest.assertions.Assertions.assertThat;
+
+public class CompactGraphTest {
+
+  CompactGraph graph = new CompactGraph();
+
+  @Test
+  public void add_vertices_with_sequential_ids() {
+    Vertex v1 = graph.addVertex(null);
+    Vertex v2 = graph.addVertex("ignored");
+
+    assertThat(v1.getId()).isEqualTo(0);
+    assertThat(v2.getId()).isEqualTo(1);
+    assertThat(graph.getVertex(1)).isEqualTo(v2);
+    assertThat(graph.getVertex("1")).isEqualTo(v2);
+    assertThat(graph.getVertex(2)).isNull();
+    assertThat(graph.getVertex("unknown")).isNull();
+    assertThat(newArrayList(graph.getVertices())).containsExactly(v1, v2);
+  }
+
+  @Test
+  public void set_and_remove_properties() {
+    Vertex v = graph.addVertex(null);
+    v.setProperty("key", "org.foo:Bar");
+    v.setProperty("lines", 42);
+
+    assertThat(v.getProperty("key")).isEqualTo("org.foo:Bar");
+    assertThat(graph.getVertex(v.getId()).getProperty("lines")).isEqualTo(42);
+    assertThat(v.getPropertyKeys()).containsOnly("key", "lines");
+
+    assertThat(v.removeProperty("lines")).isEqualTo(42);
+    assertThat(v.getProperty("lines")).isNull();
+    assertThat(v.getPropertyKeys()).containsOnly("key");
+
+    v.setProperty("key", null);
+    assertThat(v.getPropertyKeys()).isEmpty();
+  }
+
+  @Test
+  public void keep_values_when_type_of_property_changes() {
+    Vertex v1 = graph.addVertex(null);
+    Vertex v2 = graph.addVertex(null);
+    v1.setProperty("sid", 12L);
+    v2.setProperty("sid", "unknown");
+
+    assertThat(v1.getProperty("sid")).isEqualTo(12L);
+    assertThat(v2.getProperty("sid")).isEqualTo("unknown");
+
+    v1.setProperty("duration", 3);
+    v1.setProperty("duration", 5L);
+    assertThat(v1.getProperty("duration")).isEqualTo(5L);
+    assertThat(v2.getProperty("duration")).isNull();
+    assertThat(v2.getPropertyKeys()).containsOnly("sid");
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void id_property_is_reserved() {
+    graph.addVertex(null).setProperty("id", "foo");
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void label_property_is_reserved_for_edges() {
+    graph.addEdge(null, graph.addVertex(null), graph.addVertex(null), "covers").setProperty("label", "foo");
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void fail_to_add_edge_to_vertex_of_another_graph() {
+    graph.addEdge(null, graph.addVertex(null), new CompactGraph().addVertex(null), "covers");
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void fail_to_add_edge_to_removed_vertex() {
+    Vertex removed = graph.addVertex(null);
+    graph.removeVertex(removed);
+    graph.addEdge(null, graph.addVertex(null), removed, "covers");
+  }
+
+  @Test
+  public void browse_adjacent_edges_and_vertices() {
+    Vertex test = graph.addVertex(null);
+    Vertex main1 = graph.addVertex(null);
+    Vertex main2 = graph.addVertex(null);
+    Edge e1 = graph.addEdge(null, test, main1, "covers");
+    e1.setProperty("lines", 3);
+    Edge e2 = graph.addEdge(null, test, main2, "covers");
+    Edge e3 = graph.addEdge(null, main2, test, "testedBy");
+
+    assertThat(e1.getLabel()).isEqualTo("covers");
+    assertThat(e1.getVertex(Direction.OUT)).isEqualTo(test);
+    assertThat(e1.getVertex(Direction.IN)).isEqualTo(main1);
+    assertThat(e1.getProperty("lines")).isEqualTo(3);
+
+    assertThat(newArrayList(test.getEdges(Direction.OUT))).containsExactly(e1, e2);
+    assertThat(newArrayList(test.getEdges(Direction.OUT, "covers"))).containsExactly(e1, e2);
+    assertThat(test.getEdges(Direction.OUT, "testedBy")).isEmpty();
+    assertThat(test.getEdges(Direction.OUT, "unknown")).isEmpty();
+    assertThat(newArrayList(test.getEdges(Direction.IN))).containsExactly(e3);
+    assertThat(newArrayList(test.getEdges(Direction.BOTH))).containsExactly(e1, e2, e3);
+    assertThat(newArrayList(test.getVertices(Direction.OUT, "covers"))).containsExactly(main1, main2);
+    assertThat(newArrayList(main2.getVertices(Direction.BOTH))).containsExactly(test, test);
+    assertThat(newArrayList(test.query().direction(Direction.OUT).has("lines", 3).edges())).containsExactly(e1);
+    assertThat(newArrayList(graph.getEdges())).containsExactly(e1, e2, e3);
+    assertThat(graph.getEdge("1")).isEqualTo(e2);
+  }
+
+  @Test
+  public void remove_edge() {
+    Vertex v1 = graph.addVertex(null);
+    Vertex v2 = graph.addVertex(null);
+    Edge e1 = graph.addEdge(null, v1, v2, "covers");
+    Edge e2 = graph.addEdge(null, v1, v2, "covers");
+
+    graph.removeEdge(e1);
+
+    assertThat(graph.getEdge(e1.getId())).isNull();
+    assertThat(newArrayList(graph.getEdges())).containsExactly(e2);
+    assertThat(newArrayList(v1.getEdges(Direction.OUT))).containsExactly(e2);
+    assertThat(newArrayList(v2.getEdges(Direction.IN))).containsExactly(e2);
+    assertThat(graph.countEdges()).isEqualTo(1);
+  }
+
+  @Test
+  public void remove_vertex_and_its_edges() {
+    Vertex v1 = graph.addVertex(null);
+    Vertex v2 = graph.addVertex(null);
+    Vertex v3 = graph.addVertex(null);
+    graph.addEdge(null, v1, v2, "covers");
+    Edge kept = graph.addEdge(null, v1, v3, "covers");
+    graph.addEdge(null, v2, v3, "covers");
+
+    graph.removeVertex(v2);
+
+    assertThat(graph.getVertex(v2.getId())).isNull();
+    assertThat(newArrayList(graph.getVertices())).containsExactly(v1, v3);
+    assertThat(newArrayList(graph.getEdges())).containsExactly(kept);
+    assertThat(newArrayList(v3.getEdges(Direction.IN))).containsExactly(kept);
+    assertThat(graph.countVertices()).isEqualTo(2);
+  }
+
+  @Test
+  public void find_vertices_by_indexed_key() {
+    Vertex before = graph.addVertex(null);
+    before.setProperty("key", "a");
+    graph.createKeyIndex("key", Vertex.class);
+    Vertex after = graph.addVertex(null);
+    after.setProperty("key", "b");
+
+    assertThat(graph.getIndexedKeys(Vertex.class)).containsOnly("key");
+    assertThat(newArrayList(graph.getVertices("key", "a"))).containsExactly(before);
+    assertThat(newArrayList(graph.getVertices("key", "b"))).containsExactly(after);
+
+    after.setProperty("key", "c");
+    assertThat(graph.getVertices("key", "b")).isEmpty();
+    assertThat(newArrayList(graph.getVertices("key", "c"))).containsExactly(after);
+
+    graph.removeVertex(after);
+    assertThat(graph.getVertices("key", "c")).isEmpty();
+  }
+
+  @Test
+  public void find_elements_by_not_indexed_key() {
+    Vertex v1 = graph.addVertex(null);
+    v1.setProperty("qualifier", "FIL");
+    graph.addVertex(null).setProperty("qualifier", "DIR");
+    Edge edge = graph.addEdge(null, v1, v1, "self");
+    edge.setProperty("weight", 2);
+
+    assertThat(newArrayList(graph.getVertices("qualifier", "FIL"))).containsExactly(v1);
+    assertThat(newArrayList(graph.getEdges("weight", 2))).containsExactly(edge);
+  }
+
+  @Test
+  public void extract_sub_graph() {
+    Vertex root = graph.addVertex(null);
+    root.setProperty("key", "root");
+    Vertex child = graph.addVertex(null);
+    child.setProperty("key", "child");
+    graph.addEdge(null, root, child, "covers");
+    graph.addEdge(null, child, graph.addVertex(null), "other");
+
+    com.tinkerpop.blueprints.Graph sub = SubGraph.extract(root, EdgePath.create(Direction.OUT, "covers"));
+
+    assertThat(sub.getVertices()).hasSize(2);
+    assertThat(sub.getVertex(child.getId()).getProperty("key")).isEqualTo("child");
+    assertThat(sub.getEdges()).hasSize(1);
+  }
+}
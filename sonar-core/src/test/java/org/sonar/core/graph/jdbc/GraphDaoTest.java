@@ -41,7 +41,7 @@ public class GraphDaoTest extends AbstractDaoTestCase {
     assertThat(testPlan.getId()).isEqualTo(101L);
     assertThat(testPlan.getResourceId()).isEqualTo(1L);
     assertThat(testPlan.getSnapshotId()).isEqualTo(11L);
-    assertThat(testPlan.getFormat()).isEqualTo("graphson");
+    assertThat(testPlan.getFormat()).isEqualTo(GraphDto.FORMAT_GRAPHSON);
     assertThat(testPlan.getVersion()).isEqualTo(1);
     assertThat(testPlan.getPerspective()).isEqualTo("testplan");
     assertThat(testPlan.getRootVertexId()).isEqualTo("3456");
@@ -65,7 +65,7 @@ public class GraphDaoTest extends AbstractDaoTestCase {
     assertThat(testPlan.getId()).isEqualTo(101L);
     assertThat(testPlan.getResourceId()).isEqualTo(1L);
     assertThat(testPlan.getSnapshotId()).isEqualTo(11L);
-    assertThat(testPlan.getFormat()).isEqualTo("graphson");
+    assertThat(testPlan.getFormat()).isEqualTo(GraphDto.FORMAT_GRAPHSON);
     assertThat(testPlan.getVersion()).isEqualTo(1);
     assertThat(testPlan.getPerspective()).isEqualTo("testplan");
     assertThat(testPlan.getRootVertexId()).isEqualTo("3456");
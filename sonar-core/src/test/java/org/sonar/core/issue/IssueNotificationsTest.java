@@ -39,6 +39,7 @@ import org.sonar.core.i18n.RuleI18nManager;
 
 import java.util.Arrays;
 import java.util.Date;
+import java.util.List;
 
 import static org.fest.assertions.Assertions.assertThat;
 import static org.mockito.Matchers.eq;
@@ -107,6 +108,25 @@ public class IssueNotificationsTest {
     Mockito.verify(manager).scheduleForSending(eq(Arrays.asList(notification)));
   }
 
+  @Test
+  public void should_send_changes_of_several_issues_at_once() throws Exception {
+    IssueChangeContext context = IssueChangeContext.createUser(new Date(), "simon");
+    DefaultIssue issue1 = new DefaultIssue().setKey("ABCDE").setSendNotifications(true)
+      .setFieldChange(context, "assignee", null, "freddy").setComponentKey("struts:Action").setProjectKey("struts");
+    DefaultIssue issue2 = new DefaultIssue().setKey("FGHIJ").setSendNotifications(true)
+      .setFieldChange(context, "assignee", null, "freddy").setComponentKey("struts:Form").setProjectKey("struts");
+    DefaultIssue notNotified = new DefaultIssue().setKey("KLMNO").setComponentKey("struts:Form").setProjectKey("struts");
+    DefaultIssueQueryResult queryResult = new DefaultIssueQueryResult(Arrays.<Issue>asList(issue1, issue2, notNotified));
+    queryResult.addProjects(Arrays.<Component>asList(new Project("struts")));
+
+    List<Notification> notifications = issueNotifications.sendChanges(Arrays.asList(issue1, issue2, notNotified), context, queryResult);
+
+    assertThat(notifications).hasSize(2);
+    assertThat(notifications.get(0).getFieldValue("key")).isEqualTo("ABCDE");
+    assertThat(notifications.get(1).getFieldValue("key")).isEqualTo("FGHIJ");
+    Mockito.verify(manager).scheduleForSending(eq(notifications));
+  }
+
   @Test
   public void should_send_changes_with_comment() throws Exception {
     IssueChangeContext context = IssueChangeContext.createScan(new Date());
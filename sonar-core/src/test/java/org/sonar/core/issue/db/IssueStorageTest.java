@@ -19,6 +19,8 @@
  */
 package org.sonar.core.issue.db;
 
+import com.google.common.collect.Lists;
+import org.apache.ibatis.session.SqlSession;
 import org.junit.Test;
 import org.sonar.api.issue.internal.DefaultIssue;
 import org.sonar.api.issue.internal.DefaultIssueComment;
@@ -34,6 +36,9 @@ import org.sonar.core.persistence.MyBatis;
 
 import java.util.Collection;
 import java.util.Date;
+import java.util.List;
+
+import static org.fest.assertions.Assertions.assertThat;
 
 public class IssueStorageTest extends AbstractDaoTestCase {
 
@@ -147,6 +152,52 @@ public class IssueStorageTest extends AbstractDaoTestCase {
     checkTables("should_resolve_conflicts_on_updates", new String[]{"id", "created_at", "updated_at"}, "issues");
   }
 
+  @Test
+  public void should_update_issues_in_several_batches() throws Exception {
+    setupData("should_resolve_conflicts_on_updates");
+    updateInSeveralBatches(new FakeSaver(getMyBatis(), new FakeRuleFinder()));
+  }
+
+  @Test
+  public void should_update_locked_issues_one_by_one_if_driver_does_not_return_update_counts() throws Exception {
+    setupData("should_resolve_conflicts_on_updates");
+    updateInSeveralBatches(new FakeSaver(getMyBatis(), new FakeRuleFinder()) {
+      @Override
+      boolean returnsBatchUpdateCounts(String databaseId) {
+        return false;
+      }
+    });
+  }
+
+  private void updateInSeveralBatches(FakeSaver saver) {
+    int count = IssueStorage.UPDATE_CHUNK_SIZE * 2 + 1;
+    List<DefaultIssue> issues = Lists.newArrayList();
+    for (int i = 0; i < count; i++) {
+      issues.add(new DefaultIssue().setKey("ISSUE-" + i).setNew(true).setRuleKey(RuleKey.of("squid", "AvoidCycle"))
+        .setLine(i + 1).setStatus("OPEN").setSeverity("MAJOR"));
+    }
+    saver.save(issues);
+
+    for (DefaultIssue issue : issues) {
+      issue.setNew(false).setChanged(true).setLine(issue.line() + 1000).setFieldChange(context, "severity", "MAJOR", "BLOCKER");
+    }
+    // the last issue has been selected before being changed in database -> conflict
+    issues.get(count - 1).setSelectedAt(DateUtils.parseDate("2005-01-01"));
+    saver.save(issues);
+
+    SqlSession session = getMyBatis().openSession();
+    try {
+      IssueMapper mapper = session.getMapper(IssueMapper.class);
+      IssueChangeMapper changeMapper = session.getMapper(IssueChangeMapper.class);
+      for (int i = 0; i < count; i++) {
+        assertThat(mapper.selectByKey("ISSUE-" + i).getLine()).isEqualTo(i + 1001);
+        assertThat(changeMapper.selectByIssue("ISSUE-" + i)).hasSize(1);
+      }
+    } finally {
+      MyBatis.closeQuietly(session);
+    }
+  }
+
   static class FakeSaver extends IssueStorage {
     protected FakeSaver(MyBatis mybatis, RuleFinder ruleFinder) {
       super(mybatis, ruleFinder);
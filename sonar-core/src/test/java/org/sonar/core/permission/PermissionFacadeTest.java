@@ -30,6 +30,7 @@ import org.junit.rules.ExpectedException;
 import org.sonar.api.web.UserRole;
 import org.sonar.core.persistence.AbstractDaoTestCase;
 import org.sonar.core.persistence.MyBatis;
+import org.sonar.core.user.AuthorizationDao;
 import org.sonar.core.user.RoleDao;
 import org.sonar.core.user.UserDao;
 import static org.fest.assertions.Assertions.assertThat;
@@ -50,7 +51,7 @@ public class PermissionFacadeTest extends AbstractDaoTestCase {
     UserDao userDao = new UserDao(getMyBatis());
     permissionTemplateDao = new PermissionTemplateDao(getMyBatis());
     Settings settings = new Settings();
-    permissionFacade = new PermissionFacade(getMyBatis(), roleDao, userDao, permissionTemplateDao, settings);
+    permissionFacade = new PermissionFacade(getMyBatis(), roleDao, userDao, permissionTemplateDao, settings, new AuthorizationDao(getMyBatis()));
   }
 
   @Test
@@ -165,7 +166,7 @@ public class PermissionFacadeTest extends AbstractDaoTestCase {
     when(permissionTemplateDao.selectTemplateByKey("test_template")).thenReturn(permissionTemplateDto);
     when(permissionTemplateDao.selectPermissionTemplate("Test template")).thenReturn(templateWithPermissions);
 
-    permissionFacade = new PermissionFacade(null, null, null, permissionTemplateDao, null);
+    permissionFacade = new PermissionFacade(null, null, null, permissionTemplateDao, null, null);
 
     PermissionTemplateDto permissionTemplate = permissionFacade.getPermissionTemplate("test_template");
 
@@ -178,7 +179,7 @@ public class PermissionFacadeTest extends AbstractDaoTestCase {
 
     permissionTemplateDao = mock(PermissionTemplateDao.class);
 
-    permissionFacade = new PermissionFacade(null, null, null, permissionTemplateDao, null);
+    permissionFacade = new PermissionFacade(null, null, null, permissionTemplateDao, null, null);
     permissionFacade.getPermissionTemplate("unmatched");
   }
 
@@ -26,6 +26,8 @@ import org.junit.rules.TemporaryFolder;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.Map;
 
 import static org.fest.assertions.Assertions.assertThat;
 
@@ -102,6 +104,102 @@ public class PluginInstallerTest {
     assertThat(new File(toDir, "checkstyle-extension.xml")).exists();
   }
 
+  @Test
+  public void should_reuse_cached_installation() throws IOException {
+    File cacheDir = temporaryFolder.newFolder();
+
+    DefaultPluginMetadata installed = extractor.installCached(getFile("sonar-checkstyle-plugin-2.8.jar"), "abc123", true, null, cacheDir);
+    assertThat(installed.getKey()).isEqualTo("checkstyle");
+    assertThat(installed.getDeployedFiles()).hasSize(4);
+    File installDir = installed.getFile().getParentFile();
+    assertThat(installDir.getParentFile()).isEqualTo(cacheDir);
+    assertThat(new File(installDir, PluginInstallIndex.FILENAME)).exists();
+
+    // the plugin file is not read again
+    DefaultPluginMetadata cached = extractor.installCached(new File("unknown.jar"), "abc123", false, null, cacheDir);
+    assertThat(cached.getKey()).isEqualTo("checkstyle");
+    assertThat(cached.getName()).isEqualTo("Checkstyle");
+    assertThat(cached.getMainClass()).isEqualTo(installed.getMainClass());
+    assertThat(cached.getPathsToInternalDeps()).isEqualTo(installed.getPathsToInternalDeps());
+    assertThat(cached.getFile()).isEqualTo(installed.getFile());
+    assertThat(cached.getDeployedFiles()).isEqualTo(installed.getDeployedFiles());
+    assertThat(cached.isCore()).isFalse();
+    assertThat(cacheDir.list()).hasSize(1);
+  }
+
+  @Test
+  public void should_install_in_another_directory_if_extensions_change() throws IOException {
+    File cacheDir = temporaryFolder.newFolder();
+    DefaultPluginMetadata installed = extractor.installCached(getFile("sonar-checkstyle-plugin-2.8.jar"), "abc123", true, null, cacheDir);
+
+    DefaultPluginMetadata withExtension = extractor.installCached(getFile("sonar-checkstyle-plugin-2.8.jar"), "abc123", true,
+        Arrays.asList(getFile("checkstyle-extension.xml")), cacheDir);
+
+    assertThat(withExtension.getFile().getParentFile()).isNotEqualTo(installed.getFile().getParentFile());
+    assertThat(withExtension.getDeployedFiles()).hasSize(5);
+    // the previous installation may be used by another process
+    assertThat(installed.getFile()).exists();
+  }
+
+  @Test
+  public void should_not_replace_installation_if_cached_files_are_deleted() throws IOException {
+    File cacheDir = temporaryFolder.newFolder();
+    DefaultPluginMetadata installed = extractor.installCached(getFile("sonar-checkstyle-plugin-2.8.jar"), "abc123", true, null, cacheDir);
+    File installDir = installed.getFile().getParentFile();
+    FileUtils.forceDelete(new File(installDir, "META-INF/lib/checkstyle-5.1.jar"));
+
+    DefaultPluginMetadata metadata = extractor.installCached(getFile("sonar-checkstyle-plugin-2.8.jar"), "abc123", true, null, cacheDir);
+
+    assertThat(metadata.getDeployedFiles()).hasSize(4);
+    for (File deployedFile : metadata.getDeployedFiles()) {
+      assertThat(deployedFile).exists();
+    }
+    assertThat(metadata.getFile().getParentFile()).isNotEqualTo(installDir);
+    assertThat(installed.getFile()).exists();
+  }
+
+  @Test
+  public void should_keep_deployed_files_if_checksum_does_not_change() throws IOException {
+    File toDir = temporaryFolder.newFolder();
+    DefaultPluginMetadata metadata = DefaultPluginMetadata.create(getFile("sonar-checkstyle-plugin-2.8.jar"))
+        .setKey("checkstyle")
+        .setPathsToInternalDeps(Arrays.asList("META-INF/lib/checkstyle-5.1.jar"))
+        .addDeprecatedExtension(getFile("checkstyle-extension.xml"));
+    assertThat(extractor.installCached(metadata, "abc123", toDir)).isTrue();
+    File marker = new File(toDir, "marker.txt");
+    FileUtils.touch(marker);
+
+    DefaultPluginMetadata sameMetadata = DefaultPluginMetadata.create(getFile("sonar-checkstyle-plugin-2.8.jar"))
+        .setKey("checkstyle")
+        .setPathsToInternalDeps(Arrays.asList("META-INF/lib/checkstyle-5.1.jar"))
+        .addDeprecatedExtension(getFile("checkstyle-extension.xml"));
+    assertThat(extractor.installCached(sameMetadata, "abc123", toDir)).isFalse();
+    assertThat(sameMetadata.getDeployedFiles()).isEqualTo(metadata.getDeployedFiles());
+    assertThat(marker).exists();
+
+    DefaultPluginMetadata newVersion = DefaultPluginMetadata.create(getFile("sonar-checkstyle-plugin-2.8.jar"))
+        .setKey("checkstyle");
+    assertThat(extractor.installCached(newVersion, "def456", toDir)).isTrue();
+    assertThat(newVersion.getDeployedFiles()).hasSize(1);
+    assertThat(marker).doesNotExist();
+  }
+
+  @Test
+  public void should_load_metadata_of_installed_plugins() throws IOException {
+    File deployDir = temporaryFolder.newFolder();
+    DefaultPluginMetadata metadata = extractor.extractMetadata(getFile("sonar-checkstyle-plugin-2.8.jar"), false);
+    extractor.installCached(metadata, "abc123", new File(deployDir, "checkstyle"));
+
+    Map<String, DefaultPluginMetadata> installed = extractor.loadInstalledMetadata(deployDir);
+
+    assertThat(installed).hasSize(1);
+    DefaultPluginMetadata cached = installed.get("abc123");
+    assertThat(cached.getKey()).isEqualTo("checkstyle");
+    assertThat(cached.getMainClass()).isEqualTo(metadata.getMainClass());
+    assertThat(cached.getPathsToInternalDeps()).isEqualTo(metadata.getPathsToInternalDeps());
+    assertThat(cached.getDeployedFiles()).isEmpty();
+  }
+
   @Test
   public void should_extract_parent_information() throws IOException {
     DefaultPluginMetadata metadata = extractor.extractMetadata(getFile("fake1bis-plugin-1.0.jar"), true);
@@ -0,0 +1,63 @@
+/*
+ * SonarQube, open source software quality management tool.
+ * Copyright (C) 2008-2013 SonarSource
+ * mailto:contact AT sonarsource DOT com
+ *
+ * SonarQube is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * SonarQube is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.core.plugins;
+
+import org.junit.Test;
+import org.slf4j.Logger;
+
+import static org.fest.assertions.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class PluginTimingsTest {
+
+  @Test
+  public void should_sum_durations_by_step() {
+    PluginTimings timings = new PluginTimings()
+      .add("java", "install", 10L)
+      .add("java", "install", 5L)
+      .add("java", "instantiate", 3L);
+
+    assertThat(timings.total("java")).isEqualTo(18L);
+    assertThat(timings.total("unknown")).isEqualTo(0L);
+    assertThat(timings.report()).containsExactly("java: 18 ms (install 15 ms, instantiate 3 ms)");
+  }
+
+  @Test
+  public void should_report_slowest_plugins_first() {
+    PluginTimings timings = new PluginTimings()
+      .add("fast", "install", 1L)
+      .add("slow", "install", 100L)
+      .add("medium", "install", 10L);
+
+    assertThat(timings.report()).containsExactly("slow: 100 ms (install 100 ms)", "medium: 10 ms (install 10 ms)", "fast: 1 ms (install 1 ms)");
+  }
+
+  @Test
+  public void should_log_in_debug_level() {
+    Logger logger = mock(Logger.class);
+    when(logger.isDebugEnabled()).thenReturn(true);
+
+    new PluginTimings().add("java", "install", 10L).log(logger);
+
+    verify(logger).debug("  java: 10 ms (install 10 ms)");
+  }
+}
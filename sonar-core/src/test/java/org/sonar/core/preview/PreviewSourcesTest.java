@@ -0,0 +1,87 @@
+/*
+ * SonarQube, open source software quality management tool.
+ * Copyright (C) 2008-2013 SonarSource
+ * mailto:contact AT sonarsource DOT com
+ *
+ * SonarQube is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * SonarQube is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.core.preview;
+
+import com.google.common.collect.Maps;
+import org.apache.ibatis.session.ResultContext;
+import org.apache.ibatis.session.ResultHandler;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.sonar.core.source.jdbc.FileSourceDto;
+import org.sonar.core.source.jdbc.SnapshotSourceDao;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.Map;
+
+import static org.fest.assertions.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
+
+public class PreviewSourcesTest {
+
+  SnapshotSourceDao dao = mock(SnapshotSourceDao.class);
+
+  @Test
+  public void should_export_and_read_sources() {
+    doAnswer(new Answer() {
+      public Object answer(InvocationOnMock invocation) {
+        ResultHandler handler = (ResultHandler) invocation.getArguments()[1];
+        handler.handleResult(context(new FileSourceDto().setResourceKey("struts:Foo.java").setSource("class Foo {\n  // é\n}")));
+        handler.handleResult(context(new FileSourceDto().setResourceKey("struts:Empty.java").setSource(null)));
+        return null;
+      }
+    }).when(dao).selectLastSourcesOfProject(eq(1L), any(ResultHandler.class));
+
+    ByteArrayOutputStream export = new ByteArrayOutputStream();
+    new PreviewSources(dao).export(1L, export);
+
+    final Map<String, String> sources = Maps.newLinkedHashMap();
+    PreviewSources.read(new ByteArrayInputStream(export.toByteArray()), new PreviewSources.Handler() {
+      public void handle(String resourceKey, String source) {
+        sources.put(resourceKey, source);
+      }
+    });
+    assertThat(sources).hasSize(2);
+    assertThat(sources.get("struts:Foo.java")).isEqualTo("class Foo {\n  // é\n}");
+    assertThat(sources.get("struts:Empty.java")).isEqualTo("");
+  }
+
+  @Test
+  public void should_export_project_without_sources() {
+    ByteArrayOutputStream export = new ByteArrayOutputStream();
+    new PreviewSources(dao).export(1L, export);
+
+    PreviewSources.Handler handler = mock(PreviewSources.Handler.class);
+    PreviewSources.read(new ByteArrayInputStream(export.toByteArray()), handler);
+    verifyZeroInteractions(handler);
+  }
+
+  private static ResultContext context(FileSourceDto dto) {
+    ResultContext context = mock(ResultContext.class);
+    when(context.getResultObject()).thenReturn(dto);
+    return context;
+  }
+}
@@ -30,6 +30,7 @@ import org.sonar.api.security.DefaultGroups;
 import org.sonar.core.permission.PermissionFacade;
 import org.sonar.core.permission.PermissionTemplateDao;
 import org.sonar.core.persistence.AbstractDaoTestCase;
+import org.sonar.core.user.AuthorizationDao;
 import org.sonar.core.user.RoleDao;
 import org.sonar.core.user.UserDao;
 
@@ -48,7 +49,7 @@ public class DefaultResourcePermissionsTest extends AbstractDaoTestCase {
   public void initResourcePermissions() {
     settings = new Settings();
     PermissionFacade permissionFacade = new PermissionFacade(getMyBatis(),
-      new RoleDao(getMyBatis()), new UserDao(getMyBatis()), new PermissionTemplateDao(getMyBatis()), settings);
+      new RoleDao(getMyBatis()), new UserDao(getMyBatis()), new PermissionTemplateDao(getMyBatis()), settings, new AuthorizationDao(getMyBatis()));
     permissions = new DefaultResourcePermissions(getMyBatis(), permissionFacade);
   }
 
@@ -0,0 +1,47 @@
+/*
+ * SonarQube, open source software quality management tool.
+ * Copyright (C) 2008-2013 SonarSource
+ * mailto:contact AT sonarsource DOT com
+ *
+ * SonarQube is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * SonarQube is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.core.resource;
+
+import org.junit.Test;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static org.fest.assertions.Assertions.assertThat;
+
+public class ProjectQueryTest {
+
+  @Test
+  public void should_select_completed_projects_by_default() {
+    ProjectQuery query = ProjectQuery.create();
+    assertThat(query.getKind()).isEqualTo(ProjectQuery.Kind.COMPLETED);
+    assertThat(query.isCompleted()).isTrue();
+    assertThat(query.isGhosts()).isFalse();
+    assertThat(query.getAsc()).isNull();
+    assertThat(query.getKeysSql()).isEmpty();
+    assertThat(query.getNamesSql()).isEmpty();
+  }
+
+  @Test
+  public void should_convert_patterns_to_sql() {
+    ProjectQuery query = ProjectQuery.create().setKeys(newArrayList("org.sonar", "a_b%c/d")).setNames(newArrayList("Sonar"));
+    assertThat(query.getKeys()).containsExactly("org.sonar", "a_b%c/d");
+    assertThat(query.getKeysSql()).containsExactly("%ORG.SONAR%", "%A/_B/%C//D%");
+    assertThat(query.getNamesSql()).containsExactly("%SONAR%");
+  }
+}
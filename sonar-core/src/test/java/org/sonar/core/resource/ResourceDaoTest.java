@@ -350,6 +350,48 @@ public class ResourceDaoTest extends AbstractDaoTestCase {
     assertThat(dao.selectGhostsProjects(Collections.<String>emptyList())).isEmpty();
   }
 
+  @Test
+  public void should_select_projects_by_query(){
+    setupData("fixture-including-ghost-projects-and-technical-project");
+
+    ProjectQuery query = ProjectQuery.create().setKind(ProjectQuery.Kind.INCLUDING_NOT_COMPLETED).setQualifiers(newArrayList("TRK")).setAsc(true);
+    assertThat(getKeys(dao.selectProjects(query))).containsExactly("org.sample:sample", "org.apache.shindig", "org.struts:struts");
+    assertThat(getKeys(dao.selectProjects(query, 0, 10))).containsExactly("org.sample:sample", "org.apache.shindig", "org.struts:struts");
+    assertThat(getKeys(dao.selectProjects(query, 1, 1))).containsExactly("org.apache.shindig");
+    assertThat(dao.selectProjects(query, 3, 10)).isEmpty();
+    assertThat(dao.countProjects(query)).isEqualTo(3);
+
+    query.setAsc(false);
+    assertThat(getKeys(dao.selectProjects(query, 0, 10))).containsExactly("org.struts:struts", "org.apache.shindig", "org.sample:sample");
+
+    assertThat(getKeys(dao.selectProjects(query.setKeys(newArrayList("APACHE")), 0, 10))).containsExactly("org.apache.shindig");
+    assertThat(dao.countProjects(query.setKeys(newArrayList("apache", "sample")).setNames(newArrayList("sam")))).isEqualTo(1);
+
+  }
+
+  @Test
+  public void should_not_filter_qualifiers_when_no_qualifier_in_query(){
+    setupData("fixture-including-ghost-projects-and-technical-project");
+
+    ProjectQuery query = ProjectQuery.create().setQualifiers(Collections.<String>emptyList());
+    assertThat(getKeys(dao.selectProjects(query))).containsOnly("org.struts:struts", "org.struts:struts-core", "org.struts:struts:org.struts",
+      "org.struts:struts:org.struts.RequestContext");
+    assertThat(dao.countProjects(query)).isEqualTo(4);
+  }
+
+  @Test
+  public void should_select_completed_and_ghosts_projects_by_query(){
+    setupData("fixture-including-ghost-projects-and-technical-project");
+
+    ProjectQuery query = ProjectQuery.create().setQualifiers(newArrayList("TRK"));
+    assertThat(getKeys(dao.selectProjects(query, 0, 10))).containsOnly("org.struts:struts");
+    assertThat(dao.countProjects(query)).isEqualTo(1);
+
+    query.setKind(ProjectQuery.Kind.GHOSTS);
+    assertThat(getKeys(dao.selectProjects(query, 0, 10))).containsOnly("org.apache.shindig");
+    assertThat(dao.countProjects(query)).isEqualTo(1);
+  }
+
   @Test
   public void should_select_provisioned_projects_by_qualifiers(){
     setupData("fixture-including-ghost-projects-and-technical-project");
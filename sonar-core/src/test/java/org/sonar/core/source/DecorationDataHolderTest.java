@@ -72,4 +72,26 @@ public class DecorationDataHolderTest {
     assertThat(offsets.get(7)).isEqualTo(130);
     assertThat(offsets.get(8)).isEqualTo(145);
   }
+
+  @Test
+  public void should_expose_sorted_boundaries_as_arrays() throws Exception {
+
+    assertThat(decorationDataHolder.getOpeningTagsStartOffsets()).isEqualTo(new int[] {0, 0, 54, 69, 80, 90, 106, 114, 140});
+    assertThat(decorationDataHolder.getOpeningTagsCssClasses()).isEqualTo(new String[] {"k", "cppd", "a", "k", "sym-80 sym", "sym-80 sym", "cppd", "k", "sym-80 sym"});
+    assertThat(decorationDataHolder.getSortedClosingTagsOffsets()).isEqualTo(new int[] {8, 52, 67, 75, 85, 95, 130, 130, 145});
+  }
+
+  @Test
+  public void should_sort_again_when_loading_more_data() throws Exception {
+    DecorationDataHolder holder = new DecorationDataHolder();
+    assertThat(holder.getOpeningTagsStartOffsets()).isEmpty();
+    assertThat(holder.getSortedClosingTagsOffsets()).isEmpty();
+
+    holder.loadSyntaxHighlightingData("10,20,k;");
+    holder.loadSyntaxHighlightingData("0,5,cppd;10,12,a;");
+
+    assertThat(holder.getOpeningTagsStartOffsets()).isEqualTo(new int[] {0, 10, 10});
+    assertThat(holder.getOpeningTagsCssClasses()).isEqualTo(new String[] {"cppd", "k", "a"});
+    assertThat(holder.getSortedClosingTagsOffsets()).isEqualTo(new int[] {5, 12, 20});
+  }
 }
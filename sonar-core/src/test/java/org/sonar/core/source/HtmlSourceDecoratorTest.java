@@ -20,16 +20,21 @@
 
 package org.sonar.core.source;
 
+import com.google.common.base.Strings;
 import com.google.common.collect.Lists;
 import org.junit.Before;
 import org.junit.Test;
 import org.sonar.core.persistence.AbstractDaoTestCase;
 import org.sonar.core.source.jdbc.SnapshotDataDao;
+import org.sonar.core.source.jdbc.SnapshotDataDto;
 import org.sonar.core.source.jdbc.SnapshotSourceDao;
 
 import java.util.List;
 
 import static org.fest.assertions.Assertions.assertThat;
+import static org.mockito.Matchers.anyList;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.*;
 
 public class HtmlSourceDecoratorTest extends AbstractDaoTestCase {
@@ -108,4 +113,95 @@ public class HtmlSourceDecoratorTest extends AbstractDaoTestCase {
     verify(snapshotDataDao, times(1)).selectSnapshotData(14L, Lists.newArrayList("highlight_syntax", "symbol"));
     verify(snapshotSourceDao, times(0)).selectSnapshotSource(14L);
   }
+
+  @Test
+  public void should_decorate_line_range() throws Exception {
+
+    HtmlSourceDecorator sourceDecorator = new HtmlSourceDecorator(getMyBatis());
+
+    assertThat(sourceDecorator.getDecoratedSourceAsHtml(13L, 8, 9)).containsExactly(
+      "  <span class=\"k\">public</span> <span class=\"k\">void</span> <span class=\"sym-84 sym\">bar</span>() {",
+      "    <span class=\"sym-58 sym\">foo</span>();"
+    );
+    assertThat(sourceDecorator.getDecoratedSourceAsHtml(13L, 0, 2)).containsExactly(
+      "<span class=\"cppd\">/*</span>",
+      "<span class=\"cppd\"> * Header</span>"
+    );
+    assertThat(sourceDecorator.getDecoratedSourceAsHtml(13L, 11, 200)).containsExactly("}");
+    assertThat(sourceDecorator.getDecoratedSourceAsHtml(13L, 12, 200)).isEmpty();
+    assertThat(sourceDecorator.getDecoratedSourceAsHtml(13L)).hasSize(11);
+  }
+
+  @Test
+  public void should_load_snapshot_once() throws Exception {
+
+    SnapshotSourceDao snapshotSourceDao = mock(SnapshotSourceDao.class);
+    SnapshotDataDao snapshotDataDao = mock(SnapshotDataDao.class);
+    SnapshotDataDto highlighting = new SnapshotDataDto();
+    highlighting.setDataType("highlight_syntax");
+    highlighting.setData("0,2,cppd;");
+    when(snapshotDataDao.selectSnapshotData(eq(14L), anyList())).thenReturn(Lists.newArrayList(highlighting));
+    when(snapshotSourceDao.selectSnapshotSource(14L)).thenReturn("/*\nfoo\nbar");
+
+    HtmlSourceDecorator sourceDecorator = new HtmlSourceDecorator(snapshotSourceDao, snapshotDataDao);
+
+    assertThat(sourceDecorator.getDecoratedSourceAsHtml(14L, 2, 3)).containsExactly("foo", "bar");
+    assertThat(sourceDecorator.getDecoratedSourceAsHtml(14L, 1, 1)).containsExactly("<span class=\"cppd\">/*</span>");
+    assertThat(sourceDecorator.getDecoratedSourceAsHtml(14L)).containsExactly("<span class=\"cppd\">/*</span>", "foo", "bar");
+
+    verify(snapshotDataDao, times(1)).selectSnapshotData(eq(14L), anyList());
+    verify(snapshotSourceDao, times(1)).selectSnapshotSource(14L);
+  }
+
+  @Test
+  public void should_evict_least_recently_used_snapshots() throws Exception {
+
+    SnapshotSourceDao snapshotSourceDao = mock(SnapshotSourceDao.class);
+    SnapshotDataDao snapshotDataDao = mock(SnapshotDataDao.class);
+    SnapshotDataDto highlighting = new SnapshotDataDto();
+    highlighting.setDataType("highlight_syntax");
+    highlighting.setData("0,1,k;");
+    when(snapshotDataDao.selectSnapshotData(anyLong(), anyList())).thenReturn(Lists.newArrayList(highlighting));
+    // source and rendered line of each snapshot take a bit more than a quarter of the cache
+    when(snapshotSourceDao.selectSnapshotSource(anyLong())).thenReturn(Strings.repeat("a", (int) HtmlSourceDecorator.CACHE_MAX_CHARS / 8));
+
+    HtmlSourceDecorator sourceDecorator = new HtmlSourceDecorator(snapshotSourceDao, snapshotDataDao);
+
+    for (long snapshotId = 0; snapshotId < 4; snapshotId++) {
+      sourceDecorator.getDecoratedSourceAsHtml(snapshotId);
+    }
+    sourceDecorator.getDecoratedSourceAsHtml(3L);
+    sourceDecorator.getDecoratedSourceAsHtml(0L);
+
+    verify(snapshotSourceDao, times(1)).selectSnapshotSource(3L);
+    verify(snapshotSourceDao, times(2)).selectSnapshotSource(0L);
+  }
+
+  @Test
+  public void should_not_cache_sources_bigger_than_cache() throws Exception {
+
+    SnapshotSourceDao snapshotSourceDao = mock(SnapshotSourceDao.class);
+    SnapshotDataDao snapshotDataDao = mock(SnapshotDataDao.class);
+    SnapshotDataDto highlighting = new SnapshotDataDto();
+    highlighting.setDataType("highlight_syntax");
+    highlighting.setData("0,1,k;");
+    when(snapshotDataDao.selectSnapshotData(eq(15L), anyList())).thenReturn(Lists.newArrayList(highlighting));
+    when(snapshotSourceDao.selectSnapshotSource(15L)).thenReturn(Strings.repeat("a", (int) HtmlSourceDecorator.CACHE_MAX_CHARS + 1));
+
+    HtmlSourceDecorator sourceDecorator = new HtmlSourceDecorator(snapshotSourceDao, snapshotDataDao);
+
+    assertThat(sourceDecorator.getDecoratedSourceAsHtml(15L, 1, 1)).hasSize(1);
+    assertThat(sourceDecorator.getDecoratedSourceAsHtml(15L, 1, 1)).hasSize(1);
+
+    verify(snapshotSourceDao, times(2)).selectSnapshotSource(15L);
+  }
+
+  @Test
+  public void should_count_lines_like_text_decorator() throws Exception {
+    assertThat(HtmlSourceDecorator.DecoratedSource.countLines("")).isEqualTo(0);
+    assertThat(HtmlSourceDecorator.DecoratedSource.countLines("a")).isEqualTo(1);
+    assertThat(HtmlSourceDecorator.DecoratedSource.countLines("a\n")).isEqualTo(2);
+    assertThat(HtmlSourceDecorator.DecoratedSource.countLines("a\r\nb\rc\n\n")).isEqualTo(5);
+    assertThat(HtmlSourceDecorator.DecoratedSource.countLines("\r")).isEqualTo(2);
+  }
 }
@@ -0,0 +1,94 @@
+/*
+ * SonarQube, open source software quality management tool.
+ * Copyright (C) 2008-2013 SonarSource
+ * mailto:contact AT sonarsource DOT com
+ *
+ * SonarQube is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * SonarQube is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.core.source;
+
+import org.junit.Ignore;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Measures the time and the memory allocated to decorate a large file with dense highlighting data, entirely and
+ * by windows of 100 lines. Ignored as it requires an Oracle/OpenJDK virtual machine to measure allocations.
+ */
+@Ignore
+public class HtmlTextDecoratorBenchmarkTest {
+
+  private static final int LINES = 20000;
+  private static final int ITERATIONS = 10;
+
+  @Test
+  public void decorate_large_file() {
+    StringBuilder source = new StringBuilder();
+    StringBuilder highlighting = new StringBuilder();
+    StringBuilder symbols = new StringBuilder();
+    for (int i = 0; i < LINES; i++) {
+      int offset = source.length();
+      source.append("  /* field ").append(i).append(" */ private static final String FIELD_").append(i).append(" = \"<value & ").append(i).append(">\";\n");
+      int comment = source.indexOf("*/", offset) + 2;
+      int keywords = source.indexOf("String", offset);
+      int string = source.indexOf("\"", offset);
+      int field = source.indexOf("FIELD_", offset);
+      highlighting.append(offset + 2).append(',').append(comment).append(",cppd;");
+      highlighting.append(comment + 1).append(',').append(keywords - 1).append(",k;");
+      highlighting.append(string).append(',').append(source.length() - 2).append(",s;");
+      symbols.append(field).append(',').append(field + 6).append(',').append(field).append(';');
+    }
+    String text = source.toString();
+
+    for (int run = 0; run < 3; run++) {
+      long before = allocatedBytes();
+      long start = System.currentTimeMillis();
+      int lines = 0;
+      for (int i = 0; i < ITERATIONS; i++) {
+        lines += new HtmlTextDecorator().decorateTextWithHtml(text, load(highlighting, symbols)).size();
+      }
+      print("Whole file", lines, text, allocatedBytes() - before, System.currentTimeMillis() - start);
+
+      before = allocatedBytes();
+      start = System.currentTimeMillis();
+      lines = 0;
+      DecorationDataHolder decorationData = load(highlighting, symbols);
+      for (int i = 0; i < ITERATIONS; i++) {
+        for (int from = 1; from <= LINES; from += 2000) {
+          lines += new HtmlTextDecorator().decorateTextWithHtml(text, decorationData, from, from + 99).size();
+        }
+      }
+      print("Windows of 100 lines", lines, text, allocatedBytes() - before, System.currentTimeMillis() - start);
+    }
+  }
+
+  private static DecorationDataHolder load(StringBuilder highlighting, StringBuilder symbols) {
+    DecorationDataHolder decorationData = new DecorationDataHolder();
+    decorationData.loadSyntaxHighlightingData(highlighting.toString());
+    decorationData.loadSymbolReferences(symbols.toString());
+    return decorationData;
+  }
+
+  private static void print(String name, int lines, String text, long allocated, long duration) {
+    System.out.println(String.format("%s: %d lines, %d ms, %.1f bytes allocated per character of source", name, lines, duration,
+      (double) allocated / ((long) text.length() * ITERATIONS)));
+  }
+
+  private static long allocatedBytes() {
+    com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    return bean.getThreadAllocatedBytes(Thread.currentThread().getId());
+  }
+}
@@ -301,4 +301,35 @@ public class HtmlTextDecoratorTest {
         ""
         );
   }
+
+  @Test
+  public void should_decorate_line_range() throws Exception {
+
+    String classDeclarationSample =
+        "/*" + LF_END_OF_LINE +
+          " * Header" + LF_END_OF_LINE +
+          " */" + LF_END_OF_LINE +
+          LF_END_OF_LINE +
+          "public class HelloWorld {" + LF_END_OF_LINE +
+          "}" + LF_END_OF_LINE;
+
+    DecorationDataHolder decorationData = new DecorationDataHolder();
+    decorationData.loadSyntaxHighlightingData("0,16,cppd;18,25,k;25,31,k;");
+
+    HtmlTextDecorator htmlTextDecorator = new HtmlTextDecorator();
+
+    assertThat(htmlTextDecorator.decorateTextWithHtml(classDeclarationSample, decorationData, 2, 3)).containsExactly(
+        "<span class=\"cppd\"> * Header</span>",
+        "<span class=\"cppd\"> */</span>"
+        );
+
+    assertThat(htmlTextDecorator.decorateTextWithHtml(classDeclarationSample, decorationData, 5, 100)).containsExactly(
+        "<span class=\"k\">public </span><span class=\"k\">class </span>HelloWorld {",
+        "}",
+        ""
+        );
+
+    assertThat(htmlTextDecorator.decorateTextWithHtml(classDeclarationSample, decorationData, 7, 7)).containsExactly("");
+    assertThat(htmlTextDecorator.decorateTextWithHtml(classDeclarationSample, decorationData, 8, 10)).isEmpty();
+  }
 }
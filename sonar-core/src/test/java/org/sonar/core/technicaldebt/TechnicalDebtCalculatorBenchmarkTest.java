@@ -0,0 +1,176 @@
+/*
+ * SonarQube, open source software quality management tool.
+ * Copyright (C) 2008-2013 SonarSource
+ * mailto:contact AT sonarsource DOT com
+ *
+ * SonarQube is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * SonarQube is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.core.technicaldebt;
+
+import com.google.common.collect.Lists;
+import org.junit.Ignore;
+import org.junit.Test;
+import org.sonar.api.batch.DecoratorContext;
+import org.sonar.api.config.Settings;
+import org.sonar.api.measures.CoreMetrics;
+import org.sonar.api.measures.Measure;
+import org.sonar.api.measures.MeasuresFilter;
+import org.sonar.api.qualitymodel.Characteristic;
+import org.sonar.api.qualitymodel.Model;
+import org.sonar.api.resources.File;
+import org.sonar.api.rules.Rule;
+import org.sonar.api.rules.Violation;
+import org.sonar.core.technicaldebt.functions.ConstantFunction;
+import org.sonar.core.technicaldebt.functions.Function;
+import org.sonar.core.technicaldebt.functions.Functions;
+import org.sonar.core.technicaldebt.functions.LinearFunction;
+import org.sonar.core.technicaldebt.functions.LinearWithOffsetFunction;
+import org.sonar.core.technicaldebt.functions.LinearWithThresholdFunction;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Measures the time to compute the technical debt of a large project, with a model shaped like the default SQALE model
+ * and about a thousand requirements. Ignored as results depend on the virtual machine.
+ */
+@Ignore
+public class TechnicalDebtCalculatorBenchmarkTest {
+
+  private static final int ROOT_CHARACTERISTICS = 8;
+  private static final int SUB_CHARACTERISTICS = 4;
+  private static final int REQUIREMENTS = 32;
+  private static final int DIRECTORIES = 200;
+  private static final int FILES_PER_DIRECTORY = 100;
+  private static final int VIOLATIONS_PER_FILE = 5;
+
+  @Test
+  public void compute_technical_debt_of_large_project() {
+    List<Rule> rules = Lists.newArrayList();
+    Model model = Model.create();
+    for (int c = 0; c < ROOT_CHARACTERISTICS; c++) {
+      Characteristic root = model.createCharacteristicByKey("C" + c, "Characteristic " + c);
+      for (int s = 0; s < SUB_CHARACTERISTICS; s++) {
+        Characteristic sub = model.createCharacteristicByKey("C" + c + "_" + s, "Sub-characteristic " + c + "_" + s);
+        root.addChild(sub);
+        for (int r = 0; r < REQUIREMENTS; r++) {
+          Rule rule = Rule.create("repo", "rule" + rules.size());
+          rules.add(rule);
+          Characteristic requirement = model.createCharacteristicByRule(rule);
+          requirement.setProperty(TechnicalDebtRequirement.PROPERTY_REMEDIATION_FACTOR, 1.0);
+          sub.addChild(requirement);
+        }
+      }
+    }
+    TechnicalDebtConverter converter = new TechnicalDebtConverter(new Settings());
+    Functions functions = new Functions(new Function[] {new LinearFunction(converter), new LinearWithOffsetFunction(converter),
+      new LinearWithThresholdFunction(converter), new ConstantFunction(converter)});
+    TechnicalDebtCalculator calculator = new TechnicalDebtCalculator(TechnicalDebtModel.create(model), functions, converter);
+
+    Random random = new Random(42);
+    Node project = new Node();
+    for (int d = 0; d < DIRECTORIES; d++) {
+      Node directory = new Node();
+      project.children.add(directory);
+      for (int f = 0; f < FILES_PER_DIRECTORY; f++) {
+        Node file = new Node();
+        directory.children.add(file);
+        File resource = new File("dir" + d, "File" + f + ".java");
+        for (int v = 0; v < VIOLATIONS_PER_FILE; v++) {
+          file.violations.add(Violation.create(rules.get(random.nextInt(rules.size())), resource));
+        }
+      }
+    }
+
+    for (int run = 0; run < 5; run++) {
+      long start = System.currentTimeMillis();
+      for (Node directory : project.children) {
+        for (Node file : directory.children) {
+          decorate(calculator, file);
+        }
+        decorate(calculator, directory);
+      }
+      decorate(calculator, project);
+      System.out.println(String.format("%d files: %d ms, total %.0f hours", DIRECTORIES * FILES_PER_DIRECTORY,
+        System.currentTimeMillis() - start, calculator.getTotal()));
+      clear(project);
+    }
+  }
+
+  /**
+   * Saves the costs as the decorator does
+   */
+  private static void decorate(TechnicalDebtCalculator calculator, Node node) {
+    calculator.compute(node.context());
+    for (Map.Entry<TechnicalDebtCharacteristic, Double> entry : calculator.getCharacteristicCosts().entrySet()) {
+      if (entry.getValue() > 0.0) {
+        node.measures.add(new Measure(CoreMetrics.TECHNICAL_DEBT, entry.getValue()).setCharacteristic(entry.getKey().toCharacteristic()));
+      }
+    }
+    for (Map.Entry<TechnicalDebtRequirement, Double> entry : calculator.getRequirementCosts().entrySet()) {
+      if (entry.getValue() > 0.0) {
+        node.measures.add(new Measure(CoreMetrics.TECHNICAL_DEBT, entry.getValue()).setCharacteristic(entry.getKey().toCharacteristic()));
+      }
+    }
+  }
+
+  private static void clear(Node node) {
+    node.measures.clear();
+    for (Node child : node.children) {
+      clear(child);
+    }
+  }
+
+  /**
+   * Resource of the project, holding only what the calculator reads
+   */
+  private static class Node {
+    private final List<Violation> violations = Lists.newArrayList();
+    private final List<Measure> measures = Lists.newArrayList();
+    private final List<Node> children = Lists.newArrayList();
+
+    private Object measures(MeasuresFilter filter) {
+      return filter.filter(measures);
+    }
+
+    private DecoratorContext context() {
+      return (DecoratorContext) Proxy.newProxyInstance(getClass().getClassLoader(), new Class[] {DecoratorContext.class}, new InvocationHandler() {
+        public Object invoke(Object proxy, Method method, Object[] args) {
+          if ("getViolations".equals(method.getName())) {
+            return violations;
+          }
+          if ("getChildrenMeasures".equals(method.getName())) {
+            List<Measure> result = Lists.newArrayList();
+            for (Node child : children) {
+              Object childResult = child.measures((MeasuresFilter) args[0]);
+              if (childResult instanceof Collection) {
+                result.addAll((Collection<Measure>) childResult);
+              } else if (childResult != null) {
+                result.add((Measure) childResult);
+              }
+            }
+            return result;
+          }
+          throw new UnsupportedOperationException(method.getName());
+        }
+      });
+    }
+  }
+}
@@ -180,6 +180,61 @@ public class TechnicalDebtCalculatorTest {
     assertThat(remediationCostCalculator.getRequirementCosts().get(requirement1)).isEqualTo(6.0);
   }
 
+  @Test
+  public void only_aggregate_requirements_with_violations_or_children_costs() throws Exception {
+    Rule rule1 = Rule.create("repo1", "rule1");
+    Rule rule2 = Rule.create("repo2", "rule2");
+    Rule rule3 = Rule.create("repo3", "rule3");
+    Characteristic root = Characteristic.createByKey("ROOT", "Root")
+      .addChild(Characteristic.createByRule(rule1))
+      .addChild(Characteristic.createByRule(rule2))
+      .addChild(Characteristic.createByRule(rule3));
+    TechnicalDebtCharacteristic rootCharacteristic = new TechnicalDebtCharacteristic(root);
+    TechnicalDebtCharacteristic emptyCharacteristic = new TechnicalDebtCharacteristic(Characteristic.createByKey("EMPTY", "Empty"));
+    TechnicalDebtRequirement requirement1 = rootCharacteristic.getRequirements().get(0);
+    TechnicalDebtRequirement requirement2 = rootCharacteristic.getRequirements().get(1);
+    TechnicalDebtRequirement requirement3 = rootCharacteristic.getRequirements().get(2);
+
+    when(technicalDebtModel.getCharacteristics()).thenReturn(newArrayList(rootCharacteristic, emptyCharacteristic));
+    when(technicalDebtModel.getAllRequirements()).thenReturn(newArrayList(requirement1, requirement2, requirement3));
+    when(technicalDebtModel.getRequirementByRule("repo1", "rule1")).thenReturn(requirement1);
+    when(functions.costInHours(eq(requirement1), any(Collection.class))).thenReturn(1.0);
+
+    Violation violation = buildViolation("rule1", "repo1", NOW);
+    DecoratorContext context = mock(DecoratorContext.class);
+    when(context.getViolations()).thenReturn(newArrayList(violation));
+    Measure requirementMeasure = new Measure().setCharacteristic(requirement2.toCharacteristic()).setValue(3.0);
+    Measure characteristicMeasure = new Measure().setCharacteristic(root).setValue(4.0);
+    when(context.getChildrenMeasures(any(MeasuresFilter.class))).thenReturn(newArrayList(requirementMeasure, characteristicMeasure));
+
+    remediationCostCalculator.compute(context);
+
+    assertThat(remediationCostCalculator.getRequirementCosts()).hasSize(2);
+    assertThat(remediationCostCalculator.getRequirementCosts().get(requirement1)).isEqualTo(1.0);
+    assertThat(remediationCostCalculator.getRequirementCosts().get(requirement2)).isEqualTo(3.0);
+    assertThat(remediationCostCalculator.getCharacteristicCosts()).hasSize(1);
+    assertThat(remediationCostCalculator.getCharacteristicCosts().get(rootCharacteristic)).isEqualTo(4.0);
+    assertThat(remediationCostCalculator.getTotal()).isEqualTo(4.0);
+    verify(functions, never()).costInHours(eq(requirement3), any(Collection.class));
+  }
+
+  @Test
+  public void always_compute_cost_of_root_characteristics() throws Exception {
+    Characteristic root = Characteristic.createByKey("ROOT", "Root").addChild(Characteristic.createByRule(Rule.create("repo1", "rule1")));
+    TechnicalDebtCharacteristic rootCharacteristic = new TechnicalDebtCharacteristic(root);
+    when(technicalDebtModel.getCharacteristics()).thenReturn(newArrayList(rootCharacteristic));
+    when(technicalDebtModel.getAllRequirements()).thenReturn(rootCharacteristic.getRequirements());
+
+    DecoratorContext context = mock(DecoratorContext.class);
+    when(context.getChildrenMeasures(any(MeasuresFilter.class))).thenReturn(Collections.EMPTY_LIST);
+
+    remediationCostCalculator.compute(context);
+
+    assertThat(remediationCostCalculator.getRequirementCosts()).isEmpty();
+    assertThat(remediationCostCalculator.getCharacteristicCosts().get(rootCharacteristic)).isEqualTo(0.0);
+    assertThat(remediationCostCalculator.getTotal()).isEqualTo(0.0);
+  }
+
   @Test
   public void technical_debt_from_one_issue() throws Exception {
     DefaultIssue issue = new DefaultIssue().setKey("ABCDE").setRuleKey(RuleKey.of("squid", "AvoidCycle"));
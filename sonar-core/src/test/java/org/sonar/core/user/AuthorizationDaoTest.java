@@ -186,4 +186,84 @@ public class AuthorizationDaoTest extends AbstractDaoTestCase {
     AuthorizationDao authorization = new AuthorizationDao(getMyBatis());
     assertThat(authorization.selectGlobalPermissions("anyone_user")).containsOnly("user", "profileadmin");
   }
+
+  @Test
+  public void should_cache_authorized_components() {
+    setupData("user_should_be_authorized");
+
+    AuthorizationDao authorization = new AuthorizationDao(getMyBatis());
+    authorization.keepAuthorizedComponentIds(Sets.<Long>newHashSet(PROJECT, FILE_IN_OTHER_PROJECT), USER, "user");
+    Set<Long> componentIds = authorization.keepAuthorizedComponentIds(Sets.<Long>newHashSet(PROJECT, FILE_IN_OTHER_PROJECT), USER, "user");
+
+    assertThat(componentIds).containsOnly(PROJECT);
+    assertThat(authorization.getCacheMisses()).isEqualTo(1);
+    assertThat(authorization.getCacheHits()).isEqualTo(1);
+
+    // only the unknown component is requested
+    componentIds = authorization.keepAuthorizedComponentIds(Sets.<Long>newHashSet(PROJECT, FILE), USER, "user");
+    assertThat(componentIds).containsOnly(PROJECT, FILE);
+    assertThat(authorization.getCacheMisses()).isEqualTo(2);
+    assertThat(authorization.isAuthorizedComponentId(FILE, USER, "user")).isTrue();
+    assertThat(authorization.getCacheHits()).isEqualTo(2);
+
+    // roles are cached separately
+    assertThat(authorization.keepAuthorizedComponentIds(Sets.<Long>newHashSet(PROJECT), USER, "admin")).isEmpty();
+    assertThat(authorization.getCacheMisses()).isEqualTo(3);
+  }
+
+  @Test
+  public void should_cache_root_project_ids() {
+    setupData("should_return_root_project_ids_for_user");
+
+    AuthorizationDao authorization = new AuthorizationDao(getMyBatis());
+    authorization.selectAuthorizedRootProjectsIds(USER, "user");
+    Collection<Long> rootProjectIds = authorization.selectAuthorizedRootProjectsIds(USER, "user");
+
+    assertThat(rootProjectIds).containsOnly(PROJECT);
+    assertThat(authorization.getCacheMisses()).isEqualTo(1);
+    assertThat(authorization.getCacheHits()).isEqualTo(1);
+
+    authorization.clearCache();
+    assertThat(authorization.selectAuthorizedRootProjectsIds(USER, "user")).containsOnly(PROJECT);
+    assertThat(authorization.getCacheMisses()).isEqualTo(2);
+  }
+
+  @Test
+  public void cached_authorizations_should_expire() {
+    setupData("should_return_root_project_ids_for_user");
+
+    final long[] now = {1000L};
+    AuthorizationDao authorization = new AuthorizationDao(getMyBatis()) {
+      @Override
+      long now() {
+        return now[0];
+      }
+    };
+    authorization.selectAuthorizedRootProjectsIds(USER, "user");
+    now[0] += AuthorizationDao.CACHE_MAX_AGE_IN_MS;
+    authorization.selectAuthorizedRootProjectsIds(USER, "user");
+    assertThat(authorization.getCacheMisses()).isEqualTo(1);
+
+    now[0]++;
+    authorization.selectAuthorizedRootProjectsIds(USER, "user");
+    assertThat(authorization.getCacheMisses()).isEqualTo(2);
+  }
+
+  @Test
+  public void should_bound_number_of_cached_authorizations() {
+    setupData("should_return_root_project_ids_for_user");
+
+    AuthorizationDao authorization = new AuthorizationDao(getMyBatis());
+    for (int userId = 1; userId <= AuthorizationDao.MAX_CACHE_ENTRIES; userId++) {
+      authorization.selectAuthorizedRootProjectsIds(userId, "user");
+    }
+    authorization.selectAuthorizedRootProjectsIds(1, "user");
+    assertThat(authorization.getCacheHits()).isEqualTo(1);
+
+    // no entry is expired, so the cache is emptied
+    authorization.selectAuthorizedRootProjectsIds(AuthorizationDao.MAX_CACHE_ENTRIES + 1, "user");
+    authorization.selectAuthorizedRootProjectsIds(1, "user");
+    assertThat(authorization.getCacheHits()).isEqualTo(1);
+    assertThat(authorization.getCacheMisses()).isEqualTo(AuthorizationDao.MAX_CACHE_ENTRIES + 2);
+  }
 }
@@ -25,10 +25,18 @@ import org.sonar.duplications.CodeFragment;
 /**
  * Represents part of source code between two lines.
  * If two blocks have the same {@link #getBlockHash() hash}, then we assume that there is a duplication in a code, which they represent.
+ * <p>
+ * Hashes of 8 bytes, which are produced by {@link BlockChunker}, are stored as a primitive {@link #getLongHash() long}
+ * and should be accessed this way, as {@link #getBlockHash()} then creates a new {@link ByteArray} on each call.
+ * </p>
  */
 public final class Block implements CodeFragment {
 
   private final String resourceId;
+  private final long longHash;
+  /**
+   * Null if hash is stored in {@link #longHash}.
+   */
   private final ByteArray blockHash;
   private final int indexInFile;
 
@@ -59,6 +67,7 @@ public final class Block implements CodeFragment {
   public static final class Builder {
 
     private String resourceId;
+    private long longHash;
     private ByteArray blockHash;
     private int indexInFile;
 
@@ -74,10 +83,25 @@ public final class Block implements CodeFragment {
     }
 
     public Builder setBlockHash(ByteArray blockHash) {
+      if (blockHash.isLong()) {
+        return setBlockHash(blockHash.toLong());
+      }
+      this.longHash = 0;
       this.blockHash = blockHash;
       return this;
     }
 
+    /**
+     * Same as {@code setBlockHash(new ByteArray(blockHash))}, but without allocation.
+     *
+     * @since 4.1
+     */
+    public Builder setBlockHash(long blockHash) {
+      this.longHash = blockHash;
+      this.blockHash = null;
+      return this;
+    }
+
     public Builder setIndexInFile(int index) {
       this.indexInFile = index;
       return this;
@@ -103,6 +127,7 @@ public final class Block implements CodeFragment {
 
   private Block(Builder builder) {
     this.resourceId = builder.resourceId;
+    this.longHash = builder.longHash;
     this.blockHash = builder.blockHash;
     this.indexInFile = builder.indexInFile;
 
@@ -114,15 +139,37 @@ public final class Block implements CodeFragment {
   }
 
   public String getHashHex() {
-    return getBlockHash().toString();
+    return blockHash == null ? ByteArray.toHexString(longHash) : blockHash.toHexString();
   }
 
   public String getResourceId() {
     return resourceId;
   }
 
+  /**
+   * Prefer {@link #getLongHash()} when {@link #hasLongHash()} is true.
+   */
   public ByteArray getBlockHash() {
-    return blockHash;
+    return blockHash == null ? new ByteArray(longHash) : blockHash;
+  }
+
+  /**
+   * @return true if hash of this block is made of 8 bytes, and so can be retrieved by {@link #getLongHash()}
+   * @since 4.1
+   */
+  public boolean hasLongHash() {
+    return blockHash == null;
+  }
+
+  /**
+   * @throws IllegalStateException if hash of this block is not made of 8 bytes
+   * @since 4.1
+   */
+  public long getLongHash() {
+    if (blockHash != null) {
+      throw new IllegalStateException("Hash of block is not made of 8 bytes: " + blockHash);
+    }
+    return longHash;
   }
 
   public int getIndexInFile() {
@@ -160,7 +207,8 @@ public final class Block implements CodeFragment {
     }
     Block other = (Block) obj;
     return resourceId.equals(other.resourceId)
-      && blockHash.equals(other.blockHash)
+      && longHash == other.longHash
+      && (blockHash == null ? other.blockHash == null : blockHash.equals(other.blockHash))
       && indexInFile == other.indexInFile
       && startLine == other.startLine
       && endLine == other.endLine;
@@ -171,7 +219,7 @@ public final class Block implements CodeFragment {
     int h = hash;
     if (h == 0) {
       h = resourceId.hashCode();
-      h = 31 * h + blockHash.hashCode();
+      h = 31 * h + (blockHash == null ? (int) (longHash ^ (longHash >>> 32)) : blockHash.hashCode());
       h = 31 * h + indexInFile;
       h = 31 * h + startLine;
       h = 31 * h + endLine;
@@ -182,7 +230,7 @@ public final class Block implements CodeFragment {
 
   @Override
   public String toString() {
-    return "'" + resourceId + "'[" + indexInFile + "|" + startLine + "-" + endLine + "]:" + blockHash;
+    return "'" + resourceId + "'[" + indexInFile + "|" + startLine + "-" + endLine + "]:" + getHashHex();
   }
 
 }
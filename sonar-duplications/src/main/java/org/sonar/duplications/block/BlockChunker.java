@@ -89,7 +89,7 @@ public class BlockChunker {
       // add last statement to hash
       hash = hash * PRIME_BASE + lastStatement.getValue().hashCode();
       // create block
-      Block block = blockBuilder.setBlockHash(new ByteArray(hash))
+      Block block = blockBuilder.setBlockHash(hash)
           .setIndexInFile(first)
           .setLines(firstStatement.getStartLine(), lastStatement.getEndLine())
           .build();
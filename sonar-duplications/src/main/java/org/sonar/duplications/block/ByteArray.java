@@ -79,6 +79,24 @@ public final class ByteArray {
     this.bytes = bb.array();
   }
 
+  /**
+   * @return true if this hash can be represented by a long, i.e. is made of 8 bytes
+   */
+  boolean isLong() {
+    return bytes.length == 8;
+  }
+
+  /**
+   * Big-endian value of the 8 bytes of this hash, inverse of {@link #ByteArray(long)}.
+   */
+  long toLong() {
+    long value = 0;
+    for (byte b : bytes) {
+      value = (value << 8) | (b & 0xFF);
+    }
+    return value;
+  }
+
   public int[] toIntArray() {
     // Pad the size to multiple of 4
     int size = (bytes.length / 4) + (bytes.length % 4 == 0 ? 0 : 1);
@@ -93,6 +111,18 @@ public final class ByteArray {
 
   private static final String HEXES = "0123456789abcdef";
 
+  /**
+   * Same as {@code new ByteArray(value).toHexString()}.
+   */
+  static String toHexString(long value) {
+    char[] hex = new char[16];
+    for (int i = 15; i >= 0; i--) {
+      hex[i] = HEXES.charAt((int) (value & 0x0F));
+      value >>>= 4;
+    }
+    return new String(hex);
+  }
+
   public String toHexString() {
     StringBuilder hex = new StringBuilder(2 * bytes.length);
     for (byte b : bytes) {
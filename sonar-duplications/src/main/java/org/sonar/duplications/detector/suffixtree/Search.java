@@ -19,104 +19,141 @@
  */
 package org.sonar.duplications.detector.suffixtree;
 
-import com.google.common.collect.Lists;
+import java.util.Arrays;
+
+/**
+ * Searches repeated substrings in a {@link TextSet}, using its {@link SuffixTree}.
+ * <p>
+ * Instances keep their arrays and their suffix tree from one {@link #search(TextSet, Collector)} to the next,
+ * and are not thread-safe.
+ * </p>
+ */
+public final class Search {
 
-import java.util.*;
+  private final SuffixTree tree = new SuffixTree();
 
-public final class Search {
+  // by node
+  private int[] depth = new int[0];
+  private int[] startSize = new int[0];
+  private int[] endSize = new int[0];
+  private int[] stack = new int[0];
 
-  private final SuffixTree tree;
-  private final TextSet text;
-  private final Collector reporter;
+  // depths of leaves, in order of visit
+  private int[] list = new int[0];
+  private int listSize;
 
-  private final List<Integer> list = Lists.newArrayList();
-  private final List<Node> innerNodes = Lists.newArrayList();
+  // inner nodes, in order of visit
+  private int[] innerNodes = new int[0];
+  private int innerNodesCount;
+  private long[] innerNodesByDepth = new long[0];
 
   public static void perform(TextSet text, Collector reporter) {
-    new Search(SuffixTree.create(text), text, reporter).compute();
+    new Search().search(text, reporter);
   }
 
-  private Search(SuffixTree tree, TextSet text, Collector reporter) {
-    this.tree = tree;
-    this.text = text;
-    this.reporter = reporter;
-  }
+  /**
+   * @since 4.1
+   */
+  public void search(TextSet text, Collector reporter) {
+    tree.build(text.getSymbols(), text.length());
+    ensureCapacity(tree.getNumberOfNodes());
 
-  private void compute() {
     // O(N)
     dfs();
 
     // O(N * log(N))
-    Collections.sort(innerNodes, DEPTH_COMPARATOR);
+    sortInnerNodesByDepth();
 
     // O(N)
-    visitInnerNodes();
+    visitInnerNodes(text, reporter);
   }
 
-  private static final Comparator<Node> DEPTH_COMPARATOR = new Comparator<Node>() {
-    public int compare(Node o1, Node o2) {
-      return o2.depth - o1.depth;
+  private void ensureCapacity(int nodes) {
+    if (depth.length < nodes) {
+      int capacity = Math.max(nodes, depth.length * 3 / 2);
+      depth = new int[capacity];
+      startSize = new int[capacity];
+      endSize = new int[capacity];
+      stack = new int[capacity];
+      list = new int[capacity];
+      innerNodes = new int[capacity];
+      innerNodesByDepth = new long[capacity];
     }
-  };
+    listSize = 0;
+    innerNodesCount = 0;
+  }
 
   /**
    * Depth-first search (DFS).
    */
   private void dfs() {
-    LinkedList<Node> stack = Lists.newLinkedList();
-    stack.add(tree.getRootNode());
-    while (!stack.isEmpty()) {
-      Node node = stack.removeLast();
-      node.startSize = list.size();
-      if (node.getEdges().isEmpty()) {
+    int stackSize = 0;
+    stack[stackSize++] = SuffixTree.ROOT;
+    depth[SuffixTree.ROOT] = 0;
+    while (stackSize > 0) {
+      int node = stack[--stackSize];
+      startSize[node] = listSize;
+      int child = tree.getFirstChild(node);
+      if (child == SuffixTree.NONE) {
         // leaf
-        list.add(node.depth);
-        node.endSize = list.size();
+        list[listSize++] = depth[node];
+        endSize[node] = listSize;
       } else {
-        if (!node.equals(tree.getRootNode())) {
+        if (node != SuffixTree.ROOT) {
           // inner node = not leaf and not root
-          innerNodes.add(node);
+          innerNodes[innerNodesCount++] = node;
         }
-        for (Edge edge : node.getEdges()) {
-          Node endNode = edge.getEndNode();
-          endNode.depth = node.depth + edge.getSpan() + 1;
-          stack.addLast(endNode);
+        while (child != SuffixTree.NONE) {
+          depth[child] = depth[node] + tree.getEdgeEnd(child) - tree.getEdgeBegin(child) + 1;
+          stack[stackSize++] = child;
+          child = tree.getNextSibling(child);
         }
       }
     }
     // At this point all inner nodes are ordered by the time of entering, so we visit them from last to first
-    ListIterator<Node> iterator = innerNodes.listIterator(innerNodes.size());
-    while (iterator.hasPrevious()) {
-      Node node = iterator.previous();
+    for (int i = innerNodesCount - 1; i >= 0; i--) {
+      int node = innerNodes[i];
       int max = -1;
-      for (Edge edge : node.getEdges()) {
-        max = Math.max(edge.getEndNode().endSize, max);
+      for (int child = tree.getFirstChild(node); child != SuffixTree.NONE; child = tree.getNextSibling(child)) {
+        max = Math.max(endSize[child], max);
       }
-      node.endSize = max;
+      endSize[node] = max;
+    }
+  }
+
+  /**
+   * Sorts inner nodes in descending order of depth, nodes of same depth staying in order of entering.
+   */
+  private void sortInnerNodesByDepth() {
+    int length = tree.getLength();
+    for (int i = 0; i < innerNodesCount; i++) {
+      innerNodesByDepth[i] = ((long) (length - depth[innerNodes[i]]) << 32) | i;
     }
+    Arrays.sort(innerNodesByDepth, 0, innerNodesCount);
   }
 
   /**
    * Each inner-node represents prefix of some suffixes, thus substring of text.
    */
-  private void visitInnerNodes() {
-    for (Node node : innerNodes) {
-      if (containsOrigin(node)) {
-        report(node);
+  private void visitInnerNodes(TextSet text, Collector reporter) {
+    for (int i = 0; i < innerNodesCount; i++) {
+      int node = innerNodes[(int) innerNodesByDepth[i]];
+      if (containsOrigin(text, node)) {
+        report(reporter, node);
       }
     }
   }
 
   /**
-   * TODO Godin: in fact computations here are the same as in {@link #report(Node)},
+   * TODO Godin: in fact computations here are the same as in {@link #report(Collector, int)},
    * so maybe would be better to remove this duplication,
    * however it should be noted that this check can't be done in {@link Collector#endOfGroup()},
    * because it might lead to creation of unnecessary new objects
    */
-  private boolean containsOrigin(Node node) {
-    for (int i = node.startSize; i < node.endSize; i++) {
-      int start = tree.text.length() - list.get(i);
-      int end = start + node.depth;
+  private boolean containsOrigin(TextSet text, int node) {
+    for (int i = startSize[node]; i < endSize[node]; i++) {
+      int start = tree.getLength() - list[i];
+      int end = start + depth[node];
       if (text.isInsideOrigin(end)) {
         return true;
       }
@@ -124,11 +161,11 @@ public final class Search {
     return false;
   }
 
-  private void report(Node node) {
-    reporter.startOfGroup(node.endSize - node.startSize, node.depth);
-    for (int i = node.startSize; i < node.endSize; i++) {
-      int start = tree.text.length() - list.get(i);
-      int end = start + node.depth;
+  private void report(Collector reporter, int node) {
+    reporter.startOfGroup(endSize[node] - startSize[node], depth[node]);
+    for (int i = startSize[node]; i < endSize[node]; i++) {
+      int start = tree.getLength() - list[i];
+      int end = start + depth[node];
       reporter.part(start, end);
     }
     reporter.endOfGroup();
@@ -19,7 +19,7 @@
  */
 package org.sonar.duplications.detector.suffixtree;
 
-import com.google.common.base.Objects;
+import java.util.Arrays;
 
 /**
  * Provides algorithm to construct suffix tree.
@@ -39,87 +39,280 @@ import com.google.common.base.Objects;
  * </p><p>
  * This implementation was adapted from <a href="http://illya-keeplearning.blogspot.com/search/label/suffix%20tree">Java-port</a> of
  * <a href="http://marknelson.us/1996/08/01/suffix-trees/">Mark Nelson's C++ implementation of Ukkonen's algorithm</a>.
+ * </p><p>
+ * Symbols are coded as integers, and the tree is stored in arrays indexed by node. As each node except the root has exactly one
+ * incoming edge, an edge is identified by its end node. Children are found through an open-addressing hash table keyed by
+ * parent node and first symbol of the edge. Arrays are kept from one {@link #build(int[], int)} to the next, so that a single
+ * instance can be used to process many texts without allocations.
  * </p>
  */
 public final class SuffixTree {
 
-  final Text text;
+  static final int ROOT = 0;
+  static final int NONE = -1;
 
-  private final Node root;
+  private static final long EMPTY = -1L;
+  private static final long HASH_MULTIPLIER = 0x9E3779B97F4A7C15L;
 
-  public static SuffixTree create(Text text) {
-    SuffixTree tree = new SuffixTree(text);
-    Suffix active = new Suffix(tree.root, 0, -1);
-    for (int i = 0; i < text.length(); i++) {
-      tree.addPrefix(active, i);
-    }
+  private int[] text;
+  private int length;
+
+  // nodes, and edges by end node
+  private int nodes;
+  private int[] suffixNode = new int[0];
+  private int[] edgeBegin = new int[0];
+  private int[] edgeEnd = new int[0];
+  private int[] firstChild = new int[0];
+  private int[] nextSibling = new int[0];
+  private int[] previousSibling = new int[0];
+
+  // children by parent node and first symbol of edge
+  private long[] keys = new long[0];
+  private int[] values = new int[0];
+  private int hashBits;
+
+  // active point
+  private int activeNode;
+  private int activeBegin;
+  private int activeEnd;
+
+  public static SuffixTree create(int[] text, int length) {
+    SuffixTree tree = new SuffixTree();
+    tree.build(text, length);
     return tree;
   }
 
-  private SuffixTree(Text text) {
+  /**
+   * Builds the tree for the <code>length</code> first symbols of the given text, which must end with a unique symbol.
+   * The text is not copied, and must not be modified while the tree is in use.
+   */
+  public void build(int[] text, int length) {
     this.text = text;
-    root = new Node(this, null);
+    this.length = length;
+    ensureCapacity(2 * length + 1);
+    nodes = 0;
+    newNode();
+    activeNode = ROOT;
+    activeBegin = 0;
+    activeEnd = -1;
+    for (int i = 0; i < length; i++) {
+      addPrefix(i);
+    }
   }
 
-  private void addPrefix(Suffix active, int endIndex) {
-    Node lastParentNode = null;
-    Node parentNode;
+  private void ensureCapacity(int maxNodes) {
+    if (suffixNode.length < maxNodes) {
+      int capacity = Math.max(maxNodes, suffixNode.length * 3 / 2);
+      suffixNode = new int[capacity];
+      edgeBegin = new int[capacity];
+      edgeEnd = new int[capacity];
+      firstChild = new int[capacity];
+      nextSibling = new int[capacity];
+      previousSibling = new int[capacity];
+    }
+    // load factor of the hash table is at most 0.5
+    int bits = 1;
+    while ((1 << bits) < 2 * maxNodes) {
+      bits++;
+    }
+    if (keys.length < (1 << bits)) {
+      keys = new long[1 << bits];
+      values = new int[1 << bits];
+    }
+    hashBits = bits;
+    Arrays.fill(keys, 0, 1 << bits, EMPTY);
+  }
+
+  private void addPrefix(int endIndex) {
+    int lastParentNode = NONE;
+    int parentNode;
 
     while (true) {
-      Edge edge;
-      parentNode = active.getOriginNode();
+      parentNode = activeNode;
 
       // Step 1 is to try and find a matching edge for the given node.
       // If a matching edge exists, we are done adding edges, so we break out of this big loop.
-      if (active.isExplicit()) {
-        edge = active.getOriginNode().findEdge(symbolAt(endIndex));
-        if (edge != null) {
+      if (activeBegin > activeEnd) {
+        if (findChild(activeNode, text[endIndex]) != NONE) {
           break;
         }
       } else {
         // implicit node, a little more complicated
-        edge = active.getOriginNode().findEdge(symbolAt(active.getBeginIndex()));
-        int span = active.getSpan();
-        if (Objects.equal(symbolAt(edge.getBeginIndex() + span + 1), symbolAt(endIndex))) {
+        int edge = findChild(activeNode, text[activeBegin]);
+        int span = activeEnd - activeBegin;
+        if (text[edgeBegin[edge] + span + 1] == text[endIndex]) {
           break;
         }
-        parentNode = edge.splitEdge(active);
+        parentNode = splitEdge(edge);
       }
 
       // We didn't find a matching edge, so we create a new one, add it to the tree at the parent node position,
       // and insert it into the hash table. When we create a new node, it also means we need to create
       // a suffix link to the new node from the last node we visited.
-      Edge newEdge = new Edge(endIndex, text.length() - 1, parentNode);
-      newEdge.insert();
+      int leaf = newNode();
+      edgeBegin[leaf] = endIndex;
+      edgeEnd[leaf] = length - 1;
+      addChild(parentNode, leaf);
       updateSuffixNode(lastParentNode, parentNode);
       lastParentNode = parentNode;
 
       // This final step is where we move to the next smaller suffix
-      if (active.getOriginNode() == root) {
-        active.incBeginIndex();
+      if (activeNode == ROOT) {
+        activeBegin++;
       } else {
-        active.changeOriginNode();
+        activeNode = suffixNode[activeNode];
       }
-      active.canonize();
+      canonize();
     }
     updateSuffixNode(lastParentNode, parentNode);
-    active.incEndIndex();
+    activeEnd++;
     // Now the endpoint is the next active point
-    active.canonize();
+    canonize();
   }
 
-  private void updateSuffixNode(Node node, Node suffixNode) {
-    if ((node != null) && (!node.equals(root))) {
-      node.setSuffixNode(suffixNode);
+  /**
+   * Inserts a node in the middle of the edge going from the active node, at the position of the active point.
+   */
+  private int splitEdge(int edge) {
+    int span = activeEnd - activeBegin;
+    int node = newNode();
+    edgeBegin[node] = edgeBegin[edge];
+    edgeEnd[node] = edgeBegin[edge] + span;
+    suffixNode[node] = activeNode;
+    replaceChild(activeNode, edge, node);
+    edgeBegin[edge] += span + 1;
+    addChild(node, edge);
+    return node;
+  }
+
+  private void canonize() {
+    if (activeBegin <= activeEnd) {
+      int edge = findChild(activeNode, text[activeBegin]);
+      int edgeSpan = edgeEnd[edge] - edgeBegin[edge];
+      while (edgeSpan <= activeEnd - activeBegin) {
+        activeBegin += edgeSpan + 1;
+        activeNode = edge;
+        if (activeBegin <= activeEnd) {
+          edge = findChild(edge, text[activeBegin]);
+          edgeSpan = edgeEnd[edge] - edgeBegin[edge];
+        }
+      }
+    }
+  }
+
+  private void updateSuffixNode(int node, int suffix) {
+    if (node != NONE && node != ROOT) {
+      suffixNode[node] = suffix;
     }
   }
 
-  public Object symbolAt(int index) {
-    return text.symbolAt(index);
+  private int newNode() {
+    int node = nodes;
+    nodes++;
+    suffixNode[node] = NONE;
+    firstChild[node] = NONE;
+    nextSibling[node] = NONE;
+    previousSibling[node] = NONE;
+    return node;
+  }
+
+  private void addChild(int parent, int child) {
+    put(parent, text[edgeBegin[child]], child);
+    int first = firstChild[parent];
+    nextSibling[child] = first;
+    previousSibling[child] = NONE;
+    if (first != NONE) {
+      previousSibling[first] = child;
+    }
+    firstChild[parent] = child;
+  }
+
+  /**
+   * The new child starts with the same symbol as the replaced one, and takes its place in the list of children.
+   */
+  private void replaceChild(int parent, int child, int newChild) {
+    put(parent, text[edgeBegin[newChild]], newChild);
+    int previous = previousSibling[child];
+    int next = nextSibling[child];
+    previousSibling[newChild] = previous;
+    nextSibling[newChild] = next;
+    if (previous == NONE) {
+      firstChild[parent] = newChild;
+    } else {
+      nextSibling[previous] = newChild;
+    }
+    if (next != NONE) {
+      previousSibling[next] = newChild;
+    }
+  }
+
+  private void put(int node, int symbol, int child) {
+    long key = key(node, symbol);
+    int mask = (1 << hashBits) - 1;
+    int slot = slot(key);
+    while (keys[slot] != EMPTY && keys[slot] != key) {
+      slot = (slot + 1) & mask;
+    }
+    keys[slot] = key;
+    values[slot] = child;
+  }
+
+  /**
+   * @return end node of the edge starting with given symbol, or {@link #NONE}
+   */
+  int findChild(int node, int symbol) {
+    long key = key(node, symbol);
+    int mask = (1 << hashBits) - 1;
+    int slot = slot(key);
+    while (keys[slot] != EMPTY) {
+      if (keys[slot] == key) {
+        return values[slot];
+      }
+      slot = (slot + 1) & mask;
+    }
+    return NONE;
+  }
+
+  private static long key(int node, int symbol) {
+    return ((long) node << 32) | (symbol & 0xFFFFFFFFL);
+  }
+
+  private int slot(long key) {
+    return (int) ((key * HASH_MULTIPLIER) >>> (64 - hashBits));
+  }
+
+  int getNumberOfNodes() {
+    return nodes;
+  }
+
+  int getLength() {
+    return length;
+  }
+
+  int symbolAt(int index) {
+    return text[index];
+  }
+
+  int getFirstChild(int node) {
+    return firstChild[node];
+  }
+
+  int getNextSibling(int node) {
+    return nextSibling[node];
+  }
+
+  /**
+   * @return index of the first symbol of the edge ending at given node
+   */
+  int getEdgeBegin(int node) {
+    return edgeBegin[node];
   }
 
-  public Node getRootNode() {
-    return root;
+  /**
+   * @return index of the last symbol of the edge ending at given node
+   */
+  int getEdgeEnd(int node) {
+    return edgeEnd[node];
   }
 
 }
@@ -23,6 +23,7 @@ import java.util.*;
 
 import org.sonar.duplications.block.Block;
 import org.sonar.duplications.block.ByteArray;
+import org.sonar.duplications.index.AbstractCloneIndex;
 import org.sonar.duplications.index.CloneGroup;
 import org.sonar.duplications.index.CloneIndex;
 
@@ -30,7 +31,25 @@ import com.google.common.collect.*;
 
 public final class SuffixTreeCloneDetectionAlgorithm {
 
+  private final Search search = new Search();
+
+  /**
+   * Instances keep their suffix tree and work arrays from one detection to the next, which saves allocations when
+   * detecting duplications of many files. They are not thread-safe.
+   *
+   * @since 4.1
+   */
+  public SuffixTreeCloneDetectionAlgorithm() {
+  }
+
   public static List<CloneGroup> detect(CloneIndex cloneIndex, Collection<Block> fileBlocks) {
+    return new SuffixTreeCloneDetectionAlgorithm().detectClones(cloneIndex, fileBlocks);
+  }
+
+  /**
+   * @since 4.1
+   */
+  public List<CloneGroup> detectClones(CloneIndex cloneIndex, Collection<Block> fileBlocks) {
     if (fileBlocks.isEmpty()) {
       return Collections.EMPTY_LIST;
     }
@@ -39,23 +58,34 @@ public final class SuffixTreeCloneDetectionAlgorithm {
       return Collections.EMPTY_LIST;
     }
     DuplicationsCollector reporter = new DuplicationsCollector(text);
-    Search.perform(text, reporter);
+    search.search(text, reporter);
     return reporter.getResult();
   }
 
-  private SuffixTreeCloneDetectionAlgorithm() {
-  }
-
   private static TextSet createTextSet(CloneIndex index, Collection<Block> fileBlocks) {
+    // Godin: hashes of 8 bytes are collected without boxing, others are kept as ByteArray
+    long[] longHashes = new long[fileBlocks.size()];
+    int longHashesCount = 0;
     Set<ByteArray> hashes = Sets.newHashSet();
     for (Block fileBlock : fileBlocks) {
-      hashes.add(fileBlock.getBlockHash());
+      if (fileBlock.hasLongHash()) {
+        longHashes[longHashesCount++] = fileBlock.getLongHash();
+      } else {
+        hashes.add(fileBlock.getBlockHash());
+      }
     }
+    longHashesCount = sortAndRemoveDuplicates(longHashes, longHashesCount);
 
     String originResourceId = fileBlocks.iterator().next().getResourceId();
-    Map<String, List<Block>> fromIndex = retrieveFromIndex(index, originResourceId, hashes);
+    Map<String, List<Block>> fromIndex = Maps.newHashMap();
+    for (int i = 0; i < longHashesCount; i++) {
+      addFromIndex(fromIndex, originResourceId, getBySequenceHash(index, longHashes[i]));
+    }
+    for (ByteArray hash : hashes) {
+      addFromIndex(fromIndex, originResourceId, index.getBySequenceHash(hash));
+    }
 
-    if (fromIndex.isEmpty() && hashes.size() == fileBlocks.size()) {
+    if (fromIndex.isEmpty() && longHashesCount + hashes.size() == fileBlocks.size()) {
       // optimization for the case when there is no duplications
       return null;
     }
@@ -63,6 +93,30 @@ public final class SuffixTreeCloneDetectionAlgorithm {
     return createTextSet(fileBlocks, fromIndex);
   }
 
+  /**
+   * Only {@link AbstractCloneIndex} accepts hashes as long, other indexes are queried by {@link ByteArray}.
+   */
+  private static Collection<Block> getBySequenceHash(CloneIndex index, long hash) {
+    if (index instanceof AbstractCloneIndex) {
+      return ((AbstractCloneIndex) index).getBySequenceHash(hash);
+    }
+    return index.getBySequenceHash(new ByteArray(hash));
+  }
+
+  /**
+   * @return number of distinct values, which are moved to the beginning of array
+   */
+  private static int sortAndRemoveDuplicates(long[] values, int length) {
+    Arrays.sort(values, 0, length);
+    int distinct = 0;
+    for (int i = 0; i < length; i++) {
+      if (distinct == 0 || values[i] != values[distinct - 1]) {
+        values[distinct++] = values[i];
+      }
+    }
+    return distinct;
+  }
+
   private static TextSet createTextSet(Collection<Block> fileBlocks, Map<String, List<Block>> fromIndex) {
     TextSet.Builder textSetBuilder = TextSet.builder();
     // TODO Godin: maybe we can reduce size of tree and so memory consumption by removing non-repeatable blocks
@@ -87,24 +141,19 @@ public final class SuffixTreeCloneDetectionAlgorithm {
     return textSetBuilder.build();
   }
 
-  private static Map<String, List<Block>> retrieveFromIndex(CloneIndex index, String originResourceId, Set<ByteArray> hashes) {
-    Map<String, List<Block>> collection = Maps.newHashMap();
-    for (ByteArray hash : hashes) {
-      Collection<Block> blocks = index.getBySequenceHash(hash);
-      for (Block blockFromIndex : blocks) {
-        // Godin: skip blocks for this file if they come from index
-        String resourceId = blockFromIndex.getResourceId();
-        if (!originResourceId.equals(resourceId)) {
-          List<Block> list = collection.get(resourceId);
-          if (list == null) {
-            list = Lists.newArrayList();
-            collection.put(resourceId, list);
-          }
-          list.add(blockFromIndex);
+  private static void addFromIndex(Map<String, List<Block>> collection, String originResourceId, Collection<Block> blocks) {
+    for (Block blockFromIndex : blocks) {
+      // Godin: skip blocks for this file if they come from index
+      String resourceId = blockFromIndex.getResourceId();
+      if (!originResourceId.equals(resourceId)) {
+        List<Block> list = collection.get(resourceId);
+        if (list == null) {
+          list = Lists.newArrayList();
+          collection.put(resourceId, list);
         }
+        list.add(blockFromIndex);
       }
     }
-    return collection;
   }
 
   private static final Comparator<Block> BLOCK_COMPARATOR = new Comparator<Block>() {
@@ -19,37 +19,113 @@
  */
 package org.sonar.duplications.detector.suffixtree;
 
-import java.util.List;
-
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
 import org.sonar.duplications.block.Block;
+import org.sonar.duplications.block.ByteArray;
 
-import com.google.common.collect.Lists;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
 
 /**
  * Simplifies construction of <a href="http://en.wikipedia.org/wiki/Generalised_suffix_tree">generalised suffix-tree</a>.
+ * <p>
+ * Blocks are coded by their hashes as non-negative integers, and each list of blocks is followed by a unique negative terminator.
+ * </p>
  */
-public final class TextSet extends AbstractText {
+public final class TextSet {
 
   public static final class Builder {
 
-    private List<Object> symbols = Lists.newArrayList();
-    private Integer lengthOfOrigin;
+    private final List<Block> blocks = Lists.newArrayList();
+    private final Map<ByteArray, Integer> codes = Maps.newHashMap();
+    /**
+     * Open addressing table of codes of hashes of 8 bytes. Codes are stored incremented by one, so that free slots contain 0.
+     */
+    private long[] longHashes = new long[64];
+    private int[] longCodes = new int[64];
+    private int longCodesCount;
+    private int codesCount;
+    private int[] symbols = new int[64];
+    private int lengthOfOrigin = -1;
     private int count;
 
     private Builder() {
     }
 
     public void add(List<Block> list) {
-      symbols.addAll(list);
-      symbols.add(new Terminator(count));
+      for (Block block : list) {
+        append(block, block.hasLongHash() ? code(block.getLongHash()) : code(block.getBlockHash()));
+      }
       count++;
-      if (lengthOfOrigin == null) {
-        lengthOfOrigin = symbols.size();
+      append(null, -count);
+      if (lengthOfOrigin == -1) {
+        lengthOfOrigin = blocks.size();
+      }
+    }
+
+    private int code(ByteArray hash) {
+      Integer code = codes.get(hash);
+      if (code == null) {
+        code = codesCount++;
+        codes.put(hash, code);
+      }
+      return code;
+    }
+
+    private int code(long hash) {
+      int mask = longCodes.length - 1;
+      int slot = slot(hash) & mask;
+      while (longCodes[slot] != 0) {
+        if (longHashes[slot] == hash) {
+          return longCodes[slot] - 1;
+        }
+        slot = (slot + 1) & mask;
+      }
+      int code = codesCount++;
+      longHashes[slot] = hash;
+      longCodes[slot] = code + 1;
+      longCodesCount++;
+      if (2 * longCodesCount > longCodes.length) {
+        rehash();
+      }
+      return code;
+    }
+
+    private void rehash() {
+      long[] oldHashes = longHashes;
+      int[] oldCodes = longCodes;
+      longHashes = new long[oldHashes.length * 2];
+      longCodes = new int[oldCodes.length * 2];
+      int mask = longCodes.length - 1;
+      for (int i = 0; i < oldCodes.length; i++) {
+        if (oldCodes[i] != 0) {
+          int slot = slot(oldHashes[i]) & mask;
+          while (longCodes[slot] != 0) {
+            slot = (slot + 1) & mask;
+          }
+          longHashes[slot] = oldHashes[i];
+          longCodes[slot] = oldCodes[i];
+        }
+      }
+    }
+
+    private static int slot(long hash) {
+      int h = (int) (hash ^ (hash >>> 32)) * 0x9E3779B9;
+      return h ^ (h >>> 16);
+    }
+
+    private void append(Block block, int symbol) {
+      if (blocks.size() == symbols.length) {
+        symbols = Arrays.copyOf(symbols, symbols.length * 2);
       }
+      symbols[blocks.size()] = symbol;
+      blocks.add(block);
     }
 
     public TextSet build() {
-      return new TextSet(symbols, lengthOfOrigin);
+      return new TextSet(blocks.toArray(new Block[blocks.size()]), symbols, lengthOfOrigin);
     }
 
   }
@@ -58,57 +134,43 @@ public final class TextSet extends AbstractText {
     return new Builder();
   }
 
+  private final Block[] blocks;
+  private final int[] symbols;
   private final int lengthOfOrigin;
 
-  private TextSet(List<Object> symbols, int lengthOfOrigin) {
-    super(symbols);
+  private TextSet(Block[] blocks, int[] symbols, int lengthOfOrigin) {
+    this.blocks = blocks;
+    this.symbols = symbols;
     this.lengthOfOrigin = lengthOfOrigin;
   }
 
+  public int length() {
+    return blocks.length;
+  }
+
   public boolean isInsideOrigin(int pos) {
     return pos < lengthOfOrigin;
   }
 
-  @Override
-  public Object symbolAt(int index) {
-    Object obj = super.symbolAt(index);
-    if (obj instanceof Block) {
-      return ((Block) obj).getBlockHash();
-    }
-    return obj;
+  /**
+   * @return code of the hash of the block at given index, or a negative value for terminators
+   */
+  public int symbolAt(int index) {
+    return symbols[index];
   }
 
+  /**
+   * @return null for terminators
+   */
   public Block getBlock(int index) {
-    return (Block) super.symbolAt(index);
+    return blocks[index];
   }
 
-  public static class Terminator {
-
-    private final int stringNumber;
-
-    public Terminator(int i) {
-      this.stringNumber = i;
-    }
-
-    @Override
-    public boolean equals(Object obj) {
-      return (obj instanceof Terminator) && (((Terminator) obj).stringNumber == stringNumber);
-    }
-
-    @Override
-    public int hashCode() {
-      return stringNumber;
-    }
-
-    public int getStringNumber() {
-      return stringNumber;
-    }
-
-    @Override
-    public String toString() {
-      return "$" + stringNumber;
-    }
-
+  /**
+   * Symbols of the text, possibly followed by unused elements.
+   */
+  int[] getSymbols() {
+    return symbols;
   }
 
 }
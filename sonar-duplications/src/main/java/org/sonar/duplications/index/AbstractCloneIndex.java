@@ -19,6 +19,22 @@
  */
 package org.sonar.duplications.index;
 
+import org.sonar.duplications.block.Block;
+import org.sonar.duplications.block.ByteArray;
+
+import java.util.Collection;
+
 public abstract class AbstractCloneIndex implements CloneIndex {
 
+  /**
+   * Same as {@code getBySequenceHash(new ByteArray(hash))}, but allows implementations to avoid conversions of hash.
+   * By default converts hash into {@link ByteArray} and delegates to {@link #getBySequenceHash(ByteArray)}.
+   *
+   * @see Block#getLongHash()
+   * @since 4.1
+   */
+  public Collection<Block> getBySequenceHash(long hash) {
+    return getBySequenceHash(new ByteArray(hash));
+  }
+
 }
@@ -47,6 +47,11 @@ public class PackedMemoryCloneIndex extends AbstractCloneIndex {
 
   private static final int BLOCK_INTS = 5;
 
+  /**
+   * Number of ints in hashes of 8 bytes, which are read and written without conversion to {@link ByteArray}.
+   */
+  private static final int LONG_HASH_INTS = 2;
+
   private final int hashInts;
 
   private final int blockInts;
@@ -106,9 +111,15 @@ public class PackedMemoryCloneIndex extends AbstractCloneIndex {
     while (index < size && FastStringComparator.INSTANCE.compare(resourceIds[realIndex], resourceId) == 0) {
       // extract block (note that there is no need to extract resourceId)
       int offset = realIndex * blockInts;
-      int[] hash = new int[hashInts];
-      for (int j = 0; j < hashInts; j++) {
-        hash[j] = blockData[offset++];
+      if (hashInts == LONG_HASH_INTS) {
+        blockBuilder.setBlockHash(((long) blockData[offset] << 32) | (blockData[offset + 1] & 0xFFFFFFFFL));
+        offset += LONG_HASH_INTS;
+      } else {
+        int[] hash = new int[hashInts];
+        for (int j = 0; j < hashInts; j++) {
+          hash[j] = blockData[offset++];
+        }
+        blockBuilder.setBlockHash(new ByteArray(hash));
       }
       int indexInFile = blockData[offset++];
       int firstLineNumber = blockData[offset++];
@@ -118,7 +129,6 @@ public class PackedMemoryCloneIndex extends AbstractCloneIndex {
 
       Block block = blockBuilder
           .setResourceId(resourceId)
-          .setBlockHash(new ByteArray(hash))
           .setIndexInFile(indexInFile)
           .setLines(firstLineNumber, lastLineNumber)
           .setUnit(startUnit, endUnit)
@@ -147,13 +157,39 @@ public class PackedMemoryCloneIndex extends AbstractCloneIndex {
       blockData[offset++] = hash[i];
     }
 
+    blockBuilder.setBlockHash(sequenceHash);
+    return getBySearchedHash();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public Collection<Block> getBySequenceHash(long sequenceHash) {
+    if (hashInts != LONG_HASH_INTS) {
+      throw new IllegalArgumentException("Expected " + hashInts + " ints in hash, but got " + LONG_HASH_INTS);
+    }
+    ensureSorted();
+
+    // prepare hash for binary search
+    int offset = size * blockInts;
+    blockData[offset] = (int) (sequenceHash >>> 32);
+    blockData[offset + 1] = (int) sequenceHash;
+
+    blockBuilder.setBlockHash(sequenceHash);
+    return getBySearchedHash();
+  }
+
+  /**
+   * Returns blocks with the hash stored after the last block, which is also set into {@link #blockBuilder}.
+   */
+  private List<Block> getBySearchedHash() {
     int index = DataUtils.binarySearch(byBlockHash);
 
     List<Block> result = Lists.newArrayList();
     while (index < size && !isLessByHash(size, index)) {
       // extract block (note that there is no need to extract hash)
       String resourceId = resourceIds[index];
-      offset = index * blockInts + hashInts;
+      int offset = index * blockInts + hashInts;
       int indexInFile = blockData[offset++];
       int firstLineNumber = blockData[offset++];
       int lastLineNumber = blockData[offset++];
@@ -162,7 +198,6 @@ public class PackedMemoryCloneIndex extends AbstractCloneIndex {
 
       Block block = blockBuilder
           .setResourceId(resourceId)
-          .setBlockHash(sequenceHash)
           .setIndexInFile(indexInFile)
           .setLines(firstLineNumber, lastLineNumber)
           .setUnit(startUnit, endUnit)
@@ -185,13 +220,19 @@ public class PackedMemoryCloneIndex extends AbstractCloneIndex {
 
     resourceIds[size] = block.getResourceId();
 
-    int[] hash = block.getBlockHash().toIntArray();
-    if (hash.length != hashInts) {
-      throw new IllegalArgumentException("Expected " + hashInts + " ints in hash, but got " + hash.length);
-    }
     int offset = size * blockInts;
-    for (int i = 0; i < hashInts; i++) {
-      blockData[offset++] = hash[i];
+    if (hashInts == LONG_HASH_INTS && block.hasLongHash()) {
+      long hash = block.getLongHash();
+      blockData[offset++] = (int) (hash >>> 32);
+      blockData[offset++] = (int) hash;
+    } else {
+      int[] hash = block.getBlockHash().toIntArray();
+      if (hash.length != hashInts) {
+        throw new IllegalArgumentException("Expected " + hashInts + " ints in hash, but got " + hash.length);
+      }
+      for (int i = 0; i < hashInts; i++) {
+        blockData[offset++] = hash[i];
+      }
     }
     blockData[offset++] = block.getIndexInFile();
     blockData[offset++] = block.getStartLine();
@@ -21,7 +21,6 @@ package org.sonar.duplications.internal.pmd;
 
 import com.google.common.collect.Lists;
 import org.sonar.duplications.block.Block;
-import org.sonar.duplications.block.ByteArray;
 
 import java.util.Collections;
 import java.util.List;
@@ -84,7 +83,7 @@ public class PmdBlockChunker {
       hash = hash * PRIME_BASE + lastFragment.getHashCode();
       // create block
       Block block = blockBuilder
-          .setBlockHash(new ByteArray(hash))
+          .setBlockHash(hash)
           .setIndexInFile(first)
           .setLines(firstFragment.getStartLine(), lastFragment.getEndLine())
           .setUnit(firstFragment.getStartUnit(), lastFragment.getEndUnit())
@@ -19,6 +19,7 @@
  */
 package org.sonar.duplications.java;
 
+import org.sonar.channel.Dfa;
 import org.sonar.duplications.token.TokenChunker;
 
 /**
@@ -39,45 +40,60 @@ public final class JavaTokenProducer {
   private static final String NORMALIZED_CHARACTER_LITERAL = "$CHARS";
   private static final String NORMALIZED_NUMERIC_LITERAL = "$NUMBER";
 
-  private static final String EXP = "([Ee][+-]?+[0-9_]++)";
-  private static final String BINARY_EXP = "([Pp][+-]?+[0-9_]++)";
+  private static final String EXP = "([Ee][+-]?[0-9_]+)";
+  private static final String BINARY_EXP = "([Pp][+-]?[0-9_]+)";
 
   private static final String FLOAT_SUFFIX = "[fFdD]";
   private static final String INT_SUFFIX = "[lL]";
 
+  // Tokens are matched by automata, which are immutable and compiled once. As they return the longest match, they are
+  // written with greedy quantifiers and without ambiguity, so that they match the same tokens as the possessive regular
+  // expressions. The traditional comment is described without reluctant quantifier : it ends at the first star-slash.
+
+  // White Space
+  private static final Dfa WHITESPACE = Dfa.compile("\\s");
+  // Comments
+  private static final Dfa END_OF_LINE_COMMENT = Dfa.compile("//[^\\n\\r]*");
+  private static final Dfa TRADITIONAL_COMMENT = Dfa.compile("/\\*[^*]*\\*+([^/*][^*]*\\*+)*/");
+  // String Literals
+  private static final Dfa STRING_LITERAL = Dfa.compile("\"([^\"\\\\]*(\\\\[\\s\\S])?)*\"");
+  // Character Literals
+  private static final Dfa CHARACTER_LITERAL = Dfa.compile("'([^'\\n\\\\]*(\\\\.)?)*'");
+  // Identifiers, Keywords, Boolean Literals, The Null Literal
+  private static final Dfa IDENTIFIER = Dfa.compile("\\p{javaJavaIdentifierStart}\\p{javaJavaIdentifierPart}*");
+  // Floating-Point Literals
+  private static final Dfa DECIMAL_FLOAT_WITH_DOT = Dfa.compile("[0-9_]+\\.([0-9_]+)?" + EXP + "?" + FLOAT_SUFFIX + "?");
+  private static final Dfa DECIMAL_FLOAT_STARTING_WITH_DOT = Dfa.compile("\\.[0-9_]+" + EXP + "?" + FLOAT_SUFFIX + "?");
+  private static final Dfa DECIMAL_FLOAT_WITH_EXP = Dfa.compile("[0-9_]+" + EXP + FLOAT_SUFFIX + "?");
+  // the float suffix is also an hexadecimal digit, so this expression is ambiguous and is matched by a regular expression
+  private static final String HEXADECIMAL_FLOAT_WITH_DOT = "0[xX][0-9a-fA-F_]++\\.[0-9a-fA-F_]*+" + BINARY_EXP + "?+" + FLOAT_SUFFIX + "?+";
+  private static final Dfa HEXADECIMAL_FLOAT = Dfa.compile("0[xX][0-9a-fA-F_]+" + BINARY_EXP + FLOAT_SUFFIX + "?");
+  // Integer Literals
+  private static final Dfa HEXADECIMAL_INTEGER = Dfa.compile("0[xX][0-9a-fA-F_]+" + INT_SUFFIX + "?");
+  // Binary (Java 7)
+  private static final Dfa BINARY_INTEGER = Dfa.compile("0[bB][01_]+" + INT_SUFFIX + "?");
+  // Decimal and Octal
+  private static final Dfa DECIMAL_INTEGER = Dfa.compile("[0-9_]+" + INT_SUFFIX + "?");
+  // Any other character
+  private static final Dfa ANY_CHARACTER = Dfa.compile(".");
+
   public static TokenChunker build() {
     return TokenChunker.builder()
-        // White Space
-        .ignore("\\s")
-        // Comments
-        .ignore("//[^\\n\\r]*+")
-        .ignore("/\\*[\\s\\S]*?\\*/")
-        // String Literals
-        .token("\"([^\"\\\\]*+(\\\\[\\s\\S])?+)*+\"", NORMALIZED_CHARACTER_LITERAL)
-        // Character Literals
-        .token("'([^'\\n\\\\]*+(\\\\.)?+)*+'", NORMALIZED_CHARACTER_LITERAL)
-        // Identifiers, Keywords, Boolean Literals, The Null Literal
-        .token("\\p{javaJavaIdentifierStart}++\\p{javaJavaIdentifierPart}*+")
-        // Floating-Point Literals
-        // Decimal
-        .token("[0-9_]++\\.([0-9_]++)?+" + EXP + "?+" + FLOAT_SUFFIX + "?+", NORMALIZED_NUMERIC_LITERAL)
-        // Decimal
-        .token("\\.[0-9_]++" + EXP + "?+" + FLOAT_SUFFIX + "?+", NORMALIZED_NUMERIC_LITERAL)
-        // Decimal
-        .token("[0-9_]++" + EXP + FLOAT_SUFFIX + "?+", NORMALIZED_NUMERIC_LITERAL)
-        // Hexadecimal
-        .token("0[xX][0-9a-fA-F_]++\\.[0-9a-fA-F_]*+" + BINARY_EXP + "?+" + FLOAT_SUFFIX + "?+", NORMALIZED_NUMERIC_LITERAL)
-        // Hexadecimal
-        .token("0[xX][0-9a-fA-F_]++" + BINARY_EXP + FLOAT_SUFFIX + "?+", NORMALIZED_NUMERIC_LITERAL)
-        // Integer Literals
-        // Hexadecimal
-        .token("0[xX][0-9a-fA-F_]++" + INT_SUFFIX + "?+", NORMALIZED_NUMERIC_LITERAL)
-        // Binary (Java 7)
-        .token("0[bB][01_]++" + INT_SUFFIX + "?+", NORMALIZED_NUMERIC_LITERAL)
-        // Decimal and Octal
-        .token("[0-9_]++" + INT_SUFFIX + "?+", NORMALIZED_NUMERIC_LITERAL)
-        // Any other character
-        .token(".")
+        .ignore(WHITESPACE)
+        .ignore(END_OF_LINE_COMMENT)
+        .ignore(TRADITIONAL_COMMENT)
+        .token(STRING_LITERAL, NORMALIZED_CHARACTER_LITERAL)
+        .token(CHARACTER_LITERAL, NORMALIZED_CHARACTER_LITERAL)
+        .token(IDENTIFIER)
+        .token(DECIMAL_FLOAT_WITH_DOT, NORMALIZED_NUMERIC_LITERAL)
+        .token(DECIMAL_FLOAT_STARTING_WITH_DOT, NORMALIZED_NUMERIC_LITERAL)
+        .token(DECIMAL_FLOAT_WITH_EXP, NORMALIZED_NUMERIC_LITERAL)
+        .token(HEXADECIMAL_FLOAT_WITH_DOT, NORMALIZED_NUMERIC_LITERAL)
+        .token(HEXADECIMAL_FLOAT, NORMALIZED_NUMERIC_LITERAL)
+        .token(HEXADECIMAL_INTEGER, NORMALIZED_NUMERIC_LITERAL)
+        .token(BINARY_INTEGER, NORMALIZED_NUMERIC_LITERAL)
+        .token(DECIMAL_INTEGER, NORMALIZED_NUMERIC_LITERAL)
+        .token(ANY_CHARACTER)
         .build();
   }
 
@@ -19,17 +19,45 @@
  */
 package org.sonar.duplications.token;
 
+import org.sonar.channel.Channel;
+import org.sonar.channel.CodeReader;
+import org.sonar.channel.Dfa;
+import org.sonar.channel.DfaChannel;
 import org.sonar.channel.RegexChannel;
 
-class BlackHoleTokenChannel extends RegexChannel<TokenQueue> {
+class BlackHoleTokenChannel extends Channel<TokenQueue> {
+
+  private final Channel<TokenQueue> channel;
 
   public BlackHoleTokenChannel(String regex) {
-    super(regex);
+    channel = new RegexChannel<TokenQueue>(regex) {
+      @Override
+      protected void consume(CharSequence token, TokenQueue output) {
+        // do nothing
+      }
+    };
+  }
+
+  /**
+   * @since 4.1
+   */
+  public BlackHoleTokenChannel(Dfa dfa) {
+    channel = new DfaChannel<TokenQueue>(dfa) {
+      @Override
+      protected void consume(CharSequence token, TokenQueue output) {
+        // do nothing
+      }
+    };
+  }
+
+  @Override
+  public boolean consume(CodeReader code, TokenQueue output) {
+    return channel.consume(code, output);
   }
 
   @Override
-  protected void consume(CharSequence token, TokenQueue output) {
-    // do nothing
+  public boolean canStartWith(char c) {
+    return channel.canStartWith(c);
   }
 
 }
@@ -25,15 +25,20 @@ import java.util.regex.Pattern;
 import org.sonar.channel.Channel;
 import org.sonar.channel.CodeBuffer.Cursor;
 import org.sonar.channel.CodeReader;
+import org.sonar.channel.Dfa;
+import org.sonar.channel.StartCharacters;
 
 class TokenChannel extends Channel<TokenQueue> {
 
   private final StringBuilder tmpBuilder = new StringBuilder();
   private final Matcher matcher;
+  private final Dfa dfa;
   private String normalizationValue;
+  private boolean[] startCharacters;
 
   public TokenChannel(String regex) {
     matcher = Pattern.compile(regex).matcher("");
+    dfa = null;
   }
 
   public TokenChannel(String regex, String normalizationValue) {
@@ -41,16 +46,39 @@ class TokenChannel extends Channel<TokenQueue> {
     this.normalizationValue = normalizationValue;
   }
 
+  /**
+   * @since 4.1
+   */
+  public TokenChannel(Dfa dfa, String normalizationValue) {
+    this.matcher = null;
+    this.dfa = dfa;
+    this.normalizationValue = normalizationValue;
+  }
+
+  @Override
+  public boolean canStartWith(char c) {
+    if (dfa != null) {
+      return dfa.canStartWith(c);
+    }
+    if (startCharacters == null) {
+      startCharacters = StartCharacters.of(matcher.pattern());
+    }
+    return c >= startCharacters.length || startCharacters[c];
+  }
+
   @Override
   public boolean consume(CodeReader code, TokenQueue output) {
-    if (code.popTo(matcher, tmpBuilder) > 0) {
-      // see SONAR-2499
-      Cursor previousCursor = code.getPreviousCursor();
-      if (normalizationValue != null) {
-        output.add(new Token(normalizationValue, previousCursor.getLine(), previousCursor.getColumn()));
-      } else {
-        output.add(new Token(tmpBuilder.toString(), previousCursor.getLine(), previousCursor.getColumn()));
+    if (dfa != null) {
+      // the token is a view on the buffer of the reader, which is copied only if not normalized
+      CharSequence token = code.popTo(dfa);
+      if (token != null && token.length() > 0) {
+        add(code, output, token);
+        return true;
       }
+      return false;
+    }
+    if (code.popTo(matcher, tmpBuilder) > 0) {
+      add(code, output, tmpBuilder);
       // Godin: note that other channels use method delete in order to do the same thing
       tmpBuilder.setLength(0);
       return true;
@@ -58,4 +86,14 @@ class TokenChannel extends Channel<TokenQueue> {
     return false;
   }
 
+  private void add(CodeReader code, TokenQueue output, CharSequence token) {
+    // see SONAR-2499
+    Cursor previousCursor = code.getPreviousCursor();
+    if (normalizationValue != null) {
+      output.add(new Token(normalizationValue, previousCursor.getLine(), previousCursor.getColumn()));
+    } else {
+      output.add(new Token(token.toString(), previousCursor.getLine(), previousCursor.getColumn()));
+    }
+  }
+
 }
@@ -20,10 +20,11 @@
 package org.sonar.duplications.token;
 
 import java.io.Reader;
-import java.io.StringReader;
+import java.nio.charset.Charset;
 
 import org.sonar.channel.ChannelDispatcher;
 import org.sonar.channel.CodeReader;
+import org.sonar.channel.Dfa;
 import org.sonar.duplications.DuplicationsException;
 
 public final class TokenChunker {
@@ -39,11 +40,23 @@ public final class TokenChunker {
   }
 
   public TokenQueue chunk(String sourceCode) {
-    return chunk(new StringReader(sourceCode));
+    return chunk(new CodeReader(sourceCode));
   }
 
   public TokenQueue chunk(Reader reader) {
-    CodeReader code = new CodeReader(reader);
+    return chunk(new CodeReader(reader));
+  }
+
+  /**
+   * Decodes the content directly into the buffer of the lexer, without intermediate Reader.
+   *
+   * @since 4.1
+   */
+  public TokenQueue chunk(byte[] content, Charset charset) {
+    return chunk(new CodeReader(content, charset));
+  }
+
+  private TokenQueue chunk(CodeReader code) {
     TokenQueue queue = new TokenQueue();
     try {
       channelDispatcher.consume(code, queue);
@@ -93,6 +106,36 @@ public final class TokenChunker {
       return this;
     }
 
+    /**
+     * Same as {@link #ignore(String)}, but the sequence of characters is matched by a {@link Dfa}.
+     *
+     * @since 4.1
+     */
+    public Builder ignore(Dfa dfa) {
+      channelDispatcherBuilder.addChannel(new BlackHoleTokenChannel(dfa));
+      return this;
+    }
+
+    /**
+     * Same as {@link #token(String)}, but the sequence of characters is matched by a {@link Dfa}.
+     *
+     * @since 4.1
+     */
+    public Builder token(Dfa dfa) {
+      channelDispatcherBuilder.addChannel(new TokenChannel(dfa, null));
+      return this;
+    }
+
+    /**
+     * Same as {@link #token(String, String)}, but the sequence of characters is matched by a {@link Dfa}.
+     *
+     * @since 4.1
+     */
+    public Builder token(Dfa dfa, String normalizationValue) {
+      channelDispatcherBuilder.addChannel(new TokenChannel(dfa, normalizationValue));
+      return this;
+    }
+
     private ChannelDispatcher<TokenQueue> getChannelDispatcher() {
       return channelDispatcherBuilder.build();
     }
@@ -49,4 +49,36 @@ public class BlockTest {
     assertThat(block.getEndUnit(), is(5));
   }
 
+  @Test
+  public void should_store_hash_of_8_bytes_as_long() {
+    Block block = Block.builder()
+        .setResourceId("resource")
+        .setBlockHash(new ByteArray("fedcba9876543210"))
+        .build();
+
+    assertThat(block.hasLongHash(), is(true));
+    assertThat(block.getLongHash(), is(0xfedcba9876543210L));
+    assertThat(block.getBlockHash(), is(new ByteArray(0xfedcba9876543210L)));
+    assertThat(block.getHashHex(), is("fedcba9876543210"));
+    assertThat(block, is(Block.builder().setResourceId("resource").setBlockHash(0xfedcba9876543210L).build()));
+  }
+
+  @Test
+  public void should_reset_hash_when_builder_reused() {
+    Block.Builder builder = Block.builder().setResourceId("resource");
+    Block longHash = builder.setBlockHash(1L).build();
+    Block shortHash = builder.setBlockHash(new ByteArray(1)).build();
+
+    assertThat(longHash.getHashHex(), is("0000000000000001"));
+    assertThat(shortHash.hasLongHash(), is(false));
+    assertThat(shortHash.getHashHex(), is("00000001"));
+    assertThat(shortHash.equals(longHash), is(false));
+    assertThat(shortHash, is(Block.builder().setResourceId("resource").setBlockHash(new ByteArray(1)).build()));
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void should_not_return_long_hash_of_other_size() {
+    Block.builder().setResourceId("resource").setBlockHash(new ByteArray(1)).build().getLongHash();
+  }
+
 }
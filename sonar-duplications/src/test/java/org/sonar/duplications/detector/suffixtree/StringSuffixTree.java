@@ -22,13 +22,6 @@ package org.sonar.duplications.detector.suffixtree;
 import java.util.LinkedList;
 import java.util.Queue;
 
-import org.sonar.duplications.detector.suffixtree.Edge;
-import org.sonar.duplications.detector.suffixtree.Node;
-import org.sonar.duplications.detector.suffixtree.SuffixTree;
-import org.sonar.duplications.detector.suffixtree.Text;
-
-import com.google.common.base.Objects;
-
 public class StringSuffixTree {
 
   private final SuffixTree suffixTree;
@@ -41,25 +34,34 @@ public class StringSuffixTree {
   }
 
   private StringSuffixTree(String text) {
-    suffixTree = SuffixTree.create(new StringText(text));
+    int[] symbols = symbols(text);
+    suffixTree = SuffixTree.create(symbols, symbols.length);
 
-    Queue<Node> queue = new LinkedList<Node>();
-    queue.add(suffixTree.getRootNode());
+    Queue<Integer> queue = new LinkedList<Integer>();
+    queue.add(SuffixTree.ROOT);
     while (!queue.isEmpty()) {
-      Node node = queue.remove();
-      if (node.getEdges().isEmpty()) {
+      int node = queue.remove();
+      if (suffixTree.getFirstChild(node) == SuffixTree.NONE) {
         numberOfLeaves++;
       } else {
         numberOfInnerNodes++;
-        for (Edge edge : node.getEdges()) {
+        for (int child = suffixTree.getFirstChild(node); child != SuffixTree.NONE; child = suffixTree.getNextSibling(child)) {
           numberOfEdges++;
-          queue.add(edge.getEndNode());
+          queue.add(child);
         }
       }
     }
     numberOfInnerNodes--; // without root
   }
 
+  private static int[] symbols(String text) {
+    int[] symbols = new int[text.length()];
+    for (int i = 0; i < text.length(); i++) {
+      symbols[i] = text.charAt(i);
+    }
+    return symbols;
+  }
+
   public int getNumberOfEdges() {
     return numberOfEdges;
   }
@@ -74,56 +76,53 @@ public class StringSuffixTree {
   }
 
   public int indexOf(String str) {
-    return indexOf(suffixTree, new StringText(str));
+    return indexOf(suffixTree, symbols(str));
   }
 
   public boolean contains(String str) {
-    return contains(suffixTree, new StringText(str));
+    return contains(suffixTree, symbols(str));
   }
 
   public SuffixTree getSuffixTree() {
     return suffixTree;
   }
 
-  public static boolean contains(SuffixTree tree, Text str) {
+  public static boolean contains(SuffixTree tree, int[] str) {
     return indexOf(tree, str) >= 0;
   }
 
-  public static int indexOf(SuffixTree tree, Text str) {
-    if (str.length() == 0) {
+  public static int indexOf(SuffixTree tree, int[] str) {
+    if (str.length == 0) {
       return -1;
     }
 
     int index = -1;
-    Node node = tree.getRootNode();
+    int node = SuffixTree.ROOT;
 
     int i = 0;
-    while (i < str.length()) {
-      if (node == null) {
-        return -1;
-      }
-      if (i == tree.text.length()) {
+    while (i < str.length) {
+      if (i == tree.getLength()) {
         return -1;
       }
 
-      Edge edge = node.findEdge(str.symbolAt(i));
-      if (edge == null) {
+      int edge = tree.findChild(node, str[i]);
+      if (edge == SuffixTree.NONE) {
         return -1;
       }
 
-      index = edge.getBeginIndex() - i;
+      index = tree.getEdgeBegin(edge) - i;
       i++;
 
-      for (int j = edge.getBeginIndex() + 1; j <= edge.getEndIndex(); j++) {
-        if (i == str.length()) {
+      for (int j = tree.getEdgeBegin(edge) + 1; j <= tree.getEdgeEnd(edge); j++) {
+        if (i == str.length) {
           break;
         }
-        if (!Objects.equal(tree.symbolAt(j), str.symbolAt(i))) {
+        if (tree.symbolAt(j) != str[i]) {
           return -1;
         }
         i++;
       }
-      node = edge.getEndNode();
+      node = edge;
     }
     return index;
   }
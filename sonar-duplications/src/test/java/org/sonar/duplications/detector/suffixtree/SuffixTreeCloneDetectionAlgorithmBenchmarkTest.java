@@ -0,0 +1,98 @@
+/*
+ * SonarQube, open source software quality management tool.
+ * Copyright (C) 2008-2013 SonarSource
+ * mailto:contact AT sonarsource DOT com
+ *
+ * SonarQube is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * SonarQube is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.duplications.detector.suffixtree;
+
+import org.junit.Ignore;
+import org.junit.Test;
+import org.sonar.duplications.block.Block;
+import org.sonar.duplications.block.ByteArray;
+import org.sonar.duplications.index.CloneIndex;
+import org.sonar.duplications.index.PackedMemoryCloneIndex;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Measures the time and the memory allocated to detect clones of every file of a large index where files share many
+ * fragments. Ignored as it requires an Oracle/OpenJDK virtual machine to measure allocations.
+ */
+@Ignore
+public class SuffixTreeCloneDetectionAlgorithmBenchmarkTest {
+
+  private static final int FILES = 500;
+  private static final int BLOCKS_PER_FILE = 400;
+  private static final int FRAGMENTS = 200;
+  private static final int FRAGMENT_LENGTH = 20;
+
+  @Test
+  public void detect_clones_of_every_file() {
+    Random random = new Random(42);
+    int[][] fragments = new int[FRAGMENTS][FRAGMENT_LENGTH];
+    for (int[] fragment : fragments) {
+      for (int i = 0; i < FRAGMENT_LENGTH; i++) {
+        fragment[i] = random.nextInt(10000);
+      }
+    }
+
+    CloneIndex index = new PackedMemoryCloneIndex();
+    List<List<Block>> files = new ArrayList<List<Block>>();
+    for (int file = 0; file < FILES; file++) {
+      List<Block> blocks = new ArrayList<Block>();
+      while (blocks.size() < BLOCKS_PER_FILE) {
+        boolean shared = random.nextBoolean();
+        int[] fragment = shared ? fragments[random.nextInt(FRAGMENTS)] : null;
+        for (int i = 0; i < FRAGMENT_LENGTH; i++) {
+          long hash = shared ? fragment[i] : random.nextLong();
+          int indexInFile = blocks.size();
+          Block block = Block.builder()
+              .setResourceId("file" + file)
+              .setBlockHash(new ByteArray(hash))
+              .setIndexInFile(indexInFile)
+              .setLines(indexInFile, indexInFile + 10)
+              .setUnit(indexInFile, indexInFile + 10)
+              .build();
+          blocks.add(block);
+          index.insert(block);
+        }
+      }
+      files.add(blocks);
+    }
+
+    SuffixTreeCloneDetectionAlgorithm algorithm = new SuffixTreeCloneDetectionAlgorithm();
+    for (int run = 0; run < 3; run++) {
+      long before = allocatedBytes();
+      long start = System.currentTimeMillis();
+      int groups = 0;
+      for (List<Block> blocks : files) {
+        groups += algorithm.detectClones(index, blocks).size();
+      }
+      long allocated = allocatedBytes() - before;
+      System.out.println(String.format("%d clone groups, %d ms, %d KB allocated per file", groups, System.currentTimeMillis() - start,
+          allocated / (1024L * FILES)));
+    }
+  }
+
+  private static long allocatedBytes() {
+    com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    return bean.getThreadAllocatedBytes(Thread.currentThread().getId());
+  }
+}
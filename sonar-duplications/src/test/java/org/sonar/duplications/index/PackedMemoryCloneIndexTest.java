@@ -62,7 +62,7 @@ public class PackedMemoryCloneIndexTest {
 
   /**
    * When: query by a hash value.
-   * Expected: all blocks should have same hash, which presented in the form of the same object.
+   * Expected: all blocks should have same hash, which presented in the form of a long, so without object per block.
    */
   @Test
   public void should_construct_blocks_with_normalized_hash() {
@@ -72,11 +72,43 @@ public class PackedMemoryCloneIndexTest {
     ByteArray requestedHash = new ByteArray(1L);
     Collection<Block> blocks = index.getBySequenceHash(requestedHash);
     assertThat(blocks.size(), is(3));
+    for (Block block : blocks) {
+      assertThat(block.hasLongHash(), is(true));
+      assertThat(block.getLongHash(), is(1L));
+      assertThat(block.getBlockHash(), is(requestedHash));
+    }
+  }
+
+  /**
+   * When: query by a hash value of 4 bytes.
+   * Expected: all blocks should have same hash, which presented in the form of the same object.
+   */
+  @Test
+  public void should_construct_blocks_with_normalized_hash_of_4_bytes() {
+    index = new PackedMemoryCloneIndex(4, 1);
+    index.insert(Block.builder().setResourceId("a").setBlockHash(new ByteArray(1)).build());
+    index.insert(Block.builder().setResourceId("b").setBlockHash(new ByteArray(1)).build());
+    ByteArray requestedHash = new ByteArray(1);
+    Collection<Block> blocks = index.getBySequenceHash(requestedHash);
+    assertThat(blocks.size(), is(2));
     for (Block block : blocks) {
       assertThat(block.getBlockHash(), sameInstance(requestedHash));
     }
   }
 
+  @Test
+  public void should_find_by_long_hash() {
+    index.insert(newBlock("a", 1));
+    index.insert(newBlock("b", 1));
+    index.insert(newBlock("c", -1));
+
+    assertThat(index.getBySequenceHash(1L).size(), is(2));
+    assertThat(index.getBySequenceHash(-1L).size(), is(1));
+    assertThat(index.getBySequenceHash(-1L).iterator().next().getLongHash(), is(-1L));
+    assertThat(index.getBySequenceHash(2L).size(), is(0));
+    assertThat(index.getByResourceId("c").iterator().next().getLongHash(), is(-1L));
+  }
+
   /**
    * Given: index with initial capacity 1.
    * Expected: size and capacity should be increased after insertion of two blocks.
@@ -109,6 +141,16 @@ public class PackedMemoryCloneIndexTest {
     index.getBySequenceHash(new ByteArray(1L));
   }
 
+  /**
+   * Given: index, which accepts blocks with 4-byte hash.
+   * Expected: exception during search by long hash.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void attempt_to_find_long_hash_in_index_of_other_size() {
+    PackedMemoryCloneIndex index = new PackedMemoryCloneIndex(4, 1);
+    index.getBySequenceHash(1L);
+  }
+
   private static Block newBlock(String resourceId, long hash) {
     return Block.builder()
         .setResourceId(resourceId)
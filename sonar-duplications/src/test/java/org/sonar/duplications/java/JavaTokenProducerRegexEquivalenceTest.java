@@ -0,0 +1,106 @@
+/*
+ * SonarQube, open source software quality management tool.
+ * Copyright (C) 2008-2013 SonarSource
+ * mailto:contact AT sonarsource DOT com
+ *
+ * SonarQube is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * SonarQube is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.duplications.java;
+
+import com.google.common.base.Charsets;
+import com.google.common.collect.Lists;
+import com.google.common.io.Files;
+import org.junit.Test;
+import org.sonar.duplications.token.Token;
+import org.sonar.duplications.token.TokenChunker;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+/**
+ * Verifies that the automata of {@link JavaTokenProducer} produce the same tokens than the regular expressions
+ * which were used before.
+ */
+public class JavaTokenProducerRegexEquivalenceTest {
+
+  private static final String EXP = "([Ee][+-]?+[0-9_]++)";
+  private static final String BINARY_EXP = "([Pp][+-]?+[0-9_]++)";
+  private static final String FLOAT_SUFFIX = "[fFdD]";
+  private static final String INT_SUFFIX = "[lL]";
+
+  private final TokenChunker regexChunker = TokenChunker.builder()
+      .ignore("\\s")
+      .ignore("//[^\\n\\r]*+")
+      .ignore("/\\*[\\s\\S]*?\\*/")
+      .token("\"([^\"\\\\]*+(\\\\[\\s\\S])?+)*+\"", "$CHARS")
+      .token("'([^'\\n\\\\]*+(\\\\.)?+)*+'", "$CHARS")
+      .token("\\p{javaJavaIdentifierStart}++\\p{javaJavaIdentifierPart}*+")
+      .token("[0-9_]++\\.([0-9_]++)?+" + EXP + "?+" + FLOAT_SUFFIX + "?+", "$NUMBER")
+      .token("\\.[0-9_]++" + EXP + "?+" + FLOAT_SUFFIX + "?+", "$NUMBER")
+      .token("[0-9_]++" + EXP + FLOAT_SUFFIX + "?+", "$NUMBER")
+      .token("0[xX][0-9a-fA-F_]++\\.[0-9a-fA-F_]*+" + BINARY_EXP + "?+" + FLOAT_SUFFIX + "?+", "$NUMBER")
+      .token("0[xX][0-9a-fA-F_]++" + BINARY_EXP + FLOAT_SUFFIX + "?+", "$NUMBER")
+      .token("0[xX][0-9a-fA-F_]++" + INT_SUFFIX + "?+", "$NUMBER")
+      .token("0[bB][01_]++" + INT_SUFFIX + "?+", "$NUMBER")
+      .token("[0-9_]++" + INT_SUFFIX + "?+", "$NUMBER")
+      .token(".")
+      .build();
+
+  private final TokenChunker dfaChunker = JavaTokenProducer.build();
+
+  @Test
+  public void should_produce_same_tokens_on_tricky_code() {
+    verify("/* unterminated comment");
+    verify("/** javadoc **/ /***/ /* a * b / c **/ x");
+    verify("\"unterminated string\n next line");
+    verify("\"escaped \\\" quote\" 'c' '\\'' '\\u0041' '\n'");
+    verify("0x1.fp3f 0x1.ff 0x1Fd 0x1Fp2 0b1010L 1_000L 1.5e 1.5e+3f .5 1e5 5.f 0777 09");
+    verify("int été = $foo + _bar_; a\u0000b   \u0085 \t\f\r\n x");
+  }
+
+  @Test
+  public void should_produce_same_tokens_on_source_files() throws IOException {
+    List<File> files = Lists.newArrayList();
+    collect(new File("src/test/files"), files);
+    collect(new File("src/main/java"), files);
+    collect(new File("src/test/java"), files);
+    assertThat(files.size()).isGreaterThan(100);
+    for (File file : files) {
+      verify(Files.toString(file, Charsets.UTF_8));
+    }
+  }
+
+  private void verify(String code) {
+    List<Token> expected = Lists.newArrayList(regexChunker.chunk(code));
+    List<Token> actual = Lists.newArrayList(dfaChunker.chunk(code));
+    assertThat(actual).isEqualTo(expected);
+  }
+
+  private static void collect(File dir, List<File> files) {
+    File[] children = dir.listFiles();
+    if (children != null) {
+      for (File child : children) {
+        if (child.isDirectory()) {
+          collect(child, files);
+        } else if (child.getName().endsWith(".java")) {
+          files.add(child);
+        }
+      }
+    }
+  }
+}
@@ -21,6 +21,7 @@ package org.sonar.duplications.java;
 
 import com.google.common.base.Charsets;
 import com.google.common.collect.Lists;
+import com.google.common.io.Files;
 import org.apache.commons.io.IOUtils;
 import org.hamcrest.Matcher;
 import org.junit.Test;
@@ -309,6 +310,14 @@ public class JavaTokenProducerTest {
     assertThat(chunk(testFile).size(), greaterThan(0));
   }
 
+  @Test
+  public void shouldChunkBytesAsReader() throws Exception {
+    File testFile = DuplicationsTestUtil.findFile("/java/MessageResources.java");
+    TokenQueue fromBytes = chunker.chunk(Files.toByteArray(testFile), Charsets.UTF_8);
+
+    assertThat(Lists.newArrayList(fromBytes), is((List<Token>) Lists.newArrayList(chunk(testFile))));
+  }
+
   private TokenQueue chunk(File file) {
     Reader reader = null;
     try {
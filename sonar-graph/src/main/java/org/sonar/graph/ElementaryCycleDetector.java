@@ -0,0 +1,274 @@
+/*
+ * SonarQube, open source software quality management tool.
+ * Copyright (C) 2008-2013 SonarSource
+ * mailto:contact AT sonarsource DOT com
+ *
+ * SonarQube is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * SonarQube is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.graph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Enumerates the elementary cycles of a directed graph with Johnson's algorithm, restricted to its cyclic
+ * {@link StronglyConnectedComponents strongly connected components}.
+ * <p/>
+ * Unlike {@link CycleDetector}, all the cycles are found without depth limit, in a time proportional to the number of
+ * cycles. As this number can grow exponentially on tangled graphs, the enumeration can be bounded with
+ * {@link #detectCyclesWithUpperLimit(int)} or {@link #detectCyclesWithMaxLength(int)}.
+ *
+ * @since 4.1
+ */
+public class ElementaryCycleDetector<V> {
+
+  private final StronglyConnectedComponents<V> components;
+  private final Set<Cycle> cycles = new HashSet<Cycle>();
+  private int maxCyclesToFound = Integer.MAX_VALUE;
+  private int maxLength = Integer.MAX_VALUE;
+  private long searchCyclesCalls = 0;
+  private boolean executed = false;
+  private boolean complete = true;
+
+  // state of the search, indexed by vertex number
+  private boolean[] blocked;
+  private int[][] blockedBy;
+  private int[] blockedBySize;
+  private int[] cursor;
+  private int[] unblockStack;
+
+  // state of the search, indexed by depth
+  private int[] path;
+  private Edge[] pathEdges;
+  private boolean[] found;
+
+  public ElementaryCycleDetector(DirectedGraphAccessor<V, ? extends Edge> graph) {
+    this(graph, graph.getVertices());
+  }
+
+  public ElementaryCycleDetector(DirectedGraphAccessor<V, ? extends Edge> graph, Collection<V> vertices) {
+    this(graph, vertices, Collections.<Edge>emptySet());
+  }
+
+  public ElementaryCycleDetector(DirectedGraphAccessor<V, ? extends Edge> graph, Collection<V> vertices, Set<Edge> edgesToExclude) {
+    this(new StronglyConnectedComponents<V>(graph, vertices, edgesToExclude));
+  }
+
+  public ElementaryCycleDetector(StronglyConnectedComponents<V> components) {
+    this.components = components;
+  }
+
+  public Set<Cycle> detectCycles() {
+    run();
+    return cycles;
+  }
+
+  /**
+   * Stops the enumeration as soon as the given number of cycles is found. {@link #isComplete()} then tells whether
+   * some cycles are missing.
+   */
+  public Set<Cycle> detectCyclesWithUpperLimit(int maxCyclesToFound) {
+    this.maxCyclesToFound = maxCyclesToFound;
+    run();
+    return cycles;
+  }
+
+  /**
+   * Only searches the cycles made of at most the given number of edges, by a depth-first search of the simple paths of
+   * this length. All the shortest cycles are found, but the cost grows exponentially with the length. Like
+   * {@link CycleDetector#detectCyclesWithMaxSearchDepth(int)}, a length lower than 2 does not limit the search.
+   */
+  public Set<Cycle> detectCyclesWithMaxLength(int maxLength) {
+    this.maxLength = maxLength > 1 ? maxLength : Integer.MAX_VALUE;
+    run();
+    return cycles;
+  }
+
+  public Set<Cycle> getCycles() {
+    return cycles;
+  }
+
+  public boolean isAcyclicGraph() {
+    return components.isAcyclicGraph();
+  }
+
+  /**
+   * @return false if the enumeration has been stopped by the upper limit of cycles
+   */
+  public boolean isComplete() {
+    return complete;
+  }
+
+  public long getSearchCyclesCalls() {
+    return searchCyclesCalls;
+  }
+
+  public StronglyConnectedComponents<V> getComponents() {
+    return components;
+  }
+
+  private void run() {
+    if (executed) {
+      throw new IllegalStateException("Cycle detection can't be executed twice on the same ElementaryCycleDetector object.");
+    }
+    executed = true;
+    if (components.isAcyclicGraph()) {
+      return;
+    }
+
+    IndexedGraph<V> graph = components.getGraph();
+    int n = graph.size();
+    blocked = new boolean[n];
+    blockedBy = new int[n][];
+    blockedBySize = new int[n];
+    cursor = new int[n];
+    unblockStack = new int[n];
+    path = new int[n];
+    pathEdges = new Edge[n];
+    found = new boolean[n];
+
+    for (Set<V> component : components.getCyclicComponents()) {
+      int[] members = numbers(graph, component);
+      for (int start : members) {
+        for (int member : members) {
+          blocked[member] = false;
+          blockedBySize[member] = 0;
+        }
+        if (!searchCycles(graph, start)) {
+          complete = false;
+          return;
+        }
+      }
+    }
+  }
+
+  private static <V> int[] numbers(IndexedGraph<V> graph, Set<V> component) {
+    int[] numbers = new int[component.size()];
+    int i = 0;
+    for (V vertex : component) {
+      numbers[i++] = graph.number(vertex);
+    }
+    Arrays.sort(numbers);
+    return numbers;
+  }
+
+  /**
+   * Search of the cycles whose lowest vertex is the given one, within its component
+   *
+   * @return false if the upper limit of cycles is reached
+   */
+  private boolean searchCycles(IndexedGraph<V> graph, int start) {
+    searchCyclesCalls++;
+    int component = components.componentOf(start);
+    int depth = 0;
+    path[depth] = start;
+    cursor[start] = 0;
+    found[depth] = false;
+    blocked[start] = true;
+    depth++;
+
+    while (depth > 0) {
+      int v = path[depth - 1];
+      int[] successors = graph.successors(v);
+      if (cursor[v] < successors.length) {
+        int position = cursor[v]++;
+        int w = successors[position];
+        if (w == start) {
+          pathEdges[depth - 1] = graph.edge(v, position);
+          addCycle(depth);
+          found[depth - 1] = true;
+          if (cycles.size() >= maxCyclesToFound) {
+            return false;
+          }
+        } else if (depth < maxLength && w > start && components.componentOf(w) == component && !blocked[w]) {
+          pathEdges[depth - 1] = graph.edge(v, position);
+          path[depth] = w;
+          cursor[w] = 0;
+          found[depth] = false;
+          blocked[w] = true;
+          depth++;
+        }
+      } else {
+        // Johnson's blocking assumes paths of any length : a vertex from which no cycle is found within the maximum
+        // length may lead to one when reached by a shorter path, so bounded searches only block the vertices of the path
+        if (found[depth - 1] || maxLength != Integer.MAX_VALUE) {
+          unblock(v);
+        } else {
+          for (int w : successors) {
+            if (w > start && components.componentOf(w) == component) {
+              addBlockedBy(w, v);
+            }
+          }
+        }
+        depth--;
+        if (depth > 0 && found[depth]) {
+          found[depth - 1] = true;
+        }
+      }
+    }
+    return true;
+  }
+
+  private void addCycle(int length) {
+    List<Edge> edges = new ArrayList<Edge>(length);
+    for (int i = 0; i < length; i++) {
+      edges.add(pathEdges[i]);
+    }
+    cycles.add(new Cycle(edges));
+  }
+
+  private void addBlockedBy(int vertex, int blockedVertex) {
+    int[] list = blockedBy[vertex];
+    int size = blockedBySize[vertex];
+    for (int i = 0; i < size; i++) {
+      if (list[i] == blockedVertex) {
+        return;
+      }
+    }
+    if (list == null) {
+      list = new int[4];
+      blockedBy[vertex] = list;
+    } else if (size == list.length) {
+      list = Arrays.copyOf(list, size * 2);
+      blockedBy[vertex] = list;
+    }
+    list[size] = blockedVertex;
+    blockedBySize[vertex] = size + 1;
+  }
+
+  private void unblock(int vertex) {
+    int top = 0;
+    blocked[vertex] = false;
+    unblockStack[top++] = vertex;
+    while (top > 0) {
+      int v = unblockStack[--top];
+      int[] list = blockedBy[v];
+      int size = blockedBySize[v];
+      blockedBySize[v] = 0;
+      for (int i = 0; i < size; i++) {
+        int w = list[i];
+        if (blocked[w]) {
+          blocked[w] = false;
+          unblockStack[top++] = w;
+        }
+      }
+    }
+  }
+}
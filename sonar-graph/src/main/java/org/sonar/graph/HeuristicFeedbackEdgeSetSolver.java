@@ -0,0 +1,509 @@
+/*
+ * SonarQube, open source software quality management tool.
+ * Copyright (C) 2008-2013 SonarSource
+ * mailto:contact AT sonarsource DOT com
+ *
+ * SonarQube is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * SonarQube is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.graph;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Heuristic search of a feedback edge set of minimum weight, for graphs too tangled for {@link MinimumFeedbackEdgeSetSolver}.
+ * <p/>
+ * Each cyclic {@link StronglyConnectedComponents strongly connected component} is solved separately : its vertices are
+ * ordered with the greedy heuristic of Eades, Lin and Smyth, the ordering is improved by moving single vertices to the
+ * position which most reduces the weight of the backward edges, and the backward edges are the feedback edges, except
+ * those which can be restored without closing a cycle. The quality of the result is reported by a lower bound of the
+ * optimal weight, obtained by packing cycles.
+ * <p/>
+ * The search is bounded by a time budget. The result is deterministic for a given iteration order of the vertices, unless
+ * the budget is exceeded, see {@link #isTimeBudgetExceeded()}.
+ *
+ * @since 4.1
+ */
+public class HeuristicFeedbackEdgeSetSolver<V> {
+
+  public static final long DEFAULT_TIME_BUDGET_IN_MS = 10000;
+  private static final int MAX_IMPROVEMENT_PASSES = 100;
+
+  private final Set<Edge> feedbackEdges = new HashSet<Edge>();
+  private int weight = 0;
+  private int lowerBound = 0;
+  private boolean timeBudgetExceeded = false;
+  private final long lowerBoundDeadline;
+  private final long deadline;
+
+  public HeuristicFeedbackEdgeSetSolver(DirectedGraphAccessor<V, ? extends Edge> graph, Collection<V> vertices) {
+    this(graph, vertices, DEFAULT_TIME_BUDGET_IN_MS);
+  }
+
+  public HeuristicFeedbackEdgeSetSolver(DirectedGraphAccessor<V, ? extends Edge> graph, Collection<V> vertices, long timeBudgetInMs) {
+    this(new StronglyConnectedComponents<V>(graph, vertices, Collections.<Edge>emptySet()), timeBudgetInMs);
+  }
+
+  public HeuristicFeedbackEdgeSetSolver(StronglyConnectedComponents<V> components, long timeBudgetInMs) {
+    long start = System.nanoTime();
+    this.lowerBoundDeadline = start + timeBudgetInMs * 500000L;
+    this.deadline = start + timeBudgetInMs * 1000000L;
+    for (int c = 0; c < components.getComponents().size(); c++) {
+      if (isCyclic(components, c)) {
+        solve(new Component(components, c));
+      }
+    }
+  }
+
+  private static <V> boolean isCyclic(StronglyConnectedComponents<V> components, int c) {
+    Set<V> component = components.getComponents().get(c);
+    IndexedGraph<V> graph = components.getGraph();
+    return component.size() > 1 || graph.hasLoop(graph.number(component.iterator().next()));
+  }
+
+  public Set<Edge> getEdges() {
+    return feedbackEdges;
+  }
+
+  public int getWeightOfFeedbackEdgeSet() {
+    return weight;
+  }
+
+  /**
+   * Lower bound of the weight of a minimum feedback edge set. Cycles are packed during half of the time budget at most,
+   * so the bound may be weaker than without time limit, even when the search of feedback edges is complete.
+   */
+  public int getLowerBound() {
+    return lowerBound;
+  }
+
+  /**
+   * Upper bound of the relative distance to the weight of a minimum feedback edge set : 0 when the result is proven
+   * optimal, 1 when nothing is known.
+   */
+  public double getOptimalityGap() {
+    if (weight == 0) {
+      return 0.0;
+    }
+    return (double) (weight - lowerBound) / weight;
+  }
+
+  /**
+   * @return true if the search has been stopped before its end, and the result may be worse than without time limit
+   */
+  public boolean isTimeBudgetExceeded() {
+    return timeBudgetExceeded;
+  }
+
+  private boolean isOver() {
+    if (System.nanoTime() > deadline) {
+      timeBudgetExceeded = true;
+    }
+    return timeBudgetExceeded;
+  }
+
+  private void solve(Component component) {
+    lowerBound += component.packCycles();
+    int[] order = component.eadesLinSmythOrder();
+    component.improve(order);
+    boolean[] cut = component.restoreEdges(order);
+
+    for (int e = 0; e < component.edgeCount; e++) {
+      if (cut[e]) {
+        feedbackEdges.add(component.edges[e]);
+        weight += component.edgeWeight[e];
+      }
+    }
+  }
+
+  /**
+   * Edges of a component, where vertices are numbered from 0, and stored both by origin and by destination
+   */
+  private final class Component {
+    private final int size;
+    private final int edgeCount;
+    private final Edge[] edges;
+    private final int[] edgeFrom;
+    private final int[] edgeTo;
+    private final int[] edgeWeight;
+    // edges sorted by origin, and by destination
+    private final int[] outStart;
+    private final int[] outEdges;
+    private final int[] inStart;
+    private final int[] inEdges;
+
+    Component(StronglyConnectedComponents<V> components, int component) {
+      IndexedGraph<V> graph = components.getGraph();
+      int[] members = new int[components.getComponents().get(component).size()];
+      int m = 0;
+      for (V vertex : components.getComponents().get(component)) {
+        members[m++] = graph.number(vertex);
+      }
+      Arrays.sort(members);
+      this.size = members.length;
+
+      int count = 0;
+      for (int member : members) {
+        for (int successor : graph.successors(member)) {
+          if (components.componentOf(successor) == component) {
+            count++;
+          }
+        }
+      }
+      this.edgeCount = count;
+      this.edges = new Edge[count];
+      this.edgeFrom = new int[count];
+      this.edgeTo = new int[count];
+      this.edgeWeight = new int[count];
+      this.outStart = new int[size + 1];
+      this.inStart = new int[size + 1];
+      int e = 0;
+      for (int from = 0; from < size; from++) {
+        outStart[from] = e;
+        int[] successors = graph.successors(members[from]);
+        for (int i = 0; i < successors.length; i++) {
+          if (components.componentOf(successors[i]) == component) {
+            edges[e] = graph.edge(members[from], i);
+            edgeFrom[e] = from;
+            edgeTo[e] = Arrays.binarySearch(members, successors[i]);
+            edgeWeight[e] = edges[e].getWeight();
+            inStart[edgeTo[e] + 1]++;
+            e++;
+          }
+        }
+      }
+      outStart[size] = e;
+      this.outEdges = new int[count];
+      for (int i = 0; i < count; i++) {
+        outEdges[i] = i;
+      }
+      for (int v = 0; v < size; v++) {
+        inStart[v + 1] += inStart[v];
+      }
+      this.inEdges = new int[count];
+      int[] next = Arrays.copyOf(inStart, size);
+      for (int i = 0; i < count; i++) {
+        inEdges[next[edgeTo[i]]++] = i;
+      }
+    }
+
+    /**
+     * Greedy ordering of Eades, Lin and Smyth, weighted : sinks are moved to the end, sources to the beginning, and
+     * otherwise the vertex with the largest difference between outgoing and incoming weights goes to the beginning.
+     * Loops are ignored.
+     */
+    int[] eadesLinSmythOrder() {
+      int[] outWeight = new int[size];
+      int[] inWeight = new int[size];
+      int[] outDegree = new int[size];
+      int[] inDegree = new int[size];
+      for (int e = 0; e < edgeCount; e++) {
+        if (edgeFrom[e] != edgeTo[e]) {
+          outWeight[edgeFrom[e]] += edgeWeight[e];
+          outDegree[edgeFrom[e]]++;
+          inWeight[edgeTo[e]] += edgeWeight[e];
+          inDegree[edgeTo[e]]++;
+        }
+      }
+      boolean[] removed = new boolean[size];
+      int[] order = new int[size];
+      int first = 0;
+      int last = size;
+      int[] sinks = new int[size];
+      int sinkCount = 0;
+      int[] sources = new int[size];
+      int sourceCount = 0;
+
+      while (first < last) {
+        int v = -1;
+        while (v == -1 && sinkCount > 0) {
+          int candidate = sinks[--sinkCount];
+          if (!removed[candidate]) {
+            v = candidate;
+            order[--last] = v;
+          }
+        }
+        while (v == -1 && sourceCount > 0) {
+          int candidate = sources[--sourceCount];
+          if (!removed[candidate] && outDegree[candidate] > 0) {
+            v = candidate;
+            order[first++] = v;
+          }
+        }
+        if (v == -1) {
+          int bestDelta = Integer.MIN_VALUE;
+          for (int candidate = 0; candidate < size; candidate++) {
+            if (!removed[candidate] && outWeight[candidate] - inWeight[candidate] > bestDelta) {
+              bestDelta = outWeight[candidate] - inWeight[candidate];
+              v = candidate;
+            }
+          }
+          if (outDegree[v] == 0) {
+            order[--last] = v;
+          } else {
+            order[first++] = v;
+          }
+        }
+
+        removed[v] = true;
+        for (int i = outStart[v]; i < outStart[v + 1]; i++) {
+          int to = edgeTo[outEdges[i]];
+          if (!removed[to]) {
+            inWeight[to] -= edgeWeight[outEdges[i]];
+            inDegree[to]--;
+            if (inDegree[to] == 0) {
+              sources[sourceCount++] = to;
+            }
+          }
+        }
+        for (int i = inStart[v]; i < inStart[v + 1]; i++) {
+          int from = edgeFrom[inEdges[i]];
+          if (!removed[from]) {
+            outWeight[from] -= edgeWeight[inEdges[i]];
+            outDegree[from]--;
+            if (outDegree[from] == 0) {
+              sinks[sinkCount++] = from;
+            }
+          }
+        }
+      }
+      return order;
+    }
+
+    /**
+     * Moves single vertices to the position which most reduces the weight of backward edges, until no move improves the
+     * ordering.
+     */
+    void improve(int[] order) {
+      int[] position = new int[size];
+      for (int i = 0; i < size; i++) {
+        position[order[i]] = i;
+      }
+      long[] right = new long[2 * size];
+      long[] left = new long[2 * size];
+      boolean improved = true;
+      for (int pass = 0; improved && pass < MAX_IMPROVEMENT_PASSES; pass++) {
+        improved = false;
+        for (int v = 0; v < size; v++) {
+          if (isOver()) {
+            return;
+          }
+          improved |= moveToBestPosition(v, order, position, right, left);
+        }
+      }
+    }
+
+    /**
+     * Moving a vertex after a following neighbour turns the edges to the neighbour backward, and the edges from the
+     * neighbour forward. Symmetrically when moving the vertex before a preceding neighbour.
+     */
+    private boolean moveToBestPosition(int v, int[] order, int[] position, long[] right, long[] left) {
+      int p = position[v];
+      int rightCount = 0;
+      int leftCount = 0;
+      for (int i = outStart[v]; i < outStart[v + 1]; i++) {
+        int e = outEdges[i];
+        int q = position[edgeTo[e]];
+        if (q > p) {
+          right[rightCount++] = pack(q, edgeWeight[e]);
+        } else if (q < p) {
+          left[leftCount++] = pack(-q, -edgeWeight[e]);
+        }
+      }
+      for (int i = inStart[v]; i < inStart[v + 1]; i++) {
+        int e = inEdges[i];
+        int q = position[edgeFrom[e]];
+        if (q > p) {
+          right[rightCount++] = pack(q, -edgeWeight[e]);
+        } else if (q < p) {
+          left[leftCount++] = pack(-q, edgeWeight[e]);
+        }
+      }
+
+      int bestGain = 0;
+      int bestPosition = p;
+      Arrays.sort(right, 0, rightCount);
+      int gain = 0;
+      for (int i = 0; i < rightCount; i++) {
+        gain += (int) right[i];
+        if (gain < bestGain && (i + 1 == rightCount || (right[i + 1] >> 32) != (right[i] >> 32))) {
+          bestGain = gain;
+          bestPosition = (int) (right[i] >> 32);
+        }
+      }
+      Arrays.sort(left, 0, leftCount);
+      gain = 0;
+      for (int i = 0; i < leftCount; i++) {
+        gain += (int) left[i];
+        if (gain < bestGain && (i + 1 == leftCount || (left[i + 1] >> 32) != (left[i] >> 32))) {
+          bestGain = gain;
+          bestPosition = -(int) (left[i] >> 32);
+        }
+      }
+
+      if (bestPosition > p) {
+        System.arraycopy(order, p + 1, order, p, bestPosition - p);
+      } else if (bestPosition < p) {
+        System.arraycopy(order, bestPosition, order, bestPosition + 1, p - bestPosition);
+      } else {
+        return false;
+      }
+      order[bestPosition] = v;
+      for (int i = Math.min(p, bestPosition); i <= Math.max(p, bestPosition); i++) {
+        position[order[i]] = i;
+      }
+      return true;
+    }
+
+    /**
+     * The backward edges of the ordering break all the cycles, but some of them may be useless : from the heaviest, each
+     * backward edge is restored if it does not close a cycle with the other remaining edges.
+     *
+     * @return the feedback edges
+     */
+    boolean[] restoreEdges(int[] order) {
+      int[] position = new int[size];
+      for (int i = 0; i < order.length; i++) {
+        position[order[i]] = i;
+      }
+      boolean[] cut = new boolean[edgeCount];
+      int backwardCount = 0;
+      for (int e = 0; e < edgeCount; e++) {
+        if (position[edgeFrom[e]] >= position[edgeTo[e]]) {
+          cut[e] = true;
+          backwardCount++;
+        }
+      }
+      long[] backward = new long[backwardCount];
+      int b = 0;
+      for (int e = 0; e < edgeCount; e++) {
+        if (cut[e]) {
+          backward[b++] = pack(-edgeWeight[e], e);
+        }
+      }
+      Arrays.sort(backward);
+
+      boolean[] visited = new boolean[size];
+      int[] queue = new int[size];
+      for (long packed : backward) {
+        if (isOver()) {
+          break;
+        }
+        int e = (int) packed;
+        if (edgeFrom[e] != edgeTo[e] && !isReachable(edgeTo[e], edgeFrom[e], cut, visited, queue)) {
+          cut[e] = false;
+        }
+      }
+      return cut;
+    }
+
+    private boolean isReachable(int from, int to, boolean[] cut, boolean[] visited, int[] queue) {
+      Arrays.fill(visited, false);
+      int head = 0;
+      int tail = 0;
+      queue[tail++] = from;
+      visited[from] = true;
+      while (head < tail) {
+        int v = queue[head++];
+        if (v == to) {
+          return true;
+        }
+        for (int i = outStart[v]; i < outStart[v + 1]; i++) {
+          int e = outEdges[i];
+          if (!cut[e] && !visited[edgeTo[e]]) {
+            visited[edgeTo[e]] = true;
+            queue[tail++] = edgeTo[e];
+          }
+        }
+      }
+      return false;
+    }
+
+    /**
+     * Packs cycles in the residual weights of edges : each cycle found is given the minimum residual weight of its edges,
+     * which is subtracted from all its edges. As any feedback edge set must pay at least this weight for each cycle, the
+     * total is a lower bound of the minimum weight.
+     */
+    int packCycles() {
+      int[] residual = Arrays.copyOf(edgeWeight, edgeCount);
+      int[] parentEdge = new int[size];
+      int[] queue = new int[size];
+      int bound = 0;
+      boolean cutOff = false;
+      for (int start = 0; start < size && !cutOff; start++) {
+        int cycleEdge = -1;
+        do {
+          // a partial packing is still a lower bound, so running out of its share of the budget does not stop the search
+          cutOff = System.nanoTime() > lowerBoundDeadline;
+          if (cutOff) {
+            break;
+          }
+          cycleEdge = shortestCycle(start, residual, parentEdge, queue);
+          if (cycleEdge != -1) {
+            int min = residual[cycleEdge];
+            for (int v = edgeFrom[cycleEdge]; v != start; v = edgeFrom[parentEdge[v]]) {
+              min = Math.min(min, residual[parentEdge[v]]);
+            }
+            residual[cycleEdge] -= min;
+            for (int v = edgeFrom[cycleEdge]; v != start; v = edgeFrom[parentEdge[v]]) {
+              residual[parentEdge[v]] -= min;
+            }
+            bound += min;
+          }
+        } while (cycleEdge != -1);
+      }
+      return bound;
+    }
+
+    /**
+     * Breadth-first search of a cycle through the given vertex, following only edges with positive residual weight
+     *
+     * @return the edge which closes the cycle, or -1. Other edges are found by following parentEdge from its origin.
+     */
+    private int shortestCycle(int start, int[] residual, int[] parentEdge, int[] queue) {
+      Arrays.fill(parentEdge, -1);
+      int head = 0;
+      int tail = 0;
+      queue[tail++] = start;
+      while (head < tail) {
+        int v = queue[head++];
+        for (int i = outStart[v]; i < outStart[v + 1]; i++) {
+          int e = outEdges[i];
+          int to = edgeTo[e];
+          if (residual[e] > 0) {
+            if (to == start) {
+              return e;
+            }
+            if (parentEdge[to] == -1) {
+              parentEdge[to] = e;
+              queue[tail++] = to;
+            }
+          }
+        }
+      }
+      return -1;
+    }
+  }
+
+  /**
+   * Packs two integers in a long, so that longs are sorted by the first integer
+   */
+  private static long pack(int high, int low) {
+    return ((long) high << 32) | (low & 0xFFFFFFFFL);
+  }
+}
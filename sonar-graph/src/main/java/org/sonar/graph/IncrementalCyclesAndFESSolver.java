@@ -19,55 +19,118 @@
  */
 package org.sonar.graph;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
+/**
+ * Searches cycles and a minimum feedback edge set by iterations : cycles are searched while ignoring the feedback edges
+ * of the cycles found during the previous iterations, until no more cycles are found.
+ * <p/>
+ * Cycles are enumerated by {@link ElementaryCycleDetector} within the cyclic
+ * {@link StronglyConnectedComponents strongly connected components} of the graph, and feedback edges are solved
+ * separately in each component, as no cycle spans several components. The first iteration only searches the shortest
+ * cycles, the next ones search at most a given number of cycles.
+ */
 public class IncrementalCyclesAndFESSolver<V> {
 
   private Set<Cycle> cycles = new HashSet<Cycle>();
   private long searchCyclesCalls = 0;
   private static final int DEFAULT_MAX_SEARCH_DEPTH_AT_FIRST = 3;
   private static final int DEFAULT_MAX_CYCLES_TO_FOUND_BY_ITERATION = 100;
-  private MinimumFeedbackEdgeSetSolver solver;
+  private final Map<V, Integer> componentByVertex = new HashMap<V, Integer>();
+  private final List<Set<Cycle>> cyclesByComponent = new ArrayList<Set<Cycle>>();
+  private final List<MinimumFeedbackEdgeSetSolver> solvers = new ArrayList<MinimumFeedbackEdgeSetSolver>();
   private int iterations = 0;
 
   public IncrementalCyclesAndFESSolver(DirectedGraphAccessor<V, ? extends Edge> graph, Collection<V> vertices) {
     this(graph, vertices, DEFAULT_MAX_SEARCH_DEPTH_AT_FIRST, DEFAULT_MAX_CYCLES_TO_FOUND_BY_ITERATION);
   }
 
+  /**
+   * @param maxSearchDepthAtFirst maximum length of the cycles searched by the first iteration, not limited if lower than 2
+   * @param maxCyclesToFoundByIteration maximum number of cycles searched by the next iterations
+   */
   public IncrementalCyclesAndFESSolver(DirectedGraphAccessor<V, ? extends Edge> graph, Collection<V> vertices, int maxSearchDepthAtFirst,
       int maxCyclesToFoundByIteration) {
 
+    StronglyConnectedComponents<V> components = new StronglyConnectedComponents<V>(graph, vertices);
+    for (Set<V> component : components.getCyclicComponents()) {
+      for (V vertex : component) {
+        componentByVertex.put(vertex, cyclesByComponent.size());
+      }
+      cyclesByComponent.add(new HashSet<Cycle>());
+      solvers.add(null);
+    }
+    Set<V> cyclicVertices = components.getCyclicVertices();
+
     iterations++;
-    CycleDetector<V> cycleDetector = new CycleDetector<V>(graph, vertices);
-    cycleDetector.detectCyclesWithMaxSearchDepth(maxSearchDepthAtFirst);
+    ElementaryCycleDetector<V> cycleDetector = new ElementaryCycleDetector<V>(components);
+    cycleDetector.detectCyclesWithMaxLength(maxSearchDepthAtFirst);
     searchCyclesCalls += cycleDetector.getSearchCyclesCalls();
-    cycles.addAll(cycleDetector.getCycles());
-    solver = new MinimumFeedbackEdgeSetSolver(cycles);
-    Set<Edge> edgesToExclude = solver.getEdges();
+    Set<Edge> edgesToExclude = solve(cycleDetector.getCycles());
 
     do {
       iterations++;
-      cycleDetector = new CycleDetector<V>(graph, vertices, edgesToExclude);
+      // components are computed again without the feedback edges, so that the search is restricted to what is still cyclic
+      cycleDetector = new ElementaryCycleDetector<V>(graph, cyclicVertices, edgesToExclude);
       cycleDetector.detectCyclesWithUpperLimit(maxCyclesToFoundByIteration);
       searchCyclesCalls += cycleDetector.getSearchCyclesCalls();
-      cycles.addAll(cycleDetector.getCycles());
-      solver = new MinimumFeedbackEdgeSetSolver(cycles);
-      edgesToExclude = solver.getEdges();
+      edgesToExclude = solve(cycleDetector.getCycles());
     } while (cycleDetector.getCycles().size() != 0);
   }
 
+  /**
+   * Solves again the components of the new cycles
+   *
+   * @return the edges to exclude from the next search : the feedback edges of all the components
+   */
+  private Set<Edge> solve(Set<Cycle> newCycles) {
+    cycles.addAll(newCycles);
+    Set<Integer> componentsToSolve = new HashSet<Integer>();
+    for (Cycle cycle : newCycles) {
+      Integer component = componentByVertex.get(cycle.getEdges()[0].getFrom());
+      cyclesByComponent.get(component).add(cycle);
+      componentsToSolve.add(component);
+    }
+    for (Integer component : componentsToSolve) {
+      solvers.set(component, new MinimumFeedbackEdgeSetSolver(cyclesByComponent.get(component)));
+    }
+    return getFeedbackEdgeSet();
+  }
+
   public int getWeightOfFeedbackEdgeSet() {
-    return solver.getWeightOfFeedbackEdgeSet();
+    int weight = 0;
+    for (MinimumFeedbackEdgeSetSolver solver : solvers) {
+      if (solver != null) {
+        weight += solver.getWeightOfFeedbackEdgeSet();
+      }
+    }
+    return weight;
   }
 
   public int getNumberOfLoops() {
-    return solver.getNumberOfLoops();
+    int loops = 0;
+    for (MinimumFeedbackEdgeSetSolver solver : solvers) {
+      if (solver != null) {
+        loops += solver.getNumberOfLoops();
+      }
+    }
+    return loops;
   }
 
   public Set<Edge> getFeedbackEdgeSet() {
-    return solver.getEdges();
+    Set<Edge> edges = new HashSet<Edge>();
+    for (MinimumFeedbackEdgeSetSolver solver : solvers) {
+      if (solver != null) {
+        edges.addAll(solver.getEdges());
+      }
+    }
+    return edges;
   }
 
   public Set<Cycle> getCycles() {
@@ -0,0 +1,184 @@
+/*
+ * SonarQube, open source software quality management tool.
+ * Copyright (C) 2008-2013 SonarSource
+ * mailto:contact AT sonarsource DOT com
+ *
+ * SonarQube is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * SonarQube is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.graph;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Copy of a set of vertices and of the edges between them, where vertices are numbered in the iteration order of the
+ * collection, and where adjacency is stored in arrays of vertex numbers.
+ */
+final class IndexedGraph<V> {
+
+  private final Object[] vertices;
+  private final Map<V, Integer> numbers;
+  private final int[][] successors;
+  private final Edge[][] edges;
+
+  IndexedGraph(DirectedGraphAccessor<V, ? extends Edge> graph, Collection<V> vertices, Set<Edge> edgesToExclude) {
+    this.numbers = new HashMap<V, Integer>(vertices.size() * 2);
+    for (V vertex : vertices) {
+      if (!numbers.containsKey(vertex)) {
+        numbers.put(vertex, numbers.size());
+      }
+    }
+    this.vertices = new Object[numbers.size()];
+    for (Map.Entry<V, Integer> entry : numbers.entrySet()) {
+      this.vertices[entry.getValue()] = entry.getKey();
+    }
+
+    this.successors = new int[this.vertices.length][];
+    this.edges = new Edge[this.vertices.length][];
+    int[] buffer = new int[16];
+    Edge[] edgeBuffer = new Edge[16];
+    for (int from = 0; from < this.vertices.length; from++) {
+      int count = 0;
+      for (Edge<V> edge : graph.getOutgoingEdges(vertex(from))) {
+        Integer to = numbers.get(edge.getTo());
+        if (to != null && !edgesToExclude.contains(edge)) {
+          if (count == buffer.length) {
+            buffer = Arrays.copyOf(buffer, count * 2);
+            edgeBuffer = Arrays.copyOf(edgeBuffer, count * 2);
+          }
+          buffer[count] = to;
+          edgeBuffer[count] = edge;
+          count++;
+        }
+      }
+      successors[from] = Arrays.copyOf(buffer, count);
+      edges[from] = Arrays.copyOf(edgeBuffer, count);
+    }
+  }
+
+  int size() {
+    return vertices.length;
+  }
+
+  @SuppressWarnings("unchecked")
+  V vertex(int number) {
+    return (V) vertices[number];
+  }
+
+  /**
+   * @return the number of the vertex, or -1 if it does not belong to this graph
+   */
+  int number(V vertex) {
+    Integer number = numbers.get(vertex);
+    return number == null ? -1 : number;
+  }
+
+  int[] successors(int from) {
+    return successors[from];
+  }
+
+  /**
+   * Edge to the successor at the given position in {@link #successors(int)}
+   */
+  Edge edge(int from, int position) {
+    return edges[from][position];
+  }
+
+  boolean hasLoop(int vertex) {
+    for (int successor : successors[vertex]) {
+      if (successor == vertex) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Tarjan's algorithm, without recursion in order to support deep graphs.
+   *
+   * @param mask only vertices marked in the mask are considered, all vertices if null
+   * @param componentOf receives the number of the component of each considered vertex, or -1 for the others. Components are
+   *                    numbered in reverse topological order.
+   * @return the number of components
+   */
+  int computeStronglyConnectedComponents(boolean[] mask, int[] componentOf) {
+    int n = vertices.length;
+    int[] index = new int[n];
+    int[] lowLink = new int[n];
+    int[] cursor = new int[n];
+    boolean[] onStack = new boolean[n];
+    int[] stack = new int[n];
+    int[] calls = new int[n];
+    for (int v = 0; v < n; v++) {
+      index[v] = -1;
+      componentOf[v] = -1;
+    }
+
+    int counter = 0;
+    int components = 0;
+    int stackSize = 0;
+    for (int root = 0; root < n; root++) {
+      if (index[root] != -1 || (mask != null && !mask[root])) {
+        continue;
+      }
+      int depth = 0;
+      index[root] = counter;
+      lowLink[root] = counter;
+      counter++;
+      stack[stackSize++] = root;
+      onStack[root] = true;
+      calls[depth++] = root;
+
+      while (depth > 0) {
+        int v = calls[depth - 1];
+        if (cursor[v] < successors[v].length) {
+          int w = successors[v][cursor[v]++];
+          if (mask != null && !mask[w]) {
+            continue;
+          }
+          if (index[w] == -1) {
+            index[w] = counter;
+            lowLink[w] = counter;
+            counter++;
+            stack[stackSize++] = w;
+            onStack[w] = true;
+            calls[depth++] = w;
+          } else if (onStack[w]) {
+            lowLink[v] = Math.min(lowLink[v], index[w]);
+          }
+        } else {
+          depth--;
+          if (lowLink[v] == index[v]) {
+            int w;
+            do {
+              w = stack[--stackSize];
+              onStack[w] = false;
+              componentOf[w] = components;
+            } while (w != v);
+            components++;
+          }
+          if (depth > 0) {
+            int caller = calls[depth - 1];
+            lowLink[caller] = Math.min(lowLink[caller], lowLink[v]);
+          }
+        }
+      }
+    }
+    return components;
+  }
+}
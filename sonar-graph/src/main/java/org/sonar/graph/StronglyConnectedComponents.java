@@ -0,0 +1,120 @@
+/*
+ * SonarQube, open source software quality management tool.
+ * Copyright (C) 2008-2013 SonarSource
+ * mailto:contact AT sonarsource DOT com
+ *
+ * SonarQube is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * SonarQube is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.graph;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Strongly connected components of a directed graph, computed in linear time with Tarjan's algorithm.
+ * <p/>
+ * Every cycle of the graph is included into a single component, so that cycles can be searched separately in each
+ * cyclic component, and edges between components can be ignored.
+ *
+ * @since 4.1
+ */
+public class StronglyConnectedComponents<V> {
+
+  private final IndexedGraph<V> graph;
+  private final int[] componentOf;
+  private final List<Set<V>> components;
+  private final List<Set<V>> cyclicComponents;
+
+  public StronglyConnectedComponents(DirectedGraphAccessor<V, ? extends Edge> graph) {
+    this(graph, graph.getVertices());
+  }
+
+  public StronglyConnectedComponents(DirectedGraphAccessor<V, ? extends Edge> graph, Collection<V> vertices) {
+    this(graph, vertices, Collections.<Edge>emptySet());
+  }
+
+  public StronglyConnectedComponents(DirectedGraphAccessor<V, ? extends Edge> graph, Collection<V> vertices, Set<Edge> edgesToExclude) {
+    this(new IndexedGraph<V>(graph, vertices, edgesToExclude));
+  }
+
+  StronglyConnectedComponents(IndexedGraph<V> graph) {
+    this.graph = graph;
+    this.componentOf = new int[graph.size()];
+    int count = graph.computeStronglyConnectedComponents(null, componentOf);
+
+    List<Set<V>> list = new ArrayList<Set<V>>(count);
+    for (int c = 0; c < count; c++) {
+      list.add(new LinkedHashSet<V>());
+    }
+    for (int v = 0; v < graph.size(); v++) {
+      list.get(componentOf[v]).add(graph.vertex(v));
+    }
+    this.components = Collections.unmodifiableList(list);
+
+    List<Set<V>> cyclic = new ArrayList<Set<V>>();
+    for (Set<V> component : components) {
+      if (component.size() > 1 || graph.hasLoop(graph.number(component.iterator().next()))) {
+        cyclic.add(component);
+      }
+    }
+    this.cyclicComponents = Collections.unmodifiableList(cyclic);
+  }
+
+  /**
+   * All the components, including single vertices which are not part of any cycle, in reverse topological order :
+   * no edge goes from a component to a following one.
+   */
+  public List<Set<V>> getComponents() {
+    return components;
+  }
+
+  /**
+   * Components which contain at least one cycle, in reverse topological order.
+   */
+  public List<Set<V>> getCyclicComponents() {
+    return cyclicComponents;
+  }
+
+  /**
+   * Vertices which are part of at least one cycle.
+   */
+  public Set<V> getCyclicVertices() {
+    Set<V> result = new HashSet<V>();
+    for (Set<V> component : cyclicComponents) {
+      result.addAll(component);
+    }
+    return result;
+  }
+
+  public boolean isAcyclicGraph() {
+    return cyclicComponents.isEmpty();
+  }
+
+  IndexedGraph<V> getGraph() {
+    return graph;
+  }
+
+  /**
+   * Number of the component of the vertex with the given number, as indexed in {@link #getComponents()}
+   */
+  int componentOf(int vertex) {
+    return componentOf[vertex];
+  }
+}
@@ -0,0 +1,107 @@
+/*
+ * SonarQube, open source software quality management tool.
+ * Copyright (C) 2008-2013 SonarSource
+ * mailto:contact AT sonarsource DOT com
+ *
+ * SonarQube is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * SonarQube is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.graph;
+
+import org.junit.Ignore;
+import org.junit.Test;
+
+import java.util.Random;
+
+/**
+ * Measures the time to search cycles and feedback edges on a large synthetic package graph : modules are layered, and
+ * the packages of each module are layered except for a few back dependencies which create tangles. Ignored as results
+ * depend on the virtual machine.
+ */
+@Ignore
+public class CycleDetectionBenchmarkTest {
+
+  private static final int MODULES = 50;
+  private static final int PACKAGES_PER_MODULE = 60;
+  private static final int DEPENDENCIES_PER_PACKAGE = 4;
+  private static final int BACK_DEPENDENCIES_PER_MODULE = 4;
+  private static final int MAX_CYCLES = 100000;
+  private static final long TIME_BUDGET_IN_MS = 10000;
+
+  @Test
+  public void search_cycles_of_large_package_graph() {
+    DirectedGraph<String, StringEdge> graph = createGraph();
+    System.out.println(String.format("%d packages", graph.getVertices().size()));
+
+    for (int run = 0; run < 5; run++) {
+      long start = System.currentTimeMillis();
+      StronglyConnectedComponents<String> components = new StronglyConnectedComponents<String>(graph);
+      System.out.println(String.format("Strongly connected components: %d ms, %d cyclic components", System.currentTimeMillis() - start,
+          components.getCyclicComponents().size()));
+
+      start = System.currentTimeMillis();
+      ElementaryCycleDetector<String> cycleDetector = new ElementaryCycleDetector<String>(components);
+      cycleDetector.detectCyclesWithUpperLimit(MAX_CYCLES);
+      System.out.println(String.format("Elementary cycles: %d ms, %d cycles, complete: %s", System.currentTimeMillis() - start,
+          cycleDetector.getCycles().size(), cycleDetector.isComplete()));
+
+      start = System.currentTimeMillis();
+      IncrementalCyclesAndFESSolver<String> solver = new IncrementalCyclesAndFESSolver<String>(graph, graph.getVertices());
+      System.out.println(String.format("Incremental solver: %d ms, %d cycles, %d search calls, feedback edges weight %d",
+          System.currentTimeMillis() - start, solver.getCycles().size(), solver.getSearchCyclesCalls(), solver.getWeightOfFeedbackEdgeSet()));
+
+      start = System.currentTimeMillis();
+      HeuristicFeedbackEdgeSetSolver<String> heuristicSolver = new HeuristicFeedbackEdgeSetSolver<String>(components, TIME_BUDGET_IN_MS);
+      System.out.println(String.format("Heuristic solver: %d ms, feedback edges weight %d, lower bound %d, optimality gap %.2f",
+          System.currentTimeMillis() - start, heuristicSolver.getWeightOfFeedbackEdgeSet(), heuristicSolver.getLowerBound(),
+          heuristicSolver.getOptimalityGap()));
+    }
+  }
+
+  private static DirectedGraph<String, StringEdge> createGraph() {
+    Random random = new Random(42);
+    DirectedGraph<String, StringEdge> graph = DirectedGraph.createStringDirectedGraph();
+    for (int m = 0; m < MODULES; m++) {
+      for (int p = 0; p < PACKAGES_PER_MODULE; p++) {
+        graph.addVertex(name(m, p));
+        for (int d = 0; d < DEPENDENCIES_PER_PACKAGE; d++) {
+          String to;
+          if (p + 1 < PACKAGES_PER_MODULE && random.nextInt(4) > 0) {
+            to = name(m, p + 1 + random.nextInt(PACKAGES_PER_MODULE - p - 1));
+          } else if (m > 0) {
+            to = name(random.nextInt(m), random.nextInt(PACKAGES_PER_MODULE));
+          } else {
+            continue;
+          }
+          addEdge(graph, name(m, p), to, 1 + random.nextInt(10));
+        }
+      }
+      for (int b = 0; b < BACK_DEPENDENCIES_PER_MODULE; b++) {
+        int from = PACKAGES_PER_MODULE / 2 + random.nextInt(PACKAGES_PER_MODULE / 2);
+        addEdge(graph, name(m, from), name(m, random.nextInt(from)), 1 + random.nextInt(10));
+      }
+    }
+    return graph;
+  }
+
+  private static void addEdge(DirectedGraph<String, StringEdge> graph, String from, String to, int weight) {
+    if (!graph.hasEdge(from, to)) {
+      graph.addEdge(from, to, weight);
+    }
+  }
+
+  private static String name(int module, int p) {
+    return "org.module" + module + ".package" + p;
+  }
+}
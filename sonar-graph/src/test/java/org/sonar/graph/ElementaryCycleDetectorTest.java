@@ -0,0 +1,151 @@
+/*
+ * SonarQube, open source software quality management tool.
+ * Copyright (C) 2008-2013 SonarSource
+ * mailto:contact AT sonarsource DOT com
+ *
+ * SonarQube is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * SonarQube is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.graph;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public class ElementaryCycleDetectorTest {
+
+  @Test
+  public void testIsAcyclicGraph() {
+    DirectedGraph<String, StringEdge> dag = DirectedGraph.createStringDirectedGraph();
+    dag.addEdge("A", "B").addEdge("B", "C").addEdge("C", "D");
+    dag.addEdge("A", "D");
+
+    ElementaryCycleDetector<String> cycleDetector = new ElementaryCycleDetector<String>(dag);
+    assertThat(cycleDetector.detectCycles().size(), is(0));
+    assertTrue(cycleDetector.isAcyclicGraph());
+    assertTrue(cycleDetector.isComplete());
+  }
+
+  @Test
+  public void testGetCyclesWithMultipleCycles() {
+    DirectedGraph<String, StringEdge> dcg = DirectedGraph.createStringDirectedGraph();
+    dcg.addEdge("A", "B").addEdge("B", "C").addEdge("C", "D").addEdge("D", "A");
+    dcg.addEdge("C", "A");
+    dcg.addEdge("B", "A");
+    dcg.addEdge("A", "E").addEdge("E", "C");
+    dcg.addEdge("E", "D");
+    dcg.addEdge("E", "F");
+    dcg.addEdge("F", "C");
+    dcg.addEdge("D", "G");
+
+    ElementaryCycleDetector<String> cycleDetector = new ElementaryCycleDetector<String>(dcg);
+    assertThat(cycleDetector.detectCycles().size(), is(8));
+    assertFalse(cycleDetector.isAcyclicGraph());
+    assertThat(cycleDetector.getComponents().getCyclicComponents().size(), is(1));
+  }
+
+  @Test
+  public void testSelfLoop() {
+    DirectedGraph<String, StringEdge> dcg = DirectedGraph.createStringDirectedGraph();
+    dcg.addEdge("A", "A").addEdge("A", "B").addEdge("B", "A");
+
+    ElementaryCycleDetector<String> cycleDetector = new ElementaryCycleDetector<String>(dcg);
+    assertThat(cycleDetector.detectCycles().size(), is(2));
+    assertTrue(cycleDetector.getCycles().contains(new Cycle(Arrays.<Edge>asList(dcg.getEdge("A", "A")))));
+  }
+
+  @Test
+  public void testGetCyclesInLimitedSetOfVertices() {
+    DirectedGraph<String, StringEdge> dcg = DirectedGraph.createStringDirectedGraph();
+    dcg.addEdge("A", "B").addEdge("B", "C").addEdge("C", "A");
+
+    ElementaryCycleDetector<String> cycleDetector = new ElementaryCycleDetector<String>(dcg, Arrays.asList("A", "B"));
+    assertThat(cycleDetector.detectCycles().size(), is(0));
+  }
+
+  @Test
+  public void testDetectCyclesWithUpperLimit() {
+    DirectedGraph<String, StringEdge> dcg = DirectedGraph.createStringDirectedGraph();
+    dcg.addEdge("A", "B").addEdge("B", "C").addEdge("C", "D").addEdge("D", "A");
+    dcg.addEdge("B", "A");
+
+    ElementaryCycleDetector<String> cycleDetector = new ElementaryCycleDetector<String>(dcg);
+    assertThat(cycleDetector.detectCyclesWithUpperLimit(1).size(), is(1));
+    assertFalse(cycleDetector.isComplete());
+  }
+
+  @Test
+  public void testDetectCyclesWithMaxLength() {
+    DirectedGraph<String, StringEdge> dcg = DirectedGraph.createStringDirectedGraph();
+    dcg.addEdge("A", "B").addEdge("B", "C").addEdge("C", "D").addEdge("D", "A");
+    dcg.addEdge("C", "A");
+    dcg.addEdge("B", "A");
+    dcg.addEdge("A", "E").addEdge("E", "C");
+    dcg.addEdge("E", "D");
+    dcg.addEdge("E", "F");
+    dcg.addEdge("F", "C");
+
+    assertThat(new ElementaryCycleDetector<String>(dcg).detectCyclesWithMaxLength(2).size(), is(1));
+    assertThat(new ElementaryCycleDetector<String>(dcg).detectCyclesWithMaxLength(3).size(), is(4));
+    assertThat(new ElementaryCycleDetector<String>(dcg).detectCyclesWithMaxLength(6).size(), is(8));
+  }
+
+  @Test
+  public void testDetectCyclesWithoutMaxLength() {
+    DirectedGraph<String, StringEdge> dcg = DirectedGraph.createStringDirectedGraph();
+    dcg.addEdge("A", "B").addEdge("B", "C").addEdge("C", "A");
+    dcg.addEdge("B", "A");
+
+    // same as the cycle detector, which ignores a maximum search depth lower than 2
+    assertThat(new ElementaryCycleDetector<String>(dcg).detectCyclesWithMaxLength(1).size(), is(2));
+    assertThat(new ElementaryCycleDetector<String>(dcg).detectCyclesWithMaxLength(0).size(), is(2));
+    assertThat(new ElementaryCycleDetector<String>(dcg).detectCyclesWithMaxLength(-1).size(), is(2));
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testExecutingTwoCycleDetectionsOnSameObject() {
+    DirectedGraph<String, StringEdge> dcg = DirectedGraph.createStringDirectedGraph();
+    dcg.addEdge("A", "B").addEdge("B", "A");
+
+    ElementaryCycleDetector<String> cycleDetector = new ElementaryCycleDetector<String>(dcg);
+    cycleDetector.detectCycles();
+    cycleDetector.detectCycles();
+  }
+
+  @Test
+  public void testFindSameCyclesAsExhaustiveSearch() {
+    Random random = new Random(1);
+    for (int graph = 0; graph < 200; graph++) {
+      DirectedGraph<String, StringEdge> dcg = DirectedGraph.createStringDirectedGraph();
+      int vertices = 2 + random.nextInt(7);
+      for (int from = 0; from < vertices; from++) {
+        for (int to = 0; to < vertices; to++) {
+          if (random.nextInt(3) == 0) {
+            dcg.addEdge("V" + from, "V" + to);
+          }
+        }
+      }
+      // without depth limit, starting from any vertex explores all the elementary cycles of small graphs
+      CycleDetector<String> exhaustiveDetector = new CycleDetector<String>(dcg);
+      ElementaryCycleDetector<String> cycleDetector = new ElementaryCycleDetector<String>(dcg);
+      assertThat(cycleDetector.detectCycles(), is(exhaustiveDetector.detectCyclesWithMaxSearchDepth(vertices + 1)));
+    }
+  }
+}
@@ -0,0 +1,129 @@
+/*
+ * SonarQube, open source software quality management tool.
+ * Copyright (C) 2008-2013 SonarSource
+ * mailto:contact AT sonarsource DOT com
+ *
+ * SonarQube is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * SonarQube is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.graph;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public class HeuristicFeedbackEdgeSetSolverTest {
+
+  @Test
+  public void testFlagFeedbackEdgesOnSimpleLoop() {
+    DirectedGraph<String, StringEdge> dcg = DirectedGraph.createStringDirectedGraph();
+    dcg.addEdge("A", "B", 3).addEdge("B", "A", 1);
+
+    HeuristicFeedbackEdgeSetSolver<String> solver = new HeuristicFeedbackEdgeSetSolver<String>(dcg, dcg.getVertices());
+    assertThat(solver.getEdges().size(), is(1));
+    assertTrue(solver.getEdges().contains(dcg.getEdge("B", "A")));
+    assertThat(solver.getWeightOfFeedbackEdgeSet(), is(1));
+    assertThat(solver.getLowerBound(), is(1));
+    assertThat(solver.getOptimalityGap(), is(0.0));
+    assertFalse(solver.isTimeBudgetExceeded());
+  }
+
+  @Test
+  public void testGetFeedbackEdgesOnComplexGraph() {
+    DirectedGraph<String, StringEdge> dcg = DirectedGraph.createStringDirectedGraph();
+    dcg.addEdge("A", "B", 7).addEdge("B", "C", 3).addEdge("C", "D", 1).addEdge("D", "A", 3);
+    dcg.addEdge("B", "A", 12);
+
+    HeuristicFeedbackEdgeSetSolver<String> solver = new HeuristicFeedbackEdgeSetSolver<String>(dcg, dcg.getVertices());
+    assertThat(solver.getEdges().size(), is(1));
+    assertTrue(solver.getEdges().contains(dcg.getEdge("A", "B")));
+    assertThat(solver.getOptimalityGap(), is(0.0));
+  }
+
+  @Test
+  public void testSolveUnrelatedCyclesAndLoops() {
+    DirectedGraph<String, StringEdge> dcg = DirectedGraph.createStringDirectedGraph();
+    dcg.addEdge("A", "B", 7).addEdge("B", "C", 3).addEdge("C", "A", 2);
+    dcg.addEdge("C", "D", 1);
+    dcg.addEdge("D", "E", 3).addEdge("E", "D", 5);
+    dcg.addEdge("F", "F", 4);
+
+    HeuristicFeedbackEdgeSetSolver<String> solver = new HeuristicFeedbackEdgeSetSolver<String>(dcg, dcg.getVertices());
+    assertThat(solver.getEdges().size(), is(3));
+    assertTrue(solver.getEdges().contains(dcg.getEdge("C", "A")));
+    assertTrue(solver.getEdges().contains(dcg.getEdge("D", "E")));
+    assertTrue(solver.getEdges().contains(dcg.getEdge("F", "F")));
+    assertThat(solver.getWeightOfFeedbackEdgeSet(), is(9));
+  }
+
+  @Test
+  public void testAcyclicGraph() {
+    DirectedGraph<String, StringEdge> dag = DirectedGraph.createStringDirectedGraph();
+    dag.addEdge("A", "B").addEdge("B", "C").addEdge("A", "C");
+
+    HeuristicFeedbackEdgeSetSolver<String> solver = new HeuristicFeedbackEdgeSetSolver<String>(dag, dag.getVertices());
+    assertThat(solver.getEdges().size(), is(0));
+    assertThat(solver.getOptimalityGap(), is(0.0));
+  }
+
+  @Test
+  public void testBreakAllCyclesWhenTimeBudgetIsExceeded() {
+    DirectedGraph<String, StringEdge> dcg = randomGraph(new Random(1), 30, 3);
+
+    HeuristicFeedbackEdgeSetSolver<String> solver = new HeuristicFeedbackEdgeSetSolver<String>(dcg, dcg.getVertices(), 0);
+    assertTrue(solver.isTimeBudgetExceeded());
+    assertTrue(new StronglyConnectedComponents<String>(dcg, dcg.getVertices(), solver.getEdges()).isAcyclicGraph());
+  }
+
+  @Test
+  public void testCompareWithExactSolverOnSmallGraphs() {
+    Random random = new Random(1);
+    int optimal = 0;
+    for (int i = 0; i < 200; i++) {
+      DirectedGraph<String, StringEdge> dcg = randomGraph(random, 2 + random.nextInt(6), 3);
+      ElementaryCycleDetector<String> cycleDetector = new ElementaryCycleDetector<String>(dcg);
+      int exactWeight = new MinimumFeedbackEdgeSetSolver(cycleDetector.detectCycles()).getWeightOfFeedbackEdgeSet();
+
+      HeuristicFeedbackEdgeSetSolver<String> solver = new HeuristicFeedbackEdgeSetSolver<String>(dcg, dcg.getVertices());
+      assertTrue(new StronglyConnectedComponents<String>(dcg, dcg.getVertices(), solver.getEdges()).isAcyclicGraph());
+      assertThat(solver.getWeightOfFeedbackEdgeSet(), greaterThanOrEqualTo(exactWeight));
+      assertThat(solver.getLowerBound(), lessThanOrEqualTo(exactWeight));
+      if (solver.getWeightOfFeedbackEdgeSet() == exactWeight) {
+        optimal++;
+      }
+      assertThat(new HeuristicFeedbackEdgeSetSolver<String>(dcg, dcg.getVertices()).getEdges(), is(solver.getEdges()));
+    }
+    assertThat(optimal, greaterThanOrEqualTo(180));
+  }
+
+  private static DirectedGraph<String, StringEdge> randomGraph(Random random, int vertices, int oneEdgeOutOf) {
+    DirectedGraph<String, StringEdge> dcg = DirectedGraph.createStringDirectedGraph();
+    for (int from = 0; from < vertices; from++) {
+      dcg.addVertex("V" + from);
+      for (int to = 0; to < vertices; to++) {
+        if (random.nextInt(oneEdgeOutOf) == 0) {
+          dcg.addEdge("V" + from, "V" + to, 1 + random.nextInt(10));
+        }
+      }
+    }
+    return dcg;
+  }
+}
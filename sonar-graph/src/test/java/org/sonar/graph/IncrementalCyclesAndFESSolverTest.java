@@ -69,4 +69,49 @@ public class IncrementalCyclesAndFESSolverTest {
     cyclesAndFESSolver.getFeedbackEdgeSet();
   }
 
+  @Test
+  public void testWithoutMaxSearchDepthAtFirst() {
+    DirectedGraph<String, StringEdge> dcg = DirectedGraph.createStringDirectedGraph();
+    dcg.addEdge("A", "B").addEdge("B", "C").addEdge("C", "D").addEdge("D", "A");
+    dcg.addEdge("C", "A");
+    dcg.addEdge("B", "A");
+    dcg.addEdge("A", "E").addEdge("E", "C");
+    dcg.addEdge("E", "D");
+    dcg.addEdge("E", "F");
+    dcg.addEdge("F", "C");
+
+    IncrementalCyclesAndFESSolver<String> cyclesAndFESSolver = new IncrementalCyclesAndFESSolver<String>(dcg, dcg.getVertices(), 1,
+        Integer.MAX_VALUE);
+    assertThat(cyclesAndFESSolver.getCycles().size(), is(8));
+    assertThat(cyclesAndFESSolver.getIterations(), is(2));
+  }
+
+  @Test
+  public void testSolveComponentsSeparately() {
+    DirectedGraph<String, StringEdge> dcg = DirectedGraph.createStringDirectedGraph();
+    dcg.addEdge("A", "B", 2).addEdge("B", "C", 1).addEdge("C", "A", 3);
+    dcg.addEdge("C", "D", 5);
+    dcg.addEdge("D", "E", 4).addEdge("E", "D", 1);
+    dcg.addEdge("E", "F", 7).addEdge("F", "G", 1);
+
+    IncrementalCyclesAndFESSolver<String> cyclesAndFESSolver = new IncrementalCyclesAndFESSolver<String>(dcg, dcg.getVertices());
+    assertThat(cyclesAndFESSolver.getCycles().size(), is(2));
+    assertThat(cyclesAndFESSolver.getFeedbackEdgeSet().size(), is(2));
+    assertThat(cyclesAndFESSolver.getFeedbackEdgeSet().contains(dcg.getEdge("B", "C")), is(true));
+    assertThat(cyclesAndFESSolver.getFeedbackEdgeSet().contains(dcg.getEdge("E", "D")), is(true));
+    assertThat(cyclesAndFESSolver.getWeightOfFeedbackEdgeSet(), is(2));
+  }
+
+  @Test
+  public void testAcyclicGraph() {
+    DirectedGraph<String, StringEdge> dag = DirectedGraph.createStringDirectedGraph();
+    dag.addEdge("A", "B").addEdge("B", "C").addEdge("A", "C");
+
+    IncrementalCyclesAndFESSolver<String> cyclesAndFESSolver = new IncrementalCyclesAndFESSolver<String>(dag, dag.getVertices());
+    assertThat(cyclesAndFESSolver.isAcyclicGraph(), is(true));
+    assertThat(cyclesAndFESSolver.getFeedbackEdgeSet().size(), is(0));
+    assertThat(cyclesAndFESSolver.getWeightOfFeedbackEdgeSet(), is(0));
+    assertThat(cyclesAndFESSolver.getSearchCyclesCalls(), is(0L));
+  }
+
 }
@@ -0,0 +1,101 @@
+/*
+ * SonarQube, open source software quality management tool.
+ * Copyright (C) 2008-2013 SonarSource
+ * mailto:contact AT sonarsource DOT com
+ *
+ * SonarQube is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * SonarQube is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.graph;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public class StronglyConnectedComponentsTest {
+
+  @Test
+  public void testAcyclicGraph() {
+    DirectedGraph<String, StringEdge> dag = DirectedGraph.createStringDirectedGraph();
+    dag.addEdge("A", "B").addEdge("B", "C").addEdge("A", "C");
+
+    StronglyConnectedComponents<String> components = new StronglyConnectedComponents<String>(dag);
+    assertTrue(components.isAcyclicGraph());
+    assertThat(components.getComponents().size(), is(3));
+    assertThat(components.getCyclicComponents().size(), is(0));
+  }
+
+  @Test
+  public void testComponentsAreInReverseTopologicalOrder() {
+    DirectedGraph<String, StringEdge> dcg = DirectedGraph.createStringDirectedGraph();
+    dcg.addEdge("A", "B").addEdge("B", "A");
+    dcg.addEdge("B", "C");
+    dcg.addEdge("C", "D").addEdge("D", "E").addEdge("E", "C");
+
+    StronglyConnectedComponents<String> components = new StronglyConnectedComponents<String>(dcg);
+    assertFalse(components.isAcyclicGraph());
+    assertThat(components.getComponents().size(), is(2));
+    assertThat(components.getComponents().get(0), is(set("C", "D", "E")));
+    assertThat(components.getComponents().get(1), is(set("A", "B")));
+    assertThat(components.getCyclicVertices(), is(set("A", "B", "C", "D", "E")));
+  }
+
+  @Test
+  public void testSelfLoopIsCyclic() {
+    DirectedGraph<String, StringEdge> dcg = DirectedGraph.createStringDirectedGraph();
+    dcg.addEdge("A", "A").addEdge("A", "B");
+
+    StronglyConnectedComponents<String> components = new StronglyConnectedComponents<String>(dcg);
+    assertThat(components.getComponents().size(), is(2));
+    assertThat(components.getCyclicComponents().size(), is(1));
+    assertThat(components.getCyclicComponents().get(0), is(set("A")));
+  }
+
+  @Test
+  public void testLimitedSetOfVerticesAndExcludedEdges() {
+    DirectedGraph<String, StringEdge> dcg = DirectedGraph.createStringDirectedGraph();
+    dcg.addEdge("A", "B").addEdge("B", "C").addEdge("C", "A");
+    dcg.addEdge("D", "E").addEdge("E", "D");
+
+    Set<Edge> excludedEdges = new HashSet<Edge>();
+    excludedEdges.add(dcg.getEdge("E", "D"));
+    StronglyConnectedComponents<String> components = new StronglyConnectedComponents<String>(dcg, Arrays.asList("A", "B", "D", "E"), excludedEdges);
+    assertTrue(components.isAcyclicGraph());
+    assertThat(components.getComponents().size(), is(4));
+  }
+
+  @Test
+  public void testDeepGraphDoesNotOverflowStack() {
+    DirectedGraph<String, StringEdge> dcg = DirectedGraph.createStringDirectedGraph();
+    for (int i = 0; i < 100000; i++) {
+      dcg.addEdge("V" + i, "V" + (i + 1));
+    }
+    dcg.addEdge("V100000", "V0");
+
+    StronglyConnectedComponents<String> components = new StronglyConnectedComponents<String>(dcg);
+    assertThat(components.getCyclicComponents().size(), is(1));
+    assertThat(components.getCyclicComponents().get(0).size(), is(100001));
+  }
+
+  private static Set<String> set(String... vertices) {
+    return new HashSet<String>(Arrays.asList(vertices));
+  }
+}
@@ -26,6 +26,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.sonar.api.component.Component;
 import org.sonar.api.utils.Paging;
+import org.sonar.core.resource.ProjectQuery;
+import org.sonar.core.resource.ResourceDao;
 
 import java.util.Collection;
 import java.util.List;
@@ -40,6 +42,42 @@ public class DefaultComponentFinder {
 
   private static final Logger LOG = LoggerFactory.getLogger(DefaultComponentFinder.class);
 
+  private final ResourceDao resourceDao;
+
+  public DefaultComponentFinder(ResourceDao resourceDao) {
+    this.resourceDao = resourceDao;
+  }
+
+  /**
+   * Filtering, sorting and pagination are executed by the database, so only the requested page is loaded
+   *
+   * @since 4.1
+   */
+  public DefaultComponentQueryResult find(ComponentQuery query, ProjectQuery.Kind kind) {
+    LOG.debug("ComponentQuery : {}", query);
+    ProjectQuery projectQuery = ProjectQuery.create()
+      .setKind(kind)
+      .setQualifiers(query.qualifiers())
+      .setKeys(query.keys())
+      .setNames(query.names());
+    String sort = query.sort();
+    if (sort != null && query.asc() != null) {
+      if (!ComponentQuery.SORT_BY_NAME.equals(sort)) {
+        throw new IllegalArgumentException("Cannot sort on field : " + sort);
+      }
+      projectQuery.setAsc(query.asc());
+    }
+
+    if (ComponentQuery.NO_PAGINATION == query.pageSize()) {
+      List<Component> components = resourceDao.selectProjects(projectQuery);
+      return new DefaultComponentQueryResult(components).setQuery(query);
+    } else {
+      Paging paging = Paging.create(query.pageSize(), query.pageIndex(), resourceDao.countProjects(projectQuery));
+      List<Component> components = resourceDao.selectProjects(projectQuery, paging.offset(), paging.pageSize());
+      return new DefaultComponentQueryResult(components).setPaging(paging).setQuery(query);
+    }
+  }
+
   public DefaultComponentQueryResult find(ComponentQuery query, List<Component> allComponents) {
     LOG.debug("ComponentQuery : {}", query);
     Collection<Component> foundComponents = search(query, allComponents);
@@ -26,6 +26,7 @@ import org.sonar.api.i18n.I18n;
 import org.sonar.api.resources.Scopes;
 import org.sonar.core.component.ComponentDto;
 import org.sonar.core.component.ComponentKeys;
+import org.sonar.core.resource.ProjectQuery;
 import org.sonar.core.resource.ResourceDao;
 import org.sonar.core.resource.ResourceDto;
 import org.sonar.core.resource.ResourceIndexerDao;
@@ -90,21 +91,15 @@ public class DefaultRubyComponentService implements RubyComponentService {
   }
 
   public DefaultComponentQueryResult find(Map<String, Object> params) {
-    ComponentQuery query = toQuery(params);
-    List<Component> components = resourceDao.selectProjectsByQualifiers(query.qualifiers());
-    return finder.find(query, components);
+    return finder.find(toQuery(params), ProjectQuery.Kind.COMPLETED);
   }
 
   public DefaultComponentQueryResult findWithUncompleteProjects(Map<String, Object> params) {
-    ComponentQuery query = toQuery(params);
-    List<Component> components = resourceDao.selectProjectsIncludingNotCompletedOnesByQualifiers(query.qualifiers());
-    return finder.find(query, components);
+    return finder.find(toQuery(params), ProjectQuery.Kind.INCLUDING_NOT_COMPLETED);
   }
 
   public DefaultComponentQueryResult findGhostsProjects(Map<String, Object> params) {
-    ComponentQuery query = toQuery(params);
-    List<Component> components = resourceDao.selectGhostsProjects(query.qualifiers());
-    return finder.find(query, components);
+    return finder.find(toQuery(params), ProjectQuery.Kind.GHOSTS);
   }
 
   public List<ResourceDto> findProvisionedProjects(Map<String, Object> params) {
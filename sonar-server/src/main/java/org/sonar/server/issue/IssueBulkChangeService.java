@@ -48,6 +48,12 @@ public class IssueBulkChangeService {
 
   private static final Logger LOG = LoggerFactory.getLogger(IssueBulkChangeService.class);
 
+  /**
+   * Issues are saved and notified by chunks in order to use JDBC batches without keeping
+   * all the changes in the same transaction.
+   */
+  static final int CHUNK_SIZE = 500;
+
   private final DefaultIssueFinder issueFinder;
   private final IssueStorage issueStorage;
   private final IssueNotifications issueNotifications;
@@ -74,22 +80,31 @@ public class IssueBulkChangeService {
 
     IssueChangeContext issueChangeContext = IssueChangeContext.createUser(new Date(), userSession.login());
     Set<String> concernedProjects = new HashSet<String>();
-    for (Issue issue : issues) {
-      ActionContext actionContext = new ActionContext(issue, issueChangeContext);
-      for (Action action : bulkActions) {
-        applyAction(action, actionContext, issueBulkChangeQuery, result);
-      }
-      if (result.issuesChanged().contains(issue)) {
-        // Apply comment action only on changed issues
-        if (issueBulkChangeQuery.hasComment()) {
-          applyAction(getAction(CommentAction.KEY), actionContext, issueBulkChangeQuery, result);
+    int processed = 0;
+    for (List<Issue> chunk : Iterables.partition(issues, CHUNK_SIZE)) {
+      List<DefaultIssue> changedIssues = newArrayList();
+      for (Issue issue : chunk) {
+        ActionContext actionContext = new ActionContext(issue, issueChangeContext);
+        for (Action action : bulkActions) {
+          applyAction(action, actionContext, issueBulkChangeQuery, result);
         }
-        issueStorage.save((DefaultIssue) issue);
+        if (result.issuesChanged().contains(issue)) {
+          // Apply comment action only on changed issues
+          if (issueBulkChangeQuery.hasComment()) {
+            applyAction(getAction(CommentAction.KEY), actionContext, issueBulkChangeQuery, result);
+          }
+          changedIssues.add((DefaultIssue) issue);
+          concernedProjects.add(((DefaultIssue) issue).projectKey());
+        }
+      }
+      if (!changedIssues.isEmpty()) {
+        issueStorage.save(changedIssues);
         if (issueBulkChangeQuery.sendNotifications()) {
-          issueNotifications.sendChanges((DefaultIssue) issue, issueChangeContext, issueQueryResult);
+          issueNotifications.sendChanges(changedIssues, issueChangeContext, issueQueryResult);
         }
-        concernedProjects.add(((DefaultIssue) issue).projectKey());
       }
+      processed += chunk.size();
+      LOG.debug("BulkChange progress : {}/{} issues", processed, issues.size());
     }
     // Purge dryRun cache
     for (String projectKey : concernedProjects) {
@@ -82,7 +82,10 @@ public class DefaultServerFileSystem implements ServerFileSystem {
       LOGGER.info("Deploy dir: " + deployDir.getAbsolutePath());
       FileUtils.forceMkdir(deployDir);
       for (File subDirectory : deployDir.listFiles((FileFilter) FileFilterUtils.directoryFileFilter())) {
-        FileUtils.cleanDirectory(subDirectory);
+        // plugins deployed by the previous startup are reused if they did not change. See PluginDeployer.
+        if (!subDirectory.equals(getDeployedPluginsDir())) {
+          FileUtils.cleanDirectory(subDirectory);
+        }
       }
 
     } catch (IOException e) {
@@ -47,7 +47,8 @@ public class DefaultServerPluginRepository implements ServerPluginRepository {
 
   public void start() {
     Collection<PluginMetadata> metadata = deployer.getMetadata();
-    pluginsByKey = classloaders.init(metadata);
+    pluginsByKey = classloaders.init(metadata, deployer.getTimings());
+    deployer.getTimings().log(LoggerFactory.getLogger(DefaultServerPluginRepository.class));
   }
 
   public void stop() {
@@ -21,6 +21,7 @@ package org.sonar.server.plugins;
 
 import com.google.common.base.Joiner;
 import com.google.common.base.Preconditions;
+import com.google.common.base.Throwables;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import org.apache.commons.io.FileUtils;
@@ -34,6 +35,8 @@ import org.sonar.api.platform.ServerUpgradeStatus;
 import org.sonar.api.utils.TimeProfiler;
 import org.sonar.core.plugins.DefaultPluginMetadata;
 import org.sonar.core.plugins.PluginInstaller;
+import org.sonar.core.plugins.PluginTimings;
+import org.sonar.home.cache.FileHashes;
 import org.sonar.server.platform.DefaultServerFileSystem;
 import org.sonar.updatecenter.common.PluginReferential;
 
@@ -42,6 +45,11 @@ import java.io.IOException;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 public class PluginDeployer implements ServerComponent {
 
@@ -52,6 +60,8 @@ public class PluginDeployer implements ServerComponent {
   private final PluginInstaller installer;
   private final Map<String, PluginMetadata> pluginByKeys = Maps.newHashMap();
   private final ServerUpgradeStatus serverUpgradeStatus;
+  private final PluginTimings timings = new PluginTimings();
+  private Map<String, DefaultPluginMetadata> installedMetadata;
 
   public PluginDeployer(Server server, ServerUpgradeStatus serverUpgradeStatus, DefaultServerFileSystem fileSystem) {
     this(server, serverUpgradeStatus, fileSystem, new PluginInstaller());
@@ -69,6 +79,7 @@ public class PluginDeployer implements ServerComponent {
 
     deleteUninstalledPlugins();
 
+    installedMetadata = installer.loadInstalledMetadata(fileSystem.getDeployedPluginsDir());
     loadUserPlugins();
     if (serverUpgradeStatus.isFreshInstall()) {
       copyAndLoadBundledPlugins();
@@ -76,7 +87,9 @@ public class PluginDeployer implements ServerComponent {
     moveAndLoadDownloadedPlugins();
     loadCorePlugins();
 
+    deleteObsoleteDeployments();
     deployPlugins();
+    installedMetadata = null;
 
     profiler.stop();
   }
@@ -99,7 +112,7 @@ public class PluginDeployer implements ServerComponent {
   }
 
   private void registerPlugin(File file, boolean isCore, boolean canDelete) {
-    DefaultPluginMetadata metadata = installer.extractMetadata(file, isCore);
+    DefaultPluginMetadata metadata = extractMetadata(file, isCore);
     if (StringUtils.isBlank(metadata.getKey())) {
       return;
     }
@@ -117,6 +130,25 @@ public class PluginDeployer implements ServerComponent {
     }
   }
 
+  /**
+   * The manifest of a plugin that is already deployed is not read again
+   */
+  private DefaultPluginMetadata extractMetadata(File file, boolean isCore) {
+    DefaultPluginMetadata metadata = installedMetadata.remove(checksum(file));
+    if (metadata != null) {
+      return metadata.setFile(file).setCore(isCore);
+    }
+    return installer.extractMetadata(file, isCore);
+  }
+
+  /**
+   * Plugin files are identified by the MD5 of their content. Reading the file is much cheaper than opening the zip
+   * to parse the manifest and unzipping the dependencies again.
+   */
+  private static String checksum(File file) {
+    return new FileHashes().of(file);
+  }
+
   private void moveAndLoadDownloadedPlugins() {
     if (fileSystem.getDownloadedPluginsDir().exists()) {
       Collection<File> jars = FileUtils.listFiles(fileSystem.getDownloadedPluginsDir(), new String[] {"jar"}, false);
@@ -200,33 +232,82 @@ public class PluginDeployer implements ServerComponent {
     }
   }
 
+  /**
+   * Directories of the deployed plugins are not cleaned on startup by {@link DefaultServerFileSystem}. Only
+   * the directories of the plugins that are still installed are kept.
+   */
+  private void deleteObsoleteDeployments() {
+    File[] files = fileSystem.getDeployedPluginsDir().listFiles();
+    if (files != null) {
+      for (File file : files) {
+        if (!file.isDirectory() || !pluginByKeys.containsKey(file.getName())) {
+          FileUtils.deleteQuietly(file);
+        }
+      }
+    }
+  }
+
+  /**
+   * Plugins are deployed in their own directory, so they are deployed concurrently.
+   */
   private void deployPlugins() {
+    List<Callable<Void>> tasks = Lists.newArrayList();
     for (PluginMetadata metadata : pluginByKeys.values()) {
-      deploy((DefaultPluginMetadata) metadata);
+      final DefaultPluginMetadata plugin = (DefaultPluginMetadata) metadata;
+      checkCompatibility(plugin);
+      tasks.add(new Callable<Void>() {
+        public Void call() {
+          deploy(plugin);
+          return null;
+        }
+      });
+    }
+    if (!tasks.isEmpty()) {
+      ExecutorService executor = Executors.newFixedThreadPool(Math.min(tasks.size(), Runtime.getRuntime().availableProcessors()));
+      try {
+        for (Future<Void> future : executor.invokeAll(tasks)) {
+          future.get();
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new IllegalStateException("Interrupted while deploying plugins", e);
+      } catch (ExecutionException e) {
+        throw Throwables.propagate(e.getCause());
+      } finally {
+        executor.shutdown();
+      }
     }
   }
 
-  private void deploy(DefaultPluginMetadata plugin) {
-    LOG.info("Deploy plugin {}", Joiner.on(" / ").skipNulls().join(plugin.getName(), plugin.getVersion(), plugin.getImplementationBuild()));
-
+  private void checkCompatibility(DefaultPluginMetadata plugin) {
     Preconditions.checkState(plugin.isCompatibleWith(server.getVersion()),
       "Plugin %s needs a more recent version of SonarQube than %s. At least %s is expected",
       plugin.getKey(), server.getVersion(), plugin.getSonarVersion());
+  }
 
-    try {
-      File pluginDeployDir = new File(fileSystem.getDeployedPluginsDir(), plugin.getKey());
-      FileUtils.forceMkdir(pluginDeployDir);
-      FileUtils.cleanDirectory(pluginDeployDir);
+  private void deploy(DefaultPluginMetadata plugin) {
+    LOG.info("Deploy plugin {}", Joiner.on(" / ").skipNulls().join(plugin.getName(), plugin.getVersion(), plugin.getImplementationBuild()));
 
-      List<File> deprecatedExtensions = fileSystem.getExtensions(plugin.getKey());
-      for (File deprecatedExtension : deprecatedExtensions) {
-        plugin.addDeprecatedExtension(deprecatedExtension);
-      }
+    long start = System.currentTimeMillis();
+    File pluginDeployDir = new File(fileSystem.getDeployedPluginsDir(), plugin.getKey());
+    List<File> deprecatedExtensions = fileSystem.getExtensions(plugin.getKey());
+    for (File deprecatedExtension : deprecatedExtensions) {
+      plugin.addDeprecatedExtension(deprecatedExtension);
+    }
 
-      installer.install(plugin, pluginDeployDir);
-    } catch (IOException e) {
-      throw new IllegalStateException("Fail to deploy the plugin " + plugin, e);
+    // files deployed by the previous startup are kept as long as the plugin does not change
+    if (!installer.installCached(plugin, checksum(plugin.getFile()), pluginDeployDir)) {
+      LOG.debug("Plugin {} is already deployed", plugin.getKey());
     }
+    timings.add(plugin.getKey(), "deploy", System.currentTimeMillis() - start);
+  }
+
+  /**
+   * Time spent to deploy each plugin. It is completed by the other steps of plugin loading.
+   * @since 4.1
+   */
+  public PluginTimings getTimings() {
+    return timings;
   }
 
   public Collection<PluginMetadata> getMetadata() {
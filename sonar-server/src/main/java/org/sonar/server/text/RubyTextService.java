@@ -54,4 +54,8 @@ public class RubyTextService implements ServerComponent {
   public List<String> highlightedSourceLines(long snapshotId) {
     return sourceDecorator.getDecoratedSourceAsHtml(snapshotId);
   }
+
+  public List<String> highlightedSourceLines(long snapshotId, int from, int to) {
+    return sourceDecorator.getDecoratedSourceAsHtml(snapshotId, from, to);
+  }
 }
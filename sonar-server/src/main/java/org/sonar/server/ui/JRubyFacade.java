@@ -20,6 +20,7 @@
 package org.sonar.server.ui;
 
 import org.sonar.core.preview.PreviewCache;
+import org.sonar.core.preview.PreviewSources;
 
 import org.slf4j.LoggerFactory;
 import org.sonar.api.CoreProperties;
@@ -56,6 +57,7 @@ import org.sonar.core.purge.PurgeDao;
 import org.sonar.core.resource.ResourceIndexerDao;
 import org.sonar.core.resource.ResourceKeyUpdaterDao;
 import org.sonar.core.timemachine.Periods;
+import org.sonar.core.user.AuthorizationDao;
 import org.sonar.server.configuration.Backup;
 import org.sonar.server.configuration.ProfilesManager;
 import org.sonar.server.db.migrations.DatabaseMigrator;
@@ -77,6 +79,9 @@ import org.sonar.updatecenter.common.Version;
 
 import javax.annotation.Nullable;
 
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.net.InetAddress;
 import java.sql.Connection;
 import java.util.Collection;
@@ -437,12 +442,20 @@ public final class JRubyFacade {
   public void deleteResourceTree(long rootProjectId) {
     try {
       get(PurgeDao.class).deleteResourceTree(rootProjectId);
+      get(AuthorizationDao.class).clearCache();
     } catch (RuntimeException e) {
       LoggerFactory.getLogger(JRubyFacade.class).error("Fail to delete resource with ID: " + rootProjectId, e);
       throw e;
     }
   }
 
+  /**
+   * Used by Rails models which change permissions or members of groups
+   */
+  public void clearAuthorizationCache() {
+    get(AuthorizationDao.class).clearCache();
+  }
+
   public void logError(String message) {
     LoggerFactory.getLogger(getClass()).error(message);
   }
@@ -501,6 +514,16 @@ public final class JRubyFacade {
     return get(PreviewCache.class).getDatabaseForPreview(projectId);
   }
 
+  /**
+   * The export is written to the response while sources are read from database. It is buffered in order to limit
+   * the number of chunks written by the Rails response.
+   */
+  public void exportSourcesForPreview(long rootProjectId, OutputStream output) throws IOException {
+    BufferedOutputStream buffer = new BufferedOutputStream(output, 64 * 1024);
+    get(PreviewSources.class).export(rootProjectId, buffer);
+    buffer.flush();
+  }
+
   public String getPeriodLabel(int periodIndex) {
     return get(Periods.class).label(periodIndex);
   }
@@ -35,6 +35,23 @@ class BatchBootstrapController < Api::ApiController
     send_data String.from_java_bytes(db_content)
   end
 
+  # GET /batch_bootstrap/sources?project=<key or id>
+  # Sources of the last analysis of all the files of the project, used by preview analysis to track issues.
+  # Since 4.1
+  def sources
+    has_dryrun_role = has_role?('dryRunScan')
+    return render_unauthorized("You're not authorized to execute a dry run analysis. Please contact your SonarQube administrator.") if !has_dryrun_role
+    project = load_project()
+    return render_not_found('Project not found') unless project
+    return render_unauthorized("You're not authorized to access to the sources of project '" + project.name + "', please contact your SonarQube administrator") if !has_role?(:codeviewer, project)
+
+    # the export is streamed, so that the sources of large projects are not loaded in memory
+    project_id = project.id
+    render :content_type => 'application/octet-stream', :text => proc { |response, output|
+      java_facade.exportSourcesForPreview(project_id, ResponseOutputStream.new(output))
+    }
+  end
+
   # PUT /batch_bootstrap/evict?project=<key or id>
   def evict
     has_scan_role = has_role?('scan')
@@ -97,6 +114,25 @@ class BatchBootstrapController < Api::ApiController
 
   private
 
+  # Java output stream writing to the body of a streamed response
+  class ResponseOutputStream < Java::JavaIo::OutputStream
+    def initialize(output)
+      super()
+      @output = output
+    end
+
+    # implements write(int), write(byte[]) and write(byte[], int, int)
+    def write(*args)
+      if args[0].is_a?(Integer)
+        @output.write((args[0] & 0xff).chr)
+      elsif args.size == 3
+        @output.write(String.from_java_bytes(java.util.Arrays.copyOfRange(args[0], args[1], args[1] + args[2])))
+      else
+        @output.write(String.from_java_bytes(args[0]))
+      end
+    end
+  end
+
   def render_unauthorized(message, status=403)
     respond_to do |format|
       format.json { render :text => message, :status => status }
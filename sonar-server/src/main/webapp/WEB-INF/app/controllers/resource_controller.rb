@@ -118,7 +118,12 @@ class ResourceController < ApplicationController
     @expanded=(params[:expand]=='true')
     @display_manual_violation_form=(current_user && has_role?(:user, @snapshot))
 
-    panel = get_html_source_panel(@snapshot, {:display_scm => true})
+    # only the displayed lines are decorated when a range of lines is requested
+    from_line = params[:from_line].to_i
+    to_line = params[:to_line].to_i
+    @line_range = from_line..to_line if from_line>0 && to_line>=from_line
+
+    panel = get_html_source_panel(@snapshot, {:display_scm => true, :line_range => @line_range})
     @lines = panel.html_lines unless panel.nil?
     @scm_available=panel.display_scm unless panel.nil?
   end
@@ -145,7 +150,7 @@ class ResourceController < ApplicationController
 
       @testable = java_facade.testable(@snapshot.id)
       @hits_by_line.each_pair do |line_id, hits|
-        line = @lines[line_id-1]
+        line = line_at(line_id)
         if line
           line.index = line_id
           line.covered_lines = @testable ? @testable.countTestCasesOfLine(line_id) : 0
@@ -159,7 +164,7 @@ class ResourceController < ApplicationController
         # TODO remove this code when branch_coverage_hits_data is fully removed from CoreMetrics
         deprecated_branches_by_line = load_distribution(@snapshot, "#{it_prefix}branch_coverage_hits_data")
         deprecated_branches_by_line.each_pair do |line_id, label|
-          line = @lines[line_id-1]
+          line = line_at(line_id)
           if line
             line.deprecated_conditions_label = label
           end
@@ -330,9 +335,11 @@ class ResourceController < ApplicationController
     @issue_results = Api.issues.find(@issues_query_params)
     @issue_results.issues.each do |issue|
       # sorted by severity => from blocker to info
-      if @lines && issue.line && issue.line>0 && issue.line<=@lines.size
-        @lines[issue.line-1].add_issue(issue)
-      else
+      line = line_at(issue.line) if @lines && issue.line && issue.line>0
+      if line
+        line.add_issue(issue)
+      elsif @line_range.nil? || issue.line.nil? || issue.line<=0
+        # issues of the lines out of the displayed range are not displayed
         @global_issues<<issue
       end
     end
@@ -349,6 +356,12 @@ class ResourceController < ApplicationController
   end
 
 
+  # the lines start at the first line of the displayed range
+  def line_at(line_id)
+    index = line_id - (@line_range ? @line_range.min : 1)
+    @lines[index] if index>=0 && index<@lines.size
+  end
+
   def filter_lines_by_date
     if @period && @snapshot.period_datetime(@period)
       @filtered=@scm_available
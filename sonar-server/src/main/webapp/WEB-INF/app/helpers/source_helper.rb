@@ -73,10 +73,17 @@ module SourceHelper
       end
 
       panel.html_lines=[]
-      html_source_lines = snapshot.highlighted_source_lines || snapshot.source.syntax_highlighted_lines()
+      # only the displayed lines are decorated when a range is requested
+      first_line=1
+      if options[:line_range] && (html_source_lines = snapshot.highlighted_source_lines(sanitize_range(options[:line_range], nil)))
+        first_line=[options[:line_range].min, 1].max
+      else
+        html_source_lines = snapshot.highlighted_source_lines || snapshot.source.syntax_highlighted_lines()
+      end
       line_range=sanitize_range(options[:line_range], 1..html_source_lines.length)
 
-      html_source_lines.each_with_index do |source, index|
+      html_source_lines.each_with_index do |source, i|
+        index=first_line-1+i
         if line_range.include?(index+1)
           html_line=HtmlLine.new(source, index+1)
           html_line.revision=revisions_by_line[index+1]
@@ -21,8 +21,9 @@ class Group < ActiveRecord::Base
 
   ANYONE = 'anyone'
 
-  has_and_belongs_to_many :users, :uniq => true
+  has_and_belongs_to_many :users, :uniq => true, :after_add => :clear_authorization_cache, :after_remove => :clear_authorization_cache
   has_many :group_roles, :dependent => :delete_all
+  after_destroy :clear_authorization_cache
   
   validates_presence_of     :name
   validates_length_of       :name,    :within => 1..255
@@ -49,6 +50,10 @@ class Group < ActiveRecord::Base
     name.downcase<=>other.name.downcase
   end
 
+  def clear_authorization_cache(user=nil)
+    Java::OrgSonarServerUi::JRubyFacade.getInstance().clearAuthorizationCache()
+  end
+
   def name_cant_be_anyone
     errors.add(:name, 'cannot be "Anyone" as this is a reserved group name.') if name && name.downcase == ANYONE
   end
@@ -34,5 +34,6 @@ class GroupRole < ActiveRecord::Base
         GroupRole.create(:group_id => group_id, :role => role, :resource_id => resource_id)
       end
     end
+    Java::OrgSonarServerUi::JRubyFacade.getInstance().clearAuthorizationCache()
   end  
 end
@@ -54,6 +54,7 @@ class Server
     add_property(system_statistics, 'Loaded Classes (currently/total/unloaded)') {"#{java.lang.management.ManagementFactory.getClassLoadingMXBean().getLoadedClassCount()} / #{java.lang.management.ManagementFactory.getClassLoadingMXBean().getTotalLoadedClassCount()} / #{java.lang.management.ManagementFactory.getClassLoadingMXBean().getUnloadedClassCount()}"}
     add_property(system_statistics, 'Start Time') {"#{format_date(java.util.Date.new(java.lang.management.ManagementFactory.getRuntimeMXBean().getStartTime()))}"}
     add_property(system_statistics, 'Threads (total/peak/daemon)') {"#{java.lang.management.ManagementFactory.getThreadMXBean().getThreadCount()} / #{java.lang.management.ManagementFactory.getThreadMXBean().getPeakThreadCount()} / #{java.lang.management.ManagementFactory.getThreadMXBean().getDaemonThreadCount() }" }
+    add_property(system_statistics, 'Authorization Cache (hits/misses)') {authorization_cache_statistics()}
     system_statistics
   end
 
@@ -133,6 +134,11 @@ class Server
     end
   end
 
+  def authorization_cache_statistics
+    authorization_dao = Api::Utils.java_facade.getCoreComponentByClassname('org.sonar.core.user.AuthorizationDao')
+    "#{authorization_dao.getCacheHits()} / #{authorization_dao.getCacheMisses()}"
+  end
+
   def jdbc_metadata
     @metadata ||=
       begin
@@ -251,8 +251,12 @@ class Snapshot < ActiveRecord::Base
       end
   end
 
-  def highlighted_source_lines
-    Internal.text.highlightedSourceLines(id)
+  def highlighted_source_lines(line_range=nil)
+    if line_range
+      Internal.text.highlightedSourceLines(id, line_range.min, line_range.max)
+    else
+      Internal.text.highlightedSourceLines(id)
+    end
   end
 
   def has_source
@@ -23,7 +23,7 @@ class User < ActiveRecord::Base
 
   FAVOURITE_PROPERTY_KEY='favourite'
 
-  has_and_belongs_to_many :groups
+  has_and_belongs_to_many :groups, :after_add => :clear_authorization_cache, :after_remove => :clear_authorization_cache
 
   has_many :user_roles, :dependent => :delete_all
   has_many :properties, :foreign_key => 'user_id', :dependent => :delete_all
@@ -208,6 +208,10 @@ class User < ActiveRecord::Base
     Java::OrgSonarServerUi::JRubyFacade.getInstance().onNewUser({'login' => self.login, 'name' => self.name, 'email' => self.email})
   end
 
+  def clear_authorization_cache(group=nil)
+    Java::OrgSonarServerUi::JRubyFacade.getInstance().clearAuthorizationCache()
+  end
+
   # Need to overwrite Authentication::ByPassword#password_required? for SONAR-4064  
   def password_required?
     (crypted_password.blank? && self.new_record?) || !password.blank?
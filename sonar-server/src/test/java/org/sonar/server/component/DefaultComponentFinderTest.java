@@ -21,18 +21,31 @@
 package org.sonar.server.component;
 
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 import org.sonar.api.component.Component;
 import org.sonar.api.resources.Project;
+import org.sonar.core.resource.ProjectQuery;
+import org.sonar.core.resource.ResourceDao;
 
 import java.util.Iterator;
 import java.util.List;
 
 import static com.google.common.collect.Lists.newArrayList;
 import static org.fest.assertions.Assertions.assertThat;
+import static org.fest.assertions.Fail.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
 
 public class DefaultComponentFinderTest {
 
-  DefaultComponentFinder finder = new DefaultComponentFinder();
+  ResourceDao resourceDao = mock(ResourceDao.class);
+  DefaultComponentFinder finder = new DefaultComponentFinder(resourceDao);
 
   @Test
   public void should_return_all_components_when_no_parameter() {
@@ -126,6 +139,66 @@ public class DefaultComponentFinderTest {
     assertThat(results.components().size()).isEqualTo(3);
   }
 
+  @Test
+  public void should_request_page_of_projects_from_database() {
+    ComponentQuery query = ComponentQuery.builder().keys(newArrayList("org.apache")).names(newArrayList("Apache"))
+      .qualifiers(newArrayList("TRK")).pageSize(2).pageIndex(2).build();
+    List<Component> page = newArrayList(createProject("org.apache.tika:tika", "Apache Tika"));
+    when(resourceDao.countProjects(any(ProjectQuery.class))).thenReturn(3);
+    when(resourceDao.selectProjects(any(ProjectQuery.class), anyInt(), anyInt())).thenReturn(page);
+
+    DefaultComponentQueryResult results = finder.find(query, ProjectQuery.Kind.GHOSTS);
+
+    assertThat(results.components()).hasSize(1);
+    assertThat(results.paging().offset()).isEqualTo(2);
+    assertThat(results.paging().total()).isEqualTo(3);
+    ArgumentCaptor<ProjectQuery> projectQuery = ArgumentCaptor.forClass(ProjectQuery.class);
+    verify(resourceDao).selectProjects(projectQuery.capture(), eq(2), eq(2));
+    assertThat(projectQuery.getValue().getKind()).isEqualTo(ProjectQuery.Kind.GHOSTS);
+    assertThat(projectQuery.getValue().getKeys()).containsOnly("org.apache");
+    assertThat(projectQuery.getValue().getNames()).containsOnly("Apache");
+    assertThat(projectQuery.getValue().getQualifiers()).containsOnly("TRK");
+    assertThat(projectQuery.getValue().getAsc()).isTrue();
+  }
+
+  @Test
+  public void should_request_all_projects_from_database_when_no_pagination() {
+    ComponentQuery query = ComponentQuery.builder().qualifiers(newArrayList("TRK")).pageSize(ComponentQuery.NO_PAGINATION).build();
+
+    DefaultComponentQueryResult results = finder.find(query, ProjectQuery.Kind.COMPLETED);
+
+    assertThat(results.paging()).isNull();
+    verify(resourceDao).selectProjects(any(ProjectQuery.class));
+    verify(resourceDao, never()).countProjects(any(ProjectQuery.class));
+  }
+
+  @Test
+  public void should_not_sort_projects_when_no_order() {
+    ComponentQuery query = ComponentQuery.builder().sort(null).pageSize(ComponentQuery.NO_PAGINATION).build();
+
+    finder.find(query, ProjectQuery.Kind.COMPLETED);
+
+    ArgumentCaptor<ProjectQuery> projectQuery = ArgumentCaptor.forClass(ProjectQuery.class);
+    verify(resourceDao).selectProjects(projectQuery.capture());
+    assertThat(projectQuery.getValue().getAsc()).isNull();
+    assertThat(projectQuery.getValue().getQualifiers()).isEmpty();
+  }
+
+  @Test
+  public void should_fail_to_sort_projects_on_unknown_field() {
+    ComponentQuery query = mock(ComponentQuery.class);
+    when(query.sort()).thenReturn("KEY");
+    when(query.asc()).thenReturn(true);
+
+    try {
+      finder.find(query, ProjectQuery.Kind.COMPLETED);
+      fail();
+    } catch (Exception e) {
+      assertThat(e).isInstanceOf(IllegalArgumentException.class).hasMessage("Cannot sort on field : KEY");
+    }
+    verifyZeroInteractions(resourceDao);
+  }
+
   private Component createProject(String key, String name) {
     return new Project(key, null, name);
   }
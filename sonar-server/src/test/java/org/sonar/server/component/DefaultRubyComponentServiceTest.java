@@ -28,6 +28,7 @@ import org.sonar.api.i18n.I18n;
 import org.sonar.api.resources.Qualifiers;
 import org.sonar.api.resources.Scopes;
 import org.sonar.core.component.ComponentDto;
+import org.sonar.core.resource.ProjectQuery;
 import org.sonar.core.resource.ResourceDao;
 import org.sonar.core.resource.ResourceDto;
 import org.sonar.core.resource.ResourceIndexerDao;
@@ -42,6 +43,7 @@ import static com.google.common.collect.Maps.newHashMap;
 import static org.fest.assertions.Assertions.assertThat;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyListOf;
+import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -167,8 +169,7 @@ public class DefaultRubyComponentServiceTest {
     map.put("asc", true);
 
     componentService.find(map);
-    verify(resourceDao).selectProjectsByQualifiers(anyListOf(String.class));
-    verify(finder).find(any(ComponentQuery.class), anyListOf(Component.class));
+    verify(finder).find(any(ComponentQuery.class), eq(ProjectQuery.Kind.COMPLETED));
   }
 
   @Test
@@ -185,8 +186,7 @@ public class DefaultRubyComponentServiceTest {
     map.put("asc", true);
 
     componentService.findWithUncompleteProjects(map);
-    verify(resourceDao).selectProjectsIncludingNotCompletedOnesByQualifiers(anyListOf(String.class));
-    verify(finder).find(any(ComponentQuery.class), anyListOf(Component.class));
+    verify(finder).find(any(ComponentQuery.class), eq(ProjectQuery.Kind.INCLUDING_NOT_COMPLETED));
   }
 
   @Test
@@ -203,8 +203,7 @@ public class DefaultRubyComponentServiceTest {
     map.put("asc", true);
 
     componentService.findGhostsProjects(map);
-    verify(resourceDao).selectGhostsProjects(anyListOf(String.class));
-    verify(finder).find(any(ComponentQuery.class), anyListOf(Component.class));
+    verify(finder).find(any(ComponentQuery.class), eq(ProjectQuery.Kind.GHOSTS));
   }
 
   @Test
@@ -39,6 +39,7 @@ import org.sonar.server.exceptions.UnauthorizedException;
 import org.sonar.server.user.MockUserSession;
 import org.sonar.server.user.UserSession;
 
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 
@@ -96,9 +97,9 @@ public class IssueBulkChangeServiceTest {
     assertThat(result.issuesChanged()).hasSize(1);
     assertThat(result.issuesNotChanged()).isEmpty();
 
-    verify(issueStorage).save(eq(issue));
+    verify(issueStorage).save(Arrays.asList(issue));
     verifyNoMoreInteractions(issueStorage);
-    verify(issueNotifications).sendChanges(eq(issue), any(IssueChangeContext.class), eq(issueQueryResult));
+    verify(issueNotifications).sendChanges(eq(Arrays.asList(issue)), any(IssueChangeContext.class), eq(issueQueryResult));
     verifyNoMoreInteractions(issueNotifications);
   }
 
@@ -115,9 +116,9 @@ public class IssueBulkChangeServiceTest {
     assertThat(result.issuesChanged()).hasSize(1);
     assertThat(result.issuesNotChanged()).isEmpty();
 
-    verify(issueStorage).save(eq(issue));
+    verify(issueStorage).save(Arrays.asList(issue));
     verifyNoMoreInteractions(issueStorage);
-    verify(issueNotifications, never()).sendChanges(eq(issue), any(IssueChangeContext.class), eq(issueQueryResult));
+    verify(issueNotifications, never()).sendChanges(eq(Arrays.asList(issue)), any(IssueChangeContext.class), eq(issueQueryResult));
     verifyNoMoreInteractions(issueNotifications);
   }
 
@@ -142,7 +143,7 @@ public class IssueBulkChangeServiceTest {
     assertThat(result.issuesNotChanged()).isEmpty();
 
     verify(commentAction).execute(anyMap(), any(IssueBulkChangeService.ActionContext.class));
-    verify(issueStorage).save(eq(issue));
+    verify(issueStorage).save(Arrays.asList(issue));
   }
 
   @Test
@@ -176,7 +177,7 @@ public class IssueBulkChangeServiceTest {
 
     // Only one issue will receive the comment
     verify(assignAction, times(1)).execute(anyMap(), any(IssueBulkChangeService.ActionContext.class));
-    verify(issueStorage).save(eq(issue));
+    verify(issueStorage).save(Arrays.asList(issue));
   }
 
   @Test
@@ -195,12 +196,35 @@ public class IssueBulkChangeServiceTest {
     assertThat(result.issuesChanged()).hasSize(1);
     assertThat(result.issuesNotChanged()).isEmpty();
 
-    verify(issueStorage, times(1)).save(eq(issue));
+    verify(issueStorage, times(1)).save(Arrays.asList(issue));
     verifyNoMoreInteractions(issueStorage);
-    verify(issueNotifications, times(1)).sendChanges(eq(issue), any(IssueChangeContext.class), eq(issueQueryResult));
+    verify(issueNotifications, times(1)).sendChanges(eq(Arrays.asList(issue)), any(IssueChangeContext.class), eq(issueQueryResult));
     verifyNoMoreInteractions(issueNotifications);
   }
 
+  @Test
+  public void should_save_and_notify_by_chunks() {
+    List<Issue> issues = newArrayList();
+    for (int i = 0; i < IssueBulkChangeService.CHUNK_SIZE + 1; i++) {
+      issues.add(new DefaultIssue().setKey("ISSUE-" + i));
+    }
+    when(issueQueryResult.issues()).thenReturn(issues);
+
+    Map<String, Object> properties = newHashMap();
+    properties.put("issues", "ABCD");
+    properties.put("actions", "assign");
+    properties.put("assign.assignee", "fred");
+    actions.add(new MockAction("assign"));
+
+    IssueBulkChangeResult result = service.execute(new IssueBulkChangeQuery(properties, true), userSession);
+    assertThat(result.issuesChanged()).hasSize(IssueBulkChangeService.CHUNK_SIZE + 1);
+
+    verify(issueStorage).save((List) issues.subList(0, IssueBulkChangeService.CHUNK_SIZE));
+    verify(issueStorage).save(Arrays.asList((DefaultIssue) issues.get(IssueBulkChangeService.CHUNK_SIZE)));
+    verify(issueNotifications, times(2)).sendChanges(anyListOf(DefaultIssue.class), any(IssueChangeContext.class), eq(issueQueryResult));
+    verifyNoMoreInteractions(issueStorage, issueNotifications);
+  }
+
   @Test
   public void should_load_issues_from_issue_keys_with_maximum_page_size() {
     Map<String, Object> properties = newHashMap();
@@ -28,6 +28,7 @@ import org.sonar.api.ServerExtension;
 import org.sonar.api.SonarPlugin;
 import org.sonar.api.platform.PluginMetadata;
 import org.sonar.core.plugins.DefaultPluginMetadata;
+import org.sonar.core.plugins.PluginTimings;
 import org.sonar.test.TestUtils;
 
 import java.io.File;
@@ -62,6 +63,7 @@ public class DefaultServerPluginRepositoryTest {
         .setMainClass("org.sonar.plugins.artifactsize.ArtifactSizePlugin")
         .addDeployedFile(pluginFile);
     when(deployer.getMetadata()).thenReturn(Arrays.asList(plugin));
+    when(deployer.getTimings()).thenReturn(new PluginTimings());
 
     repository = new DefaultServerPluginRepository(deployer);
     repository.start();
@@ -91,6 +93,7 @@ public class DefaultServerPluginRepositoryTest {
         newMetadata("sqale", null)
         );
     when(deployer.getMetadata()).thenReturn(metadata);
+    when(deployer.getTimings()).thenReturn(new PluginTimings());
     DefaultServerPluginRepository repository = new DefaultServerPluginRepository(deployer);
 
     repository.disable("checkstyle");
@@ -109,6 +112,7 @@ public class DefaultServerPluginRepositoryTest {
         newMetadata("sqale", null)
         );
     when(deployer.getMetadata()).thenReturn(metadata);
+    when(deployer.getTimings()).thenReturn(new PluginTimings());
     DefaultServerPluginRepository repository = new DefaultServerPluginRepository(deployer);
 
     repository.disable("checkstyle-extensions");
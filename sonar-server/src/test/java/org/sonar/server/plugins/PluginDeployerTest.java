@@ -19,6 +19,7 @@
  */
 package org.sonar.server.plugins;
 
+import org.apache.commons.io.FileUtils;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
@@ -34,7 +35,12 @@ import org.sonar.test.TestUtils;
 import java.io.File;
 
 import static org.fest.assertions.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyBoolean;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 public class PluginDeployerTest {
@@ -83,6 +89,33 @@ public class PluginDeployerTest {
     assertThat(deployedJar).isFile();
   }
 
+  @Test
+  public void should_not_deploy_unchanged_plugin_again() throws Exception {
+    fileSystem.start();
+    deployer.start();
+    File marker = new File(deployDir, "plugins/foo/marker.txt");
+    FileUtils.touch(marker);
+    File obsoleteDeployment = new File(deployDir, "plugins/uninstalled/uninstalled-plugin.jar");
+    FileUtils.touch(obsoleteDeployment);
+
+    // restart
+    fileSystem = new DefaultServerFileSystem(null, homeDir, deployDir);
+    fileSystem.start();
+    PluginInstaller restartedInstaller = spy(new PluginInstaller());
+    PluginDeployer restartedDeployer = new PluginDeployer(server, serverUpgradeStatus, fileSystem, restartedInstaller);
+    restartedDeployer.start();
+
+    assertThat(marker).exists();
+    assertThat(obsoleteDeployment.getParentFile()).doesNotExist();
+    verify(restartedInstaller, never()).extractMetadata(any(File.class), anyBoolean());
+    PluginMetadata plugin = restartedDeployer.getMetadata("foo");
+    assertThat(plugin.getName()).isEqualTo("Foo");
+    assertThat(plugin.getFile()).isEqualTo(new File(homeDir, "extensions/plugins/foo-plugin.jar"));
+    assertThat(plugin.getDeployedFiles()).containsOnly(new File(deployDir, "plugins/foo/foo-plugin.jar"));
+    assertThat(restartedDeployer.getTimings().total("foo")).isGreaterThanOrEqualTo(0L);
+    assertThat(restartedDeployer.getTimings().report()).hasSize(1);
+  }
+
   @Test
   public void deployBundledPluginsOnFreshInstall() {
     when(serverUpgradeStatus.isFreshInstall()).thenReturn(true);
@@ -56,4 +56,11 @@ public class RubyTextServiceTest {
     verify(sourceDecorator, times(1)).getDecoratedSourceAsHtml(123L);
     verifyZeroInteractions(macroInterpreter);
   }
+
+  @Test
+  public void highlightedSourceLinesRange() throws Exception {
+    text.highlightedSourceLines(123L, 10, 20);
+    verify(sourceDecorator, times(1)).getDecoratedSourceAsHtml(123L, 10, 20);
+    verifyZeroInteractions(macroInterpreter);
+  }
 }
@@ -23,6 +23,9 @@ import com.github.kevinsawicki.http.HttpRequest;
 import org.sonar.wsclient.base.HttpException;
 
 import javax.annotation.Nullable;
+
+import java.io.IOException;
+import java.io.Reader;
 import java.util.Map;
 
 /**
@@ -121,6 +124,16 @@ public class HttpRequestFactory {
     return execute(request);
   }
 
+  /**
+   * The response is not buffered but streamed to the handler
+   *
+   * @since 4.1
+   */
+  public <T> T get(String wsUrl, Map<String, Object> queryParams, ResponseHandler<T> handler) {
+    HttpRequest request = prepare(HttpRequest.get(baseUrl + wsUrl, queryParams, true));
+    return execute(request, handler);
+  }
+
   public String post(String wsUrl, Map<String, Object> queryParams) {
     HttpRequest request = prepare(HttpRequest.post(baseUrl + wsUrl, true)).form(queryParams, HttpRequest.CHARSET_UTF8);
     return execute(request);
@@ -132,6 +145,7 @@ public class HttpRequestFactory {
         return request.body(HttpRequest.CHARSET_UTF8);
       }
       // TODO handle error messages
+      discardBody(request);
       throw new HttpException(request.url().toString(), request.code());
 
     } catch (HttpRequest.HttpRequestException e) {
@@ -139,6 +153,45 @@ public class HttpRequestFactory {
     }
   }
 
+  private <T> T execute(HttpRequest request, ResponseHandler<T> handler) {
+    try {
+      if (request.ok()) {
+        Reader reader = request.bufferedReader(HttpRequest.CHARSET_UTF8);
+        try {
+          return handler.handle(reader);
+        } finally {
+          closeQuietly(reader);
+        }
+      }
+      discardBody(request);
+      throw new HttpException(request.url().toString(), request.code());
+
+    } catch (HttpRequest.HttpRequestException e) {
+      throw new IllegalStateException("Fail to request " + request.url(), e.getCause());
+    } catch (IOException e) {
+      throw new IllegalStateException("Fail to read response of " + request.url(), e);
+    }
+  }
+
+  /**
+   * The connection is kept alive and reused by next requests only if the response is fully read
+   */
+  private static void discardBody(HttpRequest request) {
+    try {
+      request.body();
+    } catch (HttpRequest.HttpRequestException e) {
+      // ignored
+    }
+  }
+
+  private static void closeQuietly(Reader reader) {
+    try {
+      reader.close();
+    } catch (IOException e) {
+      // ignored
+    }
+  }
+
   private HttpRequest prepare(HttpRequest request) {
     if (proxyHost != null) {
       request.useProxy(proxyHost, proxyPort);
@@ -160,4 +213,13 @@ public class HttpRequestFactory {
     }
     return request;
   }
+
+  /**
+   * Reads the body of a successful response
+   *
+   * @since 4.1
+   */
+  public interface ResponseHandler<T> {
+    T handle(Reader body) throws IOException;
+  }
 }
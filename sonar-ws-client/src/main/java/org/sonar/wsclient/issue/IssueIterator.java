@@ -0,0 +1,72 @@
+/*
+ * SonarQube, open source software quality management tool.
+ * Copyright (C) 2008-2013 SonarSource
+ * mailto:contact AT sonarsource DOT com
+ *
+ * SonarQube is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * SonarQube is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.wsclient.issue;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Iterates over all the issues matching a query, page after page. Pages are requested with {@link IssueClient#find(IssueQuery)}
+ * by the calling thread, when the issues of the previous page have been consumed. The query is not modified.
+ *
+ * @since 4.1
+ */
+public class IssueIterator implements Iterator<Issue> {
+
+  private static final String PAGE_INDEX = "pageIndex";
+
+  private final IssueClient client;
+  private final IssueQuery query;
+  private int pageIndex;
+  private boolean hasNextPage = true;
+  private Iterator<Issue> currentPage = Collections.<Issue>emptyList().iterator();
+
+  public IssueIterator(IssueClient client, IssueQuery query) {
+    this.client = client;
+    this.query = query;
+    Object firstPageIndex = query.urlParams().get(PAGE_INDEX);
+    this.pageIndex = firstPageIndex == null ? 1 : Integer.parseInt(firstPageIndex.toString());
+  }
+
+  public boolean hasNext() {
+    while (!currentPage.hasNext() && hasNextPage) {
+      IssueQuery pageQuery = IssueQuery.create();
+      pageQuery.urlParams().putAll(query.urlParams());
+      Issues issues = client.find(pageQuery.pageIndex(pageIndex));
+      currentPage = issues.list().iterator();
+      Integer pages = issues.paging().pages();
+      hasNextPage = pages != null && pageIndex < pages;
+      pageIndex++;
+    }
+    return currentPage.hasNext();
+  }
+
+  public Issue next() {
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+    return currentPage.next();
+  }
+
+  public void remove() {
+    throw new UnsupportedOperationException();
+  }
+}
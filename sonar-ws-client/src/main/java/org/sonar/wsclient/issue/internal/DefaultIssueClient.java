@@ -26,6 +26,8 @@ import org.sonar.wsclient.issue.*;
 
 import javax.annotation.Nullable;
 
+import java.io.IOException;
+import java.io.Reader;
 import java.util.List;
 import java.util.Map;
 
@@ -45,8 +47,11 @@ public class DefaultIssueClient implements IssueClient {
   }
 
   public Issues find(IssueQuery query) {
-    String json = requestFactory.get(SEARCH_URL, query.urlParams());
-    return parser.parseIssues(json);
+    return requestFactory.get(SEARCH_URL, query.urlParams(), new HttpRequestFactory.ResponseHandler<Issues>() {
+      public Issues handle(Reader body) throws IOException {
+        return parser.parseIssues(body);
+      }
+    });
   }
 
   @Override
@@ -20,7 +20,11 @@
 package org.sonar.wsclient.issue.internal;
 
 import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
 import org.json.simple.JSONValue;
+import org.json.simple.parser.ContentHandler;
+import org.json.simple.parser.JSONParser;
+import org.json.simple.parser.ParseException;
 import org.sonar.wsclient.base.Paging;
 import org.sonar.wsclient.component.Component;
 import org.sonar.wsclient.issue.BulkChange;
@@ -30,7 +34,11 @@ import org.sonar.wsclient.rule.Rule;
 import org.sonar.wsclient.unmarshallers.JsonUtils;
 import org.sonar.wsclient.user.User;
 
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
 import java.util.ArrayList;
+import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 
@@ -43,74 +51,37 @@ public class IssueJsonParser {
   private static final String TOTAL = "total";
 
   public Issues parseIssues(String json) {
+    try {
+      return parseIssues(new StringReader(json));
+    } catch (IOException e) {
+      throw new IllegalStateException("Fail to read issues", e);
+    }
+  }
+
+  /**
+   * Issues, rules, users, components, projects and action plans are converted as soon as they are read, so that
+   * the whole JSON tree is never loaded in memory.
+   *
+   * @since 4.1
+   */
+  public Issues parseIssues(Reader json) throws IOException {
     DefaultIssues result = new DefaultIssues();
-    Map jsonRoot = (Map) JSONValue.parse(json);
-    List<Map> jsonIssues = (List<Map>) jsonRoot.get(ISSUES);
-    if (jsonIssues != null) {
-      for (Map jsonIssue : jsonIssues) {
-        result.add(new DefaultIssue(jsonIssue));
-      }
+    IssuesHandler handler = new IssuesHandler(result);
+    try {
+      new JSONParser().parse(json, handler);
+    } catch (ParseException e) {
+      throw new IllegalStateException("Fail to parse issues", e);
     }
-    parseRules(result, jsonRoot);
-    parseUsers(result, jsonRoot);
-    parseComponents(result, jsonRoot);
-    parseProjects(result, jsonRoot);
-    parseActionPlans(result, jsonRoot);
-    parsePaging(result, jsonRoot);
+    parsePaging(result, handler.root);
     return result;
   }
 
   private void parsePaging(DefaultIssues result, Map jsonRoot) {
     Map paging = (Map) jsonRoot.get("paging");
-    result.setPaging(new Paging(paging));
+    result.setPaging(new Paging(paging != null ? paging : new JSONObject()));
     result.setMaxResultsReached(JsonUtils.getBoolean(jsonRoot, "maxResultsReached"));
   }
 
-  private void parseProjects(DefaultIssues result, Map jsonRoot) {
-    List<Map> jsonProjects = (List<Map>) jsonRoot.get("projects");
-    if (jsonProjects != null) {
-      for (Map jsonProject : jsonProjects) {
-        result.addProject(new Component(jsonProject));
-      }
-    }
-  }
-
-  private void parseComponents(DefaultIssues result, Map jsonRoot) {
-    List<Map> jsonComponents = (List<Map>) jsonRoot.get("components");
-    if (jsonComponents != null) {
-      for (Map jsonComponent : jsonComponents) {
-        result.addComponent(new Component(jsonComponent));
-      }
-    }
-  }
-
-  private void parseUsers(DefaultIssues result, Map jsonRoot) {
-    List<Map> jsonUsers = (List<Map>) jsonRoot.get("users");
-    if (jsonUsers != null) {
-      for (Map jsonUser : jsonUsers) {
-        result.add(new User(jsonUser));
-      }
-    }
-  }
-
-  private void parseRules(DefaultIssues result, Map jsonRoot) {
-    List<Map> jsonRules = (List<Map>) jsonRoot.get("rules");
-    if (jsonRules != null) {
-      for (Map jsonRule : jsonRules) {
-        result.add(new Rule(jsonRule));
-      }
-    }
-  }
-
-  private void parseActionPlans(DefaultIssues result, Map jsonRoot) {
-    List<Map> jsonRules = (List) jsonRoot.get("actionPlans");
-    if (jsonRules != null) {
-      for (Map jsonRule : jsonRules) {
-        result.add(new DefaultActionPlan(jsonRule));
-      }
-    }
-  }
-
   List<String> parseTransitions(String json) {
     List<String> transitions = new ArrayList<String>();
     Map jRoot = (Map) JSONValue.parse(json);
@@ -159,4 +130,99 @@ public class IssueJsonParser {
 
     return result;
   }
+
+  /**
+   * Builds the JSON values, except the elements of the root arrays, which are converted to issues, rules, etc.
+   * and then dropped.
+   */
+  private static class IssuesHandler implements ContentHandler {
+    private final DefaultIssues result;
+    private final LinkedList<Object> values = new LinkedList<Object>();
+    private final LinkedList<String> keys = new LinkedList<String>();
+    private Map root;
+
+    IssuesHandler(DefaultIssues result) {
+      this.result = result;
+    }
+
+    public void startJSON() {
+      // nothing to do
+    }
+
+    public void endJSON() {
+      // nothing to do
+    }
+
+    public boolean startObject() {
+      values.addFirst(new JSONObject());
+      return true;
+    }
+
+    public boolean endObject() {
+      Object value = values.removeFirst();
+      if (values.isEmpty()) {
+        root = (Map) value;
+      } else {
+        add(value);
+      }
+      return true;
+    }
+
+    public boolean startObjectEntry(String key) {
+      keys.addFirst(key);
+      return true;
+    }
+
+    public boolean endObjectEntry() {
+      keys.removeFirst();
+      return true;
+    }
+
+    public boolean startArray() {
+      values.addFirst(new JSONArray());
+      return true;
+    }
+
+    public boolean endArray() {
+      add(values.removeFirst());
+      return true;
+    }
+
+    public boolean primitive(Object value) {
+      add(value);
+      return true;
+    }
+
+    private void add(Object value) {
+      Object parent = values.getFirst();
+      if (parent instanceof Map) {
+        ((Map) parent).put(keys.getFirst(), value);
+      } else if (values.size() != 2 || !convert(keys.getFirst(), value)) {
+        ((List) parent).add(value);
+      }
+    }
+
+    private boolean convert(String rootKey, Object value) {
+      if (!(value instanceof Map)) {
+        return false;
+      }
+      Map json = (Map) value;
+      if (ISSUES.equals(rootKey)) {
+        result.add(new DefaultIssue(json));
+      } else if ("rules".equals(rootKey)) {
+        result.add(new Rule(json));
+      } else if ("users".equals(rootKey)) {
+        result.add(new User(json));
+      } else if ("components".equals(rootKey)) {
+        result.addComponent(new Component(json));
+      } else if ("projects".equals(rootKey)) {
+        result.addProject(new Component(json));
+      } else if ("actionPlans".equals(rootKey)) {
+        result.add(new DefaultActionPlan(json));
+      } else {
+        return false;
+      }
+      return true;
+    }
+  }
 }
@@ -19,13 +19,17 @@
  */
 package org.sonar.wsclient.internal;
 
+import org.apache.commons.io.IOUtils;
 import org.junit.Rule;
 import org.junit.Test;
 import org.sonar.wsclient.MockHttpServerInterceptor;
+import org.sonar.wsclient.base.HttpException;
 import org.sonar.wsclient.issue.IssueClient;
 import org.sonar.wsclient.issue.IssueQuery;
 import org.sonar.wsclient.issue.internal.DefaultIssueClient;
 
+import java.io.IOException;
+import java.io.Reader;
 import java.net.ConnectException;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
@@ -51,6 +55,37 @@ public class HttpRequestFactoryTest {
     assertThat(httpServer.requestedPath()).isEqualTo("/api/issues");
   }
 
+  @Test
+  public void test_streamed_get() {
+    httpServer.stubStatusCode(200).stubResponseBody("{'issues': []}");
+
+    HttpRequestFactory factory = new HttpRequestFactory(httpServer.url());
+    String json = factory.get("/api/issues", Collections.<String, Object>emptyMap(), new HttpRequestFactory.ResponseHandler<String>() {
+      public String handle(Reader body) throws IOException {
+        return IOUtils.toString(body);
+      }
+    });
+
+    assertThat(json).isEqualTo("{'issues': []}");
+    assertThat(httpServer.requestedPath()).isEqualTo("/api/issues");
+  }
+
+  @Test
+  public void should_throw_http_exception_then_send_next_request() {
+    httpServer.stubStatusCode(500).stubResponseBody("{'errors': []}");
+
+    HttpRequestFactory factory = new HttpRequestFactory(httpServer.url());
+    try {
+      factory.get("/api/issues", Collections.<String, Object>emptyMap());
+      fail();
+    } catch (HttpException e) {
+      assertThat(e.status()).isEqualTo(500);
+    }
+
+    httpServer.stubStatusCode(200).stubResponseBody("{'issues': []}");
+    assertThat(factory.get("/api/issues", Collections.<String, Object>emptyMap())).isEqualTo("{'issues': []}");
+  }
+
   @Test
   public void should_throw_illegal_state_exc_if_connect_exception() {
     HttpRequestFactory factory = new HttpRequestFactory("http://localhost:1");
@@ -22,16 +22,29 @@ package org.sonar.wsclient.issue.internal;
 import org.apache.commons.io.IOUtils;
 import org.junit.Rule;
 import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
 import org.sonar.wsclient.MockHttpServerInterceptor;
 import org.sonar.wsclient.base.HttpException;
 import org.sonar.wsclient.internal.HttpRequestFactory;
 import org.sonar.wsclient.issue.*;
 
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 
 import static org.fest.assertions.Assertions.assertThat;
 import static org.fest.assertions.Fail.fail;
 import static org.fest.assertions.MapAssert.entry;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyMap;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 public class DefaultIssueClientTest {
 
@@ -52,6 +65,43 @@ public class DefaultIssueClientTest {
     assertThat(issues.list().get(0).key()).isEqualTo("ABCDE");
   }
 
+  @Test
+  public void should_iterate_over_pages_of_issues() {
+    HttpRequestFactory requestFactory = mock(HttpRequestFactory.class);
+    when(requestFactory.get(eq("/api/issues/search"), anyMap(), any(HttpRequestFactory.ResponseHandler.class))).thenAnswer(new Answer<Object>() {
+      public Object answer(InvocationOnMock invocation) throws Throwable {
+        Map params = (Map) invocation.getArguments()[1];
+        int pageIndex = (Integer) params.get("pageIndex");
+        String json = "{\"issues\": [{\"key\": \"ISSUE" + pageIndex + "A\"}, {\"key\": \"ISSUE" + pageIndex + "B\"}]," +
+          "\"paging\": {\"pageIndex\": " + pageIndex + ", \"pageSize\": 2, \"total\": 6, \"pages\": 3}}";
+        return ((HttpRequestFactory.ResponseHandler) invocation.getArguments()[2]).handle(new StringReader(json));
+      }
+    });
+
+    IssueClient client = new DefaultIssueClient(requestFactory);
+    IssueQuery query = IssueQuery.create().componentRoots("struts").pageSize(2);
+    Iterator<Issue> issues = new IssueIterator(client, query);
+
+    List<String> keys = new ArrayList<String>();
+    while (issues.hasNext()) {
+      keys.add(issues.next().key());
+    }
+    assertThat(keys).containsExactly("ISSUE1A", "ISSUE1B", "ISSUE2A", "ISSUE2B", "ISSUE3A", "ISSUE3B");
+    verify(requestFactory, times(3)).get(eq("/api/issues/search"), anyMap(), any(HttpRequestFactory.ResponseHandler.class));
+    assertThat(query.urlParams().containsKey("pageIndex")).isFalse();
+  }
+
+  @Test
+  public void should_iterate_over_single_page_of_issues() {
+    HttpRequestFactory requestFactory = new HttpRequestFactory(httpServer.url());
+    httpServer.stubResponseBody("{\"issues\": [{\"key\": \"ABCDE\"}]}");
+
+    Iterator<Issue> issues = new IssueIterator(new DefaultIssueClient(requestFactory), IssueQuery.create());
+
+    assertThat(issues.next().key()).isEqualTo("ABCDE");
+    assertThat(issues.hasNext()).isFalse();
+  }
+
   @Test
   public void should_fail_to_find_issues() {
     HttpRequestFactory requestFactory = new HttpRequestFactory(httpServer.url());
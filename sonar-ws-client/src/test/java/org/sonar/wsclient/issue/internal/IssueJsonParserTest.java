@@ -26,12 +26,36 @@ import org.sonar.wsclient.component.Component;
 import org.sonar.wsclient.issue.*;
 import org.sonar.wsclient.user.User;
 
+import java.io.InputStreamReader;
+import java.io.Reader;
 import java.util.List;
 
 import static org.fest.assertions.Assertions.assertThat;
 
 public class IssueJsonParserTest {
 
+  @Test
+  public void should_stream_issues() throws Exception {
+    Reader json = new InputStreamReader(getClass().getResourceAsStream("/org/sonar/wsclient/issue/internal/IssueJsonParserTest/search.json"), "UTF-8");
+    Issues issues = new IssueJsonParser().parseIssues(json);
+
+    assertThat(issues.list()).hasSize(2);
+    assertThat(issues.list().get(0).key()).isEqualTo("ABCDE");
+    assertThat(issues.list().get(0).attribute("JIRA")).isEqualTo("FOO-1234");
+    assertThat(issues.rules()).hasSize(2);
+    assertThat(issues.rule(issues.list().get(0)).key()).isEqualTo("squid:CycleBetweenPackages");
+    assertThat(issues.paging().total()).isEqualTo(2);
+  }
+
+  @Test
+  public void should_parse_issues_without_paging() throws Exception {
+    Issues issues = new IssueJsonParser().parseIssues("{\"issues\": [{\"key\": \"ABCDE\", \"attr\": {\"JIRA\": \"FOO-1234\"}}]}");
+
+    assertThat(issues.list()).hasSize(1);
+    assertThat(issues.list().get(0).attribute("JIRA")).isEqualTo("FOO-1234");
+    assertThat(issues.paging().pages()).isNull();
+  }
+
   @Test
   public void test_GET_search() throws Exception {
     String json = IOUtils.toString(getClass().getResourceAsStream("/org/sonar/wsclient/issue/internal/IssueJsonParserTest/search.json"));